@@ -10,6 +10,8 @@ import org.jetbrains.intellij.platform.gradle.TestFrameworkType
 import org.jetbrains.intellij.platform.gradle.tasks.VerifyPluginTask
 import org.jetbrains.kotlin.gradle.dsl.JvmTarget
 import org.jetbrains.kotlin.gradle.dsl.KotlinVersion
+import java.io.DataOutputStream
+import java.util.Properties
 
 repositories {
   mavenCentral()
@@ -283,6 +285,74 @@ dependencies {
   )
 }
 
+// Converts the color and icon properties files into the sorted binary tables read by io.flutter.editor.ResourceTable,
+// so that the plugin doesn't parse the properties at runtime.
+val generateResourceTables by tasks.registering {
+  // Maps each properties file (without extension) to whether it lists icons rather than colors.
+  val tables = mapOf(
+    "flutter/colors/material" to false,
+    "flutter/colors/cupertino" to false,
+    "flutter/icons/material" to true,
+  )
+  val resourcesDir = file("resources")
+  val outputDir = layout.buildDirectory.dir("generated/resourceTables")
+  inputs.files(tables.keys.map { resourcesDir.resolve("$it.properties") })
+  outputs.dir(outputDir)
+
+  doLast {
+    for ((table, isIcons) in tables) {
+      val properties = Properties()
+      resourcesDir.resolve("$table.properties").inputStream().use { properties.load(it) }
+
+      // Maps each name to its value, and each value to its preferred name. Icons are listed as
+      // "<name>=material/<name>.png" and "<hex codepoint>.codepoint=<name>"; aliases of an icon share its image, but
+      // only one name is listed for each codepoint, so icons without a listed codepoint get -1.
+      val entries = sortedMapOf<String, Int>()
+      val preferred = sortedMapOf<Int, String>()
+      if (isIcons) {
+        for (key in properties.stringPropertyNames().filter { !it.endsWith(".codepoint") }) {
+          if (properties.getProperty(key) != "material/$key.png") {
+            throw GradleException("Unexpected image for icon $key in $table.properties")
+          }
+          entries[key] = -1
+        }
+        for (key in properties.stringPropertyNames().filter { it.endsWith(".codepoint") }) {
+          val name = properties.getProperty(key)
+          val codepoint = key.removeSuffix(".codepoint").toInt(16)
+          if (entries[name] == null) {
+            throw GradleException("Missing image for icon $name in $table.properties")
+          }
+          entries[name] = codepoint
+          preferred[codepoint] = name
+        }
+      } else {
+        // A color's preferred name is the last one with its value in the properties' iteration order, as in
+        // ResourceTable.fromProperties, which is the name the plugin has always shown.
+        for ((key, value) in properties.entries) {
+          value.toString().toLongOrNull(16)?.let {
+            entries[key.toString()] = it.toInt()
+            preferred[it.toInt()] = key.toString()
+          }
+        }
+      }
+
+      val names = entries.keys.toList()
+      val output = outputDir.get().file("$table.table").asFile
+      output.parentFile.mkdirs()
+      DataOutputStream(output.outputStream().buffered()).use { out ->
+        out.writeInt(names.size)
+        names.forEach { out.writeUTF(it) }
+        entries.values.forEach { out.writeInt(it) }
+        out.writeInt(preferred.size)
+        for ((value, name) in preferred) {
+          out.writeInt(value)
+          out.writeInt(names.binarySearch(name))
+        }
+      }
+    }
+  }
+}
+
 sourceSets {
   main {
     java.srcDirs(
@@ -298,6 +368,7 @@ sourceSets {
         "resources"
       )
     )
+    resources.srcDir(generateResourceTables)
   }
   test {
     java.srcDirs(
@@ -390,7 +390,7 @@ public class FlutterUtils {
   }
 
   @Nullable
-  private static Map<String, Object> readPubspecFileToMap(@NotNull final VirtualFile pubspec) throws IOException {
+  public static Map<String, Object> readPubspecFileToMap(@NotNull final VirtualFile pubspec) throws IOException {
     final String contents = new String(pubspec.contentsToByteArray(true /* cache contents */));
     return loadPubspecInfo(contents);
   }
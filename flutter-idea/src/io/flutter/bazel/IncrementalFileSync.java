@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.bazel;
+
+import com.intellij.execution.ExecutionException;
+import com.intellij.execution.configurations.GeneralCommandLine;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import io.flutter.FlutterUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a workspace's sync script for the files modified since the previous sync.
+ * <p>
+ * The modified files are passed to the script as arguments, one per file, each a path relative to the workspace root
+ * using '/' separators. Run without arguments, the script syncs everything. That is done until a sync of the whole
+ * workspace has succeeded, and again after any sync fails.
+ * <p>
+ * Scripts written before the arguments were passed may ignore them, which also syncs everything, or fail on them. If a
+ * sync of just the modified files fails, the script is run again without arguments, and if that succeeds, it's always
+ * run without arguments from then on.
+ * <p>
+ * Syncs run asynchronously and one at a time; syncs requested while another is running are combined into one that
+ * starts once it finishes.
+ */
+public class IncrementalFileSync {
+  private static final @NotNull Logger LOG = Logger.getInstance(IncrementalFileSync.class);
+
+  /**
+   * Past this many files, the script is run without arguments, which syncs everything.
+   */
+  static final int MAX_FILES_PER_SYNC = 500;
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private final @NotNull String root;
+  private final @NotNull String script;
+  private final @NotNull List<String> sourceRoots;
+
+  private final Set<String> modifiedFiles = new LinkedHashSet<>();
+
+  /**
+   * Whether the files tracked in {@link #modifiedFiles} can't be relied on, because no sync of the whole workspace has
+   * succeeded yet or a sync has failed since.
+   * <p>
+   * This and the futures below should be accessed while synchronized on this.
+   */
+  private boolean needsFullSync = true;
+  /**
+   * Whether the script can be given the modified files; false once it has failed with them but succeeded without.
+   */
+  private boolean acceptsFiles = true;
+  private @Nullable CompletableFuture<Result> running;
+  private @Nullable CompletableFuture<Result> next;
+
+  /**
+   * @param root        the workspace root; the script is run in this directory
+   * @param script      the path of the sync script
+   * @param sourceRoots the source roots to track, relative to the workspace root; if empty, the whole workspace is
+   *                    tracked
+   */
+  public IncrementalFileSync(@NotNull String root, @NotNull String script, @NotNull Collection<String> sourceRoots) {
+    this.root = FileUtil.toSystemIndependentName(root);
+    this.script = script;
+    this.sourceRoots = List.copyOf(sourceRoots);
+  }
+
+  @NotNull
+  public String getRoot() {
+    return root;
+  }
+
+  @NotNull
+  public String getScript() {
+    return script;
+  }
+
+  @NotNull
+  public List<String> getSourceRoots() {
+    return sourceRoots;
+  }
+
+  /**
+   * Record that a file was modified; files outside the source roots and in the build's output directories are ignored.
+   */
+  public void fileModified(@NotNull String path) {
+    final String relativePath = FileUtil.getRelativePath(root, FileUtil.toSystemIndependentName(path), '/');
+    if (relativePath == null || relativePath.startsWith("..") || relativePath.equals(".")) {
+      return;
+    }
+    if (!isInSourceRoot(relativePath) || isOutputPath(relativePath)) {
+      return;
+    }
+    synchronized (modifiedFiles) {
+      modifiedFiles.add(relativePath);
+    }
+  }
+
+  private boolean isInSourceRoot(@NotNull String relativePath) {
+    if (sourceRoots.isEmpty()) {
+      return true;
+    }
+    for (String sourceRoot : sourceRoots) {
+      if (relativePath.equals(sourceRoot) || relativePath.startsWith(sourceRoot + "/")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether a path is in one of the build's output directories, which are linked from the workspace root as bazel-out,
+   * bazel-bin and so on, or blaze-* in a Blaze workspace.
+   */
+  static boolean isOutputPath(@NotNull String relativePath) {
+    return relativePath.startsWith("bazel-") || relativePath.startsWith("blaze-");
+  }
+
+  /**
+   * Sync the files modified since the last sync; the returned future never completes exceptionally.
+   * <p>
+   * If a sync is running, the returned future completes with the result of the sync that follows it, which every
+   * request made in the meantime shares.
+   */
+  @NotNull
+  public synchronized CompletableFuture<Result> sync() {
+    if (next != null) {
+      return next;
+    }
+    if (running != null && !running.isDone()) {
+      // Async, so that this runs after next is set even if the running sync has just finished.
+      next = running.thenComposeAsync((ignored) -> {
+        synchronized (this) {
+          next = null;
+          return start();
+        }
+      });
+      return next;
+    }
+    return start();
+  }
+
+  @NotNull
+  private CompletableFuture<Result> start() {
+    assert Thread.holdsLock(this);
+
+    final List<String> files;
+    synchronized (modifiedFiles) {
+      files = new ArrayList<>(modifiedFiles);
+      modifiedFiles.clear();
+    }
+    final boolean full = needsFullSync || !acceptsFiles || files.size() > MAX_FILES_PER_SYNC;
+    if (!full && files.isEmpty()) {
+      return CompletableFuture.completedFuture(new Result(0, 0, true));
+    }
+
+    final long startTime = System.currentTimeMillis();
+    running = run(full ? List.of() : files)
+      .thenCompose((succeeded) -> {
+        if (succeeded || full) {
+          return CompletableFuture.completedFuture(succeeded);
+        }
+        // The script may not take file arguments; syncing everything gets the files synced anyway.
+        LOG.info("Syncing modified files failed; syncing all files");
+        return run(List.of()).thenApply((fullSucceeded) -> {
+          if (fullSucceeded) {
+            synchronized (this) {
+              acceptsFiles = false;
+            }
+          }
+          return fullSucceeded;
+        });
+      })
+      .thenApply((succeeded) -> {
+        synchronized (this) {
+          // After a failure, some of these files may have been synced and others not; sync everything next time.
+          needsFullSync = !succeeded;
+        }
+        return new Result(files.size(), System.currentTimeMillis() - startTime, succeeded);
+      });
+    return running;
+  }
+
+  /**
+   * Runs the script with the given files, or without arguments to sync everything; the returned future completes with
+   * whether the script succeeded, and never completes exceptionally.
+   */
+  @NotNull
+  private CompletableFuture<Boolean> run(@NotNull List<String> files) {
+    final GeneralCommandLine commandLine = new GeneralCommandLine().withWorkDirectory(root);
+    commandLine.setCharset(StandardCharsets.UTF_8);
+    commandLine.setExePath(FileUtil.toSystemDependentName(script));
+    commandLine.addParameters(files);
+
+    final Process process;
+    try {
+      process = commandLine.toProcessBuilder()
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start();
+    }
+    catch (ExecutionException | IOException e) {
+      FlutterUtils.warn(LOG, "Unable to sync files: " + e);
+      return CompletableFuture.completedFuture(false);
+    }
+
+    return process.onExit()
+      .orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+      .handle((exited, throwable) -> {
+        if (throwable != null) {
+          process.destroyForcibly();
+          FlutterUtils.warn(LOG, "Syncing files timed out");
+          return false;
+        }
+        if (exited.exitValue() != 0) {
+          FlutterUtils.warn(LOG, "Syncing files failed with exit code " + exited.exitValue());
+          return false;
+        }
+        return true;
+      });
+  }
+
+  public static class Result {
+    public final int fileCount;
+    public final long durationMillis;
+    public final boolean succeeded;
+
+    Result(int fileCount, long durationMillis, boolean succeeded) {
+      this.fileCount = fileCount;
+      this.durationMillis = durationMillis;
+      this.succeeded = succeeded;
+    }
+  }
+}
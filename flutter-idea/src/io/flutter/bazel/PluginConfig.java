@@ -206,6 +206,10 @@ public class PluginConfig {
 
     /**
      * The script to run to start 'flutter sync'
+     * <p>
+     * Before a hot reload, it's run with the files modified since the last sync as arguments, relative to the
+     * workspace root. Run without arguments, it should sync the whole workspace; a script that ignores the arguments
+     * does that every time.
      */
     @SerializedName("syncScript")
     private String syncScript;
@@ -171,6 +171,8 @@ public class Workspace {
 
   /**
    * Returns the script that starts 'flutter sync', or null if not configured.
+   * <p>
+   * See {@link IncrementalFileSync} for the arguments it's run with.
    */
   @Nullable
   public String getSyncScript() {
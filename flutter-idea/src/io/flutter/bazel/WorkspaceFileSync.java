@@ -0,0 +1,147 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.bazel;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import io.flutter.utils.OpenApiUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks the files modified in the project's Bazel workspace, so that only those are synced before a hot reload.
+ */
+public class WorkspaceFileSync implements Disposable {
+  private final @NotNull Project project;
+  private @Nullable IncrementalFileSync sync;
+
+  @NotNull
+  public static WorkspaceFileSync getInstance(@NotNull Project project) {
+    return Objects.requireNonNull(project.getService(WorkspaceFileSync.class));
+  }
+
+  private WorkspaceFileSync(@NotNull Project project) {
+    this.project = project;
+
+    ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        final IncrementalFileSync current = getSync();
+        if (current == null) {
+          return;
+        }
+        for (VFileEvent event : events) {
+          fileModified(current, event);
+        }
+      }
+    });
+    // Files in new source roots weren't tracked, so when the roots change, start over with a full sync.
+    project.getMessageBus().connect(this).subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+      @Override
+      public void rootsChanged(@NotNull ModuleRootEvent event) {
+        sourceRootsChanged();
+      }
+    });
+  }
+
+  /**
+   * Records the files that an event changes the contents of, or creates, deletes or moves.
+   */
+  private static void fileModified(@NotNull IncrementalFileSync sync, @NotNull VFileEvent event) {
+    if (event instanceof VFileContentChangeEvent) {
+      sync.fileModified(event.getPath());
+    }
+    else if (event instanceof VFileCreateEvent createEvent) {
+      if (!createEvent.isDirectory()) {
+        sync.fileModified(event.getPath());
+      }
+    }
+    else if (event instanceof VFileDeleteEvent deleteEvent) {
+      if (!deleteEvent.getFile().isDirectory()) {
+        sync.fileModified(event.getPath());
+      }
+    }
+    else if (event instanceof VFileMoveEvent moveEvent) {
+      if (!moveEvent.getFile().isDirectory()) {
+        sync.fileModified(moveEvent.getOldPath());
+        sync.fileModified(moveEvent.getNewPath());
+      }
+    }
+  }
+
+  /**
+   * Runs the workspace's sync script for the files modified since the last sync.
+   * <p>
+   * The returned future completes with the sync's result, or null if the project has no sync script; it never
+   * completes exceptionally.
+   */
+  @NotNull
+  public CompletableFuture<IncrementalFileSync.Result> syncModifiedFiles() {
+    final IncrementalFileSync current = getSync();
+    return current == null ? CompletableFuture.completedFuture(null) : current.sync();
+  }
+
+  @Nullable
+  private synchronized IncrementalFileSync getSync() {
+    final Workspace workspace = WorkspaceCache.getInstance(project).get();
+    if (workspace == null || workspace.getSyncScript() == null) {
+      sync = null;
+      return null;
+    }
+
+    final String root = workspace.getRoot().getPath();
+    final String script = root + "/" + workspace.getSyncScript();
+    if (sync == null || !sync.getRoot().equals(root) || !sync.getScript().equals(script)) {
+      sync = new IncrementalFileSync(root, script, getSourceRoots(workspace));
+    }
+    return sync;
+  }
+
+  /**
+   * Returns the content roots of the project's modules, relative to the workspace root.
+   */
+  @NotNull
+  private Set<String> getSourceRoots(@NotNull Workspace workspace) {
+    final Set<String> result = new TreeSet<>();
+    for (Module module : OpenApiUtils.getModules(project)) {
+      result.addAll(workspace.getContentPaths(module));
+    }
+    return result;
+  }
+
+  private synchronized void sourceRootsChanged() {
+    final Workspace workspace = WorkspaceCache.getInstance(project).get();
+    if (sync != null && (workspace == null || !sync.getSourceRoots().equals(List.copyOf(getSourceRoots(workspace))))) {
+      sync = null;
+    }
+  }
+
+  private synchronized void reset() {
+    sync = null;
+  }
+
+  @Override
+  public void dispose() {
+    reset();
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.console;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import io.flutter.pub.PackageConfigService;
+import io.flutter.pub.PubRoot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the file lookups done by {@link FlutterConsoleFilter}, which sees every line of console output.
+ * <p>
+ * Found files are kept in an LRU cache. Paths that weren't found are remembered too, until the next VFS event that
+ * could create a file; build output mentions the same few missing paths over and over.
+ */
+public class ConsoleFileCache implements Disposable {
+  static final int MAX_ENTRIES = 2000;
+
+  private static final Object MISSING = new Object();
+
+  private final @NotNull Project project;
+
+  /**
+   * Maps paths to their {@link VirtualFile}, or to {@link #MISSING}; access ordered, for LRU eviction.
+   */
+  private final Map<String, Object> files = new LinkedHashMap<>(64, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  private int lookupCount;
+
+  @NotNull
+  public static ConsoleFileCache getInstance(@NotNull Project project) {
+    return Objects.requireNonNull(project.getService(ConsoleFileCache.class));
+  }
+
+  public ConsoleFileCache(@NotNull Project project) {
+    this.project = project;
+    ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        boolean pathsChanged = false;
+        for (VFileEvent event : events) {
+          if (!(event instanceof VFileContentChangeEvent)) {
+            pathsChanged = true;
+          }
+        }
+        // A created, copied, moved or renamed file may exist at a path we've remembered as missing.
+        // (Found files are checked for deletes and moves when they're looked up.)
+        if (pathsChanged) {
+          clearMissing();
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the existing file at the given absolute path, or null.
+   */
+  @Nullable
+  public VirtualFile findFile(@NotNull String path) {
+    synchronized (files) {
+      final Object cached = files.get(path);
+      if (cached == MISSING) {
+        return null;
+      }
+      if (cached != null) {
+        final VirtualFile file = (VirtualFile)cached;
+        if (file.isValid() && file.getPath().equals(path)) {
+          return file;
+        }
+      }
+    }
+
+    final VirtualFile file = LocalFileSystem.getInstance().findFileByPath(path);
+    final VirtualFile found = file != null && file.exists() ? file : null;
+    synchronized (files) {
+      lookupCount++;
+      files.put(path, found == null ? MISSING : found);
+    }
+    return found;
+  }
+
+  /**
+   * Returns the lib directory path for each package used by the given pub root.
+   */
+  @NotNull
+  public Map<String, String> getPackagesMap(@NotNull VirtualFile dir) {
+    final PubRoot pubRoot = PubRoot.forDirectory(dir);
+    final Map<String, String> map = pubRoot == null ? null : PackageConfigService.getInstance(project).getPackagesMap(pubRoot);
+    return map == null ? Collections.emptyMap() : map;
+  }
+
+  /**
+   * The number of lookups that missed the cache.
+   */
+  int getLookupCount() {
+    synchronized (files) {
+      return lookupCount;
+    }
+  }
+
+  private void clearMissing() {
+    synchronized (files) {
+      files.values().removeIf((value) -> value == MISSING);
+    }
+  }
+
+  void clear() {
+    synchronized (files) {
+      files.clear();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    clear();
+  }
+}
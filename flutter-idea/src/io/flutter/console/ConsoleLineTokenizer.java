@@ -0,0 +1,298 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.console;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the file references in a line of console output in a single pass over the line.
+ * <p>
+ * Recognized references are:
+ * <p>
+ * - the path after "Launching " or "open ", e.g. "Launching lib/main.dart"
+ * - parenthesized locations, e.g. "MyApp.build (lib/main.dart:6)" or "main (package:app/main.dart:12:3)"
+ * - bare file:, package: and dart: URIs, optionally followed by a "line:column" word
+ * - compiler errors, e.g. "lib/main.dart:104:73: Error: Expected ';' after this."
+ */
+class ConsoleLineTokenizer {
+  enum Kind {
+    /**
+     * A path relative to a content root.
+     */
+    RELATIVE,
+    /**
+     * An absolute path, from a file: URI.
+     */
+    ABSOLUTE,
+    /**
+     * A package: URI; the path is the part after "package:", e.g. "flutter/src/widgets/framework.dart".
+     */
+    PACKAGE,
+    /**
+     * A dart: URI; the path is the part after "dart:", e.g. "core/list.dart".
+     */
+    DART
+  }
+
+  static class Token {
+    final @NotNull Kind kind;
+    final @NotNull String path;
+
+    /**
+     * The 1-based line and column of the reference, or -1 if not given.
+     */
+    final int line;
+    final int column;
+
+    /**
+     * The range of the line to highlight.
+     */
+    final int start;
+    final int end;
+
+    Token(@NotNull Kind kind, @NotNull String path, int line, int column, int start, int end) {
+      this.kind = kind;
+      this.path = path;
+      this.line = line;
+      this.column = column;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public String toString() {
+      return kind + " " + path + ":" + line + ":" + column + " [" + start + "," + end + ")";
+    }
+  }
+
+  private ConsoleLineTokenizer() {
+  }
+
+  /**
+   * Returns the candidate references in the line, most likely first.
+   */
+  @NotNull
+  static List<Token> tokenize(@NotNull String line) {
+    List<Token> tokens = null;
+
+    final int length = line.length();
+    int wordStart = skipWhitespace(line, 0);
+    final int firstWordStart = wordStart;
+
+    // "lib/registerC.dart:104:73: Error: Expected ';' after this."
+    final Token error = findCompilerError(line, firstWordStart);
+
+    // "Launching lib/main.dart" or "open ios/Runner.xcworkspace"
+    if (line.startsWith("Launching ", wordStart) || line.startsWith("open ", wordStart)) {
+      final int pathStart = skipWhitespace(line, line.indexOf(' ', wordStart));
+      final int pathEnd = wordEnd(line, pathStart);
+      if (pathEnd > pathStart) {
+        tokens = add(tokens, classify(line, pathStart, pathEnd, pathStart, pathEnd, false));
+      }
+    }
+
+    while (wordStart < length) {
+      final int wordEnd = wordEnd(line, wordStart);
+
+      Token token = null;
+      if (line.charAt(wordStart) == '(' && line.charAt(wordEnd - 1) == ')' && wordEnd - wordStart > 2) {
+        // "(lib/main.dart:49)" or "(package:flutter/src/widgets/framework.dart:4:7)"
+        token = classify(line, wordStart + 1, wordEnd - 1, wordStart + 1, wordEnd - 1, true);
+      }
+      else if (startsWithUri(line, wordStart) && (error == null || wordStart != firstWordStart)) {
+        // "package:test_api/src/backend/invoker.dart 215:19  Invoker.waitForOutstandingCallbacks"
+        final int nextStart = skipWhitespace(line, wordEnd);
+        final int nextEnd = wordEnd(line, nextStart);
+        final long location = nextEnd > nextStart ? parseLocation(line, nextStart, nextEnd) : -1;
+        if (location >= 0) {
+          token = classify(line, wordStart, wordEnd, wordStart, nextEnd, false);
+          if (token != null && token.line < 0) {
+            token = new Token(token.kind, token.path, (int)(location >> 32), (int)location, wordStart, nextEnd);
+          }
+        }
+        else {
+          token = classify(line, wordStart, wordEnd, wordStart, wordEnd, false);
+        }
+      }
+      if (token != null) {
+        tokens = add(tokens, token);
+      }
+      wordStart = skipWhitespace(line, wordEnd);
+    }
+
+    if (error != null) {
+      tokens = add(tokens, error);
+    }
+
+    return tokens == null ? Collections.emptyList() : tokens;
+  }
+
+  /**
+   * Classifies the reference in [start, end), which may end with ":line" or ":line:column".
+   *
+   * @param requireLocation whether a plain relative path needs a line number to be considered a reference
+   */
+  @Nullable
+  private static Token classify(@NotNull String line, int start, int end, int highlightStart, int highlightEnd,
+                                boolean requireLocation) {
+    // Split off a trailing ":line" or ":line:column".
+    int lineNumber = -1;
+    int column = -1;
+    int pathEnd = end;
+    final int lastNumberStart = digitsBefore(line, start, end);
+    if (lastNumberStart < end && lastNumberStart > start && line.charAt(lastNumberStart - 1) == ':') {
+      final int last = parseInt(line, lastNumberStart, end);
+      final int previousNumberStart = digitsBefore(line, start, lastNumberStart - 1);
+      if (previousNumberStart < lastNumberStart - 1 && previousNumberStart > start && line.charAt(previousNumberStart - 1) == ':') {
+        lineNumber = parseInt(line, previousNumberStart, lastNumberStart - 1);
+        column = last;
+        pathEnd = previousNumberStart - 1;
+      }
+      else {
+        lineNumber = last;
+        pathEnd = lastNumberStart - 1;
+      }
+    }
+
+    if (line.startsWith("file://", start)) {
+      int pathStart = start + "file://".length();
+      // "file:///C:/src/app/lib/main.dart"
+      if (pathEnd - pathStart > 3 && line.charAt(pathStart) == '/' && line.charAt(pathStart + 2) == ':') {
+        pathStart++;
+      }
+      return pathEnd > pathStart
+             ? new Token(Kind.ABSOLUTE, line.substring(pathStart, pathEnd), lineNumber, column, highlightStart, highlightEnd)
+             : null;
+    }
+    if (line.startsWith("package:", start)) {
+      final int pathStart = start + "package:".length();
+      return pathEnd > pathStart && line.indexOf('/', pathStart) > pathStart
+             ? new Token(Kind.PACKAGE, line.substring(pathStart, pathEnd), lineNumber, column, highlightStart, highlightEnd)
+             : null;
+    }
+    if (line.startsWith("dart:", start)) {
+      final int pathStart = start + "dart:".length();
+      return pathEnd > pathStart
+             ? new Token(Kind.DART, line.substring(pathStart, pathEnd), lineNumber, column, highlightStart, highlightEnd)
+             : null;
+    }
+
+    if (requireLocation && lineNumber < 0) {
+      return null;
+    }
+    // We require a file reference, otherwise we'd match things like "Build: Running build completed, took 191ms".
+    // Other URIs (e.g. "http://localhost:8080") are left to the URL filter.
+    final int dot = line.indexOf('.', start);
+    if (dot < 0 || dot >= pathEnd || indexOf(line, ':', start, pathEnd) >= 0) {
+      return null;
+    }
+    return new Token(Kind.RELATIVE, line.substring(start, pathEnd), lineNumber, column, highlightStart,
+                     requireLocation ? highlightEnd : pathEnd);
+  }
+
+  /**
+   * Finds a compiler error at the start of the line, e.g. "lib/main.dart:104:73: Error: ...".
+   */
+  @Nullable
+  private static Token findCompilerError(@NotNull String line, int start) {
+    int colon = line.indexOf(':', start);
+    while (colon > start) {
+      final int lineStart = colon + 1;
+      final int lineEnd = skipDigits(line, lineStart);
+      if (lineEnd > lineStart && lineEnd < line.length() && line.charAt(lineEnd) == ':') {
+        final int columnEnd = skipDigits(line, lineEnd + 1);
+        if (columnEnd > lineEnd + 1 && columnEnd < line.length() && line.charAt(columnEnd) == ':' &&
+            line.startsWith("Error", skipWhitespace(line, columnEnd + 1))) {
+          final Token token = classify(line, start, columnEnd, start, colon, false);
+          return token == null ? null : new Token(token.kind, token.path, token.line, token.column, start, colon);
+        }
+      }
+      colon = line.indexOf(':', lineStart);
+    }
+    return null;
+  }
+
+  private static boolean startsWithUri(@NotNull String line, int start) {
+    return line.startsWith("package:", start) || line.startsWith("dart:", start) || line.startsWith("file://", start);
+  }
+
+  /**
+   * Parses a "line:column" word, returning the line in the high and the column in the low 32 bits, or -1.
+   */
+  private static long parseLocation(@NotNull String line, int start, int end) {
+    final int colon = skipDigits(line, start);
+    if (colon == start || colon >= end - 1 || line.charAt(colon) != ':' || skipDigits(line, colon + 1) != end) {
+      return -1;
+    }
+    return ((long)parseInt(line, start, colon) << 32) | parseInt(line, colon + 1, end);
+  }
+
+  private static int parseInt(@NotNull String line, int start, int end) {
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      value = value * 10 + (line.charAt(i) - '0');
+      if (value < 0 || end - start > 9) {
+        return -1;
+      }
+    }
+    return value;
+  }
+
+  private static int digitsBefore(@NotNull String line, int start, int end) {
+    int i = end;
+    while (i > start && isDigit(line.charAt(i - 1))) {
+      i--;
+    }
+    return i;
+  }
+
+  private static int skipDigits(@NotNull String line, int start) {
+    int i = start;
+    while (i < line.length() && isDigit(line.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipWhitespace(@NotNull String line, int start) {
+    int i = start;
+    while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int wordEnd(@NotNull String line, int start) {
+    int i = start;
+    while (i < line.length() && !Character.isWhitespace(line.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int indexOf(@NotNull String line, char c, int start, int end) {
+    final int index = line.indexOf(c, start);
+    return index < end ? index : -1;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  @NotNull
+  private static List<Token> add(@Nullable List<Token> tokens, @NotNull Token token) {
+    if (tokens == null) {
+      tokens = new ArrayList<>(2);
+    }
+    tokens.add(token);
+    return tokens;
+  }
+}
@@ -19,9 +19,9 @@ import com.intellij.openapi.editor.markup.TextAttributes;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
-import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.ui.UIUtil;
+import com.jetbrains.lang.dart.sdk.DartSdk;
 import io.flutter.FlutterMessages;
 import io.flutter.FlutterUtils;
 import io.flutter.sdk.FlutterSdk;
@@ -30,9 +30,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * The FlutterConsoleFilter handles link detection in consoles for:
@@ -40,6 +37,11 @@ import java.util.regex.Pattern;
  * - linking an action to the term 'flutter doctor'
  * - linking the text "Launching lib/main.dart" or "open ios/Runner.xcworkspace"
  * - some embedded paths, like "MyApp.xzzzz (lib/main.dart:6)"
+ * - file:, package: and dart: locations, like "main (package:my_app/main.dart:12:3)"
+ * - compiler errors, like "lib/main.dart:104:73: Error: Expected ';' after this."
+ * <p>
+ * Each line is tokenized in a single pass (see {@link ConsoleLineTokenizer}) and file lookups go through the
+ * project's {@link ConsoleFileCache}, as this runs for every line of output, including verbose build logs.
  */
 public class FlutterConsoleFilter implements Filter {
   private static class OpenExternalFileHyperlink implements HyperlinkInfo {
@@ -83,38 +85,67 @@ public class FlutterConsoleFilter implements Filter {
   @Nullable
   public VirtualFile fileAtPath(@NotNull String pathPart) {
     // "lib/main.dart:6"
-    pathPart = pathPart.split(":")[0];
+    final int colon = pathPart.indexOf(':');
+    if (colon >= 0) {
+      pathPart = pathPart.substring(0, colon);
+    }
 
     // We require the pathPart reference to be a file reference, otherwise we'd match things like
     // "Build: Running build completed, took 191ms".
-    if (pathPart.indexOf('.') == -1) {
+    if (pathPart.isEmpty() || pathPart.indexOf('.') == -1) {
       return null;
     }
 
+    final ConsoleFileCache cache = ConsoleFileCache.getInstance(module.getProject());
     final VirtualFile[] roots = OpenApiUtils.getContentRoots(module);
     for (VirtualFile root : roots) {
-      if (!pathPart.isEmpty()) {
-        final String baseDirPath = root.getPath();
-        final String path = baseDirPath + "/" + pathPart;
-        VirtualFile file = findFile(path);
-        if (file == null) {
-          // check example dir too
-          // TODO(pq): remove when `example` is a content root: https://github.com/flutter/flutter-intellij/issues/2519
-          final String exampleDirRelativePath = baseDirPath + "/example/" + pathPart;
-          file = findFile(exampleDirRelativePath);
-        }
-        if (file != null) {
-          return file;
-        }
+      final String baseDirPath = root.getPath();
+      VirtualFile file = cache.findFile(baseDirPath + "/" + pathPart);
+      if (file == null) {
+        // check example dir too
+        // TODO(pq): remove when `example` is a content root: https://github.com/flutter/flutter-intellij/issues/2519
+        file = cache.findFile(baseDirPath + "/example/" + pathPart);
+      }
+      if (file != null) {
+        return file;
       }
     }
 
     return null;
   }
 
-  private static VirtualFile findFile(final String path) {
-    final VirtualFile file = LocalFileSystem.getInstance().findFileByPath(path);
-    return file != null && file.exists() ? file : null;
+  @Nullable
+  private VirtualFile fileAtToken(@NotNull ConsoleLineTokenizer.Token token) {
+    final ConsoleFileCache cache = ConsoleFileCache.getInstance(module.getProject());
+    switch (token.kind) {
+      case RELATIVE:
+        return fileAtPath(token.path);
+      case ABSOLUTE:
+        return cache.findFile(token.path);
+      case PACKAGE: {
+        // "flutter/src/widgets/framework.dart"
+        final int slash = token.path.indexOf('/');
+        final String packageName = token.path.substring(0, slash);
+        for (VirtualFile root : OpenApiUtils.getContentRoots(module)) {
+          final String libPath = cache.getPackagesMap(root).get(packageName);
+          if (libPath != null) {
+            return cache.findFile(libPath + token.path.substring(slash));
+          }
+        }
+        return null;
+      }
+      case DART: {
+        final DartSdk sdk = DartSdk.getDartSdk(module.getProject());
+        if (sdk == null) {
+          return null;
+        }
+        // "dart:core/list.dart", or just "dart:core" for the library itself.
+        final String path = token.path.indexOf('/') >= 0 ? token.path : token.path + "/" + token.path + ".dart";
+        return cache.findFile(sdk.getHomePath() + "/lib/" + path);
+      }
+      default:
+        return null;
+    }
   }
 
   @Override
@@ -128,127 +159,36 @@ public class FlutterConsoleFilter implements Filter {
       TextAttributes attr = new TextAttributes(UIUtil.getErrorForeground(), null, null, EffectType.BOXED, Font.PLAIN);
       return new Result(entireLength - line.length(), entireLength, null, attr);
     }
-    int lineNumber = 0;
-    String pathPart = line.trim();
-    VirtualFile file = null;
-    int lineStart = -1;
-    int highlightLength = 0;
 
     // Check for, e.g.,
     //   * "Launching lib/main.dart"
     //   * "open ios/Runner.xcworkspace"
-    if (pathPart.startsWith("Launching ") || pathPart.startsWith("open ")) {
-      final String[] parts = pathPart.split(" ");
-      if (parts.length > 1) {
-        pathPart = parts[1];
-        file = fileAtPath(pathPart);
-        if (file != null) {
-          lineStart = entireLength - line.length() + line.indexOf(pathPart);
-          highlightLength = pathPart.length();
-        }
+    //   * "  • MyApp.xzzzz (lib/main.dart:6)"
+    //   * "#0      main (package:flutter_app/main.dart:12:3)"
+    //   * "lib/registerC.dart:104:73: Error: Expected ';' after this."
+    final int lineStart = entireLength - line.length();
+    for (ConsoleLineTokenizer.Token token : ConsoleLineTokenizer.tokenize(line)) {
+      final VirtualFile file = fileAtToken(token);
+      if (file == null) {
+        continue;
       }
-    }
 
-    // Check for embedded paths, e.g.,
-    //    * "  • MyApp.xzzzz (lib/main.dart:6)"
-    //    * "  • _MyHomePageState._incrementCounter (lib/main.dart:49)"
-    final String[] parts = pathPart.split(" ");
-    for (String part : parts) {
-      // "(lib/main.dart:49)"
-      if (part.startsWith("(") && part.endsWith(")")) {
-        part = part.substring(1, part.length() - 1);
-        final String[] split = part.split(":");
-        if (split.length == 2) {
-          try {
-            // Reconcile line number indexing.
-            lineNumber = Math.max(0, Integer.parseInt(split[1]) - 1);
-          }
-          catch (NumberFormatException e) {
-            // Ignored.
-          }
-          pathPart = part;
-          lineStart = entireLength - line.length() + line.indexOf(pathPart);
-          highlightLength = pathPart.length();
-          break;
-        }
-        else if (split.length == 4 && Objects.equals(split[0], "file")) {
-          // part = file:///Users/user/AndroidStudioProjects/flutter_app/test/widget_test.dart:23:18
-          try {
-            // Reconcile line number indexing.
-            lineNumber = Math.max(0, Integer.parseInt(split[2]) - 1);
-          }
-          catch (NumberFormatException e) {
-            // Ignored.
-          }
-          pathPart = findRelativePath(split[1]);
-          if (pathPart == null) {
-            return null;
-          }
-          lineStart = entireLength - line.length() + line.indexOf(part);
-          highlightLength = part.length();
-          break;
-        }
-      }
-    }
-
-    if (lineStart < 0) {
-      // lib/registerC.dart:104:73: Error: Expected ';' after this.
-      final String filePathAndLineNumberExpr = "(^.*?):(\\d+?):\\d+?:\\s*?Error";
-      final Pattern pattern = Pattern.compile(filePathAndLineNumberExpr);
-      final Matcher matcher = pattern.matcher(line);
-      final boolean found = matcher.find();
-      if (found) {
-        final String filePathExpr = "((?:[^/]*/)*)(.*)";
-        final Pattern pathPattern = Pattern.compile(filePathExpr);
-        final Matcher pathMatcher = pathPattern.matcher(matcher.group(1));
-        if (pathMatcher.find()) {
-          final String path = pathMatcher.group(1) + pathMatcher.group(2);
-          file = fileAtPath(path);
-          if (file == null) {
-            return null;
-          }
-          lineNumber = Integer.parseInt(matcher.group(2));
-          lineStart = entireLength - line.length();
-          highlightLength = path.length();
-        }
-        else {
-          return null;
-        }
-      }
-      else {
-        return null;
-      }
-    }
-
-    if (file == null) {
-      file = fileAtPath(pathPart);
-    }
-
-    if (file != null) {
       // "open ios/Runner.xcworkspace"
-      final boolean openAsExternalFile = FlutterUtils.isXcodeFileName(pathPart);
+      final boolean openAsExternalFile = FlutterUtils.isXcodeFileName(token.path);
 
+      // Reconcile line number indexing.
+      final int lineNumber = Math.max(0, token.line - 1);
+      final int column = Math.max(0, token.column - 1);
       final HyperlinkInfo hyperlinkInfo =
-        openAsExternalFile ? new OpenExternalFileHyperlink(file) : new OpenFileHyperlinkInfo(module.getProject(), file, lineNumber, 0);
-      return new Result(lineStart, lineStart + highlightLength, hyperlinkInfo);
+        openAsExternalFile
+        ? new OpenExternalFileHyperlink(file)
+        : new OpenFileHyperlinkInfo(module.getProject(), file, lineNumber, column);
+      return new Result(lineStart + token.start, lineStart + token.end, hyperlinkInfo);
     }
 
     return null;
   }
 
-  private String findRelativePath(String threeSlashFileName) {
-    final VirtualFile[] roots = OpenApiUtils.getContentRoots(module);
-    for (VirtualFile root : roots) {
-      final String path = root.getPath();
-      int index = threeSlashFileName.indexOf(path);
-      if (index > 0) {
-        index += path.length();
-        return threeSlashFileName.substring(index + 1);
-      }
-    }
-    return null;
-  }
-
   private static Result getFlutterDoctorResult(final String line, final int lineStart) {
     final int commandStart = line.indexOf('"') + 1;
     final int startOffset = lineStart + commandStart;
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.dart;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.flutter.utils.JsonUtils;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.dartlang.analysis.server.protocol.FlutterOutline;
+import org.dartlang.analysis.server.protocol.FlutterOutlineAttribute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@link FlutterOutline} of a file, stored in arrays rather than as a tree of objects.
+ * <p>
+ * Nodes are numbered in preorder, starting with the root at 0, and the descendants of a node are the nodes from it up
+ * to its {@link #getSubtreeEnd}. Names, such as kinds, class names and attribute labels, are interned so that they are
+ * shared by all outlines. The locations of attributes are kept as numbers, since they are all in the outlined file, and
+ * attributes are only decoded when asked for. The locations of Dart elements aren't kept.
+ */
+public final class CompactFlutterOutline {
+  private static final Interner<String> names = Interners.newWeakInterner();
+
+  private static final String[] LOCATIONS = {"nameLocation", "valueLocation"};
+  private static final String[] LOCATION_FIELDS = {"offset", "length", "startLine", "startColumn", "endLine", "endColumn"};
+
+  @NotNull private final String file;
+
+  private final int[] offsets;
+  private final int[] lengths;
+  private final int[] codeOffsets;
+  private final int[] codeLengths;
+  private final int[] depths;
+  private final int[] subtreeEnds;
+  private final int[] attributeHashes;
+  /**
+   * The first attribute of each node, and the number of its attributes, or -1 if it has none.
+   */
+  private final int[] attributeStarts;
+  private final int[] attributeCounts;
+
+  private final String[] kinds;
+  private final String[] labels;
+  private final String[] classNames;
+  private final String[] variableNames;
+  private final String[] parentAssociationLabels;
+  private final String[] elementKinds;
+  private final String[] elementNames;
+  private final String[] elementParameters;
+  private final String[] elementReturnTypes;
+
+  private final String[] attributeNames;
+  private final String[] attributeLabels;
+  /**
+   * The literal value of each attribute, which is a {@link Boolean}, {@link Integer} or {@link String}, or null.
+   */
+  private final Object[] attributeLiterals;
+  /**
+   * The name location and then the value location of each attribute, as {@link #LOCATION_FIELDS} numbers each, starting
+   * with -1 if the attribute has no such location.
+   */
+  private final int[] attributeLocations;
+
+  private CompactFlutterOutline(@NotNull String file, @NotNull Builder builder) {
+    this.file = file;
+    offsets = builder.offsets.toIntArray();
+    lengths = builder.lengths.toIntArray();
+    codeOffsets = builder.codeOffsets.toIntArray();
+    codeLengths = builder.codeLengths.toIntArray();
+    depths = builder.depths.toIntArray();
+    subtreeEnds = builder.subtreeEnds.toIntArray();
+    attributeHashes = builder.attributeHashes.toIntArray();
+    attributeStarts = builder.attributeStarts.toIntArray();
+    attributeCounts = builder.attributeCounts.toIntArray();
+    kinds = builder.kinds.toArray(new String[0]);
+    labels = builder.labels.toArray(new String[0]);
+    classNames = builder.classNames.toArray(new String[0]);
+    variableNames = builder.variableNames.toArray(new String[0]);
+    parentAssociationLabels = builder.parentAssociationLabels.toArray(new String[0]);
+    elementKinds = builder.elementKinds.toArray(new String[0]);
+    elementNames = builder.elementNames.toArray(new String[0]);
+    elementParameters = builder.elementParameters.toArray(new String[0]);
+    elementReturnTypes = builder.elementReturnTypes.toArray(new String[0]);
+    attributeNames = builder.attributeNames.toArray(new String[0]);
+    attributeLabels = builder.attributeLabels.toArray(new String[0]);
+    attributeLiterals = builder.attributeLiterals.toArray();
+    attributeLocations = builder.attributeLocations.toIntArray();
+  }
+
+  /**
+   * Reads the outline of {@param file} from the JSON of a {@code flutter.outline} notification.
+   */
+  @NotNull
+  public static CompactFlutterOutline fromJson(@NotNull String file, @NotNull JsonObject outline) {
+    final Builder builder = new Builder();
+    builder.add(outline, 0);
+    return new CompactFlutterOutline(file, builder);
+  }
+
+  /**
+   * The file that this is the outline of.
+   */
+  @NotNull
+  public String getFile() {
+    return file;
+  }
+
+  /**
+   * The number of nodes.
+   */
+  public int size() {
+    return offsets.length;
+  }
+
+  public int getOffset(int node) {
+    return offsets[node];
+  }
+
+  public int getLength(int node) {
+    return lengths[node];
+  }
+
+  public int getCodeOffset(int node) {
+    return codeOffsets[node];
+  }
+
+  public int getCodeLength(int node) {
+    return codeLengths[node];
+  }
+
+  /**
+   * The number of ancestors of a node.
+   */
+  public int getDepth(int node) {
+    return depths[node];
+  }
+
+  /**
+   * The node after the last descendant of a node, in preorder.
+   */
+  public int getSubtreeEnd(int node) {
+    return subtreeEnds[node];
+  }
+
+  @NotNull
+  public String getKind(int node) {
+    return kinds[node];
+  }
+
+  @Nullable
+  public String getLabel(int node) {
+    return labels[node];
+  }
+
+  @Nullable
+  public String getClassName(int node) {
+    return classNames[node];
+  }
+
+  @Nullable
+  public String getVariableName(int node) {
+    return variableNames[node];
+  }
+
+  @Nullable
+  public String getParentAssociationLabel(int node) {
+    return parentAssociationLabels[node];
+  }
+
+  /**
+   * The kind of the node's Dart element, or null if it isn't a Dart element.
+   */
+  @Nullable
+  public String getElementKind(int node) {
+    return elementKinds[node];
+  }
+
+  @Nullable
+  public String getElementName(int node) {
+    return elementNames[node];
+  }
+
+  @Nullable
+  public String getElementParameters(int node) {
+    return elementParameters[node];
+  }
+
+  @Nullable
+  public String getElementReturnType(int node) {
+    return elementReturnTypes[node];
+  }
+
+  /**
+   * A hash of the names and values of a node's attributes, but not their locations, for comparing nodes cheaply.
+   */
+  public int getAttributeValuesHash(int node) {
+    return attributeHashes[node];
+  }
+
+  /**
+   * Decodes the attributes of a node, or returns null if it has none.
+   */
+  @Nullable
+  public List<FlutterOutlineAttribute> getAttributes(int node) {
+    if (attributeCounts[node] == -1) {
+      return null;
+    }
+    final List<FlutterOutlineAttribute> result = new ArrayList<>(attributeCounts[node]);
+    for (int i = attributeStarts[node]; i < attributeStarts[node] + attributeCounts[node]; i++) {
+      final JsonObject json = new JsonObject();
+      json.addProperty("name", attributeNames[i]);
+      json.addProperty("label", attributeLabels[i]);
+      if (attributeLiterals[i] instanceof Boolean value) {
+        json.addProperty("literalValueBoolean", value);
+      }
+      else if (attributeLiterals[i] instanceof Integer value) {
+        json.addProperty("literalValueInteger", value);
+      }
+      else if (attributeLiterals[i] instanceof String value) {
+        json.addProperty("literalValueString", value);
+      }
+      for (int j = 0; j < LOCATIONS.length; j++) {
+        final int start = (i * LOCATIONS.length + j) * LOCATION_FIELDS.length;
+        if (attributeLocations[start] != -1) {
+          final JsonObject location = new JsonObject();
+          location.addProperty("file", file);
+          for (int k = 0; k < LOCATION_FIELDS.length; k++) {
+            location.addProperty(LOCATION_FIELDS[k], attributeLocations[start + k]);
+          }
+          json.add(LOCATIONS[j], location);
+        }
+      }
+      result.add(FlutterOutlineAttribute.fromJson(json));
+    }
+    return result;
+  }
+
+  private static class Builder {
+    final IntArrayList offsets = new IntArrayList();
+    final IntArrayList lengths = new IntArrayList();
+    final IntArrayList codeOffsets = new IntArrayList();
+    final IntArrayList codeLengths = new IntArrayList();
+    final IntArrayList depths = new IntArrayList();
+    final IntArrayList subtreeEnds = new IntArrayList();
+    final IntArrayList attributeHashes = new IntArrayList();
+    final IntArrayList attributeStarts = new IntArrayList();
+    final IntArrayList attributeCounts = new IntArrayList();
+    final List<String> kinds = new ArrayList<>();
+    final List<String> labels = new ArrayList<>();
+    final List<String> classNames = new ArrayList<>();
+    final List<String> variableNames = new ArrayList<>();
+    final List<String> parentAssociationLabels = new ArrayList<>();
+    final List<String> elementKinds = new ArrayList<>();
+    final List<String> elementNames = new ArrayList<>();
+    final List<String> elementParameters = new ArrayList<>();
+    final List<String> elementReturnTypes = new ArrayList<>();
+    final List<String> attributeNames = new ArrayList<>();
+    final List<String> attributeLabels = new ArrayList<>();
+    final List<Object> attributeLiterals = new ArrayList<>();
+    final IntArrayList attributeLocations = new IntArrayList();
+
+    void add(@NotNull JsonObject json, int depth) {
+      final int node = offsets.size();
+      offsets.add(json.get("offset").getAsInt());
+      lengths.add(json.get("length").getAsInt());
+      codeOffsets.add(json.get("codeOffset").getAsInt());
+      codeLengths.add(json.get("codeLength").getAsInt());
+      depths.add(depth);
+      subtreeEnds.add(node + 1);
+      kinds.add(intern(json, "kind"));
+      labels.add(intern(json, "label"));
+      classNames.add(intern(json, "className"));
+      variableNames.add(intern(json, "variableName"));
+      parentAssociationLabels.add(intern(json, "parentAssociationLabel"));
+
+      final JsonObject element = json.get("dartElement") instanceof JsonObject object ? object : null;
+      elementKinds.add(element == null ? null : intern(element, "kind"));
+      elementNames.add(element == null ? null : intern(element, "name"));
+      elementParameters.add(element == null ? null : intern(element, "parameters"));
+      elementReturnTypes.add(element == null ? null : intern(element, "returnType"));
+
+      attributeStarts.add(attributeNames.size());
+      if (json.get("attributes") instanceof JsonArray array) {
+        int hash = 1;
+        for (JsonElement attribute : array) {
+          hash = 31 * hash + addAttribute(attribute.getAsJsonObject());
+        }
+        attributeHashes.add(hash);
+        attributeCounts.add(array.size());
+      }
+      else {
+        attributeHashes.add(0);
+        attributeCounts.add(-1);
+      }
+
+      if (json.get("children") instanceof JsonArray children) {
+        for (JsonElement child : children) {
+          add(child.getAsJsonObject(), depth + 1);
+        }
+        subtreeEnds.set(node, offsets.size());
+      }
+    }
+
+    /**
+     * Adds an attribute and returns a hash of its values.
+     */
+    private int addAttribute(@NotNull JsonObject json) {
+      final String name = intern(json, "name");
+      final String label = intern(json, "label");
+      final Object literal;
+      if (json.has("literalValueBoolean")) {
+        literal = json.get("literalValueBoolean").getAsBoolean();
+      }
+      else if (json.has("literalValueInteger")) {
+        literal = json.get("literalValueInteger").getAsInt();
+      }
+      else if (json.has("literalValueString")) {
+        literal = json.get("literalValueString").getAsString();
+      }
+      else {
+        literal = null;
+      }
+      attributeNames.add(name);
+      attributeLabels.add(label);
+      attributeLiterals.add(literal);
+      for (String member : LOCATIONS) {
+        // Every location is in the outlined file, so only the numbers are kept.
+        if (json.get(member) instanceof JsonObject location) {
+          for (String field : LOCATION_FIELDS) {
+            attributeLocations.add(location.get(field).getAsInt());
+          }
+        }
+        else {
+          attributeLocations.add(-1);
+          attributeLocations.addElements(attributeLocations.size(), new int[LOCATION_FIELDS.length - 1]);
+        }
+      }
+      return Objects.hash(name, label, literal);
+    }
+
+    @Nullable
+    private static String intern(@NotNull JsonObject json, @NotNull String member) {
+      final String value = JsonUtils.getStringMember(json, member);
+      return value == null ? null : names.intern(value);
+    }
+  }
+}
@@ -13,14 +13,13 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.intellij.openapi.Disposable;
-import com.intellij.openapi.application.Application;
-import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.util.Consumer;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.jetbrains.lang.dart.analyzer.DartAnalysisServerService;
 import io.flutter.utils.JsonUtils;
+import io.flutter.utils.KeyedSerialExecutor;
 import org.dartlang.analysis.server.protocol.AnalysisError;
-import org.dartlang.analysis.server.protocol.FlutterOutline;
 import org.dartlang.analysis.server.protocol.FlutterService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,6 +29,11 @@ import java.util.*;
 public class FlutterDartAnalysisServer implements Disposable {
   private static final String FLUTTER_NOTIFICATION_OUTLINE = "flutter.outline";
 
+  /**
+   * The notifications handled by {@link #processNotification}; all others are dropped before they are parsed.
+   */
+  private static final Set<String> HANDLED_NOTIFICATIONS = Set.of(FLUTTER_NOTIFICATION_OUTLINE);
+
   @NotNull final Project project;
 
   /**
@@ -46,6 +50,12 @@ public class FlutterDartAnalysisServer implements Disposable {
    * Each value is the {@link Consumer} for the response.
    */
   private final Map<String, Consumer<JsonObject>> responseConsumers = new HashMap<>();
+
+  /**
+   * Processes messages in the background, in order for each file; a notification that is still waiting when a newer
+   * one of the same event arrives for its file is dropped.
+   */
+  private final KeyedSerialExecutor messageExecutor = new KeyedSerialExecutor(AppExecutorUtil.getAppExecutorService());
   private boolean isDisposed = false;
 
   @NotNull
@@ -174,18 +184,25 @@ public class FlutterDartAnalysisServer implements Disposable {
   private void processString(@Nullable String jsonString) {
     if (jsonString == null) return;
     if (isDisposed) return;
-    Application application = ApplicationManager.getApplication();
-    if (application != null) {
-      application.executeOnPooledThread(() -> {
-        // Short circuit just in case we have been disposed in the time it took
-        // for us to get around to listening for the response.
-        if (isDisposed) return;
-        JsonElement jsonElement = JsonUtils.parseString(jsonString);
-        if (jsonElement != null) {
-          processResponse(jsonElement.getAsJsonObject());
-        }
-      });
+    final MessageHeader header = MessageHeader.read(jsonString, HANDLED_NOTIFICATIONS);
+    if (header == null) return;
+    if (header.event() == null) {
+      // A response, which is only of interest if it answers one of our requests.
+      synchronized (responseConsumers) {
+        if (header.id() == null || !responseConsumers.containsKey(header.id())) return;
+      }
     }
+    // Notifications of the same event for the same file have equal headers, and supersede each other. Response ids
+    // are unique, so responses are never dropped.
+    messageExecutor.execute(header, () -> {
+      // Short circuit just in case we have been disposed in the time it took
+      // for us to get around to listening for the response.
+      if (isDisposed) return;
+      JsonElement jsonElement = JsonUtils.parseString(jsonString);
+      if (jsonElement != null) {
+        processResponse(jsonElement.getAsJsonObject());
+      }
+    });
   }
 
   /**
@@ -231,7 +248,7 @@ public class FlutterDartAnalysisServer implements Disposable {
    */
   @SuppressWarnings("DataFlowIssue") // Ignore for de-marshalling JSON objects.
   private void processNotification(JsonObject response, @NotNull JsonElement eventName) {
-    // If we add code to handle the more event types below, update the filter in processString().
+    // If we add code to handle the more event types below, update HANDLED_NOTIFICATIONS.
     final String event = eventName.getAsString();
     if (Objects.equals(event, FLUTTER_NOTIFICATION_OUTLINE)) {
       final JsonObject paramsObject = response.get("params").getAsJsonObject();
@@ -241,7 +258,7 @@ public class FlutterDartAnalysisServer implements Disposable {
       final String instrumentedCode = instrumentedCodeElement != null ? instrumentedCodeElement.getAsString() : null;
 
       final JsonObject outlineObject = paramsObject.get("outline").getAsJsonObject();
-      final FlutterOutline outline = FlutterOutline.fromJson(outlineObject);
+      final CompactFlutterOutline outline = CompactFlutterOutline.fromJson(file, outlineObject);
 
       final List<FlutterOutlineListener> listenersUpdated;
       synchronized (fileOutlineListeners) {
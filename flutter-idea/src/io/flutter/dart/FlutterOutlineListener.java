@@ -5,7 +5,6 @@
  */
 package io.flutter.dart;
 
-import org.dartlang.analysis.server.protocol.FlutterOutline;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -13,6 +12,6 @@ import java.util.EventListener;
 
 public interface FlutterOutlineListener extends EventListener {
   void outlineUpdated(@NotNull final String filePath,
-                      @NotNull final FlutterOutline outline,
+                      @NotNull final CompactFlutterOutline outline,
                       @Nullable final String instrumentedCode);
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.dart;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Set;
+
+/**
+ * The members of an analysis server message that decide who handles it: the event name and file of a notification,
+ * or the id of a response.
+ * <p>
+ * They are read with a streaming reader that skips the rest of the message, so that messages nobody handles aren't
+ * parsed into a tree.
+ */
+record MessageHeader(@Nullable String event, @Nullable String file, @Nullable String id) {
+  /**
+   * Reads the header of a message.
+   * <p>
+   * Returns null if the message isn't a JSON object, or if it is a notification of an event that isn't in
+   * {@param handledEvents}; in that case reading stops at the event name.
+   */
+  @Nullable
+  static MessageHeader read(@NotNull String json, @NotNull Set<String> handledEvents) {
+    String event = null;
+    String file = null;
+    String id = null;
+    try (JsonReader reader = new JsonReader(new StringReader(json))) {
+      reader.setLenient(true);
+      if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+        return null;
+      }
+      reader.beginObject();
+      while (reader.hasNext()) {
+        final String name = reader.nextName();
+        if (name.equals("event") && isString(reader)) {
+          event = reader.nextString();
+          if (!handledEvents.contains(event)) {
+            return null;
+          }
+        }
+        else if (name.equals("id") && isString(reader)) {
+          id = reader.nextString();
+        }
+        else if (name.equals("params") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+          file = readFile(reader, event != null);
+        }
+        else {
+          reader.skipValue();
+        }
+        if (event != null && file != null) {
+          break;
+        }
+      }
+    }
+    catch (IOException | IllegalStateException e) {
+      return null;
+    }
+    return new MessageHeader(event, file, id);
+  }
+
+  /**
+   * Reads the file of a notification from its params, and stops there if the event name was already read.
+   */
+  @Nullable
+  private static String readFile(@NotNull JsonReader reader, boolean stopAtFile) throws IOException {
+    String file = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      final String name = reader.nextName();
+      if (file == null && name.equals("file") && isString(reader)) {
+        file = reader.nextString();
+        if (stopAtFile) {
+          return file;
+        }
+      }
+      else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return file;
+  }
+
+  private static boolean isString(@NotNull JsonReader reader) throws IOException {
+    final JsonToken token = reader.peek();
+    return token == JsonToken.STRING || token == JsonToken.NUMBER;
+  }
+}
@@ -18,21 +18,21 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
 import com.jetbrains.lang.dart.analyzer.DartAnalysisServerService;
 import io.flutter.FlutterUtils;
+import io.flutter.dart.CompactFlutterOutline;
 import io.flutter.dart.FlutterDartAnalysisServer;
 import io.flutter.dart.FlutterOutlineListener;
-import org.dartlang.analysis.server.protocol.FlutterOutline;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 /**
- * Service that watches for {@link FlutterOutline}s for all active editors containing Dart files.
+ * Service that watches for {@link CompactFlutterOutline}s for all active editors containing Dart files.
  *
  * <p>
  * This service works by listening to the {@link Project}'s MessageBus for {@link FileEditor}s that are
  * added or removed. Using the set of currently active {@link EditorEx} editor windows, this service
- * then subscribes to the {@link FlutterDartAnalysisServer} for updates to the {@link FlutterOutline} of each file.
+ * then subscribes to the {@link FlutterDartAnalysisServer} for updates to the {@link CompactFlutterOutline} of each file.
  *
  * <p>
  * This class provides a {@link Listener} that notifies consumers when
@@ -47,7 +47,7 @@ public class ActiveEditorsOutlineService implements Disposable {
   /**
    * Outlines for the currently visible files.
    */
-  @NotNull private final Map<String, FlutterOutline> pathToOutline = new HashMap<>();
+  @NotNull private final Map<String, CompactFlutterOutline> pathToOutline = new HashMap<>();
   /**
    * Outline listeners for the currently visible files.
    */
@@ -136,13 +136,13 @@ public class ActiveEditorsOutlineService implements Disposable {
     }
   }
 
-  private void notifyOutlineUpdated(String path) {
+  private void notifyOutlineUpdated(@NotNull String path, @NotNull CompactFlutterOutline outline) {
     final ArrayList<Listener> listenerList;
     synchronized (listeners) {
       listenerList = Lists.newArrayList(listeners);
     }
     for (Listener listener : listenerList) {
-      listener.onOutlineChanged(path, getOutline(path));
+      listener.onOutlineChanged(path, outline);
     }
   }
 
@@ -159,12 +159,12 @@ public class ActiveEditorsOutlineService implements Disposable {
   }
 
   /**
-   * Gets the most up-to-date {@link FlutterOutline} for the file at {@param path}.
+   * Gets the most up-to-date {@link CompactFlutterOutline} for the file at {@param path}.
    * <p>
    * To get an outline that is guaranteed in-sync with the file it outlines, see {@link #getIfUpdated}.
    */
   @Nullable
-  public FlutterOutline getOutline(@Nullable String path) {
+  public CompactFlutterOutline getOutline(@Nullable String path) {
     if (path != null) {
       final String filePathOrUri = path.contains("://") ? path : getAnalysisServer().getAnalysisService().getLocalFileUri(path);
       return pathToOutline.get(filePathOrUri);
@@ -173,14 +173,14 @@ public class ActiveEditorsOutlineService implements Disposable {
   }
 
   /**
-   * Gets the {@link FlutterOutline} for {@param file} if and only if the outline is up to date with the file.
+   * Gets the {@link CompactFlutterOutline} for {@param file} if and only if the outline is up to date with the file.
    *
    * <p>
    * Returns null if the file is out of date.
    */
   @Nullable
-  public FlutterOutline getIfUpdated(@NotNull PsiFile file) {
-    final FlutterOutline outline = getOutline(file.getVirtualFile().getPath());
+  public CompactFlutterOutline getIfUpdated(@NotNull PsiFile file) {
+    final CompactFlutterOutline outline = getOutline(file.getVirtualFile().getPath());
     if (outline == null || isOutdated(outline, file)) {
       return null;
     }
@@ -195,10 +195,10 @@ public class ActiveEditorsOutlineService implements Disposable {
    * <p>
    * An outline and file match if they have the same length.
    */
-  private boolean isOutdated(@NotNull FlutterOutline outline, @NotNull PsiFile file) {
+  private boolean isOutdated(@NotNull CompactFlutterOutline outline, @NotNull PsiFile file) {
     final DartAnalysisServerService das = DartAnalysisServerService.getInstance(file.getProject());
-    return file.getTextLength() != outline.getLength()
-           && file.getTextLength() != das.getConvertedOffset(file.getVirtualFile(), outline.getLength());
+    return file.getTextLength() != outline.getLength(0)
+           && file.getTextLength() != das.getConvertedOffset(file.getVirtualFile(), outline.getLength(0));
   }
 
   @Override
@@ -237,9 +237,9 @@ public class ActiveEditorsOutlineService implements Disposable {
    */
   public interface Listener {
     /**
-     * Called on a change in the {@link FlutterOutline} of file at {@param filePath}.
+     * Called on a change in the {@link CompactFlutterOutline} of file at {@param filePath}.
      */
-    void onOutlineChanged(@NotNull String filePath, @Nullable FlutterOutline outline);
+    void onOutlineChanged(@NotNull String filePath, @Nullable CompactFlutterOutline outline);
   }
 
   /**
@@ -257,7 +257,7 @@ public class ActiveEditorsOutlineService implements Disposable {
 
     @Override
     public void outlineUpdated(@NotNull String systemDependentPath,
-                               @NotNull FlutterOutline outline,
+                               @NotNull CompactFlutterOutline outline,
                                @Nullable String instrumentedCode) {
       // Avoid using the path return by the FlutterOutline service as it will
       // be system dependent causing bugs on windows.
@@ -269,8 +269,8 @@ public class ActiveEditorsOutlineService implements Disposable {
       }
       synchronized (pathToOutline) {
         pathToOutline.put(path, outline);
-        notifyOutlineUpdated(path);
       }
+      notifyOutlineUpdated(path, outline);
     }
   }
 }
@@ -8,10 +8,15 @@ package io.flutter.editor;
 import com.intellij.openapi.command.CommandProcessor;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.ElementColorProvider;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.impl.PsiFileFactoryImpl;
 import com.intellij.psi.impl.source.tree.AstBufferUtil;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.lang.dart.DartLanguage;
 import com.jetbrains.lang.dart.DartTokenTypes;
 import com.jetbrains.lang.dart.psi.*;
@@ -21,13 +26,34 @@ import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static io.flutter.dart.DartPsiUtil.getNewExprFromType;
 import static io.flutter.dart.DartPsiUtil.topmostReferenceExpression;
 
 public class FlutterColorProvider implements ElementColorProvider {
+  private static final Key<CachedValue<Color>> COLOR_KEY = Key.create("io.flutter.editor.FlutterColorProvider.color");
+
+  /**
+   * The number of parsed color expressions to remember.
+   */
+  static final int MAX_CACHED_TEXTS = 2000;
+
+  /**
+   * Maps the source text of color expressions, without whitespace and comments, to the colors they define. Values are
+   * empty for text that isn't a color.
+   */
+  private static final Map<String, Optional<Color>> textColors = new LinkedHashMap<>(64, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Optional<Color>> eldest) {
+      return size() > MAX_CACHED_TEXTS;
+    }
+  };
 
   @Nullable
   @Override
@@ -35,6 +61,13 @@ public class FlutterColorProvider implements ElementColorProvider {
     // This must return null for non-leaf nodes and any language other than Dart.
     if (element.getNode().getElementType() != DartTokenTypes.IDENTIFIER) return null;
 
+    // The gutter pass asks about every identifier each time it runs; remember the answers until the PSI changes.
+    return CachedValuesManager.getCachedValue(element, COLOR_KEY, () -> CachedValueProvider.Result.create(
+      computeColor(element), PsiModificationTracker.getInstance(element.getProject())));
+  }
+
+  @Nullable
+  private Color computeColor(@NotNull PsiElement element) {
     final String name = element.getText();
     if (name == null) return null;
 
@@ -54,11 +87,11 @@ public class FlutterColorProvider implements ElementColorProvider {
     }
     else if (parent.getNode().getElementType() == DartTokenTypes.CALL_EXPRESSION) {
       // foo(Color.fromRGBO(0, 255, 0, 0.5))
-      if (name.matches("fromARGB") || name.matches("fromRGBO")) {
+      if (name.equals("fromARGB") || name.equals("fromRGBO")) {
         // Avoid duplicate resolves.
         return null;
       }
-      if (parent.getLastChild() instanceof DartArguments && !name.matches("(Cupertino)?Color")) {
+      if (parent.getLastChild() instanceof DartArguments && !name.equals("Color") && !name.equals("CupertinoColor")) {
         final DartArgumentList argumentList = ((DartArguments)parent.getLastChild()).getArgumentList();
         if (argumentList == null) {
           return null;
@@ -77,7 +110,7 @@ public class FlutterColorProvider implements ElementColorProvider {
     }
     else if (parent.getNode().getElementType() == DartTokenTypes.SIMPLE_TYPE) {
       // const Color.fromARGB(100, 255, 0, 0)
-      if (name.matches("fromARGB") || name.matches("fromRGBO")) {
+      if (name.equals("fromARGB") || name.equals("fromRGBO")) {
         // Avoid duplicate resolves.
         return null;
       }
@@ -179,7 +212,8 @@ public class FlutterColorProvider implements ElementColorProvider {
         if (code.startsWith("constColor(") || code.startsWith("constColor.")) {
           code = code.substring(5);
         }
-        return ExpressionParsingUtils.parseColorComponents(code.substring(code.indexOf(selector)), selector + "(", isFromARGB);
+        final String components = code.substring(code.indexOf(selector));
+        return parseMemoized(components, () -> ExpressionParsingUtils.parseColorComponents(components, selector + "(", isFromARGB));
       }
       final PsiElement args = parent.getLastChild();
       if (args != null && args.getNode().getElementType() == DartTokenTypes.ARGUMENTS) {
@@ -187,7 +221,8 @@ public class FlutterColorProvider implements ElementColorProvider {
         if (code.startsWith("constColor(")) {
           code = code.substring(5);
         }
-        return ExpressionParsingUtils.parseColor(code);
+        final String colorCode = code;
+        return parseMemoized(colorCode, () -> ExpressionParsingUtils.parseColor(colorCode));
       }
     }
     catch (StringIndexOutOfBoundsException e) {
@@ -198,6 +233,21 @@ public class FlutterColorProvider implements ElementColorProvider {
     return null;
   }
 
+  @Nullable
+  private static Color parseMemoized(@NotNull String code, @NotNull Supplier<Color> parser) {
+    synchronized (textColors) {
+      final Optional<Color> cached = textColors.get(code);
+      if (cached != null) {
+        return cached.orElse(null);
+      }
+    }
+    final Color color = parser.get();
+    synchronized (textColors) {
+      textColors.put(code, Optional.ofNullable(color));
+    }
+    return color;
+  }
+
   @Nullable
   private Color parseColorText(@NotNull String text, @NotNull String platform) {
     final FlutterColors.FlutterColor color;
@@ -5,20 +5,12 @@
  */
 package io.flutter.editor;
 
-import com.intellij.openapi.diagnostic.Logger;
-import io.flutter.FlutterUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Properties;
 
 public class FlutterColors {
-  private static final @NotNull Logger LOG = Logger.getInstance(FlutterColors.class);
-
   public static class FlutterColor {
     @NotNull
     private final Color color;
@@ -42,54 +34,14 @@ public class FlutterColors {
   static final String primarySuffix = ".primary";
   static final String defaultShade = "[500]";
 
-  private static final Properties colors;
-  private static final Map<Color, String> colorToName;
-
-  static {
-    colors = new Properties();
-
-    try {
-      colors.load(FlutterUtils.class.getResourceAsStream("/flutter/colors/material.properties"));
-    }
-    catch (IOException e) {
-      FlutterUtils.warn(LOG, e);
-    }
-
-    colorToName = new HashMap<>();
-    for (Map.Entry<Object, Object> entry : colors.entrySet()) {
-      final String name = (String)entry.getKey();
-      final String value = (String)entry.getValue();
-      final Color color = parseColor(value);
-      if (color != null) {
-        colorToName.put(color, name);
-      }
-    }
-  }
+  private static final ColorTable colors = new ColorTable("/flutter/colors/material");
 
   /**
    * @return the AWT color corresponding to the given Flutter color key.
    */
   @Nullable
   public static FlutterColor getColor(@NotNull String key) {
-    // Handle things like Colors.blue.shade200; convert the text to blue[200].
-    if (key.contains(".shade")) {
-      key = key.replace(".shade", "[") + "]";
-    }
-
-    if (colors.containsKey(key)) {
-      final Color color = getColorValue(key);
-      if (color != null) {
-        return new FlutterColor(color, false);
-      }
-    }
-    else if (colors.containsKey(key + primarySuffix)) {
-      final Color color = getColorValue(key + primarySuffix);
-      if (color != null) {
-        return new FlutterColor(color, true);
-      }
-    }
-
-    return null;
+    return colors.getColor(key);
   }
 
   /**
@@ -97,12 +49,7 @@ public class FlutterColors {
    */
   @Nullable
   public static String getColorName(@Nullable Color color) {
-    String name = colorToName.get(color);
-    if (name == null) return null;
-    // Normalize to avoid including suffixes that are not required.
-    name = maybeTrimSuffix(name, primarySuffix);
-    name = maybeTrimSuffix(name, defaultShade);
-    return name;
+    return colors.getColorName(color);
   }
 
   private static String maybeTrimSuffix(String value, String suffix) {
@@ -112,25 +59,56 @@ public class FlutterColors {
     return value;
   }
 
-  static @Nullable Color parseColor(String hexValue) {
-    if (hexValue == null) {
-      return null;
+  /**
+   * The colors in one of the generated color tables, with {@link FlutterColor}s created on first use.
+   * <p>
+   * The name of each primary color, such as {@code blue}, also finds its {@code blue.primary} entry.
+   */
+  static class ColorTable {
+    private final @NotNull ResourceTable table;
+    private final @NotNull FlutterColor[] colors;
+    private final @NotNull FlutterColor[] primaryColors;
+
+    ColorTable(@NotNull String resourcePath) {
+      table = ResourceTable.load(resourcePath, false);
+      colors = new FlutterColor[table.size()];
+      primaryColors = new FlutterColor[table.size()];
     }
 
-    try {
-      // argb to r, g, b, a
-      final long value = Long.parseLong(hexValue, 16);
-
-      //noinspection UseJBColor
-      return new Color((int)(value >> 16) & 0xFF, (int)(value >> 8) & 0xFF, (int)value & 0xFF, (int)(value >> 24) & 0xFF);
+    @Nullable
+    FlutterColor getColor(@NotNull String key) {
+      // Handle things like Colors.blue.shade200; convert the text to blue[200].
+      if (key.contains(".shade")) {
+        key = key.replace(".shade", "[") + "]";
+      }
+      final int index = table.indexOf(key);
+      if (index >= 0) {
+        return getColor(colors, index, false);
+      }
+      final int primaryIndex = table.indexOf(key + primarySuffix);
+      return primaryIndex >= 0 ? getColor(primaryColors, primaryIndex, true) : null;
     }
-    catch (IllegalArgumentException e) {
-      return null;
+
+    @Nullable
+    String getColorName(@Nullable Color color) {
+      if (color == null) return null;
+      String name = table.getPreferredName(color.getRGB());
+      if (name == null) return null;
+      // Normalize to avoid including suffixes that are not required.
+      name = maybeTrimSuffix(name, primarySuffix);
+      name = maybeTrimSuffix(name, defaultShade);
+      return name;
     }
-  }
 
-  private static Color getColorValue(String name) {
-    final String hexValue = colors.getProperty(name);
-    return parseColor(hexValue);
+    @NotNull
+    private FlutterColor getColor(@NotNull FlutterColor[] cache, int index, boolean isPrimary) {
+      synchronized (cache) {
+        if (cache[index] == null) {
+          //noinspection UseJBColor
+          cache[index] = new FlutterColor(new Color(table.getValue(index), true), isPrimary);
+        }
+        return cache[index];
+      }
+    }
   }
 }
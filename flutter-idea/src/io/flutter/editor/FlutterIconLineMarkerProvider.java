@@ -16,9 +16,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.LocalFileSystem;
-import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.openapi.vfs.VirtualFileVisitor;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
@@ -28,7 +26,6 @@ import com.jetbrains.lang.dart.psi.*;
 import com.jetbrains.lang.dart.psi.impl.DartCallExpressionImpl;
 import com.jetbrains.lang.dart.util.DartPsiImplUtil;
 import com.jetbrains.lang.dart.util.DartResolveUtil;
-import info.debatty.java.stringsimilarity.JaroWinkler;
 import io.flutter.FlutterBundle;
 import io.flutter.sdk.FlutterSdk;
 import io.flutter.sdk.FlutterSdkUtil;
@@ -39,6 +36,7 @@ import org.jetbrains.annotations.VisibleForTesting;
 
 import javax.swing.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.flutter.dart.DartPsiUtil.*;
 
@@ -47,7 +45,11 @@ import static io.flutter.dart.DartPsiUtil.*;
 // that could return null, but they seldom trigger, so the return is on the same line as the if statement.
 public class FlutterIconLineMarkerProvider extends LineMarkerProviderDescriptor {
 
-  public static final Map<String, Set<String>> KnownPaths = new HashMap<>();
+  /**
+   * Maps icon class names to the paths they may be declared in. The icon preview analysis adds to this concurrently
+   * with highlighting.
+   */
+  public static final Map<String, Set<String>> KnownPaths = new ConcurrentHashMap<>();
   private static final Map<String, String> BuiltInPaths = new HashMap<>();
   private static final @NotNull Logger LOG = Logger.getInstance(FlutterIconLineMarkerProvider.class);
   private static final String MaterialRelativeAssetPath = "/bin/cache/artifacts/material_fonts/MaterialIcons-Regular.otf";
@@ -69,15 +71,19 @@ public class FlutterIconLineMarkerProvider extends LineMarkerProviderDescriptor
 
   public static void initialize() {
     KnownPaths.clear();
-    KnownPaths.put("Icons", new HashSet<>(Collections.singleton("packages/flutter/lib/src/material")));
-    KnownPaths.put("IconData", new HashSet<>(Collections.singleton("packages/flutter/lib/src/widgets")));
-    KnownPaths.put("CupertinoIcons", new HashSet<>(Collections.singleton("packages/flutter/lib/src/cupertino")));
+    addKnownPath("Icons", "packages/flutter/lib/src/material");
+    addKnownPath("IconData", "packages/flutter/lib/src/widgets");
+    addKnownPath("CupertinoIcons", "packages/flutter/lib/src/cupertino");
     BuiltInPaths.clear();
     BuiltInPaths.put("Icons", MaterialRelativeIconsPath);
     BuiltInPaths.put("IconData", MaterialRelativeIconsPath);
     BuiltInPaths.put("CupertinoIcons", CupertinoRelativeIconsPath);
   }
 
+  public static void addKnownPath(@NotNull String className, @NotNull String path) {
+    KnownPaths.computeIfAbsent(className, (name) -> ConcurrentHashMap.newKeySet()).add(path);
+  }
+
   @Nullable("null means disabled")
   @Override
   public @GutterName String getName() {
@@ -213,7 +219,7 @@ public class FlutterIconLineMarkerProvider extends LineMarkerProviderDescriptor
           assert knownPath != null;
           final IconInfo iconDef = findDefinition(name, iconName, element.getProject(), knownPath);
           if (iconDef == null) return null;
-          icon = findIconFromDef(name, iconDef, knownPath);
+          icon = findIconFromDef(name, iconDef, knownPath, element.getProject());
         }
         if (icon != null) {
           return createLineMarker(element, icon);
@@ -312,6 +318,15 @@ public class FlutterIconLineMarkerProvider extends LineMarkerProviderDescriptor
     assert LocalFileSystem.getInstance() != null;
     final VirtualFile virtualFile = LocalFileSystem.getInstance().findFileByPath(path);
     if (virtualFile == null) return null;
+    final Map<String, IconDataScanner.IconDefinition> icons = IconDataIndex.getIcons(project, virtualFile);
+    if (!icons.isEmpty()) {
+      final IconInfo info = findIndexedDefinition(className, iconName, icons);
+      if (info != null) {
+        return info;
+      }
+    }
+    // The file isn't indexed, e.g. it is outside the project and its libraries or indexing hasn't finished, or the
+    // icon is declared in a shape the scanner doesn't recognize.
     final PsiFile psiFile = PsiManager.getInstance(project).findFile(virtualFile);
     if (psiFile == null) {
       return null;
@@ -322,7 +337,27 @@ public class FlutterIconLineMarkerProvider extends LineMarkerProviderDescriptor
   }
 
   @Nullable
-  private Icon findIconFromDef(@NotNull String iconClassName, @NotNull IconInfo iconDef, @NotNull String path) {
+  private static IconInfo findIndexedDefinition(@NotNull String className,
+                                                @NotNull String iconName,
+                                                @NotNull Map<String, IconDataScanner.IconDefinition> icons) {
+    // An empty class name matches the icon in any class of the file.
+    final String suffix = "." + iconName;
+    for (Map.Entry<String, IconDataScanner.IconDefinition> entry : icons.entrySet()) {
+      final String key = entry.getKey();
+      if (className.isEmpty() ? key.endsWith(suffix) : key.equals(className + suffix)) {
+        final IconDataScanner.IconDefinition definition = entry.getValue();
+        final String declaringClass = key.substring(0, key.length() - suffix.length());
+        return new IconInfo(declaringClass, iconName, definition.fontFamily(), "0x" + Integer.toHexString(definition.codepoint()));
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private Icon findIconFromDef(@NotNull String iconClassName,
+                               @NotNull IconInfo iconDef,
+                               @NotNull String path,
+                               @NotNull Project project) {
     assert LocalFileSystem.getInstance() != null;
     final VirtualFile virtualFile = LocalFileSystem.getInstance().findFileByPath(path);
     if (virtualFile == null) return null;
@@ -330,58 +365,20 @@ public class FlutterIconLineMarkerProvider extends LineMarkerProviderDescriptor
     while (parent != null && !parent.getName().equals("lib")) {
       parent = parent.getParent();
     }
-    if (parent != null) parent = parent.getParent(); // We have to search the entire project.
+    if (parent != null) parent = parent.getParent(); // The package directory, whose font files may be anywhere below.
     if (parent == null) {
       return null;
     }
-    final List<VirtualFile> ttfFiles = new ArrayList<>();
-    VfsUtilCore.visitChildrenRecursively(parent, new VirtualFileVisitor<Void>() {
-      @Override
-      public boolean visitFile(@NotNull VirtualFile file) {
-        final String ext = file.getExtension();
-        if ("ttf".equals(ext)) {
-          ttfFiles.add(file);
-          return false;
-        }
-        else {
-          return super.visitFile(file);
-        }
-      }
-    });
-    double match = -1;
-    final String family = iconDef.familyName;
-    VirtualFile bestFileMatch = null;
-    if (family != null) {
-      for (VirtualFile file : ttfFiles) {
-        assert file != null;
-        final double n = findPattern(file.getNameWithoutExtension(), family);
-        if (n > match) {
-          match = n;
-          bestFileMatch = file;
-        }
-      }
-    } // If the family is null we could do a search for font files named similar to the package.
-    if (bestFileMatch != null) {
-      final IconPreviewGenerator generator = new IconPreviewGenerator(bestFileMatch.getPath());
-      final Icon icon = generator.convert(iconDef.codepoint);
-      if (icon != null) return icon;
-    }
-    for (VirtualFile file : ttfFiles) {
-      assert file != null;
-      final IconPreviewGenerator generator = new IconPreviewGenerator(file.getPath());
+    // The package's font files are looked up in the font file index, the ones declared for the family or named most
+    // like it first; the first one with a glyph for the codepoint wins.
+    for (String fontPath : FontFileIndex.getInstance(project).getCandidates(parent, iconDef.familyName)) {
+      final IconPreviewGenerator generator = new IconPreviewGenerator(fontPath);
       final Icon icon = generator.convert(iconDef.codepoint);
       if (icon != null) return icon;
     }
     return null;
   }
 
-  public double findPattern(@NotNull String t, @NotNull String p) {
-    // This is from https://github.com/tdebatty/java-string-similarity
-    // It's MIT license file is: https://github.com/tdebatty/java-string-similarity/blob/master/LICENSE.md
-    final JaroWinkler jw = new JaroWinkler();
-    return jw.similarity(t, p);
-  }
-
   static class IconInfo {
     final @NotNull String iconName;
     final @NotNull String className;
@@ -5,34 +5,27 @@
  */
 package io.flutter.editor;
 
-import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.IconLoader;
-import io.flutter.FlutterUtils;
-import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
-import java.io.IOException;
-import java.util.Properties;
 
 public class FlutterMaterialIcons {
-  private static final @NotNull Logger LOG = Logger.getInstance(FlutterMaterialIcons.class);
-
-  private static final Properties icons;
-
-  static {
-    icons = new Properties();
+  /**
+   * Maps icon names to codepoints. The image of each icon is {@code /flutter/icons/material/<name>.png}.
+   * <p>
+   * Aliases share the image of the icon they stand for, but not its codepoint, which maps to a single name.
+   */
+  private static final ResourceTable icons = ResourceTable.load("/flutter/icons/material", true);
 
+  public static Icon getIconForHex(String hexValue) {
+    final int codepoint;
     try {
-      icons.load(FlutterMaterialIcons.class.getResourceAsStream("/flutter/icons/material.properties"));
+      codepoint = Integer.parseInt(hexValue, 16);
     }
-    catch (IOException e) {
-      FlutterUtils.warn(LOG, e);
+    catch (NumberFormatException e) {
+      return null;
     }
-  }
-
-  public static Icon getIconForHex(String hexValue) {
-    final String iconName = icons.getProperty(hexValue + ".codepoint");
-    return getIcon(iconName);
+    return getIcon(icons.getPreferredName(codepoint));
   }
 
   public static Icon getIconForName(String name) {
@@ -40,13 +33,9 @@ public class FlutterMaterialIcons {
   }
 
   private static Icon getIcon(String name) {
-    if (name == null) {
-      return null;
-    }
-    final String path = icons.getProperty(name);
-    if (path == null) {
+    if (name == null || icons.indexOf(name) < 0) {
       return null;
     }
-    return IconLoader.findIcon("/flutter/icons/" + path, FlutterMaterialIcons.class);
+    return IconLoader.findIcon("/flutter/icons/material/" + name + ".png", FlutterMaterialIcons.class);
   }
 }
@@ -7,6 +7,7 @@ package io.flutter.editor;
 
 import com.intellij.application.options.CodeStyle;
 import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.fileEditor.FileDocumentManagerListener;
@@ -39,6 +40,14 @@ import java.util.List;
  * A manager class to run actions on save (formatting, organize imports, ...).
  */
 public class FlutterSaveActionsManager {
+  private static final @NotNull Logger LOG = Logger.getInstance(FlutterSaveActionsManager.class);
+
+  private static final String COMMAND_NAME = "Format on Save";
+
+  /**
+   * Groups the edits of the save actions, so that they are undone together.
+   */
+  private static final String COMMAND_GROUP_ID = "io.flutter.editor.FlutterSaveActionsManager";
 
   /**
    * Initialize the save actions manager for the given project.
@@ -112,96 +121,121 @@ public class FlutterSaveActionsManager {
     }
 
     if (DartAnalysisServerService.getInstance(myProject).serverReadyForRequest()) {
-      if (settings.isOrganizeImportsOnSave()) {
-        performOrganizeThenFormat(document, file, psiFile);
-      }
-      else {
-        performFormat(document, file, false, psiFile);
-      }
+      performSaveActions(document, file, psiFile, settings.isOrganizeImportsOnSave());
     }
   }
 
-  private void performOrganizeThenFormat(@NotNull Document document, @NotNull VirtualFile file, @NotNull PsiFile psiFile) {
-    final String filePath = file.getPath();
-    final SourceFileEdit fileEdit = DartAnalysisServerService.getInstance(myProject).edit_organizeDirectives(filePath);
-
-    if (fileEdit != null) {
-      OpenApiUtils.safeInvokeLater(() -> {
-        if (myProject.isDisposed()) {
-          return;
-        }
+  /**
+   * Organizes imports, if requested, and formats the file, then saves it again if either changed it.
+   * <p>
+   * Both requests are made on this thread, as soon as the analysis server can see the previous result, and their edits
+   * are applied as one undoable command.
+   */
+  private void performSaveActions(@NotNull Document document, @NotNull VirtualFile file, @NotNull PsiFile psiFile,
+                                  boolean organizeImports) {
+    final long start = System.currentTimeMillis();
+    if (!organizeImports) {
+      performFormat(document, file, psiFile, false, start);
+      return;
+    }
 
-        new WriteCommandAction.Simple(myProject) {
-          @Override
-          protected void run() {
-            if (myProject.isDisposed()) {
-              return;
-            }
+    final SourceFileEdit fileEdit = DartAnalysisServerService.getInstance(myProject).edit_organizeDirectives(file.getPath());
+    if (fileEdit == null || fileEdit.getEdits().isEmpty()) {
+      // The imports are already organized, so the file can be formatted as it is.
+      performFormat(document, file, psiFile, false, start);
+      return;
+    }
 
-            AssistUtils.applySourceEdits(myProject, file, document, fileEdit.getEdits(), Collections.emptySet());
+    OpenApiUtils.safeInvokeLater(() -> {
+      if (myProject.isDisposed()) {
+        return;
+      }
 
-            // Committing a document here is required in order to guarantee that DartPostFormatProcessor.processText() is called afterwards.
-            PsiDocumentManager.getInstance(myProject).commitDocument(document);
+      WriteCommandAction.writeCommandAction(myProject).withName(COMMAND_NAME).withGroupId(COMMAND_GROUP_ID).run(() -> {
+        AssistUtils.applySourceEdits(myProject, file, document, fileEdit.getEdits(), Collections.emptySet());
 
-            // Run this in an invoke later so that we don't exeucte the initial part of performFormat in a write action.
-            //noinspection CodeBlock2Expr
-            OpenApiUtils.safeInvokeLater(() -> {
-              performFormat(document, file, true, psiFile);
-            });
-          }
-        }.execute();
+        // Committing a document here is required in order to guarantee that DartPostFormatProcessor.processText() is called afterwards.
+        PsiDocumentManager.getInstance(myProject).commitDocument(document);
       });
-    }
+
+      // The format request is made outside of the write action, since it waits for the analysis server.
+      performFormat(document, file, psiFile, true, start);
+    });
   }
 
-  private void performFormat(@NotNull Document document, @NotNull VirtualFile file, boolean reSave, @NotNull PsiFile psiFile) {
+  private void performFormat(@NotNull Document document,
+                             @NotNull VirtualFile file,
+                             @NotNull PsiFile psiFile,
+                             boolean reSave,
+                             long start) {
     final int lineLength = getRightMargin(psiFile);
     final DartAnalysisServerService das = DartAnalysisServerService.getInstance(myProject);
 
     das.updateFilesContent();
 
+    // The format edits are relative to this version of the document.
+    final long modificationStamp = document.getModificationStamp();
+    final CharSequence text = document.getImmutableCharSequence();
+    final long formatStart = System.currentTimeMillis();
     final DartAnalysisServerService.FormatResult formatResult = das.edit_format(file, 0, 0, lineLength);
+    final long formatDuration = System.currentTimeMillis() - formatStart;
 
-    if (formatResult == null) {
+    final List<SourceEdit> sourceEdits = formatResult == null ? null : formatResult.getEdits();
+    if (sourceEdits == null || sourceEdits.isEmpty()) {
       if (reSave) {
         FileDocumentManager.getInstance().saveDocument(document);
       }
+      logTiming(file, start, formatDuration, 0);
       return;
     }
 
+    final List<TextDiff.Edit> edits = TextDiff.compute(text, applySourceEdits(text, sourceEdits));
+
     OpenApiUtils.safeInvokeLater(() -> {
       if (myProject.isDisposed()) {
         return;
       }
 
-      new WriteCommandAction.Simple(myProject) {
-        @Override
-        protected void run() {
-          if (myProject.isDisposed()) {
-            return;
+      // If the document was edited while waiting, the edits no longer apply; it is formatted on the next save.
+      final boolean didFormat = !edits.isEmpty() && document.getModificationStamp() == modificationStamp;
+      if (didFormat) {
+        WriteCommandAction.writeCommandAction(myProject).withName(COMMAND_NAME).withGroupId(COMMAND_GROUP_ID).run(() -> {
+          for (int i = edits.size() - 1; i >= 0; i--) {
+            final TextDiff.Edit edit = edits.get(i);
+            document.replaceString(edit.offset(), edit.offset() + edit.length(), edit.replacement());
           }
+          PsiDocumentManager.getInstance(myProject).commitDocument(document);
+        });
+      }
+      logTiming(file, start, formatDuration, didFormat ? edits.size() : 0);
+
+      // Don't perform the save in a write action - it could invoke EDT work.
+      if (reSave || didFormat) {
+        //noinspection CodeBlock2Expr
+        OpenApiUtils.safeInvokeLater(() -> {
+          FileDocumentManager.getInstance().saveDocument(document);
+        });
+      }
+    });
+  }
 
-          boolean didFormat = false;
-
-          final List<SourceEdit> edits = formatResult.getEdits();
-          if (edits != null && edits.size() == 1) {
-            final String replacement = StringUtil.convertLineSeparators(edits.get(0).getReplacement());
-            document.replaceString(0, document.getTextLength(), replacement);
-            PsiDocumentManager.getInstance(myProject).commitDocument(document);
-
-            didFormat = true;
-          }
+  /**
+   * Returns the text with the analysis server's edits applied, in their order.
+   */
+  @NotNull
+  private static String applySourceEdits(@NotNull CharSequence text, @NotNull List<SourceEdit> edits) {
+    final StringBuilder builder = new StringBuilder(text);
+    for (SourceEdit edit : edits) {
+      builder.replace(edit.getOffset(), edit.getOffset() + edit.getLength(), StringUtil.convertLineSeparators(edit.getReplacement()));
+    }
+    return builder.toString();
+  }
 
-          // Don't perform the save in a write action - it could invoke EDT work.
-          if (reSave || didFormat) {
-            //noinspection CodeBlock2Expr
-            OpenApiUtils.safeInvokeLater(() -> {
-              FileDocumentManager.getInstance().saveDocument(document);
-            });
-          }
-        }
-      }.execute();
-    });
+  private static void logTiming(@NotNull VirtualFile file, long start, long formatDuration, int editCount) {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Save actions for " + file.getName() + ": " + (System.currentTimeMillis() - start) + "ms, of which formatting " +
+                formatDuration + "ms, applying " + editCount + " edits");
+    }
   }
 
   private static int getRightMargin(@NotNull PsiFile psiFile) {
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import info.debatty.java.stringsimilarity.JaroWinkler;
+import io.flutter.FlutterUtils;
+import io.flutter.pub.PubRoot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps track of the font files in the packages that declare custom icon classes, so that icon previews don't have to
+ * search a package for fonts on every gutter pass.
+ * <p>
+ * A package is scanned once, when an icon from it is first shown. After that its font files are kept up to date from
+ * VFS events, as are the font families declared in the {@code fonts:} section of its pubspec.yaml.
+ */
+public class FontFileIndex implements Disposable {
+  /**
+   * Maps the paths of package directories to what we know about them.
+   */
+  private final Map<String, PackageFonts> packages = new HashMap<>();
+
+  @NotNull
+  public static FontFileIndex getInstance(@NotNull Project project) {
+    return Objects.requireNonNull(project.getService(FontFileIndex.class));
+  }
+
+  public FontFileIndex() {
+    ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        for (VFileEvent event : events) {
+          handleEvent(event);
+        }
+      }
+    });
+  }
+
+  /**
+   * Returns the paths of the font files in the given package directory that could hold the glyphs of the given font
+   * family, best candidates first.
+   * <p>
+   * Fonts the pubspec declares for the family come first, then the font file whose name is most like the family, and
+   * then the package's other font files.
+   */
+  @NotNull
+  public List<String> getCandidates(@NotNull VirtualFile packageDir, @Nullable String family) {
+    // Callers hold a read action, so no VFS events are delivered while a package is searched.
+    synchronized (packages) {
+      final PackageFonts fonts = packages.computeIfAbsent(packageDir.getPath(), (path) -> new PackageFonts());
+      if (fonts.fontFiles == null) {
+        fonts.fontFiles = new LinkedHashSet<>(findFontFiles(packageDir));
+      }
+      if (fonts.declaredFonts == null) {
+        fonts.declaredFonts = readDeclaredFonts(packageDir);
+      }
+      final Set<String> fontFiles = fonts.fontFiles;
+      final Map<String, List<String>> declaredFonts = fonts.declaredFonts;
+      return fonts.candidates.computeIfAbsent(family == null ? "" : family,
+                                              (key) -> rankFontFiles(fontFiles, declaredFonts, packageDir.getPath(), family));
+    }
+  }
+
+  @NotNull
+  private static List<String> findFontFiles(@NotNull VirtualFile packageDir) {
+    final List<String> result = new ArrayList<>();
+    VfsUtilCore.visitChildrenRecursively(packageDir, new VirtualFileVisitor<Void>() {
+      @Override
+      public boolean visitFile(@NotNull VirtualFile file) {
+        if (!file.isDirectory() && isFontFile(file.getPath())) {
+          result.add(file.getPath());
+          return false;
+        }
+        return super.visitFile(file);
+      }
+    });
+    return result;
+  }
+
+  @NotNull
+  private static Map<String, List<String>> readDeclaredFonts(@NotNull VirtualFile packageDir) {
+    final VirtualFile pubspec = packageDir.findChild(PubRoot.PUBSPEC_YAML);
+    if (pubspec == null || pubspec.isDirectory()) {
+      return Map.of();
+    }
+    try {
+      return getFontDeclarations(FlutterUtils.readPubspecFileToMap(pubspec));
+    }
+    catch (IOException e) {
+      return Map.of();
+    }
+  }
+
+  /**
+   * Returns the font asset paths declared for each family in the {@code flutter: fonts:} section of a pubspec.
+   */
+  @VisibleForTesting
+  @NotNull
+  static Map<String, List<String>> getFontDeclarations(@Nullable Map<String, Object> pubspec) {
+    if (pubspec == null || !(pubspec.get("flutter") instanceof Map<?, ?> flutter) || !(flutter.get("fonts") instanceof List<?> fonts)) {
+      return Map.of();
+    }
+    final Map<String, List<String>> result = new LinkedHashMap<>();
+    for (Object font : fonts) {
+      if (!(font instanceof Map<?, ?> fontMap) || !(fontMap.get("family") instanceof String family)) {
+        continue;
+      }
+      final List<String> assets = result.computeIfAbsent(family, (k) -> new ArrayList<>());
+      if (fontMap.get("fonts") instanceof List<?> files) {
+        for (Object file : files) {
+          if (file instanceof Map<?, ?> fileMap && fileMap.get("asset") instanceof String asset) {
+            assets.add(asset);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  @VisibleForTesting
+  @NotNull
+  static List<String> rankFontFiles(@NotNull Collection<String> fontFiles,
+                                    @NotNull Map<String, List<String>> declaredFonts,
+                                    @NotNull String packagePath,
+                                    @Nullable String family) {
+    final Set<String> result = new LinkedHashSet<>();
+    if (family != null) {
+      final List<String> assets = declaredFonts.get(family);
+      if (assets != null) {
+        for (String asset : assets) {
+          final String path = packagePath + "/" + asset;
+          if (fontFiles.contains(path)) {
+            result.add(path);
+          }
+        }
+      }
+
+      final JaroWinkler jw = new JaroWinkler();
+      double match = -1;
+      String bestMatch = null;
+      for (String path : fontFiles) {
+        final double n = jw.similarity(getNameWithoutExtension(path), family);
+        if (n > match) {
+          match = n;
+          bestMatch = path;
+        }
+      }
+      if (bestMatch != null) {
+        result.add(bestMatch);
+      }
+    }
+    result.addAll(fontFiles);
+    return List.copyOf(result);
+  }
+
+  @NotNull
+  private static String getNameWithoutExtension(@NotNull String path) {
+    final String name = path.substring(path.lastIndexOf('/') + 1);
+    final int dot = name.lastIndexOf('.');
+    return dot < 0 ? name : name.substring(0, dot);
+  }
+
+  private static boolean isFontFile(@NotNull String path) {
+    return path.endsWith(".ttf") || path.endsWith(".otf");
+  }
+
+  private void handleEvent(@NotNull VFileEvent event) {
+    if (event instanceof VFileContentChangeEvent) {
+      if (event.getPath().endsWith("/" + PubRoot.PUBSPEC_YAML)) {
+        changed(event.getPath());
+      }
+    }
+    else if (event instanceof VFileCreateEvent createEvent) {
+      added(event.getPath(), createEvent.isDirectory());
+    }
+    else if (event instanceof VFileDeleteEvent) {
+      removed(event.getPath());
+    }
+    else if (event instanceof VFileCopyEvent copyEvent) {
+      added(copyEvent.getNewParent().getPath() + "/" + copyEvent.getNewChildName(), copyEvent.getFile().isDirectory());
+    }
+    else if (event instanceof VFileMoveEvent moveEvent) {
+      removed(moveEvent.getOldPath());
+      added(moveEvent.getNewPath(), moveEvent.getFile().isDirectory());
+    }
+    else if (event instanceof VFilePropertyChangeEvent propertyEvent && propertyEvent.isRename()) {
+      removed(propertyEvent.getOldPath());
+      added(propertyEvent.getNewPath(), propertyEvent.getFile().isDirectory());
+    }
+  }
+
+  private void added(@NotNull String path, boolean isDirectory) {
+    synchronized (packages) {
+      final Map.Entry<String, PackageFonts> entry = findPackage(path);
+      if (entry == null) {
+        return;
+      }
+      final PackageFonts fonts = entry.getValue();
+      if (isDirectory) {
+        // A directory may come with font files of its own; look again the next time.
+        fonts.fontFiles = null;
+      }
+      else if (isFontFile(path) && fonts.fontFiles != null) {
+        fonts.fontFiles.add(path);
+      }
+      else if (path.equals(entry.getKey() + "/" + PubRoot.PUBSPEC_YAML)) {
+        fonts.declaredFonts = null;
+      }
+      fonts.candidates.clear();
+    }
+  }
+
+  private void removed(@NotNull String path) {
+    synchronized (packages) {
+      // Forget packages that were themselves removed.
+      packages.keySet().removeIf((packagePath) -> packagePath.equals(path) || packagePath.startsWith(path + "/"));
+
+      final Map.Entry<String, PackageFonts> entry = findPackage(path);
+      if (entry == null) {
+        return;
+      }
+      final PackageFonts fonts = entry.getValue();
+      if (fonts.fontFiles != null) {
+        fonts.fontFiles.removeIf((fontPath) -> fontPath.equals(path) || fontPath.startsWith(path + "/"));
+      }
+      if (path.equals(entry.getKey() + "/" + PubRoot.PUBSPEC_YAML)) {
+        fonts.declaredFonts = null;
+      }
+      fonts.candidates.clear();
+    }
+  }
+
+  private void changed(@NotNull String pubspecPath) {
+    synchronized (packages) {
+      final Map.Entry<String, PackageFonts> entry = findPackage(pubspecPath);
+      if (entry != null && pubspecPath.equals(entry.getKey() + "/" + PubRoot.PUBSPEC_YAML)) {
+        entry.getValue().declaredFonts = null;
+        entry.getValue().candidates.clear();
+      }
+    }
+  }
+
+  /**
+   * Returns the innermost known package that contains the given path.
+   */
+  @Nullable
+  private Map.Entry<String, PackageFonts> findPackage(@NotNull String path) {
+    Map.Entry<String, PackageFonts> result = null;
+    for (Map.Entry<String, PackageFonts> entry : packages.entrySet()) {
+      final String packagePath = entry.getKey();
+      if (path.startsWith(packagePath + "/") && (result == null || packagePath.length() > result.getKey().length())) {
+        result = entry;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void dispose() {
+    synchronized (packages) {
+      packages.clear();
+    }
+  }
+
+  private static class PackageFonts {
+    /**
+     * The font files in the package, or null if the package needs to be searched again.
+     */
+    @Nullable Set<String> fontFiles;
+
+    /**
+     * The fonts declared in the package's pubspec, or null if it needs to be read again.
+     */
+    @Nullable Map<String, List<String>> declaredFonts;
+
+    /**
+     * Ranked font files by family name; cleared whenever something in the package changes.
+     */
+    final Map<String, List<String>> candidates = new HashMap<>();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.lang.dart.DartFileType;
+import io.flutter.editor.IconDataScanner.IconDefinition;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Indexes the {@code IconData} constants declared in Dart files, in the project as well as in the SDK and packages.
+ * <p>
+ * Keys are {@code ClassName.fieldName}, e.g. {@code CupertinoIcons.left_chevron}, and values hold the codepoint and font.
+ */
+public class IconDataIndex extends FileBasedIndexExtension<String, IconDefinition> {
+  public static final ID<String, IconDefinition> NAME = ID.create("io.flutter.editor.IconDataIndex");
+  private static final int VERSION = 2;
+
+  @Override
+  public @NotNull ID<String, IconDefinition> getName() {
+    return NAME;
+  }
+
+  @Override
+  public @NotNull DataIndexer<String, IconDefinition, FileContent> getIndexer() {
+    return inputData -> IconDataScanner.scan(inputData.getContentAsText());
+  }
+
+  @Override
+  public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @Override
+  public @NotNull DataExternalizer<IconDefinition> getValueExternalizer() {
+    return new DataExternalizer<>() {
+      @Override
+      public void save(@NotNull DataOutput out, IconDefinition value) throws IOException {
+        out.writeInt(value.codepoint());
+        writeNullableString(out, value.fontFamily());
+        writeNullableString(out, value.fontPackage());
+      }
+
+      @Override
+      public IconDefinition read(@NotNull DataInput in) throws IOException {
+        return new IconDefinition(in.readInt(), readNullableString(in), readNullableString(in));
+      }
+    };
+  }
+
+  @Override
+  public int getVersion() {
+    return VERSION;
+  }
+
+  @Override
+  public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(DartFileType.INSTANCE);
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  /**
+   * Return the icons declared in the given file, or an empty map if the file isn't indexed or indexing is in progress.
+   */
+  @NotNull
+  public static Map<String, IconDefinition> getIcons(@NotNull Project project, @NotNull VirtualFile file) {
+    if (DumbService.isDumb(project)) {
+      return Map.of();
+    }
+    return FileBasedIndex.getInstance().getFileData(NAME, file, project);
+  }
+
+  private static void writeNullableString(@NotNull DataOutput out, @Nullable String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(@NotNull DataInput in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
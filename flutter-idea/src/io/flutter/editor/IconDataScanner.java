@@ -0,0 +1,291 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the {@code static const IconData} declarations in the text of a Dart file, without building PSI.
+ * <p>
+ * This recognizes the shape used by the Flutter SDK's icon classes and by generated icon font classes:
+ * <pre>
+ *   class MyIcons {
+ *     static const _kFontFam = 'MyIcons';
+ *     static const IconData heart = IconData(0xe800, fontFamily: _kFontFam, fontPackage: null);
+ *   }
+ * </pre>
+ * Font family and package names may be string literals or references to string constants declared in the same file.
+ * Each icon is attributed to the class whose body it is declared in, found by matching braces.
+ */
+public class IconDataScanner {
+  private static final Pattern CLASS_PATTERN = Pattern.compile("\\bclass\\s+(\\w+)");
+  private static final Pattern STRING_CONSTANT_PATTERN =
+    Pattern.compile("\\bconst\\s+(?:String\\s+)?(\\w+)\\s*=\\s*(?:'([^'\\n]*)'|\"([^\"\\n]*)\")\\s*;");
+  private static final Pattern ICON_DATA_PATTERN = Pattern.compile(
+    "\\bstatic\\s+const\\s+(IconData\\s+)?(\\w+)\\s*=\\s*(?:const\\s+)?(?:\\w+\\.)?(\\w+)\\s*\\(\\s*(0[xX][0-9a-fA-F]+|\\d+)([^;]*);");
+  private static final Pattern FONT_FAMILY_PATTERN = namedArgumentPattern("fontFamily");
+  private static final Pattern FONT_PACKAGE_PATTERN = namedArgumentPattern("fontPackage");
+
+  /**
+   * The codepoint and font of an {@code IconData} constant.
+   */
+  public record IconDefinition(int codepoint, @Nullable String fontFamily, @Nullable String fontPackage) {
+  }
+
+  /**
+   * Return the icons declared in the given Dart source, keyed by {@code ClassName.fieldName} in declaration order.
+   */
+  @NotNull
+  public static Map<String, IconDefinition> scan(@NotNull CharSequence source) {
+    // Nearly all Dart files can be skipped without looking any further.
+    if (!contains(source, "IconData")) {
+      return Map.of();
+    }
+
+    final String text = blankComments(source);
+    final List<ClassBody> classes = findClassBodies(text);
+
+    final Map<String, String> constants = new HashMap<>();
+    final Matcher constantMatcher = STRING_CONSTANT_PATTERN.matcher(text);
+    while (constantMatcher.find()) {
+      constants.putIfAbsent(constantMatcher.group(1),
+                            constantMatcher.group(2) != null ? constantMatcher.group(2) : constantMatcher.group(3));
+    }
+
+    final Map<String, IconDefinition> icons = new LinkedHashMap<>();
+    final Matcher iconMatcher = ICON_DATA_PATTERN.matcher(text);
+    int classIndex = 0;
+    while (iconMatcher.find()) {
+      // Icons are only recognized when they are declared or constructed as IconData.
+      if (iconMatcher.group(1) == null && !"IconData".equals(iconMatcher.group(3))) {
+        continue;
+      }
+      final int codepoint;
+      try {
+        codepoint = parseCodepoint(iconMatcher.group(4));
+      }
+      catch (NumberFormatException e) {
+        continue;
+      }
+      // Class bodies don't nest and are in source order, as are the icons.
+      while (classIndex < classes.size() && classes.get(classIndex).end < iconMatcher.start()) {
+        classIndex++;
+      }
+      final boolean inClass = classIndex < classes.size() && classes.get(classIndex).start < iconMatcher.start();
+      final String className = inClass ? classes.get(classIndex).name : "";
+      final String arguments = iconMatcher.group(5);
+      icons.put(className + "." + iconMatcher.group(2), new IconDefinition(
+        codepoint,
+        findStringArgument(FONT_FAMILY_PATTERN, arguments, constants),
+        findStringArgument(FONT_PACKAGE_PATTERN, arguments, constants)));
+    }
+    return icons;
+  }
+
+  /**
+   * The body of a class declaration, from its opening brace to its closing one.
+   */
+  private record ClassBody(@NotNull String name, int start, int end) {
+  }
+
+  /**
+   * Find the bodies of the classes declared in the given text, which has had its comments blanked.
+   */
+  @NotNull
+  private static List<ClassBody> findClassBodies(@NotNull String text) {
+    final List<ClassBody> result = new ArrayList<>();
+    final Matcher matcher = CLASS_PATTERN.matcher(text);
+    int offset = 0;
+    while (offset < text.length() && matcher.find(offset)) {
+      // Skip the superclass, mixins and interfaces; a mixin application such as `class A = B with C;` has no body.
+      int start = matcher.end();
+      while (start < text.length() && text.charAt(start) != '{' && text.charAt(start) != ';') {
+        start++;
+      }
+      if (start >= text.length() || text.charAt(start) == ';') {
+        offset = start + 1;
+        continue;
+      }
+      final int end = findClosingBrace(text, start);
+      result.add(new ClassBody(matcher.group(1), start, end));
+      offset = end + 1;
+    }
+    return result;
+  }
+
+  /**
+   * Return the offset of the brace that closes the one at the given offset, or the end of the text if it isn't closed.
+   * Braces in string literals, including those of interpolations, don't count.
+   */
+  private static int findClosingBrace(@NotNull String text, int open) {
+    int depth = 0;
+    int i = open;
+    while (i < text.length()) {
+      final char c = text.charAt(i);
+      if (c == '\'' || c == '"') {
+        i = skipString(text, i);
+        continue;
+      }
+      if (c == '{') {
+        depth++;
+      }
+      else if (c == '}') {
+        depth--;
+        if (depth == 0) {
+          return i;
+        }
+      }
+      i++;
+    }
+    return text.length();
+  }
+
+  /**
+   * Return the offset just past the string literal that starts at the given offset, skipping over the expressions of
+   * any interpolations in it.
+   */
+  private static int skipString(@NotNull String text, int start) {
+    final char quote = text.charAt(start);
+    final boolean raw = start > 0 && text.charAt(start - 1) == 'r';
+    final String tripleQuote = String.valueOf(quote).repeat(3);
+    final boolean multiline = text.startsWith(tripleQuote, start);
+    int i = start + (multiline ? 3 : 1);
+    while (i < text.length()) {
+      final char c = text.charAt(i);
+      if (!raw && c == '\\') {
+        i += 2;
+      }
+      else if (!raw && c == '$' && i + 1 < text.length() && text.charAt(i + 1) == '{') {
+        i = findClosingBrace(text, i + 1) + 1;
+      }
+      else if (c == quote && (!multiline || text.startsWith(tripleQuote, i))) {
+        return i + (multiline ? 3 : 1);
+      }
+      else if (c == '\n' && !multiline) {
+        return i;
+      }
+      else {
+        i++;
+      }
+    }
+    return text.length();
+  }
+
+  @NotNull
+  private static Pattern namedArgumentPattern(@NotNull String name) {
+    return Pattern.compile("\\b" + name + "\\s*:\\s*(?:'([^']*)'|\"([^\"]*)\"|([\\w.]+))");
+  }
+
+  @Nullable
+  private static String findStringArgument(@NotNull Pattern pattern, @NotNull String arguments, @NotNull Map<String, String> constants) {
+    final Matcher matcher = pattern.matcher(arguments);
+    if (!matcher.find()) {
+      return null;
+    }
+    if (matcher.group(1) != null) {
+      return matcher.group(1);
+    }
+    if (matcher.group(2) != null) {
+      return matcher.group(2);
+    }
+    // A reference such as iconFont or CupertinoIcons.iconFont; null literals and unknown names have no value.
+    final String reference = matcher.group(3);
+    return constants.get(reference.substring(reference.lastIndexOf('.') + 1));
+  }
+
+  private static int parseCodepoint(@NotNull String text) throws NumberFormatException {
+    return text.startsWith("0x") || text.startsWith("0X")
+           ? Integer.parseUnsignedInt(text.substring(2), 16)
+           : Integer.parseUnsignedInt(text);
+  }
+
+  private static boolean contains(@NotNull CharSequence source, @NotNull String word) {
+    final int last = source.length() - word.length();
+    outer:
+    for (int i = 0; i <= last; i++) {
+      for (int j = 0; j < word.length(); j++) {
+        if (source.charAt(i + j) != word.charAt(j)) {
+          continue outer;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Replace comments with spaces, so that commented-out declarations and the doc comments of the SDK icon classes
+   * aren't matched. String literals are left alone.
+   */
+  @NotNull
+  static String blankComments(@NotNull CharSequence source) {
+    final StringBuilder result = new StringBuilder(source.length());
+    final int length = source.length();
+    int i = 0;
+    while (i < length) {
+      final char c = source.charAt(i);
+      final char next = i + 1 < length ? source.charAt(i + 1) : 0;
+      if (c == '/' && next == '/') {
+        while (i < length && source.charAt(i) != '\n') {
+          result.append(' ');
+          i++;
+        }
+      }
+      else if (c == '/' && next == '*') {
+        // Dart block comments nest.
+        int depth = 0;
+        while (i < length) {
+          final char d = source.charAt(i);
+          final char e = i + 1 < length ? source.charAt(i + 1) : 0;
+          if (d == '/' && e == '*') {
+            depth++;
+            result.append("  ");
+            i += 2;
+          }
+          else if (d == '*' && e == '/') {
+            depth--;
+            result.append("  ");
+            i += 2;
+            if (depth == 0) {
+              break;
+            }
+          }
+          else {
+            result.append(d == '\n' ? '\n' : ' ');
+            i++;
+          }
+        }
+      }
+      else if (c == '\'' || c == '"') {
+        result.append(c);
+        i++;
+        while (i < length && source.charAt(i) != c && source.charAt(i) != '\n') {
+          if (source.charAt(i) == '\\' && i + 1 < length) {
+            result.append(source.charAt(i++));
+          }
+          result.append(source.charAt(i++));
+        }
+        if (i < length) {
+          result.append(source.charAt(i++));
+        }
+      }
+      else {
+        result.append(c);
+        i++;
+      }
+    }
+    return result.toString();
+  }
+}
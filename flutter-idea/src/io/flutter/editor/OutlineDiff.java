@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import com.intellij.openapi.util.TextRange;
+import io.flutter.dart.CompactFlutterOutline;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * The structural changes between two successive {@link CompactFlutterOutline}s of a file.
+ * <p>
+ * The outlines are compared in preorder. Nodes before an edit keep their offsets, and nodes after it are shifted by the
+ * change in the file's length; both are kept. The nodes in between were removed from the previous outline and added to
+ * the current one. For a typical edit that is a single small subtree, so consumers can keep what they computed for the
+ * rest of the outline.
+ */
+public final class OutlineDiff {
+  @NotNull private final CompactFlutterOutline previous;
+  @NotNull private final CompactFlutterOutline current;
+
+  /**
+   * The number of nodes kept at the start and the end of the outlines, in preorder.
+   */
+  private final int prefix;
+  private final int suffix;
+
+  private final int offsetDelta;
+
+  private OutlineDiff(@NotNull CompactFlutterOutline previous,
+                      @NotNull CompactFlutterOutline current,
+                      int prefix,
+                      int suffix,
+                      int offsetDelta) {
+    this.previous = previous;
+    this.current = current;
+    this.prefix = prefix;
+    this.suffix = suffix;
+    this.offsetDelta = offsetDelta;
+  }
+
+  @NotNull
+  public static OutlineDiff compute(@NotNull CompactFlutterOutline previous, @NotNull CompactFlutterOutline current) {
+    // The root outline spans the whole file.
+    final int offsetDelta = current.getLength(0) - previous.getLength(0);
+
+    int prefix = 0;
+    final int maxMatched = Math.min(previous.size(), current.size());
+    while (prefix < maxMatched) {
+      // Nodes that contain the edit keep their offset, but not their length.
+      if (previous.getDepth(prefix) != current.getDepth(prefix) ||
+          previous.getOffset(prefix) != current.getOffset(prefix) ||
+          previous.getCodeOffset(prefix) != current.getCodeOffset(prefix) ||
+          !isSameNode(previous, prefix, current, prefix)) {
+        break;
+      }
+      prefix++;
+    }
+
+    int suffix = 0;
+    while (suffix < maxMatched - prefix) {
+      final int i = previous.size() - 1 - suffix;
+      final int j = current.size() - 1 - suffix;
+      if (previous.getDepth(i) != current.getDepth(j) ||
+          previous.getOffset(i) + offsetDelta != current.getOffset(j) ||
+          previous.getLength(i) != current.getLength(j) ||
+          previous.getCodeOffset(i) + offsetDelta != current.getCodeOffset(j) ||
+          previous.getCodeLength(i) != current.getCodeLength(j) ||
+          !isSameNode(previous, i, current, j)) {
+        break;
+      }
+      suffix++;
+    }
+
+    return new OutlineDiff(previous, current, prefix, suffix, offsetDelta);
+  }
+
+  @NotNull
+  public CompactFlutterOutline getPrevious() {
+    return previous;
+  }
+
+  @NotNull
+  public CompactFlutterOutline getCurrent() {
+    return current;
+  }
+
+  /**
+   * Whether the outlines have the same nodes, although their offsets may have shifted.
+   */
+  public boolean isStructurallyUnchanged() {
+    return prefix + suffix == previous.size() && prefix + suffix == current.size();
+  }
+
+  /**
+   * The change in the length of the file, which is how far the kept nodes after the edit have moved.
+   */
+  public int getOffsetDelta() {
+    return offsetDelta;
+  }
+
+  /**
+   * The nodes of the previous outline from this one up to {@link #getRemovedEnd()} have no counterpart in the current
+   * one.
+   */
+  public int getRemovedStart() {
+    return prefix;
+  }
+
+  public int getRemovedEnd() {
+    return previous.size() - suffix;
+  }
+
+  /**
+   * The nodes of the current outline from this one up to {@link #getAddedEnd()} have no counterpart in the previous
+   * one.
+   */
+  public int getAddedStart() {
+    return prefix;
+  }
+
+  public int getAddedEnd() {
+    return current.size() - suffix;
+  }
+
+  /**
+   * The range of the current file covered by added nodes, or null if no nodes were added.
+   */
+  @Nullable
+  public TextRange getChangedRange() {
+    if (getAddedStart() == getAddedEnd()) {
+      return null;
+    }
+    int start = Integer.MAX_VALUE;
+    int end = 0;
+    for (int node = getAddedStart(); node < getAddedEnd(); node++) {
+      start = Math.min(start, current.getOffset(node));
+      end = Math.max(end, current.getOffset(node) + current.getLength(node));
+    }
+    return new TextRange(start, end);
+  }
+
+  /**
+   * Returns the node of the current outline that corresponds to a node of the previous outline, or -1 if the node was
+   * removed.
+   */
+  public int getCurrentNode(int previousNode) {
+    if (previousNode < prefix) {
+      return previousNode;
+    }
+    final int fromEnd = previous.size() - previousNode;
+    return fromEnd <= suffix ? current.size() - fromEnd : -1;
+  }
+
+  /**
+   * Compares everything about two nodes except their children and the positions they cover.
+   * <p>
+   * The names are interned, so most comparisons are of identical strings.
+   */
+  private static boolean isSameNode(@NotNull CompactFlutterOutline a, int i, @NotNull CompactFlutterOutline b, int j) {
+    return Objects.equals(a.getKind(i), b.getKind(j)) &&
+           Objects.equals(a.getLabel(i), b.getLabel(j)) &&
+           Objects.equals(a.getClassName(i), b.getClassName(j)) &&
+           Objects.equals(a.getVariableName(i), b.getVariableName(j)) &&
+           Objects.equals(a.getParentAssociationLabel(i), b.getParentAssociationLabel(j)) &&
+           Objects.equals(a.getElementKind(i), b.getElementKind(j)) &&
+           Objects.equals(a.getElementName(i), b.getElementName(j)) &&
+           Objects.equals(a.getElementParameters(i), b.getElementParameters(j)) &&
+           Objects.equals(a.getElementReturnType(i), b.getElementReturnType(j)) &&
+           a.getAttributeValuesHash(i) == b.getAttributeValuesHash(j);
+  }
+}
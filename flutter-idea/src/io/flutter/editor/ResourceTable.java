@@ -0,0 +1,230 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import com.intellij.openapi.diagnostic.Logger;
+import io.flutter.FlutterUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * A table of names and int values, such as color names and ARGB values, or icon names and codepoints.
+ * <p>
+ * Tables are generated at build time from the plugin's color and icon properties files by the
+ * {@code generateResourceTables} Gradle task. Names are stored sorted, so lookups are binary searches, and loading a
+ * table doesn't parse any of the values. Builds that don't run the task, such as the one from
+ * {@code flutter-intellij-community.iml}, don't have the tables, so the properties files are parsed instead.
+ */
+final class ResourceTable {
+  private static final @NotNull Logger LOG = Logger.getInstance(ResourceTable.class);
+
+  private static final ResourceTable EMPTY = new ResourceTable(new String[0], new int[0], new int[0], new int[0]);
+
+  /**
+   * Entry names, in {@link String#compareTo} order.
+   */
+  private final @NotNull String[] names;
+  private final @NotNull int[] values;
+
+  /**
+   * The distinct values, in ascending order, and the index of the preferred name for each one.
+   */
+  private final @NotNull int[] sortedValues;
+  private final @NotNull int[] preferredNames;
+
+  private ResourceTable(@NotNull String[] names, @NotNull int[] values, @NotNull int[] sortedValues, @NotNull int[] preferredNames) {
+    this.names = names;
+    this.values = values;
+    this.sortedValues = sortedValues;
+    this.preferredNames = preferredNames;
+  }
+
+  /**
+   * Loads the table generated from a properties resource, given its path without an extension, such as
+   * {@code /flutter/colors/material}.
+   * <p>
+   * Parses the properties file if the table is missing, and returns an empty table if neither can be read.
+   */
+  @NotNull
+  static ResourceTable load(@NotNull String resourcePath, boolean isIcons) {
+    try {
+      final ResourceTable table = readTable(resourcePath + ".table");
+      if (table != null) {
+        return table;
+      }
+      LOG.info("No generated table for " + resourcePath + "; parsing " + resourcePath + ".properties");
+      try (InputStream stream = ResourceTable.class.getResourceAsStream(resourcePath + ".properties")) {
+        if (stream == null) {
+          throw new IOException("Missing resource " + resourcePath + ".properties");
+        }
+        final Properties properties = new Properties();
+        properties.load(stream);
+        return fromProperties(properties, isIcons);
+      }
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, e);
+      return EMPTY;
+    }
+  }
+
+  /**
+   * Reads a generated table resource, or returns null if there is none.
+   */
+  @Nullable
+  static ResourceTable readTable(@NotNull String resourcePath) throws IOException {
+    try (InputStream stream = ResourceTable.class.getResourceAsStream(resourcePath)) {
+      return stream == null ? null : read(new DataInputStream(new BufferedInputStream(stream)));
+    }
+  }
+
+  /**
+   * Reads a table in the format written by the {@code generateResourceTables} Gradle task.
+   */
+  @NotNull
+  static ResourceTable read(@NotNull DataInputStream in) throws IOException {
+    final String[] names = new String[in.readInt()];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = in.readUTF();
+    }
+    final int[] values = new int[names.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = in.readInt();
+    }
+    final int[] sortedValues = new int[in.readInt()];
+    final int[] preferredNames = new int[sortedValues.length];
+    for (int i = 0; i < sortedValues.length; i++) {
+      sortedValues[i] = in.readInt();
+      preferredNames[i] = in.readInt();
+    }
+    return new ResourceTable(names, values, sortedValues, preferredNames);
+  }
+
+  /**
+   * Builds a table from the contents of a properties file, as the {@code generateResourceTables} Gradle task does.
+   * <p>
+   * Colors are listed as {@code <name>=<hex ARGB>}. Icons are listed as {@code <name>=material/<name>.png} and
+   * {@code <hex codepoint>.codepoint=<name>}; icons without a listed codepoint get -1.
+   */
+  @NotNull
+  static ResourceTable fromProperties(@NotNull Properties properties, boolean isIcons) {
+    final Map<String, Integer> entries = new TreeMap<>();
+    final Map<Integer, String> preferred = new TreeMap<>();
+    if (isIcons) {
+      for (String key : properties.stringPropertyNames()) {
+        if (!key.endsWith(".codepoint")) {
+          entries.put(key, -1);
+        }
+      }
+      for (String key : properties.stringPropertyNames()) {
+        if (!key.endsWith(".codepoint")) {
+          continue;
+        }
+        final String name = properties.getProperty(key);
+        final Integer codepoint = parseHex(key.substring(0, key.length() - ".codepoint".length()));
+        if (codepoint != null && entries.containsKey(name)) {
+          entries.put(name, codepoint);
+          preferred.put(codepoint, name);
+        }
+      }
+    }
+    else {
+      // A color's preferred name is the last one with its value in the properties' iteration order, which is the name
+      // the plugin has always shown.
+      for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+        final Integer value = parseHex((String)entry.getValue());
+        if (value != null) {
+          entries.put((String)entry.getKey(), value);
+          preferred.put(value, (String)entry.getKey());
+        }
+      }
+    }
+
+    final String[] names = entries.keySet().toArray(new String[0]);
+    final int[] values = new int[names.length];
+    for (int i = 0; i < names.length; i++) {
+      values[i] = entries.get(names[i]);
+    }
+    final int[] sortedValues = new int[preferred.size()];
+    final int[] preferredNames = new int[preferred.size()];
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : preferred.entrySet()) {
+      sortedValues[i] = entry.getKey();
+      preferredNames[i] = Arrays.binarySearch(names, entry.getValue());
+      i++;
+    }
+    return new ResourceTable(names, values, sortedValues, preferredNames);
+  }
+
+  @Nullable
+  private static Integer parseHex(@Nullable String text) {
+    if (text == null) {
+      return null;
+    }
+    try {
+      return (int)Long.parseLong(text, 16);
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * Returns the index of the entry with the given name, or a negative number if there is none.
+   */
+  int indexOf(@NotNull String name) {
+    return Arrays.binarySearch(names, name);
+  }
+
+  @NotNull
+  String getName(int index) {
+    return names[index];
+  }
+
+  int getValue(int index) {
+    return values[index];
+  }
+
+  /**
+   * Returns the preferred name for a value, or null if there is none.
+   * <p>
+   * For colors this is the last name with that value in the iteration order of the properties file, as loaded by
+   * {@link Properties}. For icons it is the name listed for the codepoint; aliases that share an icon's codepoint
+   * aren't returned.
+   */
+  @Nullable
+  String getPreferredName(int value) {
+    final int index = Arrays.binarySearch(sortedValues, value);
+    return index < 0 ? null : names[preferredNames[index]];
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ResourceTable other)) {
+      return false;
+    }
+    return Arrays.equals(names, other.names) && Arrays.equals(values, other.values) &&
+           Arrays.equals(sortedValues, other.sortedValues) && Arrays.equals(preferredNames, other.preferredNames);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(names);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import com.intellij.util.diff.Diff;
+import com.intellij.util.diff.FilesTooBigForDiffException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The edits that turn one text into another, such as a file into its formatted version.
+ * <p>
+ * Changed lines are found with a line diff, and each block of changed lines is then narrowed to the characters that
+ * differ, so that reformatting a file only touches the whitespace that moved. Applying these edits, rather than
+ * replacing the whole document, keeps the caret, folding, markers and highlighting of unchanged code.
+ */
+public final class TextDiff {
+  /**
+   * A replacement of {@code length} characters at {@code offset} in the original text.
+   */
+  public record Edit(int offset, int length, @NotNull String replacement) {
+  }
+
+  private TextDiff() {
+  }
+
+  /**
+   * Return the edits that turn {@code before} into {@code after}, in ascending order of offset and not overlapping.
+   * <p>
+   * Apply them in reverse order, so that the offsets of the ones still to apply stay valid.
+   */
+  @NotNull
+  public static List<Edit> compute(@NotNull CharSequence before, @NotNull CharSequence after) {
+    final List<Edit> edits = new ArrayList<>();
+    final int[] beforeStarts = lineStarts(before);
+    final int[] afterStarts = lineStarts(after);
+    Diff.Change change;
+    try {
+      change = Diff.buildChanges(lines(before, beforeStarts), lines(after, afterStarts));
+    }
+    catch (FilesTooBigForDiffException e) {
+      // Fall back to one edit of everything between the common prefix and suffix.
+      addEdit(edits, before, 0, before.length(), after, 0, after.length());
+      return edits;
+    }
+    for (; change != null; change = change.link) {
+      addEdit(edits,
+              before, beforeStarts[change.line0], beforeStarts[change.line0 + change.deleted],
+              after, afterStarts[change.line1], afterStarts[change.line1 + change.inserted]);
+    }
+    return edits;
+  }
+
+  /**
+   * Adds an edit replacing {@code before[start, end)} with {@code after[afterStart, afterEnd)}, without the characters
+   * they start and end with in common.
+   */
+  private static void addEdit(@NotNull List<Edit> edits,
+                              @NotNull CharSequence before, int start, int end,
+                              @NotNull CharSequence after, int afterStart, int afterEnd) {
+    while (start < end && afterStart < afterEnd && before.charAt(start) == after.charAt(afterStart)) {
+      start++;
+      afterStart++;
+    }
+    while (start < end && afterStart < afterEnd && before.charAt(end - 1) == after.charAt(afterEnd - 1)) {
+      end--;
+      afterEnd--;
+    }
+    if (start < end || afterStart < afterEnd) {
+      edits.add(new Edit(start, end - start, after.subSequence(afterStart, afterEnd).toString()));
+    }
+  }
+
+  /**
+   * Returns the offset of each line of the text, followed by the length of the text.
+   */
+  private static int @NotNull [] lineStarts(@NotNull CharSequence text) {
+    int count = 1;
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == '\n' && i + 1 < text.length()) {
+        count++;
+      }
+    }
+    final int[] starts = new int[text.length() == 0 ? 1 : count + 1];
+    int line = 1;
+    for (int i = 0; i < text.length() - 1; i++) {
+      if (text.charAt(i) == '\n') {
+        starts[line++] = i + 1;
+      }
+    }
+    starts[starts.length - 1] = text.length();
+    return starts;
+  }
+
+  /**
+   * Returns the lines of the text, with their line breaks so that a missing final line break is a difference.
+   */
+  private static String @NotNull [] lines(@NotNull CharSequence text, int @NotNull [] starts) {
+    final String[] lines = new String[starts.length - 1];
+    for (int i = 0; i < lines.length; i++) {
+      lines[i] = text.subSequence(starts[i], starts[i + 1]).toString();
+    }
+    return lines;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.font;
+
+import com.intellij.openapi.diagnostic.Logger;
+import io.flutter.FlutterUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Finds the classes declared in the Dart files of icon packages, and the font files of those packages, running at most a
+ * given number of tasks at a time on a backing executor.
+ * <p>
+ * Each package is listed in a task of its own. Then its font files are looked for, and each of its Dart files is
+ * analyzed, in separate tasks. A file that declares no classes may export files that do, as icon aggregator packages
+ * do, so those files are analyzed next. Each file is analyzed at most once.
+ * <p>
+ * A pipeline runs once; cancelling it drops the tasks that haven't started and lets the running ones finish.
+ */
+public class IconAnalysisPipeline {
+  private static final @NotNull Logger LOG = Logger.getInstance(IconAnalysisPipeline.class);
+
+  /**
+   * The steps of the analysis. They are called on the backing executor, concurrently for different files.
+   */
+  public interface Analyzer {
+    /**
+     * Returns the paths of the Dart files in a package.
+     */
+    @NotNull
+    Collection<String> findFiles(@NotNull String packageName);
+
+    /**
+     * Looks for the font files of a package, given its Dart files, so that they are known before its icons are shown.
+     */
+    void findFonts(@NotNull String packageName, @NotNull Collection<String> files);
+
+    /**
+     * Returns the names of the classes declared in a Dart file.
+     */
+    @NotNull
+    Collection<String> findClasses(@NotNull String path);
+
+    /**
+     * Returns the paths of the Dart files that a Dart file exports.
+     */
+    @NotNull
+    Collection<String> findExports(@NotNull String path);
+
+    /**
+     * Called for each class found in a file of the package it belongs to.
+     */
+    void classFound(@NotNull String className, @NotNull String path);
+  }
+
+  @NotNull private final Analyzer analyzer;
+  @NotNull private final Executor executor;
+  private final int parallelism;
+
+  @NotNull private final Set<String> analyzedFiles = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Completes with true when all tasks have run, or with false once the pipeline is cancelled and its running tasks
+   * have finished.
+   */
+  @NotNull private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+  /**
+   * Tasks that are scheduled but not running, because {@link #parallelism} tasks are.
+   * <p>
+   * This and the counts below should be accessed while synchronized on this.
+   */
+  @NotNull private final Queue<Runnable> waiting = new ArrayDeque<>();
+  private int running;
+  private int scheduledCount;
+  private int completedCount;
+  private boolean started;
+  private boolean cancelled;
+  private long startTime;
+  private long endTime;
+
+  public IconAnalysisPipeline(@NotNull Analyzer analyzer, @NotNull Executor executor, int parallelism) {
+    assert parallelism > 0;
+    this.analyzer = analyzer;
+    this.executor = executor;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Starts analyzing the given packages. Returns {@link #getResult()}.
+   */
+  @NotNull
+  public CompletableFuture<Boolean> start(@NotNull Collection<String> packageNames) {
+    synchronized (this) {
+      assert !started;
+      started = true;
+      startTime = System.currentTimeMillis();
+      for (String packageName : packageNames) {
+        schedule(() -> analyzePackage(packageName));
+      }
+      finishIfIdle();
+    }
+    return result;
+  }
+
+  /**
+   * Drops the tasks that haven't started. The result completes once the running tasks finish.
+   */
+  public void cancel() {
+    synchronized (this) {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      waiting.clear();
+      finishIfIdle();
+    }
+  }
+
+  public synchronized boolean isCancelled() {
+    return cancelled;
+  }
+
+  @NotNull
+  public CompletableFuture<Boolean> getResult() {
+    return result;
+  }
+
+  /**
+   * The fraction of the tasks scheduled so far that have run. Tasks are added as packages are listed, so this can go
+   * down as well as up.
+   */
+  public synchronized double getFraction() {
+    return scheduledCount == 0 ? 0.0 : (double)completedCount / scheduledCount;
+  }
+
+  public synchronized int getScheduledCount() {
+    return scheduledCount;
+  }
+
+  public synchronized int getCompletedCount() {
+    return completedCount;
+  }
+
+  /**
+   * The time since the pipeline started, or that it took if it has finished.
+   */
+  public synchronized long getDurationMillis() {
+    if (!started) {
+      return 0;
+    }
+    return (result.isDone() ? endTime : System.currentTimeMillis()) - startTime;
+  }
+
+  private void analyzePackage(@NotNull String packageName) {
+    final Collection<String> files = analyzer.findFiles(packageName);
+    schedule(() -> analyzer.findFonts(packageName, files));
+    for (String path : files) {
+      schedule(() -> analyzeFile(packageName, path));
+    }
+  }
+
+  private void analyzeFile(@NotNull String packageName, @NotNull String path) {
+    if (!analyzedFiles.add(path)) {
+      return;
+    }
+    final Collection<String> classes = analyzer.findClasses(path);
+    if (!classes.isEmpty() && path.contains(packageName)) {
+      for (String className : classes) {
+        analyzer.classFound(className, path);
+      }
+      return;
+    }
+    // If no classes were found then the file may be a list of export statements that refer to files that do.
+    for (String export : analyzer.findExports(path)) {
+      if (!analyzedFiles.contains(export)) {
+        schedule(() -> analyzeFile(packageName, export));
+      }
+    }
+  }
+
+  private synchronized void schedule(@NotNull Runnable task) {
+    if (cancelled) {
+      return;
+    }
+    scheduledCount++;
+    if (running < parallelism) {
+      running++;
+      executor.execute(() -> run(task));
+    }
+    else {
+      waiting.add(task);
+    }
+  }
+
+  private void run(@NotNull Runnable task) {
+    Runnable next = task;
+    while (next != null) {
+      try {
+        if (!isCancelled()) {
+          next.run();
+        }
+      }
+      catch (RuntimeException e) {
+        // Steps fail when the project closes during a read action, which also cancels the pipeline.
+        if (!isCancelled()) {
+          FlutterUtils.warn(LOG, e);
+        }
+      }
+      synchronized (this) {
+        completedCount++;
+        next = waiting.poll();
+        if (next == null) {
+          running--;
+          finishIfIdle();
+        }
+      }
+    }
+  }
+
+  private void finishIfIdle() {
+    assert Thread.holdsLock(this);
+    if (running == 0 && waiting.isEmpty() && !result.isDone()) {
+      endTime = System.currentTimeMillis();
+      result.complete(!cancelled);
+    }
+  }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.intellij.execution.ui.ConsoleView;
+import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.openapi.diagnostic.Logger;
+import io.flutter.FlutterUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Collects console output and prints it in batches, so that a chatty app doesn't make the console repaint for
+ * every line.
+ * <p>
+ * Output is printed once per flush interval, with one {@link ConsoleView#print} call per run of text of the same
+ * content type. Past a cap on the number of lines per second, further lines are dropped (or written to a spill file)
+ * and replaced with a "N lines suppressed" marker.
+ * <p>
+ * Other output to the same console should go through {@link #printNow} and {@link #clear}, so that it stays in order
+ * with the batched output.
+ */
+public class BatchingConsoleSink {
+  private static final @NotNull Logger LOG = Logger.getInstance(BatchingConsoleSink.class);
+
+  static final long FLUSH_INTERVAL_MILLIS = 50;
+  private static final long WINDOW_MILLIS = 1000;
+
+  private final @NotNull ConsoleView console;
+  private final @NotNull ScheduledExecutorService executor;
+  private final @NotNull IntSupplier maxLinesPerSecond;
+  private final @NotNull Supplier<File> spillFileFactory;
+  private final @NotNull LongSupplier clock;
+  private final long flushIntervalMillis;
+
+  /**
+   * Guards the pending output and rate limiting state; {@link #flushLock} is taken first when both are needed.
+   */
+  private final Object lock = new Object();
+  private final Object flushLock = new Object();
+
+  private final List<Segment> pending = new ArrayList<>();
+  private @Nullable ScheduledFuture<?> scheduledFlush;
+
+  private long windowStart;
+  private int windowLines;
+  private int suppressedLines;
+  private long totalSuppressedLines;
+  private boolean atLineStart = true;
+  private boolean suppressingLine;
+
+  private @Nullable File spillFile;
+  private @Nullable BufferedWriter spillWriter;
+
+  private long printCalls;
+  private boolean disposed;
+
+  /**
+   * @param maxLinesPerSecond the cap on printed lines per second; zero or less means no cap
+   * @param spillFileFactory  creates the file suppressed lines are written to, or returns null to drop them
+   */
+  public BatchingConsoleSink(@NotNull ConsoleView console,
+                             @NotNull ScheduledExecutorService executor,
+                             @NotNull IntSupplier maxLinesPerSecond,
+                             @NotNull Supplier<File> spillFileFactory) {
+    this(console, executor, maxLinesPerSecond, spillFileFactory, System::currentTimeMillis, FLUSH_INTERVAL_MILLIS);
+  }
+
+  BatchingConsoleSink(@NotNull ConsoleView console,
+                      @NotNull ScheduledExecutorService executor,
+                      @NotNull IntSupplier maxLinesPerSecond,
+                      @NotNull Supplier<File> spillFileFactory,
+                      @NotNull LongSupplier clock,
+                      long flushIntervalMillis) {
+    this.console = console;
+    this.executor = executor;
+    this.maxLinesPerSecond = maxLinesPerSecond;
+    this.spillFileFactory = spillFileFactory;
+    this.clock = clock;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.windowStart = clock.getAsLong();
+  }
+
+  public void print(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+    if (text.isEmpty()) {
+      return;
+    }
+
+    synchronized (lock) {
+      if (disposed) {
+        console.print(text, contentType);
+        return;
+      }
+
+      if (atLineStart) {
+        rollWindow();
+        final int max = maxLinesPerSecond.getAsInt();
+        suppressingLine = max > 0 && windowLines >= max;
+      }
+
+      // A print call either continues the current line or starts a new one; multi-line text is kept together.
+      final int lines = countLinesStarted(text, atLineStart);
+      atLineStart = text.charAt(text.length() - 1) == '\n';
+      if (suppressingLine) {
+        suppressedLines += lines;
+        totalSuppressedLines += lines;
+        spill(text);
+        // Make sure the marker is printed once the window ends; if a flush is already scheduled, it reschedules one.
+        scheduleFlush(windowStart + WINDOW_MILLIS - clock.getAsLong());
+        return;
+      }
+
+      windowLines += lines;
+      append(text, contentType);
+      scheduleFlush(flushIntervalMillis);
+    }
+  }
+
+  /**
+   * Print all pending output now.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      final List<Segment> segments;
+      synchronized (lock) {
+        if (atLineStart) {
+          rollWindow();
+        }
+        segments = new ArrayList<>(pending);
+        pending.clear();
+        scheduledFlush = null;
+        if (suppressedLines > 0 && !disposed) {
+          // Print the marker once the window ends, even if the app goes quiet before then.
+          scheduleFlush(windowStart + WINDOW_MILLIS - clock.getAsLong());
+        }
+        printCalls += segments.size();
+        if (spillWriter != null) {
+          try {
+            spillWriter.flush();
+          }
+          catch (IOException e) {
+            FlutterUtils.warn(LOG, "Unable to write console spill file: " + e);
+          }
+        }
+      }
+
+      // Print outside the lock, so logging threads aren't held up by the console.
+      for (Segment segment : segments) {
+        console.print(segment.text.toString(), segment.contentType);
+      }
+    }
+  }
+
+  /**
+   * Prints text right away, after the pending output, for writers to the same console that aren't batched.
+   */
+  public void printNow(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+    synchronized (flushLock) {
+      flush();
+      console.print(text, contentType);
+    }
+  }
+
+  /**
+   * Clears the console, including the pending output, so that none of it shows up after the clear.
+   */
+  public void clear() {
+    synchronized (flushLock) {
+      flush();
+      console.clear();
+    }
+  }
+
+  /**
+   * Flush pending output and close the spill file; later output is printed directly.
+   */
+  public void dispose() {
+    flush();
+    synchronized (lock) {
+      disposed = true;
+      if (scheduledFlush != null) {
+        scheduledFlush.cancel(false);
+        scheduledFlush = null;
+      }
+      closeSpillWriter();
+    }
+  }
+
+  /**
+   * The number of {@link ConsoleView#print} calls made so far.
+   */
+  public long getPrintCallCount() {
+    synchronized (lock) {
+      return printCalls;
+    }
+  }
+
+  /**
+   * The number of lines suppressed so far.
+   */
+  public long getSuppressedLineCount() {
+    synchronized (lock) {
+      return totalSuppressedLines;
+    }
+  }
+
+  /**
+   * The file suppressed lines were written to, if any.
+   */
+  @Nullable
+  public File getSpillFile() {
+    synchronized (lock) {
+      return spillFile;
+    }
+  }
+
+  /**
+   * Starts a new rate limiting window if the current one is over, reporting the lines suppressed in it.
+   * <p>
+   * Called with {@link #lock} held, at the start of a line.
+   */
+  private void rollWindow() {
+    final long now = clock.getAsLong();
+    if (now - windowStart < WINDOW_MILLIS) {
+      return;
+    }
+    windowStart = now;
+    windowLines = 0;
+    if (suppressedLines > 0) {
+      String marker = "... " + suppressedLines + (suppressedLines == 1 ? " line" : " lines") + " suppressed";
+      if (spillFile != null) {
+        marker += " (written to " + spillFile.getPath() + ")";
+      }
+      append(marker + "\n", ConsoleViewContentType.SYSTEM_OUTPUT);
+      suppressedLines = 0;
+    }
+  }
+
+  private void append(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+    final Segment last = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+    if (last != null && last.contentType == contentType) {
+      last.text.append(text);
+    }
+    else {
+      pending.add(new Segment(text, contentType));
+    }
+  }
+
+  private void scheduleFlush(long delayMillis) {
+    if (scheduledFlush == null) {
+      scheduledFlush = executor.schedule(this::flush, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void spill(@NotNull String text) {
+    if (spillWriter == null && spillFile == null) {
+      final File file = spillFileFactory.get();
+      if (file == null) {
+        return;
+      }
+      try {
+        spillWriter = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        spillFile = file;
+      }
+      catch (IOException e) {
+        FlutterUtils.warn(LOG, "Unable to create console spill file: " + e);
+        return;
+      }
+    }
+    if (spillWriter == null) {
+      return;
+    }
+    try {
+      spillWriter.write(text);
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, "Unable to write console spill file: " + e);
+      closeSpillWriter();
+    }
+  }
+
+  private void closeSpillWriter() {
+    if (spillWriter == null) {
+      return;
+    }
+    try {
+      spillWriter.close();
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, "Unable to close console spill file: " + e);
+    }
+    spillWriter = null;
+  }
+
+  /**
+   * Counts the lines that the text starts, so that a line printed in several parts counts once.
+   */
+  private static int countLinesStarted(@NotNull String text, boolean atLineStart) {
+    int lines = atLineStart ? 1 : 0;
+    for (int i = 0; i < text.length() - 1; i++) {
+      if (text.charAt(i) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  private static class Segment {
+    final @NotNull StringBuilder text;
+    final @NotNull ConsoleViewContentType contentType;
+
+    Segment(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+      this.text = new StringBuilder(text);
+      this.contentType = contentType;
+    }
+  }
+}
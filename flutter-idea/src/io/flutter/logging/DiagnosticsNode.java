@@ -5,6 +5,9 @@
  */
 package io.flutter.logging;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
@@ -43,12 +46,23 @@ import java.util.concurrent.CompletableFuture;
  * important. If you need to determine the exact Diagnostic class on the
  * Dart side you can use the value of type. The raw Dart object value is
  * also available via the getValue() method.
+ * <p>
+ * Nodes are decoded lazily: a node's children and properties are only wrapped when they're first asked for, and the
+ * event's JSON is never copied or modified. Short strings read from the JSON are interned, so the many nodes of a
+ * large error tree that are kept around hand out one copy of strings like "DiagnosticsProperty&lt;Widget&gt;".
  */
 public class DiagnosticsNode {
   private static final @NotNull Logger LOG = Logger.getInstance(DiagnosticsNode.class);
 
   private static final CustomIconMaker iconMaker = new CustomIconMaker();
 
+  /**
+   * Longer strings are rarely repeated (e.g. error messages), so aren't worth interning.
+   */
+  private static final int MAX_INTERNED_LENGTH = 256;
+
+  private static final Interner<String> strings = Interners.newWeakInterner();
+
   private DiagnosticsNode parent;
 
   private CompletableFuture<String> propertyDocFuture;
@@ -70,6 +84,11 @@ public class DiagnosticsNode {
     this.isProperty = isProperty;
   }
 
+  @VisibleForTesting
+  JsonObject getJson() {
+    return json;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (other instanceof DiagnosticsNode otherNode) {
@@ -477,7 +496,8 @@ public class DiagnosticsNode {
   }
 
   public String getStringMember(@NotNull String memberName) {
-    return JsonUtils.getStringMember(json, memberName);
+    final String value = JsonUtils.getStringMember(json, memberName);
+    return value == null || value.length() > MAX_INTERNED_LENGTH ? value : strings.intern(value);
   }
 
   private boolean getBooleanMember(String memberName, boolean defaultValue) {
@@ -572,7 +592,7 @@ public class DiagnosticsNode {
     if (children == null) {
       if (json.has("children")) {
         final JsonArray jsonArray = json.get("children").getAsJsonArray();
-        final ArrayList<DiagnosticsNode> nodes = new ArrayList<>();
+        final ArrayList<DiagnosticsNode> nodes = new ArrayList<>(jsonArray.size());
         for (JsonElement element : jsonArray) {
           final DiagnosticsNode child = new DiagnosticsNode(element.getAsJsonObject(), false, parent);
           child.setParent(this);
@@ -612,6 +632,7 @@ public class DiagnosticsNode {
       cachedProperties = new ArrayList<>();
       if (json.has("properties")) {
         final JsonArray jsonArray = json.get("properties").getAsJsonArray();
+        cachedProperties.ensureCapacity(jsonArray.size());
         for (JsonElement element : jsonArray) {
           cachedProperties.add(new DiagnosticsNode(element.getAsJsonObject(), true, parent));
         }
@@ -22,12 +22,14 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.editor.ex.EditorSettingsExternalizable;
 import com.intellij.openapi.editor.impl.softwrap.SoftWrapAppliancePlaces;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.openapi.wm.ex.ToolWindowManagerEx;
 import com.intellij.ui.SimpleTextAttributes;
-import com.intellij.util.concurrency.QueueProcessor;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import io.flutter.FlutterUtils;
 import io.flutter.devtools.DevToolsUtils;
 import io.flutter.jxbrowser.JxBrowserManager;
@@ -38,18 +40,20 @@ import io.flutter.view.EmbeddedBrowser;
 import io.flutter.view.InspectorView;
 import io.flutter.vmService.VmServiceConsumers;
 import org.dartlang.vm.service.VmService;
-import org.dartlang.vm.service.consumer.GetObjectConsumer;
 import org.dartlang.vm.service.element.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Handle displaying dart:developer log messages and Flutter.Error messages in the Run and Debug
@@ -68,8 +72,20 @@ public class FlutterConsoleLogManager {
     new ConsoleViewContentType("subtle", SimpleTextAttributes.GRAY_ATTRIBUTES.toTextAttributes());
   private static final ConsoleViewContentType ERROR_CONTENT_TYPE = ConsoleViewContentType.ERROR_OUTPUT;
 
-  private static QueueProcessor<Runnable> queue;
-  private static final AtomicInteger queueLength = new AtomicInteger();
+  /**
+   * Registry key for the number of lines of log output printed per second; past this, lines are suppressed.
+   */
+  private static final String MAX_LINES_PER_SECOND_KEY = "flutter.console.log.max.lines.per.second";
+
+  /**
+   * Registry key to write suppressed log output to a file instead of dropping it.
+   */
+  private static final String SPILL_SUPPRESSED_LINES_KEY = "flutter.console.log.spill.suppressed";
+
+  /**
+   * The number of events waiting to be printed, per app, past which further events are dropped.
+   */
+  static final int MAX_QUEUED_EVENTS = 1000;
 
   /**
    * Set our preferred settings for the run console.
@@ -87,12 +103,27 @@ public class FlutterConsoleLogManager {
 
   @NotNull final ConsoleView console;
   @NotNull final FlutterApp app;
+  @NotNull private final BatchingConsoleSink sink;
+  @NotNull private final LogEventQueue queue;
+  @NotNull private final FullStringResolver stringResolver = new FullStringResolver();
+  @NotNull private final FlutterErrorAggregator errorAggregator;
 
   private int frameErrorCount = 0;
 
+  private long printedLogEventCount;
+  private long logEventRpcCount;
+  private long maxLogEventRpcCount;
+
   public FlutterConsoleLogManager(@NotNull ConsoleView console, @NotNull FlutterApp app) {
     this.console = console;
     this.app = app;
+    this.sink = new BatchingConsoleSink(
+      console,
+      AppExecutorUtil.getAppScheduledExecutorService(),
+      () -> Registry.intValue(MAX_LINES_PER_SECOND_KEY, 2000),
+      FlutterConsoleLogManager::createSpillFile);
+    this.queue = new LogEventQueue(MAX_QUEUED_EVENTS, AppExecutorUtil.getAppExecutorService(), this::printDroppedEvents);
+    this.errorAggregator = new FlutterErrorAggregator(AppExecutorUtil.getAppScheduledExecutorService(), this::printRepeatedErrors);
 
     app.addStateListener(new FlutterApp.FlutterAppListener() {
       @Override
@@ -103,22 +134,38 @@ public class FlutterConsoleLogManager {
       @Override
       public void stateChanged(FlutterApp.State newState) {
         frameErrorCount = 0;
+        if (newState == FlutterApp.State.TERMINATED) {
+          errorAggregator.reset();
+          sink.dispose();
+          stringResolver.clear();
+          if (queue.getDroppedCount() > 0) {
+            LOG.info("Dropped " + queue.getDroppedCount() + " log events; max queue depth " + queue.getMaxDepth());
+          }
+          if (errorAggregator.getSuppressedCount() > 0) {
+            LOG.info("Collapsed " + errorAggregator.getSuppressedCount() + " repeated Flutter errors");
+          }
+          if (getLogEventRpcCount() > 0) {
+            LOG.info("Printed " + getPrintedLogEventCount() + " log events using " + getLogEventRpcCount() +
+                     " VM service calls (at most " + getMaxLogEventRpcCount() + " for one event; " +
+                     stringResolver.getCacheHitCount() + " cached strings reused)");
+          }
+        }
       }
 
       @Override
       public void notifyAppReloaded() {
         frameErrorCount = 0;
+        stringResolver.clear();
+        errorAggregator.reset();
       }
 
       @Override
       public void notifyAppRestarted() {
         frameErrorCount = 0;
+        stringResolver.clear();
+        errorAggregator.reset();
       }
     });
-
-    if (queue == null) {
-      queue = QueueProcessor.createRunnableQueueProcessor();
-    }
   }
 
   public void handleFlutterErrorEvent(@NotNull Event event) {
@@ -126,25 +173,15 @@ public class FlutterConsoleLogManager {
       final ExtensionData extensionData = event.getExtensionData();
       final JsonObject jsonObject = extensionData.getJson().getAsJsonObject();
       final DiagnosticsNode diagnosticsNode = new DiagnosticsNode(jsonObject, app, false, null);
+      final String summary = FlutterErrorHelper.getSummary(diagnosticsNode);
+      recordFlutterError(event, diagnosticsNode, summary);
 
       if (FlutterSettings.getInstance().isShowStructuredErrors()) {
-        queueLength.incrementAndGet();
-
-        queue.add(() -> {
-          try {
-            processFlutterErrorEvent(diagnosticsNode);
-          }
-          catch (Throwable t) {
-            LOG.warn(t);
-          }
-          finally {
-            queueLength.decrementAndGet();
-
-            synchronized (queueLength) {
-              queueLength.notifyAll();
-            }
-          }
-        });
+        // Repeats of an error are counted rather than printed.
+        final String fingerprint = FlutterErrorHelper.getFingerprint(diagnosticsNode);
+        if (errorAggregator.add(fingerprint, summary == null ? String.valueOf(diagnosticsNode) : summary)) {
+          queue.add(() -> processFlutterErrorEvent(diagnosticsNode));
+        }
       }
     }
     catch (Throwable t) {
@@ -152,23 +189,89 @@ public class FlutterConsoleLogManager {
     }
   }
 
+  private void recordFlutterError(@NotNull Event event, @NotNull DiagnosticsNode diagnosticsNode, @Nullable String summary) {
+    final String text = summary == null ? String.valueOf(diagnosticsNode) : diagnosticsNode + "\n" + summary;
+    final IsolateRef isolateRef = event.getIsolate();
+    app.getLogStore().add(event.getTimestamp(), SessionLogStore.Source.FLUTTER_ERROR, SessionLogStore.LEVEL_SEVERE, null,
+                          isolateRef == null ? null : isolateRef.getId(), text);
+  }
+
+  private void printRepeatedErrors(@NotNull String description, int count) {
+    queue.add(() -> sink.print("... " + description + " (repeated " + count + (count == 1 ? " more time" : " more times") + ")\n",
+                               ERROR_CONTENT_TYPE));
+  }
+
+  @VisibleForTesting
+  @NotNull
+  FlutterErrorAggregator getErrorAggregator() {
+    return errorAggregator;
+  }
+
+  @Nullable
+  private static File createSpillFile() {
+    if (!Registry.is(SPILL_SUPPRESSED_LINES_KEY, false)) {
+      return null;
+    }
+    try {
+      return FileUtil.createTempFile("flutter-console-", ".log", true);
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, "Unable to create console spill file: " + e);
+      return null;
+    }
+  }
+
+  private void printDroppedEvents(long dropped) {
+    sink.print("... " + dropped + (dropped == 1 ? " log event" : " log events") +
+               " dropped; the app is logging faster than they can be shown\n", ConsoleViewContentType.SYSTEM_OUTPUT);
+  }
+
+  /**
+   * Prints output that doesn't come from log events, such as daemon messages, after the log output batched so far.
+   */
+  public void print(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+    sink.printNow(text, contentType);
+  }
+
+  /**
+   * Clears the console, including the log output batched so far.
+   */
+  public void clearConsole() {
+    sink.clear();
+  }
+
   /**
-   * Wait until all pending work has completed.
+   * Wait until all pending work has completed and its output is printed.
    */
   public void flushFlutterErrorQueue() {
-    // If the queue isn't empty, then wait until the all the items have been processed.
-    if (queueLength.get() > 0) {
-      try {
-        while (queueLength.get() > 0) {
-          synchronized (queueLength) {
-            queueLength.wait();
-          }
-        }
-      }
-      catch (InterruptedException e) {
-        LOG.error(e);
-      }
+    try {
+      queue.awaitEmpty();
     }
+    catch (InterruptedException e) {
+      LOG.error(e);
+    }
+    sink.flush();
+  }
+
+  /**
+   * The number of this app's log events waiting to be printed.
+   */
+  public int getQueueDepth() {
+    return queue.getDepth();
+  }
+
+  /**
+   * The most of this app's log events that have been waiting to be printed at once.
+   */
+  public int getMaxQueueDepth() {
+    return queue.getMaxDepth();
+  }
+
+  /**
+   * The number of this app's log events dropped because too many were waiting to be printed.
+   */
+  public long getDroppedEventCount() {
+    return queue.getDroppedCount();
   }
 
   private static final int errorSeparatorLength = 100;
@@ -189,19 +292,19 @@ public class FlutterConsoleLogManager {
     final String prefix = "========";
     final String suffix = "==";
 
-    console.print("\n" + prefix, TITLE_CONTENT_TYPE);
-    console.print(description, NORMAL_CONTENT_TYPE);
-    console.print(
+    sink.print("\n" + prefix, TITLE_CONTENT_TYPE);
+    sink.print(description, NORMAL_CONTENT_TYPE);
+    sink.print(
       StringUtil.repeat(errorSeparatorChar, Math.max(
         errorSeparatorLength - prefix.length() - description.length() - suffix.length(), 0)),
       TITLE_CONTENT_TYPE);
-    console.print(suffix + "\n", TITLE_CONTENT_TYPE);
+    sink.print(suffix + "\n", TITLE_CONTENT_TYPE);
 
     // TODO(devoncarew): Create a hyperlink to a widget - ala 'widget://inspector-1347'.
 
     if (terseError) {
       for (DiagnosticsNode property : diagnosticsNode.getInlineProperties()) {
-        printTerseNodeProperty(console, "", property);
+        printTerseNodeProperty("", property);
       }
     }
     else {
@@ -212,7 +315,7 @@ public class FlutterConsoleLogManager {
         // Add blank line between hint and non-hint properties.
         if (lastLevel != property.getLevel()) {
           if (lastLevel == DiagnosticLevel.hint || property.getLevel() == DiagnosticLevel.hint) {
-            console.print("\n", NORMAL_CONTENT_TYPE);
+            sink.print("\n", NORMAL_CONTENT_TYPE);
           }
         }
 
@@ -227,18 +330,18 @@ public class FlutterConsoleLogManager {
           continue;
         }
 
-        printDiagnosticsNodeProperty(console, "", property, null, false);
+        printDiagnosticsNodeProperty("", property, null, false);
       }
     }
 
-    console.print(StringUtil.repeat(errorSeparatorChar, errorSeparatorLength) + "\n", TITLE_CONTENT_TYPE);
+    sink.print(StringUtil.repeat(errorSeparatorChar, errorSeparatorLength) + "\n", TITLE_CONTENT_TYPE);
   }
 
   private boolean isFirstErrorForFrame() {
     return frameErrorCount == 0;
   }
 
-  private void printTerseNodeProperty(ConsoleView console, String indent, DiagnosticsNode property) {
+  private void printTerseNodeProperty(String indent, DiagnosticsNode property) {
     boolean skip = true;
 
     if (property.getLevel() == DiagnosticLevel.summary) {
@@ -258,24 +361,24 @@ public class FlutterConsoleLogManager {
 
     final ConsoleViewContentType contentType = getContentTypeFor(property.getLevel());
 
-    console.print(indent, contentType);
+    sink.print(indent, contentType);
 
     if (property.getShowName()) {
-      console.print(property.getName(), contentType);
+      sink.print(property.getName(), contentType);
 
       if (property.getShowSeparator()) {
-        console.print(property.getSeparator() + " ", contentType);
+        sink.print(property.getSeparator() + " ", contentType);
       }
     }
 
     final String description = property.getDescription() == null ? "" : property.getDescription();
-    console.print(description + "\n", contentType);
+    sink.print(description + "\n", contentType);
 
     final String childIndent = getChildIndent(indent, property);
 
     if (property.hasInlineProperties()) {
       for (DiagnosticsNode childProperty : property.getInlineProperties()) {
-        printDiagnosticsNodeProperty(console, childIndent, childProperty, contentType, false);
+        printDiagnosticsNodeProperty(childIndent, childProperty, contentType, false);
       }
     }
 
@@ -284,12 +387,12 @@ public class FlutterConsoleLogManager {
       final ArrayList<DiagnosticsNode> children = future.getNow(emptyList);
 
       for (DiagnosticsNode child : children) {
-        printDiagnosticsNodeProperty(console, childIndent, child, contentType, false);
+        printDiagnosticsNodeProperty(childIndent, child, contentType, false);
       }
     }
   }
 
-  private void printDiagnosticsNodeProperty(ConsoleView console, String indent, DiagnosticsNode property,
+  private void printDiagnosticsNodeProperty(String indent, DiagnosticsNode property,
                                             ConsoleViewContentType contentType,
                                             boolean isInChild) {
     // TODO(devoncarew): Change the error message display in the framework.
@@ -304,19 +407,19 @@ public class FlutterConsoleLogManager {
       contentType = getContentTypeFor(property.getLevel());
     }
 
-    console.print(indent, contentType);
+    sink.print(indent, contentType);
 
     if (property.getShowName()) {
       final String name = property.getName();
-      console.print(name == null ? "" : name, contentType);
+      sink.print(name == null ? "" : name, contentType);
 
       if (property.getShowSeparator()) {
-        console.print(property.getSeparator() + " ", contentType);
+        sink.print(property.getSeparator() + " ", contentType);
       }
     }
 
     final String description = property.getDescription() == null ? "" : property.getDescription();
-    console.print(description + "\n", contentType);
+    sink.print(description + "\n", contentType);
 
     if (property.hasInlineProperties()) {
       String childIndent = getChildIndent(indent, property);
@@ -325,7 +428,7 @@ public class FlutterConsoleLogManager {
         childIndent = "...  " + indent;
       }
       for (DiagnosticsNode childProperty : property.getInlineProperties()) {
-        printDiagnosticsNodeProperty(console, childIndent, childProperty, contentType, isInChild);
+        printDiagnosticsNodeProperty(childIndent, childProperty, contentType, isInChild);
       }
     }
 
@@ -337,7 +440,7 @@ public class FlutterConsoleLogManager {
       if (!isInChild && children.stream().noneMatch(DiagnosticsNode::hasChildren)) {
         final String childIndent = getChildIndent(indent, property);
         for (DiagnosticsNode child : children) {
-          printDiagnosticsNodeProperty(console, childIndent, child, contentType, false);
+          printDiagnosticsNodeProperty(childIndent, child, contentType, false);
         }
       }
       else {
@@ -346,7 +449,7 @@ public class FlutterConsoleLogManager {
           final String childIndent = isInChild ? getChildIndent(indent, property) : "...  " + indent;
 
           for (DiagnosticsNode child : children) {
-            printDiagnosticsNodeProperty(console, childIndent, child, contentType, true);
+            printDiagnosticsNodeProperty(childIndent, child, contentType, true);
           }
         }
       }
@@ -354,7 +457,7 @@ public class FlutterConsoleLogManager {
 
     // Print an extra line after the summary.
     if (property.getLevel() == DiagnosticLevel.summary) {
-      console.print("\n", contentType);
+      sink.print("\n", contentType);
     }
   }
 
@@ -406,14 +509,7 @@ public class FlutterConsoleLogManager {
   }
 
   public void handleLoggingEvent(@NotNull Event event) {
-    queue.add(() -> {
-      try {
-        processLoggingEvent(event);
-      }
-      catch (Throwable t) {
-        LOG.warn(t);
-      }
-    });
+    queue.add(() -> processLoggingEvent(event));
   }
 
   private ConsoleViewContentType getContentTypeFor(DiagnosticLevel level) {
@@ -438,132 +534,121 @@ public class FlutterConsoleLogManager {
 
     final InstanceRef message = logRecord.getMessage();
     @NotNull final InstanceRef loggerName = logRecord.getLoggerName();
+    @NotNull final InstanceRef error = logRecord.getError();
+    @NotNull final InstanceRef stackTrace = logRecord.getStackTrace();
 
     final String name = loggerName.getValueAsString().isEmpty() ? "log" : loggerName.getValueAsString();
     final String prefix = "[" + name + "] ";
-    final String messageStr = getFullStringValue(service, isolateRef.getId(), message);
+    final String padding = StringUtil.repeat(" ", prefix.length());
+
+    final long rpcsBefore = stringResolver.getRpcCount();
+    final boolean isStringError = !error.isNull() && error.getKind() == InstanceKind.String;
+
+    // Start describing a non-string error while the strings are fetched.
+    final CountDownLatch errorLatch = new CountDownLatch(1);
+    final String[] errorDescription = new String[1];
+    int invokeCount = 0;
+    if (!error.isNull() && !isStringError) {
+      invokeCount++;
+      service.invoke(
+        isolateRef.getId(), error.getId(),
+        "toString", Collections.emptyList(),
+        true,
+        new VmServiceConsumers.InvokeConsumerWrapper() {
+          @Override
+          public void received(InstanceRef response) {
+            errorDescription[0] = stringValueFromStringRef(response);
+            errorLatch.countDown();
+          }
 
-    console.print(prefix, SUBTLE_CONTENT_TYPE);
-    console.print(messageStr + "\n", NORMAL_CONTENT_TYPE);
+          @Override
+          public void noGoodResult() {
+            errorDescription[0] = error.getClassRef().getName() + " " + error.getId();
+            errorLatch.countDown();
+          }
+        });
+    }
 
-    @NotNull final InstanceRef error = logRecord.getError();
-    @NotNull final InstanceRef stackTrace = logRecord.getStackTrace();
+    final List<String> strings = stringResolver.resolve(
+      service, isolateRef.getId(), isStringError ? Arrays.asList(message, error) : Collections.singletonList(message));
+    final String messageStr = strings.get(0);
+    final StringBuilder recorded = new StringBuilder(String.valueOf(messageStr));
 
-    if (!error.isNull()) {
-      final String padding = StringUtil.repeat(" ", prefix.length());
+    sink.print(prefix, SUBTLE_CONTENT_TYPE);
+    sink.print(messageStr + "\n", NORMAL_CONTENT_TYPE);
 
-      if (error.getKind() == InstanceKind.String) {
-        String string = getFullStringValue(service, isolateRef.getId(), error);
+    if (isStringError) {
+      String string = strings.get(1);
 
-        // Handle json in the error payload.
-        boolean isJson = false;
-        try {
-          final JsonElement json = JsonUtils.parseString(string);
-          isJson = true;
+      // Handle json in the error payload.
+      boolean isJson = false;
+      try {
+        final JsonElement json = JsonUtils.parseString(string);
+        isJson = true;
 
-          string = new GsonBuilder().setPrettyPrinting().create().toJson(json);
-          string = string.replaceAll("\n", "\n" + padding);
-        }
-        catch (JsonSyntaxException ignored) {
-        }
+        string = new GsonBuilder().setPrettyPrinting().create().toJson(json);
+        string = string.replaceAll("\n", "\n" + padding);
+      }
+      catch (JsonSyntaxException ignored) {
+      }
 
-        console.print(padding + string + "\n", isJson ? ConsoleViewContentType.NORMAL_OUTPUT : ERROR_CONTENT_TYPE);
+      sink.print(padding + string + "\n", isJson ? ConsoleViewContentType.NORMAL_OUTPUT : ERROR_CONTENT_TYPE);
+      recorded.append("\n").append(strings.get(1));
+    }
+    else if (!error.isNull()) {
+      try {
+        errorLatch.await();
       }
-      else {
-        final CountDownLatch latch = new CountDownLatch(1);
-
-        service.invoke(
-          isolateRef.getId(), error.getId(),
-          "toString", Collections.emptyList(),
-          true,
-          new VmServiceConsumers.InvokeConsumerWrapper() {
-            @Override
-            public void received(InstanceRef response) {
-              console.print(padding + stringValueFromStringRef(response) + "\n", ERROR_CONTENT_TYPE);
-              latch.countDown();
-            }
-
-            @Override
-            public void noGoodResult() {
-              console.print(padding + error.getClassRef().getName() + " " + error.getId() + "\n", ERROR_CONTENT_TYPE);
-              latch.countDown();
-            }
-          });
-
-        try {
-          latch.await();
-        }
-        catch (InterruptedException ignored) {
-        }
+      catch (InterruptedException ignored) {
+      }
+      if (errorDescription[0] != null) {
+        sink.print(padding + errorDescription[0] + "\n", ERROR_CONTENT_TYPE);
+        recorded.append("\n").append(errorDescription[0]);
       }
     }
 
     if (!stackTrace.isNull()) {
-      final String padding = StringUtil.repeat(" ", prefix.length());
       final String out = stackTrace.getValueAsString() == null ? "" : stackTrace.getValueAsString().trim();
 
-      console.print(
+      sink.print(
         padding + out.replaceAll("\n", "\n" + padding) + "\n", ERROR_CONTENT_TYPE);
+      recorded.append("\n").append(out);
     }
-  }
 
-  private String stringValueFromStringRef(InstanceRef ref) {
-    return ref.getValueAsStringIsTruncated() ? formatTruncatedString(ref) : ref.getValueAsString();
+    app.getLogStore().add(logRecord.getTime(), SessionLogStore.Source.LOGGING, logRecord.getLevel(),
+                          loggerName.getValueAsString().isEmpty() ? null : loggerName.getValueAsString(),
+                          isolateRef.getId(), recorded.toString());
+    recordEventRpcs(stringResolver.getRpcCount() - rpcsBefore + invokeCount);
   }
 
-  private String stringValueFromStringRef(Instance instance) {
-    return instance.getValueAsStringIsTruncated() ? instance.getValueAsString() + "..." : instance.getValueAsString();
+  private synchronized void recordEventRpcs(long rpcs) {
+    printedLogEventCount++;
+    logEventRpcCount += rpcs;
+    maxLogEventRpcCount = Math.max(maxLogEventRpcCount, rpcs);
   }
 
-  private String formatTruncatedString(InstanceRef ref) {
-    return ref.getValueAsString() + "...";
+  /**
+   * The number of log events printed so far.
+   */
+  public synchronized long getPrintedLogEventCount() {
+    return printedLogEventCount;
   }
 
-  private @Nullable String getFullStringValue(@NotNull VmService service, @Nullable String isolateId, @Nullable InstanceRef ref) {
-    if (ref == null || isolateId == null) return null;
-
-    if (!ref.getValueAsStringIsTruncated()) {
-      return ref.getValueAsString();
-    }
-
-    final CountDownLatch latch = new CountDownLatch(1);
-    final String[] result = new String[1];
-
-    service.getObject(isolateId, ref.getId(), 0, ref.getLength(), new GetObjectConsumer() {
-      @Override
-      public void onError(RPCError error) {
-        result[0] = formatTruncatedString(ref);
-        latch.countDown();
-      }
-
-      @Override
-      public void received(Obj response) {
-        if (response instanceof Instance && ((Instance)response).getKind() == InstanceKind.String) {
-          result[0] = stringValueFromStringRef((Instance)response);
-        }
-        else {
-          result[0] = formatTruncatedString(ref);
-        }
-
-        latch.countDown();
-      }
-
-      @Override
-      public void received(Sentinel response) {
-        result[0] = formatTruncatedString(ref);
-        latch.countDown();
-      }
-    });
+  /**
+   * The number of VM service calls made to print log events so far.
+   */
+  public synchronized long getLogEventRpcCount() {
+    return logEventRpcCount;
+  }
 
-    try {
-      // The return can be safely ignored. An unset result will just return 0.
-      //noinspection ResultOfMethodCallIgnored
-      latch.await(1, TimeUnit.SECONDS);
-    }
-    catch (InterruptedException e) {
-      // Fall through to returning an empty result.
-    }
+  /**
+   * The most VM service calls made to print a single log event.
+   */
+  public synchronized long getMaxLogEventRpcCount() {
+    return maxLogEventRpcCount;
+  }
 
-    return result[0];
+  private String stringValueFromStringRef(InstanceRef ref) {
+    return ref.getValueAsStringIsTruncated() ? ref.getValueAsString() + "..." : ref.getValueAsString();
   }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Collapses repeats of the same Flutter error, such as an overflow reported on every frame of an animation.
+ * <p>
+ * Errors are matched by their {@link FlutterErrorHelper#getFingerprint fingerprint}. The first occurrence is shown in
+ * full; later ones are only counted, and reported as "repeated N times" at most once per summary interval. An error
+ * that hasn't been seen for a while, or that shows up again after a reload, is shown in full again.
+ */
+public class FlutterErrorAggregator {
+  static final long SUMMARY_INTERVAL_MILLIS = 2000;
+
+  /**
+   * The number of distinct errors tracked at once.
+   */
+  static final int MAX_TRACKED_ERRORS = 200;
+
+  /**
+   * Called with the description of an error and the number of times it repeated since it was last reported.
+   */
+  public interface RepeatReporter {
+    void reportRepeats(@NotNull String description, int count);
+  }
+
+  private final @NotNull ScheduledExecutorService executor;
+  private final @NotNull RepeatReporter reporter;
+  private final @NotNull LongSupplier clock;
+  private final long summaryIntervalMillis;
+
+  private final Map<String, TrackedError> errors = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, TrackedError> eldest) {
+      return size() > MAX_TRACKED_ERRORS && eldest.getValue().repeats == 0;
+    }
+  };
+  private @Nullable ScheduledFuture<?> scheduledReport;
+
+  private long suppressedCount;
+
+  public FlutterErrorAggregator(@NotNull ScheduledExecutorService executor, @NotNull RepeatReporter reporter) {
+    this(executor, reporter, System::currentTimeMillis, SUMMARY_INTERVAL_MILLIS);
+  }
+
+  FlutterErrorAggregator(@NotNull ScheduledExecutorService executor,
+                         @NotNull RepeatReporter reporter,
+                         @NotNull LongSupplier clock,
+                         long summaryIntervalMillis) {
+    this.executor = executor;
+    this.reporter = reporter;
+    this.clock = clock;
+    this.summaryIntervalMillis = summaryIntervalMillis;
+  }
+
+  /**
+   * Record an occurrence of an error, returning true if it should be shown in full.
+   *
+   * @param description how to refer to the error in repeat reports, e.g. its summary
+   */
+  public synchronized boolean add(@NotNull String fingerprint, @NotNull String description) {
+    final long now = clock.getAsLong();
+    final TrackedError error = errors.get(fingerprint);
+    if (error == null || (error.repeats == 0 && now - error.lastSeen >= summaryIntervalMillis)) {
+      errors.put(fingerprint, new TrackedError(description, now));
+      return true;
+    }
+
+    error.repeats++;
+    error.lastSeen = now;
+    suppressedCount++;
+    if (scheduledReport == null) {
+      scheduledReport = executor.schedule(this::reportRepeats, Math.max(0, error.lastReported + summaryIntervalMillis - now),
+                                          TimeUnit.MILLISECONDS);
+    }
+    return false;
+  }
+
+  /**
+   * Report the repeats of each error that was last reported at least a summary interval ago.
+   */
+  public void reportRepeats() {
+    report(false);
+  }
+
+  /**
+   * Report all outstanding repeats and forget the errors seen so far, e.g. after a reload.
+   */
+  public void reset() {
+    report(true);
+  }
+
+  /**
+   * The number of errors that weren't shown in full because they were repeats.
+   */
+  public synchronized long getSuppressedCount() {
+    return suppressedCount;
+  }
+
+  private void report(boolean all) {
+    final Map<String, Integer> due = new LinkedHashMap<>();
+    synchronized (this) {
+      final long now = clock.getAsLong();
+      long nextDue = Long.MAX_VALUE;
+      for (TrackedError error : errors.values()) {
+        if (error.repeats == 0) {
+          continue;
+        }
+        if (all || now - error.lastReported >= summaryIntervalMillis) {
+          due.merge(error.description, error.repeats, Integer::sum);
+          error.repeats = 0;
+          error.lastReported = now;
+        }
+        else {
+          nextDue = Math.min(nextDue, error.lastReported + summaryIntervalMillis);
+        }
+      }
+      if (all) {
+        errors.clear();
+      }
+
+      if (scheduledReport != null) {
+        scheduledReport.cancel(false);
+        scheduledReport = null;
+      }
+      if (nextDue != Long.MAX_VALUE) {
+        scheduledReport = executor.schedule(this::reportRepeats, Math.max(0, nextDue - now), TimeUnit.MILLISECONDS);
+      }
+    }
+
+    // Report outside the lock, so that errors can still be counted meanwhile.
+    for (Map.Entry<String, Integer> entry : due.entrySet()) {
+      reporter.reportRepeats(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private static class TrackedError {
+    final @NotNull String description;
+    long lastSeen;
+    long lastReported;
+    int repeats;
+
+    TrackedError(@NotNull String description, long now) {
+      this.description = description;
+      this.lastSeen = now;
+      this.lastReported = now;
+    }
+  }
+}
@@ -7,12 +7,22 @@ package io.flutter.logging;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class FlutterErrorHelper {
   private static final Pattern numberPattern = Pattern.compile("[0-9]+(\\.[0-9]+)?");
 
+  /**
+   * A source location, e.g. "file:///.../main.dart:116:22" or "package:planets/main.dart:229:5".
+   */
+  private static final Pattern locationPattern = Pattern.compile("(?:file|package|dart):[^\\s()]+:[0-9]+:[0-9]+");
+
   public static String getAnalyticsId(DiagnosticsNode node) {
     for (DiagnosticsNode property : node.getInlineProperties()) {
       if (property.getLevel() == DiagnosticLevel.summary) {
@@ -84,4 +94,67 @@ public class FlutterErrorHelper {
     // "scaffold.of-called-with-a-context-that-does-not-contain-a-scaffold"
     return normalized;
   }
+
+  /**
+   * Returns the error's summary, e.g. "A RenderFlex overflowed by 1183 pixels on the right.", or null if it has none.
+   */
+  @Nullable
+  public static String getSummary(@NotNull DiagnosticsNode node) {
+    for (DiagnosticsNode property : node.getInlineProperties()) {
+      if (StringUtil.equals("ErrorSummary", property.getType())) {
+        return property.getDescription();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a key that is the same for each repeat of an error.
+   * <p>
+   * The key is made of the error's title (e.g. "Exception caught by rendering library"), its summary with any numbers
+   * replaced, and the first source location the error mentions: the error-causing widget's creation location if
+   * present, otherwise the top frame of the stack trace.
+   */
+  @NotNull
+  public static String getFingerprint(@NotNull DiagnosticsNode node) {
+    final String summary = getSummary(node);
+    return node.getDescription() + "\n" +
+           (summary == null ? "" : numberPattern.matcher(summary).replaceAll("#")) + "\n" +
+           StringUtil.notNullize(getFirstLocation(node));
+  }
+
+  @Nullable
+  private static String getFirstLocation(@NotNull DiagnosticsNode node) {
+    for (DiagnosticsNode property : node.getInlineProperties()) {
+      String location = findLocation(property.getDescription());
+      if (location != null) {
+        return location;
+      }
+
+      // Widget locations are in the children of a block, stack frames in the properties of a stack trace.
+      final List<DiagnosticsNode> nested = new ArrayList<>();
+      if (property.hasChildren()) {
+        nested.addAll(property.getChildren().getNow(new ArrayList<>()));
+      }
+      if (property.hasInlineProperties()) {
+        nested.addAll(property.getInlineProperties());
+      }
+      for (DiagnosticsNode child : nested) {
+        location = findLocation(child.getDescription());
+        if (location != null) {
+          return location;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private static String findLocation(@Nullable String description) {
+    if (description == null) {
+      return null;
+    }
+    final Matcher matcher = locationPattern.matcher(description);
+    return matcher.find() ? matcher.group() : null;
+  }
 }
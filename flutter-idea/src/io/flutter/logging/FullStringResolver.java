@@ -0,0 +1,173 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import org.dartlang.vm.service.VmService;
+import org.dartlang.vm.service.consumer.GetObjectConsumer;
+import org.dartlang.vm.service.element.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fetches the full values of truncated strings from the VM.
+ * <p>
+ * All the strings needed for an event are fetched at once, rather than one round trip after another. Requests for an
+ * object that's already being fetched share the pending request, and recently fetched values are kept in a small
+ * cache until the app is reloaded or restarted.
+ * <p>
+ * The VM may reuse an object id for a different object once the first one is collected, so values are cached by the
+ * id together with the string's length and truncated value; a reused id only matches if those are the same as well.
+ */
+public class FullStringResolver {
+  static final int MAX_CACHED_VALUES = 100;
+
+  /**
+   * How long to wait for all the strings of one event.
+   */
+  private static final long TIMEOUT_MILLIS = 1000;
+
+  private final Map<String, String> cache = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+      return size() > MAX_CACHED_VALUES;
+    }
+  };
+  private final Map<String, CompletableFuture<String>> inFlight = new HashMap<>();
+
+  private long rpcCount;
+  private long cacheHitCount;
+
+  /**
+   * Returns the full string values of the given refs, in order.
+   * <p>
+   * Null refs resolve to null. A value that can't be fetched in time resolves to its truncated form, followed by
+   * "...".
+   */
+  @NotNull
+  public List<String> resolve(@NotNull VmService service, @NotNull String isolateId, @NotNull List<InstanceRef> refs) {
+    final List<CompletableFuture<String>> futures = new ArrayList<>(refs.size());
+    for (InstanceRef ref : refs) {
+      futures.add(request(service, isolateId, ref));
+    }
+
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+    final List<String> result = new ArrayList<>(refs.size());
+    for (int i = 0; i < refs.size(); i++) {
+      String value;
+      try {
+        value = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      }
+      catch (InterruptedException | ExecutionException | TimeoutException e) {
+        value = formatTruncatedString(refs.get(i));
+      }
+      result.add(value);
+    }
+    return result;
+  }
+
+  @NotNull
+  private CompletableFuture<String> request(@NotNull VmService service, @NotNull String isolateId, @Nullable InstanceRef ref) {
+    if (ref == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    if (!ref.getValueAsStringIsTruncated()) {
+      return CompletableFuture.completedFuture(ref.getValueAsString());
+    }
+
+    final String key = cacheKey(isolateId, ref);
+    final CompletableFuture<String> future;
+    synchronized (this) {
+      final String cached = cache.get(key);
+      if (cached != null) {
+        cacheHitCount++;
+        return CompletableFuture.completedFuture(cached);
+      }
+      final CompletableFuture<String> pending = inFlight.get(key);
+      if (pending != null) {
+        return pending;
+      }
+      future = new CompletableFuture<>();
+      inFlight.put(key, future);
+      rpcCount++;
+    }
+
+    service.getObject(isolateId, ref.getId(), 0, ref.getLength(), new GetObjectConsumer() {
+      @Override
+      public void onError(RPCError error) {
+        complete(key, future, formatTruncatedString(ref), false);
+      }
+
+      @Override
+      public void received(Obj response) {
+        if (response instanceof Instance instance && instance.getKind() == InstanceKind.String) {
+          final String value = instance.getValueAsStringIsTruncated() ? instance.getValueAsString() + "..." : instance.getValueAsString();
+          complete(key, future, value, true);
+        }
+        else {
+          complete(key, future, formatTruncatedString(ref), false);
+        }
+      }
+
+      @Override
+      public void received(Sentinel response) {
+        complete(key, future, formatTruncatedString(ref), false);
+      }
+    });
+    return future;
+  }
+
+  private void complete(@NotNull String key, @NotNull CompletableFuture<String> future, @NotNull String value, boolean cacheable) {
+    synchronized (this) {
+      inFlight.remove(key);
+      if (cacheable) {
+        cache.put(key, value);
+      }
+    }
+    future.complete(value);
+  }
+
+  @NotNull
+  private static String cacheKey(@NotNull String isolateId, @NotNull InstanceRef ref) {
+    return isolateId + " " + ref.getId() + " " + ref.getLength() + " " + ref.getValueAsString();
+  }
+
+  @NotNull
+  private static String formatTruncatedString(@NotNull InstanceRef ref) {
+    return ref.getValueAsString() + "...";
+  }
+
+  /**
+   * Forget cached values; call this when the app is reloaded or restarted, as objects may be collected and their ids
+   * reused.
+   */
+  public synchronized void clear() {
+    cache.clear();
+  }
+
+  /**
+   * The number of getObject calls made so far.
+   */
+  public synchronized long getRpcCount() {
+    return rpcCount;
+  }
+
+  /**
+   * The number of values found in the cache.
+   */
+  public synchronized long getCacheHitCount() {
+    return cacheHitCount;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+
+/**
+ * A bounded queue of log processing tasks for one app, run one at a time on a pooled thread.
+ * <p>
+ * Each app has its own queue, so a chatty app can't hold up another app's output. When the queue is full, new tasks
+ * are dropped; the number dropped is reported before the next accepted task runs, or once the queue empties.
+ */
+public class LogEventQueue {
+  private static final @NotNull Logger LOG = Logger.getInstance(LogEventQueue.class);
+
+  private final int capacity;
+  private final @NotNull Executor executor;
+  private final @NotNull LongConsumer droppedReporter;
+
+  private final Deque<Runnable> tasks = new ArrayDeque<>();
+  private boolean draining;
+
+  private int maxDepth;
+  private long droppedCount;
+  private long unreportedDropped;
+
+  /**
+   * @param droppedReporter called on the queue's thread with the number of tasks dropped since the last report
+   */
+  public LogEventQueue(int capacity, @NotNull Executor executor, @NotNull LongConsumer droppedReporter) {
+    this.capacity = capacity;
+    this.executor = executor;
+    this.droppedReporter = droppedReporter;
+  }
+
+  /**
+   * Queue a task, returning false if the queue is full and the task was dropped.
+   */
+  public boolean add(@NotNull Runnable task) {
+    synchronized (this) {
+      if (tasks.size() >= capacity) {
+        droppedCount++;
+        unreportedDropped++;
+        return false;
+      }
+      if (unreportedDropped > 0) {
+        final long dropped = unreportedDropped;
+        unreportedDropped = 0;
+        tasks.addLast(() -> droppedReporter.accept(dropped));
+      }
+      tasks.addLast(task);
+      maxDepth = Math.max(maxDepth, tasks.size());
+      if (draining) {
+        return true;
+      }
+      draining = true;
+    }
+    executor.execute(this::drain);
+    return true;
+  }
+
+  private void drain() {
+    while (true) {
+      Runnable task;
+      synchronized (this) {
+        task = tasks.pollFirst();
+        if (task == null && unreportedDropped > 0) {
+          // Report drops once the backlog is cleared, even if nothing else is queued.
+          final long dropped = unreportedDropped;
+          unreportedDropped = 0;
+          task = () -> droppedReporter.accept(dropped);
+        }
+        if (task == null) {
+          draining = false;
+          notifyAll();
+          return;
+        }
+      }
+
+      try {
+        task.run();
+      }
+      catch (Throwable t) {
+        LOG.warn(t);
+      }
+    }
+  }
+
+  /**
+   * Wait until all queued tasks have run.
+   */
+  public synchronized void awaitEmpty() throws InterruptedException {
+    while (draining || !tasks.isEmpty()) {
+      wait();
+    }
+  }
+
+  /**
+   * The number of tasks waiting to run.
+   */
+  public synchronized int getDepth() {
+    return tasks.size();
+  }
+
+  /**
+   * The most tasks that have been waiting at once.
+   */
+  public synchronized int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * The number of tasks dropped because the queue was full.
+   */
+  public synchronized long getDroppedCount() {
+    return droppedCount;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.testFramework.LightVirtualFile;
+import io.flutter.run.daemon.FlutterApp;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Searches the whole log output of an app session, including what the console has trimmed, and opens the matching
+ * entries in an editor.
+ */
+public class SearchSessionLogAction extends DumbAwareAction {
+  private static final String title = "Search Session Log";
+
+  /**
+   * The number of latest matching entries shown.
+   */
+  static final int MAX_RESULTS = 10000;
+
+  @NotNull private final FlutterApp app;
+
+  public SearchSessionLogAction(@NotNull FlutterApp app) {
+    super(title, "Search all of this session's log output, including what the console has trimmed", AllIcons.Actions.Find);
+    this.app = app;
+  }
+
+  @Override
+  public @NotNull ActionUpdateThread getActionUpdateThread() {
+    return ActionUpdateThread.BGT;
+  }
+
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    e.getPresentation().setEnabled(app.getLogStore().size() > 0);
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    final Project project = getEventProject(e);
+    if (project == null) {
+      return;
+    }
+
+    final SessionLogStore store = app.getLogStore();
+    final SearchSessionLogDialog dialog = new SearchSessionLogDialog(project, store.getLoggerNames());
+    if (!dialog.showAndGet()) {
+      return;
+    }
+
+    final int minLevel = dialog.getMinLevel();
+    final String loggerName = dialog.getLoggerName();
+    final String text = dialog.getText();
+    // Older entries are read back from disk.
+    ApplicationManager.getApplication().executeOnPooledThread(() -> {
+      final String results = format(store.query(minLevel, loggerName, text, MAX_RESULTS));
+      ApplicationManager.getApplication().invokeLater(() -> {
+        if (project.isDisposed()) {
+          return;
+        }
+        final LightVirtualFile file = new LightVirtualFile(describe(loggerName, text), PlainTextFileType.INSTANCE, results);
+        file.setWritable(false);
+        FileEditorManager.getInstance(project).openFile(file, true);
+      });
+    });
+  }
+
+  @NotNull
+  private static String describe(@Nullable String loggerName, @Nullable String text) {
+    final StringBuilder name = new StringBuilder("Session log");
+    if (loggerName != null) {
+      name.append(" [").append(loggerName).append("]");
+    }
+    if (text != null) {
+      name.append(" '").append(text).append("'");
+    }
+    return name.toString();
+  }
+
+  /**
+   * Formats entries one per line, as the console prints them, with their time.
+   */
+  @NotNull
+  static String format(@NotNull List<SessionLogStore.Entry> entries) {
+    final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+    final StringBuilder result = new StringBuilder();
+    for (SessionLogStore.Entry entry : entries) {
+      result.append(timeFormat.format(new Date(entry.timestamp()))).append(' ');
+      if (entry.source() == SessionLogStore.Source.LOGGING) {
+        result.append('[').append(entry.loggerName() == null ? "log" : entry.loggerName()).append("] ");
+      }
+      result.append(entry.message()).append('\n');
+    }
+    if (entries.isEmpty()) {
+      result.append("No matching log output.\n");
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Asks for the text, logger and level to search a {@link SessionLogStore} for.
+ */
+public class SearchSessionLogDialog extends DialogWrapper {
+  private static final String ANY_LOGGER = "";
+
+  @NotNull private final JTextField textInput = new JTextField("", 24);
+  @NotNull private final ComboBox<String> loggerInput = new ComboBox<>();
+  @NotNull private final JCheckBox errorsOnlyCheckBox = new JCheckBox("Errors only");
+
+  public SearchSessionLogDialog(@NotNull Project project, @NotNull List<String> loggerNames) {
+    super(project);
+    loggerInput.addItem(ANY_LOGGER);
+    for (String name : loggerNames) {
+      loggerInput.addItem(name);
+    }
+    setTitle("Search Session Log");
+    init();
+  }
+
+  @Nullable
+  @Override
+  protected JComponent createCenterPanel() {
+    final JPanel dialogPanel = new JPanel(new GridLayout(0, 2, 8, 4));
+    dialogPanel.add(new JLabel("Containing text:"));
+    dialogPanel.add(textInput);
+    dialogPanel.add(new JLabel("Logger:"));
+    dialogPanel.add(loggerInput);
+    dialogPanel.add(new JLabel());
+    dialogPanel.add(errorsOnlyCheckBox);
+    return dialogPanel;
+  }
+
+  @Override
+  public JComponent getPreferredFocusedComponent() {
+    return textInput;
+  }
+
+  /**
+   * The text that entries should contain, or null to match any text.
+   */
+  @Nullable
+  public String getText() {
+    final String text = textInput.getText();
+    return text == null || text.isEmpty() ? null : text;
+  }
+
+  /**
+   * The logger that entries should come from, or null to match any logger.
+   */
+  @Nullable
+  public String getLoggerName() {
+    final Object selected = loggerInput.getSelectedItem();
+    return selected == null || ANY_LOGGER.equals(selected) ? null : selected.toString();
+  }
+
+  public int getMinLevel() {
+    return errorsOnlyCheckBox.isSelected() ? SessionLogStore.LEVEL_SEVERE : 0;
+  }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import io.flutter.FlutterUtils;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Records the log output of one app session so that it can be searched after the console has trimmed it.
+ * <p>
+ * Entries are encoded into an append-only byte buffer; logger names and isolate ids are stored once, in a string
+ * table. Once the buffer passes a size threshold it is appended to a temp file, and older entries are read back from
+ * there on demand. Entry numbers are indexed by level and by logger name in memory, so filtering doesn't need to
+ * decode entries that can't match.
+ */
+public class SessionLogStore {
+  private static final @NotNull Logger LOG = Logger.getInstance(SessionLogStore.class);
+
+  /**
+   * The level of ordinary output, as in package:logging.
+   */
+  public static final int LEVEL_INFO = 800;
+
+  /**
+   * The level of errors, as in package:logging.
+   */
+  public static final int LEVEL_SEVERE = 1000;
+
+  static final int DEFAULT_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+
+  private static final int NO_STRING = -1;
+
+  /**
+   * timestamp, source, level, logger, isolate and message length.
+   */
+  private static final int HEADER_SIZE = 8 + 1 + 4 + 4 + 4 + 4;
+
+  private static final int READ_BLOCK_SIZE = 64 * 1024;
+
+  public enum Source {
+    /**
+     * Output from the daemon's app.log event, e.g. print() calls.
+     */
+    APP_LOG,
+
+    /**
+     * A dart:developer log() call, from the VM's Logging stream.
+     */
+    LOGGING,
+
+    /**
+     * A Flutter.Error event.
+     */
+    FLUTTER_ERROR
+  }
+
+  public record Entry(long timestamp,
+                      @NotNull Source source,
+                      int level,
+                      @Nullable String loggerName,
+                      @Nullable String isolateId,
+                      @NotNull String message) {
+  }
+
+  private final int memoryThreshold;
+  private final @NotNull Supplier<File> spillFileFactory;
+
+  private final List<String> strings = new ArrayList<>();
+  private final Object2IntOpenHashMap<String> stringIds = new Object2IntOpenHashMap<>();
+
+  /**
+   * The position of each entry; below {@link #spilledBytes}, positions are in the spill file.
+   */
+  private final LongArrayList positions = new LongArrayList();
+  private final IntArrayList levels = new IntArrayList();
+  private final Int2ObjectMap<IntArrayList> entriesByLevel = new Int2ObjectOpenHashMap<>();
+  private final Int2ObjectMap<IntArrayList> entriesByLogger = new Int2ObjectOpenHashMap<>();
+
+  private byte[] buffer = new byte[8192];
+  private int bufferSize;
+  private long spilledBytes;
+
+  private @Nullable File spillFile;
+  private @Nullable RandomAccessFile spill;
+  private boolean spillFailed;
+
+  private final byte[] readBlock = new byte[READ_BLOCK_SIZE];
+  private long readBlockStart = -1;
+  private int readBlockSize;
+
+  private boolean disposed;
+
+  public SessionLogStore() {
+    this(DEFAULT_MEMORY_THRESHOLD, SessionLogStore::createSpillFile);
+  }
+
+  /**
+   * @param memoryThreshold  the number of bytes of entries kept in memory before they're written to disk
+   * @param spillFileFactory creates the file entries are written to, or returns null to keep them in memory
+   */
+  SessionLogStore(int memoryThreshold, @NotNull Supplier<File> spillFileFactory) {
+    this.memoryThreshold = memoryThreshold;
+    this.spillFileFactory = spillFileFactory;
+    stringIds.defaultReturnValue(NO_STRING);
+  }
+
+  @Nullable
+  private static File createSpillFile() {
+    try {
+      return FileUtil.createTempFile("flutter-session-", ".log", true);
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, "Unable to create session log file: " + e);
+      return null;
+    }
+  }
+
+  /**
+   * Record an entry, returning its number; returns -1 once the store is disposed.
+   */
+  public synchronized int add(long timestamp,
+                              @NotNull Source source,
+                              int level,
+                              @Nullable String loggerName,
+                              @Nullable String isolateId,
+                              @NotNull String message) {
+    if (disposed) {
+      return -1;
+    }
+    final int index = positions.size();
+    final int loggerId = stringId(loggerName);
+    final byte[] text = message.getBytes(StandardCharsets.UTF_8);
+
+    ensureCapacity(HEADER_SIZE + text.length);
+    positions.add(spilledBytes + bufferSize);
+    putLong(timestamp);
+    buffer[bufferSize++] = (byte)source.ordinal();
+    putInt(level);
+    putInt(loggerId);
+    putInt(stringId(isolateId));
+    putInt(text.length);
+    System.arraycopy(text, 0, buffer, bufferSize, text.length);
+    bufferSize += text.length;
+
+    levels.add(level);
+    entriesByLevel.computeIfAbsent(level, (int key) -> new IntArrayList()).add(index);
+    if (loggerId != NO_STRING) {
+      entriesByLogger.computeIfAbsent(loggerId, (int key) -> new IntArrayList()).add(index);
+    }
+
+    if (bufferSize >= memoryThreshold) {
+      spill();
+    }
+    return index;
+  }
+
+  /**
+   * The number of entries recorded.
+   */
+  public synchronized int size() {
+    return positions.size();
+  }
+
+  /**
+   * Returns the entry with the given number, or null if it can't be read back from disk.
+   */
+  @Nullable
+  public synchronized Entry get(int index) {
+    return decode(positions.getLong(index));
+  }
+
+  /**
+   * Returns the numbers of the entries at or above the given level, from the given logger if not null, in order.
+   */
+  @NotNull
+  public synchronized IntArrayList find(int minLevel, @Nullable String loggerName) {
+    if (loggerName != null) {
+      final int loggerId = stringIds.getInt(loggerName);
+      final IntArrayList entries = loggerId == NO_STRING ? null : entriesByLogger.get(loggerId);
+      final IntArrayList result = new IntArrayList();
+      if (entries != null) {
+        for (int i = 0; i < entries.size(); i++) {
+          final int index = entries.getInt(i);
+          if (levels.getInt(index) >= minLevel) {
+            result.add(index);
+          }
+        }
+      }
+      return result;
+    }
+
+    final List<IntArrayList> matching = new ArrayList<>();
+    for (Int2ObjectMap.Entry<IntArrayList> entry : entriesByLevel.int2ObjectEntrySet()) {
+      if (entry.getIntKey() >= minLevel) {
+        matching.add(entry.getValue());
+      }
+    }
+    if (matching.size() == 1) {
+      return new IntArrayList(matching.get(0));
+    }
+    final IntArrayList result = new IntArrayList();
+    for (IntArrayList entries : matching) {
+      result.addAll(entries);
+    }
+    // Entry numbers are unique, so sorting merges the per-level lists.
+    Arrays.sort(result.elements(), 0, result.size());
+    return result;
+  }
+
+  /**
+   * Returns up to <code>limit</code> of the latest entries that match the filter, oldest first.
+   *
+   * @param text if not null, only entries whose message contains it match
+   */
+  @NotNull
+  public synchronized List<Entry> query(int minLevel, @Nullable String loggerName, @Nullable String text, int limit) {
+    final IntArrayList candidates = find(minLevel, loggerName);
+    final List<Entry> result = new ArrayList<>();
+    for (int i = candidates.size() - 1; i >= 0 && result.size() < limit; i--) {
+      final Entry entry = decode(positions.getLong(candidates.getInt(i)));
+      if (entry != null && (text == null || entry.message().contains(text))) {
+        result.add(entry);
+      }
+    }
+    Collections.reverse(result);
+    return result;
+  }
+
+  /**
+   * The names of the loggers of the entries recorded, sorted.
+   */
+  @NotNull
+  public synchronized List<String> getLoggerNames() {
+    final List<String> result = new ArrayList<>();
+    for (int loggerId : entriesByLogger.keySet()) {
+      result.add(strings.get(loggerId));
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * The number of bytes of entries written to disk.
+   */
+  public synchronized long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  /**
+   * Delete the spill file; the store is empty afterwards, and entries added later are ignored.
+   */
+  public synchronized void dispose() {
+    disposed = true;
+    closeSpill();
+    if (spillFile != null) {
+      FileUtil.delete(spillFile);
+      spillFile = null;
+    }
+    strings.clear();
+    stringIds.clear();
+    positions.clear();
+    levels.clear();
+    entriesByLevel.clear();
+    entriesByLogger.clear();
+    buffer = new byte[8192];
+    bufferSize = 0;
+    spilledBytes = 0;
+    readBlockStart = -1;
+  }
+
+  private int stringId(@Nullable String string) {
+    if (string == null) {
+      return NO_STRING;
+    }
+    int id = stringIds.getInt(string);
+    if (id == NO_STRING) {
+      id = strings.size();
+      strings.add(string);
+      stringIds.put(string, id);
+    }
+    return id;
+  }
+
+  private void ensureCapacity(int needed) {
+    if (bufferSize + needed > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferSize + needed));
+    }
+  }
+
+  private void putLong(long value) {
+    putInt((int)(value >>> 32));
+    putInt((int)value);
+  }
+
+  private void putInt(int value) {
+    buffer[bufferSize++] = (byte)(value >>> 24);
+    buffer[bufferSize++] = (byte)(value >>> 16);
+    buffer[bufferSize++] = (byte)(value >>> 8);
+    buffer[bufferSize++] = (byte)value;
+  }
+
+  private static int getInt(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16 | (bytes[offset + 2] & 0xff) << 8 |
+           (bytes[offset + 3] & 0xff);
+  }
+
+  private void spill() {
+    if (spillFailed) {
+      return;
+    }
+    try {
+      if (spill == null) {
+        spillFile = spillFileFactory.get();
+        if (spillFile == null) {
+          spillFailed = true;
+          return;
+        }
+        spill = new RandomAccessFile(spillFile, "rw");
+      }
+      spill.seek(spilledBytes);
+      spill.write(buffer, 0, bufferSize);
+      spilledBytes += bufferSize;
+      bufferSize = 0;
+      if (buffer.length > memoryThreshold * 2) {
+        // Don't hold on to the room an unusually large entry needed.
+        buffer = new byte[8192];
+      }
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, "Unable to write session log file; keeping entries in memory: " + e);
+      spillFailed = true;
+      closeSpill();
+    }
+  }
+
+  private void closeSpill() {
+    if (spill == null) {
+      return;
+    }
+    try {
+      spill.close();
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, "Unable to close session log file: " + e);
+    }
+    spill = null;
+  }
+
+  /**
+   * Decodes the entry at the given position; returns null if it can't be read.
+   */
+  @Nullable
+  private Entry decode(long position) {
+    final byte[] header = new byte[HEADER_SIZE];
+    if (!read(position, header, HEADER_SIZE)) {
+      return null;
+    }
+    final long timestamp = (long)getInt(header, 0) << 32 | (getInt(header, 4) & 0xffffffffL);
+    final Source source = Source.values()[header[8]];
+    final int level = getInt(header, 9);
+    final int loggerId = getInt(header, 13);
+    final int isolateId = getInt(header, 17);
+    final int length = getInt(header, 21);
+
+    final byte[] text = new byte[length];
+    if (!read(position + HEADER_SIZE, text, length)) {
+      return null;
+    }
+    return new Entry(timestamp, source, level,
+                     loggerId == NO_STRING ? null : strings.get(loggerId),
+                     isolateId == NO_STRING ? null : strings.get(isolateId),
+                     new String(text, StandardCharsets.UTF_8));
+  }
+
+  private boolean read(long position, byte[] dest, int length) {
+    int copied = 0;
+    while (copied < length) {
+      final long at = position + copied;
+      if (at >= spilledBytes) {
+        System.arraycopy(buffer, (int)(at - spilledBytes), dest, copied, length - copied);
+        return true;
+      }
+      if (!loadBlock(at)) {
+        return false;
+      }
+      final int offset = (int)(at - readBlockStart);
+      final int count = (int)Math.min(length - copied, Math.min(readBlockSize - offset, spilledBytes - at));
+      System.arraycopy(readBlock, offset, dest, copied, count);
+      copied += count;
+    }
+    return true;
+  }
+
+  private boolean loadBlock(long position) {
+    final long start = position - position % READ_BLOCK_SIZE;
+    if (start == readBlockStart && position < readBlockStart + readBlockSize) {
+      return true;
+    }
+    if (spill == null) {
+      return false;
+    }
+    try {
+      spill.seek(start);
+      final int size = (int)Math.min(READ_BLOCK_SIZE, spilledBytes - start);
+      spill.readFully(readBlock, 0, size);
+      readBlockStart = start;
+      readBlockSize = size;
+      return true;
+    }
+    catch (IOException e) {
+      FlutterUtils.warn(LOG, "Unable to read session log file: " + e);
+      readBlockStart = -1;
+      return false;
+    }
+  }
+}
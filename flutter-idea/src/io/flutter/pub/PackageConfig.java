@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.pub;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.util.io.FileUtil;
+import io.flutter.utils.JsonUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The packages listed in a pub root's {@code .dart_tool/package_config.json} file, with their URIs resolved to paths.
+ * <p>
+ * Instances are immutable, and equal when they list the same packages.
+ */
+public class PackageConfig {
+  /**
+   * A package, with system-independent paths to its root and its lib directory (if any).
+   */
+  public record Package(@NotNull String name, @NotNull String rootPath, @Nullable String libPath) {
+  }
+
+  private final @NotNull Map<String, Package> packages;
+  private final @NotNull Map<String, String> libPaths;
+
+  private PackageConfig(@NotNull Map<String, Package> packages) {
+    this.packages = Collections.unmodifiableMap(packages);
+    final Map<String, String> libPaths = new LinkedHashMap<>();
+    for (Package pack : packages.values()) {
+      if (pack.libPath() != null) {
+        libPaths.put(pack.name(), pack.libPath());
+      }
+    }
+    this.libPaths = Collections.unmodifiableMap(libPaths);
+  }
+
+  @Nullable
+  public Package getPackage(@NotNull String name) {
+    return packages.get(name);
+  }
+
+  @NotNull
+  public Collection<Package> getPackages() {
+    return packages.values();
+  }
+
+  /**
+   * Returns the lib directory of each package by package name, like the Dart plugin's packages map.
+   */
+  @NotNull
+  public Map<String, String> getLibPaths() {
+    return libPaths;
+  }
+
+  /**
+   * Parses the contents of a package_config.json file in the given directory.
+   * <p>
+   * Returns null if the contents aren't a version 2 package config. Packages with a root that isn't a file URI are
+   * skipped.
+   */
+  @Nullable
+  public static PackageConfig parse(@NotNull String contents, @NotNull String configDirPath) {
+    final JsonObject json;
+    try {
+      final JsonElement element = JsonParser.parseString(contents);
+      if (element == null || !element.isJsonObject()) {
+        return null;
+      }
+      json = element.getAsJsonObject();
+    }
+    catch (RuntimeException e) {
+      return null;
+    }
+    if (JsonUtils.getIntMember(json, "configVersion") < 2 || !(json.get("packages") instanceof JsonArray entries)) {
+      return null;
+    }
+
+    final URI base = toDirectoryUri(configDirPath);
+    final Map<String, Package> packages = new LinkedHashMap<>();
+    for (JsonElement entry : entries) {
+      if (!entry.isJsonObject()) {
+        continue;
+      }
+      final JsonObject pack = entry.getAsJsonObject();
+      final String name = JsonUtils.getStringMember(pack, "name");
+      final String rootUri = JsonUtils.getStringMember(pack, "rootUri");
+      if (name == null || rootUri == null) {
+        continue;
+      }
+      final URI root = resolve(base, rootUri.endsWith("/") ? rootUri : rootUri + "/");
+      final String rootPath = toPath(root);
+      if (rootPath == null) {
+        continue;
+      }
+      final String packageUri = JsonUtils.getStringMember(pack, "packageUri");
+      final String libPath = packageUri == null ? null : toPath(resolve(root, packageUri));
+      packages.putIfAbsent(name, new Package(name, rootPath, libPath));
+    }
+    return new PackageConfig(packages);
+  }
+
+  @Nullable
+  private static URI resolve(@Nullable URI base, @NotNull String uri) {
+    try {
+      return base == null ? new URI(uri) : base.resolve(new URI(uri));
+    }
+    catch (URISyntaxException e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static URI toDirectoryUri(@NotNull String path) {
+    String uriPath = FileUtil.toSystemIndependentName(path);
+    if (!uriPath.startsWith("/")) {
+      uriPath = "/" + uriPath; // A Windows path, such as C:/src/app
+    }
+    if (!uriPath.endsWith("/")) {
+      uriPath += "/";
+    }
+    try {
+      return new URI("file", null, uriPath, null);
+    }
+    catch (URISyntaxException e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static String toPath(@Nullable URI uri) {
+    if (uri == null || !"file".equals(uri.getScheme()) || uri.getPath() == null) {
+      return null;
+    }
+    String path = uri.getPath();
+    if (path.length() > 1 && path.endsWith("/")) {
+      path = path.substring(0, path.length() - 1);
+    }
+    if (path.length() > 2 && path.charAt(0) == '/' && path.charAt(2) == ':') {
+      path = path.substring(1); // A Windows path, such as /C:/src/app
+    }
+    return path;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof PackageConfig config && packages.equals(config.packages);
+  }
+
+  @Override
+  public int hashCode() {
+    return packages.hashCode();
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.pub;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.util.EventDispatcher;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.jetbrains.lang.dart.util.DotPackagesFileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parses each pub root's {@code .dart_tool/package_config.json} once, and keeps it until the file changes.
+ * <p>
+ * Lookups check the file's modification stamp, so they are cheap enough for editor passes. Listeners are told when a
+ * package config is created, removed, or changes what packages it lists; rewrites with the same content, such as those
+ * done by every {@code pub get}, aren't reported.
+ */
+public class PackageConfigService implements Disposable {
+  private static final @NotNull Logger LOG = Logger.getInstance(PackageConfigService.class);
+
+  private static final String PACKAGE_CONFIG_SUFFIX = "/" + DotPackagesFileUtil.DART_TOOL_DIR + "/" + DotPackagesFileUtil.PACKAGE_CONFIG_JSON;
+
+  private final EventDispatcher<Listener> dispatcher = EventDispatcher.create(Listener.class);
+
+  /**
+   * Maps the paths of package_config.json files to their last parsed contents.
+   * <p>
+   * A file that changed before it was read is entered with no contents, so that reading it reports the change.
+   */
+  private final Map<String, CachedConfig> configs = new HashMap<>();
+
+  private int parseCount;
+
+  @NotNull
+  public static PackageConfigService getInstance(@NotNull Project project) {
+    return Objects.requireNonNull(project.getService(PackageConfigService.class));
+  }
+
+  public PackageConfigService() {
+    ApplicationManager.getApplication().getMessageBus().connect(this).subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends VFileEvent> events) {
+        final List<String> changed = new ArrayList<>();
+        for (VFileEvent event : events) {
+          if (!(event.getFileSystem() instanceof LocalFileSystem)) {
+            continue;
+          }
+          final String path = event.getPath();
+          if (path.endsWith(PACKAGE_CONFIG_SUFFIX) || path.endsWith("/" + DotPackagesFileUtil.DOT_PACKAGES)) {
+            changed.add(path);
+          }
+        }
+        if (changed.isEmpty()) {
+          return;
+        }
+        synchronized (configs) {
+          for (String path : changed) {
+            if (path.endsWith(PACKAGE_CONFIG_SUFFIX)) {
+              configs.putIfAbsent(path, new CachedConfig(-1, null));
+            }
+          }
+        }
+        // Re-read the configs now, so that listeners hear about changes without waiting for a lookup.
+        AppExecutorUtil.getAppExecutorService().execute(() -> ReadAction.run(() -> {
+          for (String path : changed) {
+            refresh(path);
+          }
+        }));
+      }
+    });
+  }
+
+  public void addListener(@NotNull Listener listener, @NotNull Disposable parentDisposable) {
+    dispatcher.addListener(listener, parentDisposable);
+  }
+
+  /**
+   * Returns the package config of the given pub root, or null if it has none or it can't be read.
+   */
+  @Nullable
+  public PackageConfig getPackageConfig(@NotNull PubRoot root) {
+    final VirtualFile file = root.getPackageConfigFile();
+    return file == null ? null : getPackageConfig(file);
+  }
+
+  /**
+   * Returns the lib directory of each package used by the given pub root.
+   * <p>
+   * Falls back to the obsolete {@code .packages} file for pub roots without a package config.
+   */
+  @Nullable
+  public Map<String, String> getPackagesMap(@NotNull PubRoot root) {
+    final PackageConfig config = getPackageConfig(root);
+    if (config != null) {
+      return config.getLibPaths();
+    }
+    final VirtualFile packagesFile = root.getPackagesFile();
+    return packagesFile == null ? null : DotPackagesFileUtil.getPackagesMap(packagesFile);
+  }
+
+  /**
+   * Returns the first package with the given name used by one of the given pub roots.
+   */
+  @Nullable
+  public PackageConfig.Package findPackage(@NotNull List<PubRoot> roots, @NotNull String name) {
+    for (PubRoot root : roots) {
+      final PackageConfig config = getPackageConfig(root);
+      final PackageConfig.Package result = config == null ? null : config.getPackage(name);
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The number of times a package config file was parsed.
+   */
+  public int getParseCount() {
+    synchronized (configs) {
+      return parseCount;
+    }
+  }
+
+  @Nullable
+  private PackageConfig getPackageConfig(@NotNull VirtualFile file) {
+    synchronized (configs) {
+      final CachedConfig cached = configs.get(file.getPath());
+      if (cached != null && cached.modificationStamp == file.getModificationStamp()) {
+        return cached.config;
+      }
+    }
+    return read(file);
+  }
+
+  private void refresh(@NotNull String path) {
+    final VirtualFile file = LocalFileSystem.getInstance().findFileByPath(path);
+    if (path.endsWith(PACKAGE_CONFIG_SUFFIX) && file != null && file.isValid()) {
+      getPackageConfig(file);
+      return;
+    }
+    final CachedConfig removed;
+    synchronized (configs) {
+      removed = configs.remove(path);
+    }
+    // The obsolete .packages files aren't cached, so any change to one is reported.
+    if (!path.endsWith(PACKAGE_CONFIG_SUFFIX) || (removed != null && removed.config != null)) {
+      dispatcher.getMulticaster().packageConfigChanged(path);
+    }
+  }
+
+  @Nullable
+  private PackageConfig read(@NotNull VirtualFile file) {
+    final long modificationStamp = file.getModificationStamp();
+    PackageConfig config = null;
+    try {
+      final String contents = new String(file.contentsToByteArray(), StandardCharsets.UTF_8);
+      final VirtualFile dir = file.getParent();
+      config = PackageConfig.parse(contents, dir == null ? "/" : dir.getPath());
+    }
+    catch (IOException e) {
+      LOG.info("Unable to read " + file.getPath(), e);
+    }
+
+    final CachedConfig previous;
+    synchronized (configs) {
+      parseCount++;
+      previous = configs.put(file.getPath(), new CachedConfig(modificationStamp, config));
+    }
+    if (previous != null && !Objects.equals(previous.config, config)) {
+      dispatcher.getMulticaster().packageConfigChanged(file.getPath());
+    }
+    return config;
+  }
+
+  @Override
+  public void dispose() {
+    synchronized (configs) {
+      configs.clear();
+    }
+  }
+
+  private record CachedConfig(long modificationStamp, @Nullable PackageConfig config) {
+  }
+
+  /**
+   * Listen for changes to the packages used by a pub root.
+   */
+  public interface Listener extends EventListener {
+    /**
+     * Fired when the packages listed in a package config changed, or the file was created or removed. Also fired for
+     * any change to an obsolete {@code .packages} file.
+     */
+    void packageConfigChanged(@NotNull String packageConfigPath);
+  }
+}
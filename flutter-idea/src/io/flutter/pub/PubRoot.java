@@ -14,7 +14,6 @@ import com.intellij.openapi.roots.ProjectFileIndex;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiFile;
-import com.jetbrains.lang.dart.util.DotPackagesFileUtil;
 import io.flutter.FlutterUtils;
 import io.flutter.utils.OpenApiUtils;
 import org.jetbrains.annotations.NotNull;
@@ -22,7 +21,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -291,20 +289,6 @@ public class PubRoot {
     return null;
   }
 
-  public @Nullable Map<String, String> getPackagesMap() {
-    final var packageConfigFile = getPackageConfigFile();
-    if (packageConfigFile != null) {
-      return DotPackagesFileUtil.getPackagesMapFromPackageConfigJsonFile(packageConfigFile);
-    }
-
-    final var packagesFile = getPackagesFile();
-    if (packagesFile != null) {
-      return DotPackagesFileUtil.getPackagesMap(packagesFile);
-    }
-
-    return null;
-  }
-
   /**
    * Returns true if the packages are up-to-date with regard to the `pubspec.yaml`. The `.packages` file is used if no
    * `.tool/package_config.json` is found.  The default value returned is to return false.
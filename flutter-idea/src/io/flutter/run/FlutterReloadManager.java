@@ -10,8 +10,6 @@ import com.intellij.codeInsight.hint.HintManager;
 import com.intellij.codeInsight.hint.HintManagerImpl;
 import com.intellij.codeInsight.hint.HintUtil;
 import com.intellij.concurrency.JobScheduler;
-import com.intellij.execution.ExecutionException;
-import com.intellij.execution.configurations.GeneralCommandLine;
 import com.intellij.ide.actions.SaveAllAction;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationGroup;
@@ -36,16 +34,16 @@ import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.popup.Balloon;
 import com.intellij.openapi.util.SystemInfo;
-import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowId;
 import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.psi.PsiDocumentManager;
-import com.intellij.psi.PsiErrorElement;
 import com.intellij.psi.PsiFile;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.ui.LightweightHint;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.messages.MessageBusConnection;
 import com.intellij.util.ui.UIUtil;
 import com.jetbrains.lang.dart.ide.errorTreeView.DartProblemsView;
@@ -56,23 +54,24 @@ import io.flutter.FlutterUtils;
 import io.flutter.actions.FlutterAppAction;
 import io.flutter.actions.ProjectActions;
 import io.flutter.actions.ReloadFlutterApp;
-import io.flutter.bazel.Workspace;
 import io.flutter.bazel.WorkspaceCache;
+import io.flutter.bazel.WorkspaceFileSync;
 import io.flutter.dart.FlutterDartAnalysisServer;
 import io.flutter.run.common.RunMode;
 import io.flutter.run.daemon.FlutterApp;
+import io.flutter.run.daemon.ReloadTimeline;
 import io.flutter.settings.FlutterSettings;
 import io.flutter.utils.FlutterModuleUtils;
-import io.flutter.utils.MostlySilentColoredProcessHandler;
 import io.flutter.utils.OpenApiUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -82,6 +81,16 @@ import java.util.concurrent.atomic.AtomicReference;
 public class FlutterReloadManager {
   private static final @NotNull Logger LOG = Logger.getInstance(FlutterReloadManager.class);
 
+  /**
+   * Registry key for how long to wait for further saves before starting a reload on save.
+   */
+  private static final String RELOAD_ON_SAVE_DEBOUNCE_KEY = "flutter.reload.on.save.debounce.ms";
+
+  /**
+   * Registry key to replace the "Reloading…" notification with one reporting the measured reload latency.
+   */
+  private static final String MINIMAL_RELOAD_NOTIFICATION_KEY = "flutter.reload.notification.minimal";
+
   private static final Map<String, NotificationGroup> toolWindowNotificationGroups = new HashMap<>();
 
   private static final Map<String, String> toolWindowIdsToNotificationGroupIds = ImmutableMap.of(
@@ -110,6 +119,8 @@ public class FlutterReloadManager {
 
   private final @NotNull Project myProject;
 
+  private final Map<FlutterApp, HotReloadScheduler<Document>> reloadSchedulers = new ConcurrentHashMap<>();
+
   private Notification lastNotification;
 
   /**
@@ -128,6 +139,9 @@ public class FlutterReloadManager {
   private FlutterReloadManager(@NotNull Project project) {
     this.myProject = project;
 
+    // Start tracking modified files, so that Bazel workspaces only sync those before a reload.
+    WorkspaceFileSync.getInstance(project);
+
     final MessageBusConnection connection =
       ApplicationManager.getApplication().getMessageBus().connect(FlutterDartAnalysisServer.getInstance(project));
     connection.subscribe(AnActionListener.TOPIC, new AnActionListener() {
@@ -195,6 +209,7 @@ public class FlutterReloadManager {
           if (!isModified) return;
         }
 
+        final SyntaxErrorTracker errorTracker = SyntaxErrorTracker.getInstance(myProject);
         OpenApiUtils.safeInvokeLater(() -> {
           // Find a Dart editor to trigger the reload.
           final Editor anEditor = OpenApiUtils.safeRunReadAction(() -> {
@@ -209,7 +224,7 @@ public class FlutterReloadManager {
                 if (psiFile instanceof DartFile && someEditor == null) {
                   someEditor = editor;
                 }
-                if (null != PsiTreeUtil.findChildOfType(psiFile, PsiErrorElement.class, false)) {
+                if (psiFile != null && errorTracker.hasSyntaxErrors(psiFile)) {
                   // The Dart plugin may create empty files that it then claims have a syntax error. Ignore them.
                   if (editor.getDocument().getTextLength() != 0) {
                     // If there are analysis errors we want to silently exit, without showing a notification.
@@ -259,80 +274,159 @@ public class FlutterReloadManager {
       return;
     }
 
-    if (!app.isStarted() || app.isReloading()) {
+    if (!app.isStarted()) {
       return;
     }
 
+    // Saves made while a reload is in flight are merged into a single follow-up reload.
+    getReloadScheduler(app).requestReload(editor.getDocument());
+  }
+
+  @NotNull
+  private HotReloadScheduler<Document> getReloadScheduler(@NotNull FlutterApp app) {
+    final HotReloadScheduler<Document> existing = reloadSchedulers.get(app);
+    if (existing != null) {
+      return existing;
+    }
+
+    final HotReloadScheduler<Document> scheduler = new HotReloadScheduler<>(
+      JobScheduler.getScheduler(),
+      (document, requestedAt) -> performReloadOnSave(app, document, requestedAt),
+      () -> Registry.intValue(RELOAD_ON_SAVE_DEBOUNCE_KEY, 100));
+    final HotReloadScheduler<Document> raced = reloadSchedulers.putIfAbsent(app, scheduler);
+    if (raced != null) {
+      return raced;
+    }
+
+    app.addStateListener(new FlutterApp.FlutterAppListener() {
+      @Override
+      public void stateChanged(FlutterApp.State newState) {
+        if (newState == FlutterApp.State.TERMINATED && reloadSchedulers.remove(app, scheduler)) {
+          app.removeStateListener(this);
+          scheduler.dispose();
+          LOG.info("Reload on save for " + app + ": " + scheduler.getStats());
+        }
+      }
+    });
+    return scheduler;
+  }
+
+  /**
+   * Reloads the app in response to a save; the returned future completes when the reload is done.
+   */
+  @NotNull
+  private CompletableFuture<?> performReloadOnSave(@NotNull FlutterApp app, @NotNull Document document, long savedAtMillis) {
+    if (!app.isStarted()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    if (app.isReloading()) {
+      // A reload or restart we didn't start is running; follow it with a reload of our own.
+      getReloadScheduler(app).requestReload(document);
+      return whenReloadFinished(app);
+    }
+
     // Transition the app to an about-to-reload state.
     final FlutterApp.State previousAppState = app.transitionStartingHotReload();
 
-    JobScheduler.getScheduler().schedule(() -> {
-      if (WorkspaceCache.getInstance(myProject).isBazel()) {
-        syncFiles();
+    if (!WorkspaceCache.getInstance(myProject).isBazel()) {
+      return reloadAfterSync(app, document, savedAtMillis, previousAppState);
+    }
+
+    // Start the reload as soon as the modified files have been synced.
+    return WorkspaceFileSync.getInstance(myProject).syncModifiedFiles().thenComposeAsync((syncResult) -> {
+      if (syncResult != null) {
+        app.getReloadTimeline().syncFinished(syncResult.fileCount, syncResult.durationMillis);
       }
+      return reloadAfterSync(app, document, savedAtMillis, previousAppState);
+    }, AppExecutorUtil.getAppExecutorService());
+  }
 
-      clearLastNotification();
+  @NotNull
+  private CompletableFuture<?> reloadAfterSync(@NotNull FlutterApp app,
+                                               @NotNull Document document,
+                                               long savedAtMillis,
+                                               @Nullable FlutterApp.State previousAppState) {
+    clearLastNotification();
 
-      if (!app.isConnected()) {
-        return;
-      }
+    if (!app.isConnected()) {
+      return CompletableFuture.completedFuture(null);
+    }
 
-      // Don't reload if we find structural errors with the current file.
-      if (hasErrorsInFile(editor.getDocument())) {
-        app.cancelHotReloadState(previousAppState);
-        showAnalysisNotification("Reload not performed", "Analysis issues found", true);
+    // Don't reload if we find structural errors with the current file.
+    if (hasErrorsInFile(document)) {
+      app.cancelHotReloadState(previousAppState);
+      showAnalysisNotification("Reload not performed", "Analysis issues found", true);
 
-        return;
-      }
+      return CompletableFuture.completedFuture(null);
+    }
 
-      final Notification notification = showRunNotification(app, null, "Reloading…", false);
-      final long startTime = System.currentTimeMillis();
+    // In minimal mode, the only notification is the measured latency, shown once the reload has rendered a frame.
+    final boolean minimalNotification = Registry.is(MINIMAL_RELOAD_NOTIFICATION_KEY, false);
+    final Notification notification = minimalNotification ? null : showRunNotification(app, null, "Reloading…", false);
+    final long startTime = System.currentTimeMillis();
 
-      app.performHotReload(true, FlutterConstants.RELOAD_REASON_SAVE).thenAccept(result -> {
-        if (!result.ok()) {
+    return app.performHotReload(true, FlutterConstants.RELOAD_REASON_SAVE, savedAtMillis).thenAccept(record -> {
+      if (!record.isOk()) {
+        if (notification != null) {
+          notification.expire();
+        }
+        showRunNotification(app, "Hot Reload Error", StringUtil.notNullize(record.getMessage()), true);
+      }
+      else if (minimalNotification) {
+        showReloadLatencyNotification(app, record);
+      }
+      else {
+        // Make sure the reloading message is displayed for at least 2 seconds (so it doesn't just flash by).
+        final long delay = Math.max(0, 2000 - (System.currentTimeMillis() - startTime));
+
+        JobScheduler.getScheduler().schedule(() -> UIUtil.invokeLaterIfNeeded(() -> {
           if (notification != null) {
             notification.expire();
           }
-          showRunNotification(app, "Hot Reload Error", result.getMessage(), true);
-        }
-        else {
-          // Make sure the reloading message is displayed for at least 2 seconds (so it doesn't just flash by).
-          final long delay = Math.max(0, 2000 - (System.currentTimeMillis() - startTime));
-
-          JobScheduler.getScheduler().schedule(() -> UIUtil.invokeLaterIfNeeded(() -> {
-            if (notification != null) {
-              notification.expire();
-            }
 
-            // If the 'Reloading…' notification is still the most recent one, then clear it.
-            if (isLastNotification(notification)) {
-              removeRunNotifications(app);
-            }
-          }), delay, TimeUnit.MILLISECONDS);
-        }
-      });
-    }, 0, TimeUnit.MILLISECONDS);
+          // If the 'Reloading…' notification is still the most recent one, then clear it.
+          if (isLastNotification(notification)) {
+            removeRunNotifications(app);
+          }
+        }), delay, TimeUnit.MILLISECONDS);
+      }
+    });
   }
 
-  private void syncFiles() {
-    final Workspace workspace = WorkspaceCache.getInstance(myProject).get();
-    assert workspace != null;
+  private void showReloadLatencyNotification(@NotNull FlutterApp app, @NotNull ReloadTimeline.Record record) {
+    record.whenFrameRendered().completeOnTimeout(record, 2, TimeUnit.SECONDS).thenAccept(rendered -> UIUtil.invokeLaterIfNeeded(() -> {
+      String content = "Reloaded in " + rendered.getTotalMillis() + "ms";
+      if (rendered.getLibrariesTotal() >= 0) {
+        content += " (" + rendered.getLibrariesReloaded() + " of " + rendered.getLibrariesTotal() + " libraries)";
+      }
+      final Notification notification = showRunNotification(app, null, content, false);
 
-    final String script = workspace.getRoot().getPath() + "/" + workspace.getSyncScript();
-    final GeneralCommandLine commandLine = new GeneralCommandLine().withWorkDirectory(workspace.getRoot().getPath());
-    commandLine.setCharset(StandardCharsets.UTF_8);
-    commandLine.setExePath(FileUtil.toSystemDependentName(script));
+      JobScheduler.getScheduler().schedule(() -> UIUtil.invokeLaterIfNeeded(() -> {
+        if (notification != null) {
+          notification.expire();
+        }
+        if (isLastNotification(notification)) {
+          removeRunNotifications(app);
+        }
+      }), 3, TimeUnit.SECONDS);
+    }));
+  }
 
-    try {
-      final MostlySilentColoredProcessHandler handler = new MostlySilentColoredProcessHandler(commandLine);
-      handler.startNotify();
-      if (!handler.getProcess().waitFor(10, TimeUnit.SECONDS)) {
-        LOG.error("Syncing files timed out");
+  @NotNull
+  private static CompletableFuture<?> whenReloadFinished(@NotNull FlutterApp app) {
+    final CompletableFuture<Void> finished = new CompletableFuture<>();
+    final FlutterApp.FlutterAppListener listener = new FlutterApp.FlutterAppListener() {
+      @Override
+      public void stateChanged(FlutterApp.State newState) {
+        if (newState != FlutterApp.State.RELOADING && newState != FlutterApp.State.RESTARTING) {
+          finished.complete(null);
+        }
       }
-    }
-    catch (ExecutionException | InterruptedException e) {
-      LOG.error("Unable to sync files: " + e);
-    }
+    };
+    app.addStateListener(listener);
+    finished.whenComplete((ignored, throwable) -> app.removeStateListener(listener));
+    return finished;
   }
 
   private void reloadApp(@NotNull FlutterApp app, @NotNull String reason) {
@@ -486,16 +580,11 @@ public class FlutterReloadManager {
     // are analysis issues in other files; the compilation errors from the flutter tool
     // will indicate to the user where the problems are.
 
-    final PsiErrorElement firstError = OpenApiUtils.safeRunReadAction(() -> {
+    final Boolean hasErrors = OpenApiUtils.safeRunReadAction(() -> {
       final PsiFile psiFile = PsiDocumentManager.getInstance(myProject).getPsiFile(document);
-      if (psiFile instanceof DartFile) {
-        return PsiTreeUtil.findChildOfType(psiFile, PsiErrorElement.class, false);
-      }
-      else {
-        return null;
-      }
+      return psiFile instanceof DartFile && SyntaxErrorTracker.getInstance(myProject).hasSyntaxErrors(psiFile);
     });
-    return firstError != null;
+    return hasErrors != null && hasErrors;
   }
 
   private LightweightHint showEditorHint(@NotNull Editor editor, String message, boolean isError) {
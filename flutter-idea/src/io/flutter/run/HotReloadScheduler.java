@@ -0,0 +1,222 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Schedules reload-on-save requests for a single running app.
+ * <p>
+ * Requests that arrive while a reload is waiting out its debounce interval are merged into that reload. Requests
+ * that arrive while a reload is in flight are merged into exactly one follow-up reload, which is scheduled once the
+ * in-flight reload completes. The most recent request's context is the one passed to the reload action.
+ */
+public class HotReloadScheduler<T> {
+  private final @NotNull ScheduledExecutorService executor;
+  private final @NotNull ReloadAction<T> reloadAction;
+  private final @NotNull LongSupplier debounceMillis;
+  private final @NotNull LongSupplier clock;
+
+  private final Object lock = new Object();
+
+  private @Nullable T pendingContext;
+  private long pendingSince;
+  private @Nullable ScheduledFuture<?> scheduledReload;
+  private boolean reloadInFlight;
+  private boolean disposed;
+
+  private int requestCount;
+  private int reloadCount;
+  private long lastQueueWaitMillis;
+  private long maxQueueWaitMillis;
+  private long totalQueueWaitMillis;
+  private long lastReloadMillis;
+  private long maxReloadMillis;
+  private long totalReloadMillis;
+
+  /**
+   * @param executor       the executor the reload action is run on
+   * @param reloadAction   performs the reload; the returned future completes when the reload is done
+   * @param debounceMillis how long to wait for further requests before reloading
+   */
+  public HotReloadScheduler(@NotNull ScheduledExecutorService executor,
+                            @NotNull ReloadAction<T> reloadAction,
+                            @NotNull LongSupplier debounceMillis) {
+    this(executor, reloadAction, debounceMillis, System::currentTimeMillis);
+  }
+
+  HotReloadScheduler(@NotNull ScheduledExecutorService executor,
+                     @NotNull ReloadAction<T> reloadAction,
+                     @NotNull LongSupplier debounceMillis,
+                     @NotNull LongSupplier clock) {
+    this.executor = executor;
+    this.reloadAction = reloadAction;
+    this.debounceMillis = debounceMillis;
+    this.clock = clock;
+  }
+
+  /**
+   * Request a reload with the given context.
+   */
+  public void requestReload(@NotNull T context) {
+    synchronized (lock) {
+      if (disposed) {
+        return;
+      }
+
+      requestCount++;
+      if (pendingContext == null) {
+        pendingSince = clock.getAsLong();
+      }
+      pendingContext = context;
+
+      // The follow-up reload is scheduled when the in-flight reload completes.
+      if (!reloadInFlight) {
+        scheduleLocked();
+      }
+    }
+  }
+
+  /**
+   * Returns whether a reload is pending or in flight.
+   */
+  public boolean isBusy() {
+    synchronized (lock) {
+      return reloadInFlight || pendingContext != null;
+    }
+  }
+
+  /**
+   * Drop any pending request; no further reloads will be scheduled.
+   */
+  public void dispose() {
+    synchronized (lock) {
+      disposed = true;
+      pendingContext = null;
+      if (scheduledReload != null) {
+        scheduledReload.cancel(false);
+        scheduledReload = null;
+      }
+    }
+  }
+
+  @NotNull
+  public Stats getStats() {
+    synchronized (lock) {
+      return new Stats(requestCount, reloadCount, lastQueueWaitMillis, maxQueueWaitMillis, totalQueueWaitMillis,
+                       lastReloadMillis, maxReloadMillis, totalReloadMillis);
+    }
+  }
+
+  private void scheduleLocked() {
+    if (scheduledReload != null) {
+      scheduledReload.cancel(false);
+    }
+    scheduledReload = executor.schedule(this::runPendingReload, Math.max(0, debounceMillis.getAsLong()), TimeUnit.MILLISECONDS);
+  }
+
+  private void runPendingReload() {
+    final T context;
+    final long requestedAt;
+    final long startTime;
+    synchronized (lock) {
+      // A superseded or cancelled schedule may still run; only one reload is allowed in flight.
+      if (disposed || reloadInFlight || pendingContext == null) {
+        return;
+      }
+      context = pendingContext;
+      requestedAt = pendingSince;
+      pendingContext = null;
+      scheduledReload = null;
+      reloadInFlight = true;
+
+      startTime = clock.getAsLong();
+      lastQueueWaitMillis = startTime - pendingSince;
+      maxQueueWaitMillis = Math.max(maxQueueWaitMillis, lastQueueWaitMillis);
+      totalQueueWaitMillis += lastQueueWaitMillis;
+    }
+
+    CompletableFuture<?> future;
+    try {
+      future = reloadAction.reload(context, requestedAt);
+    }
+    catch (RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+    if (future == null) {
+      future = CompletableFuture.completedFuture(null);
+    }
+    future.whenComplete((result, throwable) -> reloadFinished(startTime));
+  }
+
+  private void reloadFinished(long startTime) {
+    synchronized (lock) {
+      reloadInFlight = false;
+      reloadCount++;
+      lastReloadMillis = clock.getAsLong() - startTime;
+      maxReloadMillis = Math.max(maxReloadMillis, lastReloadMillis);
+      totalReloadMillis += lastReloadMillis;
+
+      if (!disposed && pendingContext != null) {
+        scheduleLocked();
+      }
+    }
+  }
+
+  public interface ReloadAction<T> {
+    /**
+     * Perform a reload; the returned future completes when the reload is done.
+     *
+     * @param requestedAtMillis when the first of the requests merged into this reload was made
+     */
+    CompletableFuture<?> reload(@NotNull T context, long requestedAtMillis);
+  }
+
+  /**
+   * A snapshot of the queue wait and reload durations recorded for one app.
+   */
+  public static class Stats {
+    public final int requestCount;
+    public final int reloadCount;
+    public final long lastQueueWaitMillis;
+    public final long maxQueueWaitMillis;
+    public final long totalQueueWaitMillis;
+    public final long lastReloadMillis;
+    public final long maxReloadMillis;
+    public final long totalReloadMillis;
+
+    Stats(int requestCount,
+          int reloadCount,
+          long lastQueueWaitMillis,
+          long maxQueueWaitMillis,
+          long totalQueueWaitMillis,
+          long lastReloadMillis,
+          long maxReloadMillis,
+          long totalReloadMillis) {
+      this.requestCount = requestCount;
+      this.reloadCount = reloadCount;
+      this.lastQueueWaitMillis = lastQueueWaitMillis;
+      this.maxQueueWaitMillis = maxQueueWaitMillis;
+      this.totalQueueWaitMillis = totalQueueWaitMillis;
+      this.lastReloadMillis = lastReloadMillis;
+      this.maxReloadMillis = maxReloadMillis;
+      this.totalReloadMillis = totalReloadMillis;
+    }
+
+    @Override
+    public String toString() {
+      return requestCount + " save(s), " + reloadCount + " reload(s); queue wait last " + lastQueueWaitMillis + "ms, max " +
+             maxQueueWaitMillis + "ms; reload last " + lastReloadMillis + "ms, max " + maxReloadMillis + "ms";
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiErrorElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks which files contain syntax errors, so reload on save doesn't have to walk the PSI of every open file.
+ * <p>
+ * The first query for a file scans its whole tree. After that, PSI change events record which subtrees changed;
+ * only those subtrees are rescanned, either in the background shortly after the change or on the next query.
+ * Queries for unchanged files are a constant-time lookup.
+ * <p>
+ * What's known about a file is kept with its {@link PsiFile}, so it's released along with the PSI, including for
+ * files that are only shown in diff and console editors.
+ */
+public class SyntaxErrorTracker implements Disposable {
+  /**
+   * Past this many changed subtrees, rescanning the whole file is cheaper than tracking them.
+   */
+  private static final int MAX_DIRTY_ROOTS = 32;
+
+  private static final Key<FileErrors> FILE_ERRORS_KEY = Key.create("io.flutter.run.SyntaxErrorTracker.fileErrors");
+
+  private final @NotNull Project project;
+  /**
+   * The tracked files, for the background updates; the entries are only held by their {@link PsiFile}.
+   */
+  private final Map<VirtualFile, FileErrors> fileErrors = ContainerUtil.createConcurrentWeakValueMap();
+
+  private final AtomicInteger fullScanCount = new AtomicInteger();
+  private final AtomicInteger partialScanCount = new AtomicInteger();
+
+  @NotNull
+  public static SyntaxErrorTracker getInstance(@NotNull Project project) {
+    return Objects.requireNonNull(project.getService(SyntaxErrorTracker.class));
+  }
+
+  public SyntaxErrorTracker(@NotNull Project project) {
+    this.project = project;
+
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+      @Override
+      public void childAdded(@NotNull PsiTreeChangeEvent event) {
+        subtreeChanged(event);
+      }
+
+      @Override
+      public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+        subtreeChanged(event);
+      }
+
+      @Override
+      public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+        subtreeChanged(event);
+      }
+
+      @Override
+      public void childMoved(@NotNull PsiTreeChangeEvent event) {
+        subtreeChanged(event);
+      }
+
+      @Override
+      public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+        // A reparse reports a generic change for the whole file along with the specific changes; skip the former.
+        if (!(event.getParent() instanceof PsiFile)) {
+          subtreeChanged(event);
+        }
+      }
+
+      @Override
+      public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+        final PsiFile file = event.getFile();
+        if (file != null) {
+          markFileChanged(file, null);
+        }
+      }
+    }, this);
+  }
+
+  /**
+   * Returns whether the given file contains a {@link PsiErrorElement}.
+   * <p>
+   * Must be called in a read action.
+   */
+  public boolean hasSyntaxErrors(@NotNull PsiFile psiFile) {
+    final VirtualFile file = psiFile.getVirtualFile();
+    if (file == null) {
+      return PsiTreeUtil.findChildOfType(psiFile, PsiErrorElement.class, false) != null;
+    }
+
+    final FileErrors errors = getFileErrors(psiFile, file);
+    synchronized (errors) {
+      update(errors);
+      return !errors.errors.isEmpty();
+    }
+  }
+
+  @NotNull
+  private synchronized FileErrors getFileErrors(@NotNull PsiFile psiFile, @NotNull VirtualFile file) {
+    FileErrors errors = psiFile.getUserData(FILE_ERRORS_KEY);
+    if (errors == null) {
+      errors = new FileErrors(psiFile);
+      psiFile.putUserData(FILE_ERRORS_KEY, errors);
+    }
+    // Replaces the entry for an earlier PSI of the file.
+    fileErrors.put(file, errors);
+    return errors;
+  }
+
+  /**
+   * Returns the number of full and partial rescans performed; used to verify the tracker does incremental work.
+   */
+  int[] getScanCounts() {
+    return new int[]{fullScanCount.get(), partialScanCount.get()};
+  }
+
+  private void subtreeChanged(@NotNull PsiTreeChangeEvent event) {
+    final PsiFile file = event.getFile();
+    if (file != null) {
+      markFileChanged(file, event.getParent());
+    }
+  }
+
+  private void markFileChanged(@NotNull PsiFile psiFile, PsiElement changedRoot) {
+    // Only files that have been queried are tracked.
+    final FileErrors errors = psiFile.getUserData(FILE_ERRORS_KEY);
+    if (errors == null) {
+      return;
+    }
+
+    synchronized (errors) {
+      if (changedRoot == null || changedRoot instanceof PsiFile || errors.dirtyRoots.size() >= MAX_DIRTY_ROOTS) {
+        errors.needsFullScan = true;
+        errors.dirtyRoots.clear();
+      }
+      else if (!errors.needsFullScan) {
+        errors.dirtyRoots.add(changedRoot);
+      }
+    }
+
+    scheduleBackgroundUpdate();
+  }
+
+  private void scheduleBackgroundUpdate() {
+    ReadAction.nonBlocking(() -> {
+        for (FileErrors errors : fileErrors.values()) {
+          synchronized (errors) {
+            update(errors);
+          }
+        }
+        return null;
+      })
+      .coalesceBy(this)
+      .expireWith(this)
+      .submit(AppExecutorUtil.getAppExecutorService());
+  }
+
+  private void update(@NotNull FileErrors errors) {
+    final PsiFile psiFile = errors.psiFile;
+    if (!psiFile.isValid()) {
+      return;
+    }
+
+    if (!errors.needsFullScan && !errors.dirtyRoots.isEmpty()) {
+      final List<PsiElement> roots = new ArrayList<>(errors.dirtyRoots);
+      errors.dirtyRoots.clear();
+
+      // Errors from replaced subtrees are no longer valid.
+      errors.errors.removeIf((error) -> !error.isValid());
+      for (PsiElement root : roots) {
+        if (!root.isValid()) {
+          errors.needsFullScan = true;
+          break;
+        }
+        errors.errors.addAll(PsiTreeUtil.collectElementsOfType(root, PsiErrorElement.class));
+      }
+      partialScanCount.incrementAndGet();
+    }
+
+    if (errors.needsFullScan) {
+      errors.errors.clear();
+      errors.errors.addAll(PsiTreeUtil.collectElementsOfType(psiFile, PsiErrorElement.class));
+      errors.needsFullScan = false;
+      errors.dirtyRoots.clear();
+      fullScanCount.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    fileErrors.clear();
+  }
+
+  private static class FileErrors {
+    final @NotNull PsiFile psiFile;
+    boolean needsFullScan = true;
+    final List<PsiElement> dirtyRoots = new ArrayList<>();
+    final Set<PsiErrorElement> errors = new HashSet<>();
+
+    FileErrors(@NotNull PsiFile psiFile) {
+      this.psiFile = psiFile;
+    }
+  }
+}
@@ -9,22 +9,26 @@ import com.google.common.annotations.VisibleForTesting;
 import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.jetbrains.lang.dart.psi.DartCallExpression;
 import com.jetbrains.lang.dart.psi.DartStringLiteralExpression;
+import io.flutter.dart.CompactFlutterOutline;
 import io.flutter.dart.DartSyntax;
-import io.flutter.dart.FlutterDartAnalysisServer;
 import io.flutter.editor.ActiveEditorsOutlineService;
+import io.flutter.editor.OutlineDiff;
+import io.flutter.run.common.TestDeclarationScanner.TestDeclaration;
 import io.flutter.utils.OpenApiUtils;
 import org.dartlang.analysis.server.protocol.ElementKind;
-import org.dartlang.analysis.server.protocol.FlutterOutline;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.dartlang.analysis.server.protocol.ElementKind.UNIT_TEST_GROUP;
@@ -52,8 +56,8 @@ public abstract class CommonTestConfigUtils {
    * <p>
    * A test call is one of the following:
    * <ul>
-   * <li>{@link TestType#SINGLE} if the call is a {@link DartCallExpression} marked by the {@link FlutterOutline} as {@link ElementKind#UNIT_TEST_TEST}</li>
-   * <li>{@link TestType#GROUP} if the call is a {@link DartCallExpression} marked by the {@link FlutterOutline} as {@link ElementKind#UNIT_TEST_GROUP}</li>
+   * <li>{@link TestType#SINGLE} if the call is a {@link DartCallExpression} marked by the {@link CompactFlutterOutline} as {@link ElementKind#UNIT_TEST_TEST}</li>
+   * <li>{@link TestType#GROUP} if the call is a {@link DartCallExpression} marked by the {@link CompactFlutterOutline} as {@link ElementKind#UNIT_TEST_GROUP}</li>
    * </ul>
    *
    * @return a {@link TestType} if {@param element} corresponds to a test call site, or null if {@param element} is not a test call site.
@@ -69,47 +73,61 @@ public abstract class CommonTestConfigUtils {
     return null;
   }
 
-  private final Map<String, OutlineCache> cache = new HashMap<>();
-
-  private void clearCachedInfo(String path) {
-    synchronized (this) {
-      cache.remove(path);
-    }
-  }
+  /**
+   * The tests found in the last outline of a file, kept on the {@link PsiFile} so that they go away with it.
+   */
+  private static final Key<OutlineCache> OUTLINE_CACHE_KEY = Key.create("io.flutter.run.common.CommonTestConfigUtils.outlineCache");
 
   /**
    * Gets the elements from the outline that are runnable tests.
+   * <p>
+   * While the outline is out of date, the tests are taken from the {@link TestDeclarationIndex} instead.
    */
   @NotNull
   private Map<Integer, TestType> getTestsFromOutline(@NotNull PsiFile file) {
     final Project project = file.getProject();
     final ActiveEditorsOutlineService outlineService = getActiveEditorsOutlineService(project);
     if (outlineService == null) {
-      return new HashMap<>();
+      return getTestsFromIndex(file);
     }
 
-    final FlutterOutline outline = outlineService.getIfUpdated(file);
-    final String path = file.getVirtualFile().getPath();
-    final boolean outlineOutdated;
-    synchronized (this) {
-      final OutlineCache entry = cache.get(path);
-      outlineOutdated = cache.containsKey(path) && outline != entry.outline;
-    }
+    final CompactFlutterOutline outline = outlineService.getIfUpdated(file);
     // If the outline is outdated, then request a new pass to generate line markers.
-    if (outline == null || outlineOutdated) {
-      clearCachedInfo(path);
+    if (outline == null) {
       final LineMarkerUpdatingListener listener = getListenerForFile(file);
       if (listener != null) {
         outlineService.addListener(listener);
       }
-      return new HashMap<>();
+      return getTestsFromIndex(file);
+    }
+
+    final OutlineCache previous = file.getUserData(OUTLINE_CACHE_KEY);
+    if (previous != null && previous.outline == outline) {
+      return previous.callToTestType;
     }
 
-    synchronized (this) {
-      final OutlineCache entry = new OutlineCache(outline, file);
-      cache.put(path, entry);
-      return entry.callToTestType;
+    // Update the tests found in the previous outline, so that only the nodes added by an edit are resolved in the file.
+    final OutlineCache entry = previous == null
+                               ? new OutlineCache(outline, file)
+                               : new OutlineCache(previous, OutlineDiff.compute(previous.outline, outline), file);
+    file.putUserData(OUTLINE_CACHE_KEY, entry);
+    return entry.callToTestType;
+  }
+
+  /**
+   * Gets the test calls found in the file by the {@link TestDeclarationIndex}, keyed by their offsets.
+   */
+  @NotNull
+  private static Map<Integer, TestType> getTestsFromIndex(@NotNull PsiFile file) {
+    final Map<Integer, TestType> callToTestType = new HashMap<>();
+    final VirtualFile virtualFile = file.getVirtualFile();
+    if (virtualFile == null) {
+      return callToTestType;
     }
+    for (TestDeclaration declaration : TestDeclarationIndex.getDeclarations(file.getProject(), virtualFile)) {
+      callToTestType.put(declaration.offset(), declaration.type());
+    }
+    return callToTestType;
   }
 
   @Nullable
@@ -165,79 +183,105 @@ public abstract class CommonTestConfigUtils {
   }
 
   /**
-   * The cache of listeners for the path of each {@link PsiFile} that has an outded {@link FlutterOutline}.
+   * The listener for a {@link PsiFile} that has an outdated {@link CompactFlutterOutline}, kept on the file so that it
+   * goes away with it.
    */
-  private static final Map<String, LineMarkerUpdatingListener> listenerCache = new HashMap<>();
+  private static final Key<LineMarkerUpdatingListener> LISTENER_KEY =
+    Key.create("io.flutter.run.common.CommonTestConfigUtils.lineMarkerUpdatingListener");
+
+  private static final Object listenerLock = new Object();
 
   private LineMarkerUpdatingListener getListenerForFile(@NotNull final PsiFile file) {
-    final String path = file.getVirtualFile().getCanonicalPath();
     final ActiveEditorsOutlineService service = getActiveEditorsOutlineService(file.getProject());
-    if (!listenerCache.containsKey(path) && service != null) {
-      listenerCache.put(path, new LineMarkerUpdatingListener(this, file.getProject(), service));
-      var disposableParent = FlutterDartAnalysisServer.getInstance(file.getProject());
-      Disposer.register(disposableParent, () -> {
-        listenerCache.remove(path);
-      });
+    // Line markers are computed on background threads.
+    synchronized (listenerLock) {
+      LineMarkerUpdatingListener listener = file.getUserData(LISTENER_KEY);
+      if (listener == null && service != null) {
+        listener = new LineMarkerUpdatingListener(this, file.getProject(), service);
+        file.putUserData(LISTENER_KEY, listener);
+      }
+      return listener;
     }
-    return listenerCache.get(path);
   }
 
   private static class OutlineCache {
-    final Map<Integer, TestType> callToTestType;
-    final FlutterOutline outline;
+    final Map<Integer, TestType> callToTestType = new HashMap<>();
+    final List<TestCall> testCalls = new ArrayList<>();
+    final CompactFlutterOutline outline;
 
-    private OutlineCache(FlutterOutline outline, PsiFile file) {
-      this.callToTestType = new HashMap<>();
+    private OutlineCache(CompactFlutterOutline outline, PsiFile file) {
       this.outline = outline;
 
-      populateTestTypeMap(outline, file);
+      for (int node = 0; node < outline.size(); node++) {
+        findTestCall(node, file);
+      }
     }
 
     /**
-     * Traverses the {@param outline} tree and adds to {@link OutlineCache#callToTestType } the {@link DartCallExpression}s that are tests or test groups.
+     * Updates the test calls of {@param previous} to the current outline of {@param diff}.
      */
-    private void populateTestTypeMap(@NotNull FlutterOutline outline, @NotNull PsiFile file) {
-      if (outline.getDartElement() != null) {
-        final PsiElement element;
-
-        switch (outline.getDartElement().getKind()) {
-          case UNIT_TEST_GROUP: {
-            // We found a test group.
-            element = file.findElementAt(outline.getOffset());
-            final DartCallExpression enclosingCall = DartSyntax.findClosestEnclosingFunctionCall(element);
-            if (enclosingCall != null) {
-              callToTestType.put(enclosingCall.getTextOffset(), TestType.GROUP);
-            }
-          }
+    private OutlineCache(OutlineCache previous, OutlineDiff diff, PsiFile file) {
+      this.outline = diff.getCurrent();
+
+      for (TestCall call : previous.testCalls) {
+        final int node = diff.getCurrentNode(call.node());
+        if (node != -1) {
+          // The call moved with its node.
+          final int delta = outline.getOffset(node) - previous.outline.getOffset(call.node());
+          addTestCall(new TestCall(node, call.offset() + delta, call.type()));
+        }
+      }
+      for (int node = diff.getAddedStart(); node < diff.getAddedEnd(); node++) {
+        findTestCall(node, file);
+      }
+    }
+
+    /**
+     * Adds the {@link DartCallExpression} for {@param node} of the outline if it is a test or test group.
+     */
+    private void findTestCall(int node, @NotNull PsiFile file) {
+      final String kind = outline.getElementKind(node);
+      if (kind == null) {
+        return;
+      }
+      final TestType type;
+      switch (kind) {
+        case UNIT_TEST_GROUP:
+          // We found a test group.
+          type = TestType.GROUP;
           break;
 
-          case UNIT_TEST_TEST: {
-            // We found a unit test.
-            element = file.findElementAt(outline.getOffset());
-            final DartCallExpression enclosingCall = DartSyntax.findClosestEnclosingFunctionCall(element);
-            if (enclosingCall != null) {
-              callToTestType.put(enclosingCall.getTextOffset(), TestType.SINGLE);
-            }
-          }
+        case UNIT_TEST_TEST:
+          // We found a unit test.
+          type = TestType.SINGLE;
           break;
 
-          default:
-            // We found no test.
-            break;
-        }
+        default:
+          // We found no test.
+          return;
       }
-
-      if (outline.getChildren() != null) {
-        for (FlutterOutline child : outline.getChildren()) {
-          populateTestTypeMap(child, file);
-        }
+      final PsiElement element = file.findElementAt(outline.getOffset(node));
+      final DartCallExpression enclosingCall = DartSyntax.findClosestEnclosingFunctionCall(element);
+      if (enclosingCall != null) {
+        addTestCall(new TestCall(node, enclosingCall.getTextOffset(), type));
       }
     }
+
+    private void addTestCall(@NotNull TestCall call) {
+      testCalls.add(call);
+      callToTestType.put(call.offset(), call.type());
+    }
+  }
+
+  /**
+   * A test or test group node of an outline, and the offset of its call.
+   */
+  private record TestCall(int node, int offset, @NotNull TestType type) {
   }
 
   /**
    * {@link ActiveEditorsOutlineService.Listener} that forces IntelliJ to recompute line markers and other file annotations when the
-   * {@link FlutterOutline} updates.
+   * {@link CompactFlutterOutline} updates.
    *
    * <p>
    * Used to ensure that we don't get stuck with out-of-date line markers.
@@ -256,8 +300,8 @@ public abstract class CommonTestConfigUtils {
     }
 
     @Override
-    public void onOutlineChanged(@NotNull String filePath, @Nullable FlutterOutline outline) {
-      commonTestConfigUtils.clearCachedInfo(filePath);
+    public void onOutlineChanged(@NotNull String filePath, @Nullable CompactFlutterOutline outline) {
+      // The cached tests are kept, so that they can be updated from the new outline.
       forceFileAnnotation();
       service.removeListener(this);
     }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run.common;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.lang.dart.DartFileType;
+import io.flutter.run.common.TestDeclarationScanner.TestDeclaration;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the {@code test}, {@code testWidgets} and {@code group} calls in Dart test files.
+ * <p>
+ * Keys are full test names, as reported by {@code package:test}, and values are the calls with that name in a file.
+ * This lets line markers, run configurations and test locations find tests before the Flutter outline of a file is
+ * available.
+ */
+public class TestDeclarationIndex extends FileBasedIndexExtension<String, List<TestDeclaration>> {
+  public static final ID<String, List<TestDeclaration>> NAME = ID.create("io.flutter.run.common.TestDeclarationIndex");
+  private static final int VERSION = 1;
+
+  @Override
+  public @NotNull ID<String, List<TestDeclaration>> getName() {
+    return NAME;
+  }
+
+  @Override
+  public @NotNull DataIndexer<String, List<TestDeclaration>, FileContent> getIndexer() {
+    return inputData -> {
+      final Map<String, List<TestDeclaration>> result = new HashMap<>();
+      for (TestDeclaration declaration : TestDeclarationScanner.scan(inputData.getContentAsText())) {
+        result.computeIfAbsent(declaration.getFullName(), name -> new ArrayList<>()).add(declaration);
+      }
+      return result;
+    };
+  }
+
+  @Override
+  public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @Override
+  public @NotNull DataExternalizer<List<TestDeclaration>> getValueExternalizer() {
+    return new DataExternalizer<>() {
+      @Override
+      public void save(@NotNull DataOutput out, List<TestDeclaration> value) throws IOException {
+        out.writeInt(value.size());
+        for (TestDeclaration declaration : value) {
+          out.writeInt(declaration.names().size());
+          for (String name : declaration.names()) {
+            out.writeUTF(name);
+          }
+          out.writeInt(declaration.offset());
+          out.writeUTF(declaration.type().name());
+          out.writeBoolean(declaration.parameterized());
+        }
+      }
+
+      @Override
+      public List<TestDeclaration> read(@NotNull DataInput in) throws IOException {
+        final int size = in.readInt();
+        final List<TestDeclaration> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          final int nameCount = in.readInt();
+          final List<String> names = new ArrayList<>(nameCount);
+          for (int j = 0; j < nameCount; j++) {
+            names.add(in.readUTF());
+          }
+          result.add(new TestDeclaration(List.copyOf(names), in.readInt(), TestType.valueOf(in.readUTF()), in.readBoolean()));
+        }
+        return result;
+      }
+    };
+  }
+
+  @Override
+  public int getVersion() {
+    return VERSION;
+  }
+
+  @Override
+  public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(DartFileType.INSTANCE) {
+      @Override
+      public boolean acceptInput(@NotNull VirtualFile file) {
+        // package:test only runs files with this suffix.
+        return file.getName().endsWith("_test.dart");
+      }
+    };
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  /**
+   * Return the test and group calls in the given file in source order, or an empty list if the file isn't indexed or
+   * indexing is in progress.
+   */
+  @NotNull
+  public static List<TestDeclaration> getDeclarations(@NotNull Project project, @NotNull VirtualFile file) {
+    if (DumbService.isDumb(project)) {
+      return List.of();
+    }
+    final List<TestDeclaration> result = new ArrayList<>();
+    for (List<TestDeclaration> declarations : FileBasedIndex.getInstance().getFileData(NAME, file, project).values()) {
+      result.addAll(declarations);
+    }
+    result.sort(Comparator.comparingInt(TestDeclaration::offset));
+    return result;
+  }
+
+  /**
+   * Return the test and group calls in the given file with the given group and test names, or an empty list if the
+   * file isn't indexed or indexing is in progress.
+   */
+  @NotNull
+  public static List<TestDeclaration> getDeclarations(@NotNull Project project, @NotNull VirtualFile file, @NotNull List<String> names) {
+    if (DumbService.isDumb(project)) {
+      return List.of();
+    }
+    final List<TestDeclaration> declarations =
+      FileBasedIndex.getInstance().getFileData(NAME, file, project).getOrDefault(String.join(" ", names), List.of());
+    // Names with spaces can give the same full name.
+    return declarations.stream().filter(declaration -> declaration.names().equals(names)).toList();
+  }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run.common;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the {@code test}, {@code testWidgets} and {@code group} calls in the text of a Dart file, without building PSI.
+ * <p>
+ * This is a lexical scan: it skips comments and strings and follows brackets, so that each call is given the names of
+ * the groups it is nested in. Functions annotated with {@code @isTest} or {@code @isTestGroup} aren't recognized; the
+ * Flutter outline is needed for those.
+ */
+public class TestDeclarationScanner {
+  private static final Map<String, TestType> TEST_FUNCTIONS = Map.of(
+    "test", TestType.SINGLE,
+    "testWidgets", TestType.SINGLE,
+    "group", TestType.GROUP);
+
+  /**
+   * Keywords that can come right before a call; any other word before a test function name makes it a declaration.
+   */
+  private static final Set<String> KEYWORDS_BEFORE_CALL = Set.of("await", "return", "else", "async", "sync");
+
+  /**
+   * A test or group call.
+   *
+   * @param names        the names of the enclosing groups and then of the call itself. A name is the text between the
+   *                     quotes of its string literal, or the source of the expression if it isn't a literal.
+   * @param offset       the offset of the called function's name, which is also the text offset of the call expression
+   * @param parameterized whether the call's own name is computed, by interpolation or an expression, so that it is only
+   *                     known when the test runs
+   */
+  public record TestDeclaration(@NotNull List<String> names, int offset, @NotNull TestType type, boolean parameterized) {
+    @NotNull
+    public String getName() {
+      return names.get(names.size() - 1);
+    }
+
+    /**
+     * The name of the test as reported by {@code package:test}, which joins the group names and test name with spaces.
+     */
+    @NotNull
+    public String getFullName() {
+      return String.join(" ", names);
+    }
+  }
+
+  /**
+   * Return the test and group calls in the given Dart source, in source order.
+   */
+  @NotNull
+  public static List<TestDeclaration> scan(@NotNull CharSequence source) {
+    // Most Dart files can be skipped without looking any further.
+    if (!contains(source, "test") && !contains(source, "group")) {
+      return List.of();
+    }
+    final TestDeclarationScanner scanner = new TestDeclarationScanner(source);
+    scanner.scanCode();
+    return scanner.declarations;
+  }
+
+  /**
+   * A test or group call whose arguments haven't ended yet.
+   */
+  private record OpenCall(@NotNull String name, int depth) {
+  }
+
+  @NotNull private final CharSequence text;
+  @NotNull private final List<TestDeclaration> declarations = new ArrayList<>();
+  @NotNull private final List<OpenCall> openCalls = new ArrayList<>();
+
+  private int pos;
+
+  /**
+   * The number of open brackets of any kind.
+   */
+  private int depth;
+
+  /**
+   * The last character of the previous token, or 0 at the start, and the previous token if it was a word.
+   */
+  private char previousChar;
+  @Nullable private String previousWord;
+
+  private TestDeclarationScanner(@NotNull CharSequence text) {
+    this.text = text;
+  }
+
+  private void scanCode() {
+    while (pos < text.length()) {
+      final char c = text.charAt(pos);
+      if (isCommentStart()) {
+        skipComment();
+      }
+      else if (isStringStart()) {
+        skipStrings(null);
+        setPrevious('\'', null);
+      }
+      else if (Character.isJavaIdentifierStart(c)) {
+        scanWord();
+      }
+      else if (c == '(' || c == '[' || c == '{') {
+        depth++;
+        pos++;
+        setPrevious(c, null);
+      }
+      else if (c == ')' || c == ']' || c == '}') {
+        depth--;
+        while (!openCalls.isEmpty() && openCalls.get(openCalls.size() - 1).depth() > depth) {
+          openCalls.remove(openCalls.size() - 1);
+        }
+        pos++;
+        setPrevious(c, null);
+      }
+      else {
+        if (c == '>' && pos > 0 && text.charAt(pos - 1) == '=') {
+          // The arrow of a function body, which is followed by an expression like the '=' of an assignment.
+          setPrevious('=', null);
+        }
+        else if (!Character.isWhitespace(c)) {
+          setPrevious(c, null);
+        }
+        pos++;
+      }
+    }
+  }
+
+  private void scanWord() {
+    final int start = pos;
+    while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+      pos++;
+    }
+    final String word = text.subSequence(start, pos).toString();
+    final boolean isCall = isCallPosition();
+    setPrevious(word.charAt(word.length() - 1), word);
+
+    final TestType type = TEST_FUNCTIONS.get(word);
+    if (type == null || !isCall) {
+      return;
+    }
+    skipWhitespaceAndComments();
+    if (pos >= text.length() || text.charAt(pos) != '(') {
+      return;
+    }
+    pos++;
+    depth++;
+    setPrevious('(', null);
+
+    skipWhitespaceAndComments();
+    final int argumentStart = pos;
+    String name = null;
+    boolean parameterized = false;
+    if (isStringStart()) {
+      final StringBuilder literal = new StringBuilder();
+      parameterized = skipStrings(literal);
+      skipWhitespaceAndComments();
+      if (pos < text.length() && (text.charAt(pos) == ',' || text.charAt(pos) == ')')) {
+        name = literal.toString();
+      }
+    }
+    if (name == null) {
+      // The name is an expression, such as a variable or a concatenation.
+      pos = argumentStart;
+      skipExpression(',', ')');
+      name = text.subSequence(argumentStart, pos).toString().trim();
+      parameterized = true;
+    }
+    setPrevious('\'', null);
+    if (pos >= text.length() || text.charAt(pos) != ',') {
+      // Tests and groups take a body, so this is a call of something else, such as a parameter named test.
+      return;
+    }
+
+    final List<String> names = new ArrayList<>(openCalls.size() + 1);
+    for (OpenCall call : openCalls) {
+      names.add(call.name());
+    }
+    names.add(name);
+    declarations.add(new TestDeclaration(List.copyOf(names), start, type, parameterized));
+    openCalls.add(new OpenCall(name, depth));
+  }
+
+  /**
+   * Whether a word at this position would be called, rather than being declared or being a member of something else.
+   */
+  private boolean isCallPosition() {
+    if (previousWord != null) {
+      return KEYWORDS_BEFORE_CALL.contains(previousWord);
+    }
+    // A '>' ends a generic return type; arrows are recorded as '='.
+    return previousChar != '.' && previousChar != '?' && previousChar != '>';
+  }
+
+  private void setPrevious(char c, @Nullable String word) {
+    previousChar = c;
+    previousWord = word;
+  }
+
+  /**
+   * Skips one string literal, and any adjacent ones, appending their contents between the quotes to {@param literal}.
+   * <p>
+   * Returns whether any of them has interpolations.
+   */
+  private boolean skipStrings(@Nullable StringBuilder literal) {
+    boolean interpolated = false;
+    while (true) {
+      interpolated |= skipString(literal);
+      final int end = pos;
+      skipWhitespaceAndComments();
+      if (!isStringStart()) {
+        pos = end;
+        return interpolated;
+      }
+    }
+  }
+
+  private boolean skipString(@Nullable StringBuilder literal) {
+    final boolean raw = text.charAt(pos) == 'r';
+    if (raw) {
+      pos++;
+    }
+    final char quote = text.charAt(pos);
+    final boolean multiline = pos + 2 < text.length() && text.charAt(pos + 1) == quote && text.charAt(pos + 2) == quote;
+    pos += multiline ? 3 : 1;
+
+    boolean interpolated = false;
+    while (pos < text.length()) {
+      final char c = text.charAt(pos);
+      if (c == quote && (!multiline || isTripleQuote(quote))) {
+        pos += multiline ? 3 : 1;
+        break;
+      }
+      if (c == '\n' && !multiline) {
+        // Unterminated string.
+        break;
+      }
+      final int start = pos;
+      if (c == '\\' && !raw) {
+        pos = Math.min(pos + 2, text.length());
+      }
+      else if (c == '$' && !raw) {
+        interpolated = true;
+        pos++;
+        if (pos < text.length() && text.charAt(pos) == '{') {
+          pos++;
+          skipExpression('}');
+          if (pos < text.length()) {
+            pos++;
+          }
+        }
+        else {
+          while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos)) && text.charAt(pos) != '$') {
+            pos++;
+          }
+        }
+      }
+      else {
+        pos++;
+      }
+      if (literal != null) {
+        literal.append(text, start, pos);
+      }
+    }
+    return interpolated;
+  }
+
+  private boolean isTripleQuote(char quote) {
+    return pos + 2 < text.length() && text.charAt(pos + 1) == quote && text.charAt(pos + 2) == quote;
+  }
+
+  /**
+   * Skips code up to one of {@param terminators} that isn't nested in brackets, or the end of the text.
+   */
+  private void skipExpression(char... terminators) {
+    int nesting = 0;
+    while (pos < text.length()) {
+      final char c = text.charAt(pos);
+      if (nesting == 0 && (c == terminators[0] || terminators.length > 1 && c == terminators[1])) {
+        return;
+      }
+      if (isCommentStart()) {
+        skipComment();
+      }
+      else if (isStringStart()) {
+        skipString(null);
+      }
+      else {
+        if (c == '(' || c == '[' || c == '{') {
+          nesting++;
+        }
+        else if (c == ')' || c == ']' || c == '}') {
+          if (nesting == 0) {
+            // Unbalanced brackets; let the caller handle the closing bracket.
+            return;
+          }
+          nesting--;
+        }
+        pos++;
+      }
+    }
+  }
+
+  private boolean isStringStart() {
+    if (pos >= text.length()) {
+      return false;
+    }
+    final char c = text.charAt(pos);
+    if (c == '\'' || c == '"') {
+      return true;
+    }
+    if (c == 'r' && pos + 1 < text.length() && (text.charAt(pos + 1) == '\'' || text.charAt(pos + 1) == '"')) {
+      // A raw string, unless the r ends a word.
+      return pos == 0 || !Character.isJavaIdentifierPart(text.charAt(pos - 1));
+    }
+    return false;
+  }
+
+  private boolean isCommentStart() {
+    return text.charAt(pos) == '/' && pos + 1 < text.length() && (text.charAt(pos + 1) == '/' || text.charAt(pos + 1) == '*');
+  }
+
+  private void skipComment() {
+    if (text.charAt(pos + 1) == '/') {
+      while (pos < text.length() && text.charAt(pos) != '\n') {
+        pos++;
+      }
+      return;
+    }
+    // Dart block comments nest.
+    int nesting = 0;
+    while (pos < text.length()) {
+      if (text.charAt(pos) == '/' && pos + 1 < text.length() && text.charAt(pos + 1) == '*') {
+        nesting++;
+        pos += 2;
+      }
+      else if (text.charAt(pos) == '*' && pos + 1 < text.length() && text.charAt(pos + 1) == '/') {
+        nesting--;
+        pos += 2;
+        if (nesting == 0) {
+          return;
+        }
+      }
+      else {
+        pos++;
+      }
+    }
+  }
+
+  private void skipWhitespaceAndComments() {
+    while (pos < text.length()) {
+      if (Character.isWhitespace(text.charAt(pos))) {
+        pos++;
+      }
+      else if (isCommentStart()) {
+        skipComment();
+      }
+      else {
+        return;
+      }
+    }
+  }
+
+  private static boolean contains(@NotNull CharSequence source, @NotNull String word) {
+    final int last = source.length() - word.length();
+    outer:
+    for (int i = 0; i <= last; i++) {
+      for (int j = 0; j < word.length(); j++) {
+        if (source.charAt(i + j) != word.charAt(j)) {
+          continue outer;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+}
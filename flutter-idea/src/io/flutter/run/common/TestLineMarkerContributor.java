@@ -20,12 +20,9 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiInvalidElementAccessException;
 import com.intellij.psi.impl.source.tree.LeafElement;
 import com.intellij.util.Function;
-import com.intellij.util.Time;
 import com.jetbrains.lang.dart.psi.DartCallExpression;
 import com.jetbrains.lang.dart.psi.DartFunctionDeclarationWithBodyOrNative;
 import com.jetbrains.lang.dart.psi.DartId;
-import java.util.Date;
-import java.util.Map;
 import javax.swing.Icon;
 
 import io.flutter.run.test.TestConfigUtils;
@@ -36,8 +33,6 @@ import org.jetbrains.annotations.Nullable;
  * Utility for creating {@link RunLineMarkerContributor}s for tests.
  */
 public abstract class TestLineMarkerContributor extends RunLineMarkerContributor {
-  private static final int SCANNED_TEST_RESULT_LIMIT = 1024;
-
   @NotNull
   private final CommonTestConfigUtils testConfigUtils;
 
@@ -116,31 +111,20 @@ public abstract class TestLineMarkerContributor extends RunLineMarkerContributor
 
       // e.g., dart_location:///Users/pq/IdeaProjects/untitled1298891289891/test/unit_test.dart,3,2,["my first unit test"]
       final String path = FileUtil.toSystemIndependentName(containingFile.getVirtualFile().getPath());
-      final String testLocationPrefix = "dart_location://" + path + "," + lineNumber;
-
-      final TestStateStorage storage = TestStateStorage.getInstance(project);
-      if (storage != null) {
-        final Map<String, TestStateStorage.Record> tests = storage.getRecentTests(SCANNED_TEST_RESULT_LIMIT, getSinceDate());
-        if (tests != null) {
-          // TODO(pq): investigate performance implications.
-          for (Map.Entry<String, TestStateStorage.Record> entry : tests.entrySet()) {
-            if (entry.getKey().startsWith(testLocationPrefix)) {
-              final TestStateStorage.Record state = entry.getValue();
-              final TestStateInfo.Magnitude magnitude = TestIconMapper.getMagnitude(state.magnitude);
-              if (magnitude != null) {
-                switch (magnitude) {
-                  case IGNORED_INDEX:
-                    return AllIcons.RunConfigurations.TestState.Yellow2;
-                  case ERROR_INDEX:
-                  case FAILED_INDEX:
-                    return AllIcons.RunConfigurations.TestState.Red2;
-                  case PASSED_INDEX:
-                  case COMPLETE_INDEX:
-                    return AllIcons.RunConfigurations.TestState.Green2;
-                  default:
-                }
-              }
-            }
+      final TestStateStorage.Record state = TestStateIndex.getInstance(project).getState(path, lineNumber);
+      if (state != null) {
+        final TestStateInfo.Magnitude magnitude = TestIconMapper.getMagnitude(state.magnitude);
+        if (magnitude != null) {
+          switch (magnitude) {
+            case IGNORED_INDEX:
+              return AllIcons.RunConfigurations.TestState.Yellow2;
+            case ERROR_INDEX:
+            case FAILED_INDEX:
+              return AllIcons.RunConfigurations.TestState.Red2;
+            case PASSED_INDEX:
+            case COMPLETE_INDEX:
+              return AllIcons.RunConfigurations.TestState.Green2;
+            default:
           }
         }
       }
@@ -148,8 +132,4 @@ public abstract class TestLineMarkerContributor extends RunLineMarkerContributor
 
     return defaultIcon;
   }
-
-  private static Date getSinceDate() {
-    return new Date(System.currentTimeMillis() - Time.DAY);
-  }
 }
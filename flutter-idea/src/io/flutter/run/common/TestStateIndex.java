@@ -0,0 +1,168 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run.common;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.concurrency.JobScheduler;
+import com.intellij.execution.TestStateStorage;
+import com.intellij.execution.testframework.sm.runner.SMTRunnerEventsAdapter;
+import com.intellij.execution.testframework.sm.runner.SMTRunnerEventsListener;
+import com.intellij.execution.testframework.sm.runner.SMTestProxy;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.Time;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexes the recent results in the {@link TestStateStorage} by the file and line of their test, so that each test
+ * line marker can find its state without scanning all of them.
+ * <p>
+ * The index is rebuilt on the next lookup after a test finishes, and at least every {@link #REFRESH_INTERVAL}
+ * milliseconds in case the storage was written some other way. Results may be written to the storage after the events
+ * for them are sent, so the index is rebuilt once more, and line markers updated, shortly after a test run finishes.
+ */
+public class TestStateIndex implements Disposable {
+  static final String PROTOCOL = "dart_location://";
+
+  private static final int SCANNED_TEST_RESULT_LIMIT = 1024;
+  private static final long REFRESH_INTERVAL = 10 * Time.SECOND;
+
+  /**
+   * How long after a test run finishes its results are taken to have been written to the storage.
+   */
+  private static final long SETTLE_DELAY = 500;
+
+  @NotNull private final Project project;
+
+  /**
+   * The most recent result for each {@code path,line} location, or null if it needs to be rebuilt.
+   * <p>
+   * Access should be synchronized on this.
+   */
+  @Nullable private Map<String, TestStateStorage.Record> index;
+  private long indexTime;
+
+  @NotNull
+  public static TestStateIndex getInstance(@NotNull Project project) {
+    return Objects.requireNonNull(project.getService(TestStateIndex.class));
+  }
+
+  public TestStateIndex(@NotNull Project project) {
+    this.project = project;
+    project.getMessageBus().connect(this).subscribe(SMTRunnerEventsListener.TEST_STATUS, new SMTRunnerEventsAdapter() {
+      @Override
+      public void onTestFinished(@NotNull SMTestProxy test) {
+        invalidate();
+      }
+
+      @Override
+      public void onTestingFinished(@NotNull SMTestProxy.SMRootTestProxy testsRoot) {
+        invalidate();
+        JobScheduler.getScheduler().schedule(TestStateIndex.this::resultsSettled, SETTLE_DELAY, TimeUnit.MILLISECONDS);
+      }
+    });
+  }
+
+  private void resultsSettled() {
+    if (project.isDisposed()) {
+      return;
+    }
+    invalidate();
+    // Line markers computed since the run finished may have seen an index without its last results.
+    DaemonCodeAnalyzer.getInstance(project).restart();
+  }
+
+  /**
+   * Returns the most recent result, from the last day, of a test declared on the given zero-based line of a file, or
+   * null if there is none.
+   */
+  @Nullable
+  public TestStateStorage.Record getState(@NotNull String path, int line) {
+    final Map<String, TestStateStorage.Record> index = getIndex();
+    final TestStateStorage.Record record = index.get(locationKey(FileUtil.toSystemIndependentName(path), line));
+    return record == null || record.date.before(getSinceDate()) ? null : record;
+  }
+
+  public synchronized void invalidate() {
+    index = null;
+  }
+
+  @NotNull
+  private synchronized Map<String, TestStateStorage.Record> getIndex() {
+    final long now = System.currentTimeMillis();
+    if (index == null || now - indexTime > REFRESH_INTERVAL) {
+      final TestStateStorage storage = TestStateStorage.getInstance(project);
+      final Map<String, TestStateStorage.Record> tests =
+        storage == null ? null : storage.getRecentTests(SCANNED_TEST_RESULT_LIMIT, getSinceDate());
+      index = tests == null ? Map.of() : indexByLocation(tests);
+      indexTime = now;
+    }
+    return index;
+  }
+
+  /**
+   * Keys test results by the location in their test URL, keeping the most recent result for each location and, of
+   * results from the same run, the most severe one.
+   */
+  @NotNull
+  static Map<String, TestStateStorage.Record> indexByLocation(@NotNull Map<String, TestStateStorage.Record> tests) {
+    final Map<String, TestStateStorage.Record> result = new HashMap<>();
+    for (Map.Entry<String, TestStateStorage.Record> entry : tests.entrySet()) {
+      final String key = locationKeyOfUrl(entry.getKey());
+      if (key == null) {
+        continue;
+      }
+      result.merge(key, entry.getValue(), TestStateIndex::preferred);
+    }
+    return result;
+  }
+
+  @NotNull
+  private static TestStateStorage.Record preferred(@NotNull TestStateStorage.Record a, @NotNull TestStateStorage.Record b) {
+    final int byDate = a.date.compareTo(b.date);
+    if (byDate != 0) {
+      return byDate > 0 ? a : b;
+    }
+    return a.magnitude >= b.magnitude ? a : b;
+  }
+
+  /**
+   * Returns the {@code path,line} part of a test URL, or null if it isn't a Dart test location.
+   * <p>
+   * URLs look like {@code dart_location:///Users/pq/project/test/unit_test.dart,3,2,["my first unit test"]}.
+   */
+  @Nullable
+  static String locationKeyOfUrl(@NotNull String url) {
+    if (!url.startsWith(PROTOCOL)) {
+      return null;
+    }
+    final int pathEnd = url.indexOf(',', PROTOCOL.length());
+    final int lineEnd = pathEnd < 0 ? -1 : url.indexOf(',', pathEnd + 1);
+    return lineEnd < 0 ? null : url.substring(PROTOCOL.length(), lineEnd);
+  }
+
+  @NotNull
+  static String locationKey(@NotNull String path, int line) {
+    return path + "," + line;
+  }
+
+  private static Date getSinceDate() {
+    return new Date(System.currentTimeMillis() - Time.DAY);
+  }
+
+  @Override
+  public void dispose() {
+    invalidate();
+  }
+}
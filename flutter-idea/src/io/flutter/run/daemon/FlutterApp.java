@@ -34,6 +34,7 @@ import io.flutter.bazel.Workspace;
 import io.flutter.bazel.WorkspaceCache;
 import io.flutter.dart.FlutterDartAnalysisServer;
 import io.flutter.logging.FlutterConsoleLogManager;
+import io.flutter.logging.SessionLogStore;
 import io.flutter.run.FlutterDebugProcess;
 import io.flutter.run.FlutterDevice;
 import io.flutter.run.FlutterLaunchMode;
@@ -44,6 +45,7 @@ import io.flutter.vmService.ServiceExtensions;
 import io.flutter.vmService.VMServiceManager;
 import org.dartlang.vm.service.VmService;
 import org.dartlang.vm.service.element.Event;
+import org.dartlang.vm.service.element.EventKind;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -94,6 +96,10 @@ public class FlutterApp implements Disposable {
    */
   private @Nullable Runnable myResume;
 
+  private final ReloadTimeline myReloadTimeline = new ReloadTimeline();
+
+  private final SessionLogStore myLogStore = new SessionLogStore();
+
   private final AtomicReference<State> myState = new AtomicReference<>(State.STARTING);
   private final EventDispatcher<FlutterAppListener> listenersDispatcher = EventDispatcher.create(FlutterAppListener.class);
 
@@ -334,8 +340,10 @@ public class FlutterApp implements Disposable {
 
     changeState(State.RESTARTING);
 
+    final ReloadTimeline.Record record = myReloadTimeline.begin(reason, true, -1);
     final CompletableFuture<DaemonApi.RestartResult> future =
       myDaemonApi.restartApp(myAppId, true, false, reason);
+    future.whenComplete((result, throwable) -> myReloadTimeline.responded(record, result, throwable));
     future.thenAccept(result -> changeState(State.STARTED));
     future.thenRun(this::notifyAppRestarted);
     return future;
@@ -379,6 +387,20 @@ public class FlutterApp implements Disposable {
    * Perform a hot reload of the app.
    */
   public CompletableFuture<DaemonApi.RestartResult> performHotReload(boolean pauseAfterRestart, @NotNull String reason) {
+    return performHotReload(pauseAfterRestart, reason, -1).thenCompose(ReloadTimeline.Record::whenResponded);
+  }
+
+  /**
+   * Perform a hot reload of the app.
+   * <p>
+   * Returns the reload's record in the {@link #getReloadTimeline() reload timeline}, once the daemon has responded;
+   * whether the reload succeeded is recorded there too.
+   *
+   * @param triggeredAtMillis when the action that caused the reload (e.g. a save) happened
+   */
+  public CompletableFuture<ReloadTimeline.Record> performHotReload(boolean pauseAfterRestart,
+                                                                   @NotNull String reason,
+                                                                   long triggeredAtMillis) {
     if (myAppId == null) {
       FlutterUtils.warn(LOG, "cannot reload Flutter app because app id is not set");
 
@@ -386,7 +408,7 @@ public class FlutterApp implements Disposable {
         changeState(State.STARTED);
       }
 
-      final CompletableFuture<DaemonApi.RestartResult> result = new CompletableFuture<>();
+      final CompletableFuture<ReloadTimeline.Record> result = new CompletableFuture<>();
       result.completeExceptionally(new IllegalStateException("cannot reload Flutter app because app id is not set"));
       return result;
     }
@@ -398,11 +420,31 @@ public class FlutterApp implements Disposable {
 
     changeState(State.RELOADING);
 
+    final ReloadTimeline.Record record = myReloadTimeline.begin(reason, false, triggeredAtMillis);
     final CompletableFuture<DaemonApi.RestartResult> future =
       myDaemonApi.restartApp(myAppId, false, pauseAfterRestart, reason);
     future.thenAccept(result -> changeState(State.STARTED));
     future.thenRun(this::notifyAppReloaded);
-    return future;
+    return future.handle((result, throwable) -> {
+      myReloadTimeline.responded(record, result, throwable);
+      return record;
+    });
+  }
+
+  /**
+   * Returns the timings of this app's recent hot reloads and restarts.
+   */
+  @NotNull
+  public ReloadTimeline getReloadTimeline() {
+    return myReloadTimeline;
+  }
+
+  /**
+   * Returns the log output of this app session, for searching once the console has trimmed it.
+   */
+  @NotNull
+  public SessionLogStore getLogStore() {
+    return myLogStore;
   }
 
   public CompletableFuture<DaemonApi.DevToolsAddress> serveDevTools() {
@@ -471,6 +513,32 @@ public class FlutterApp implements Disposable {
     return myConsole;
   }
 
+  /**
+   * Prints to the console after the log output waiting to be printed, so that the two stay in order.
+   */
+  public void printToConsole(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+    final FlutterConsoleLogManager logManager = myFlutterConsoleLogManager;
+    if (logManager != null) {
+      logManager.print(text, contentType);
+    }
+    else if (myConsole != null) {
+      myConsole.print(text, contentType);
+    }
+  }
+
+  /**
+   * Clears the console, including the log output waiting to be printed.
+   */
+  public void clearConsole() {
+    final FlutterConsoleLogManager logManager = myFlutterConsoleLogManager;
+    if (logManager != null) {
+      logManager.clearConsole();
+    }
+    else if (myConsole != null) {
+      myConsole.clear();
+    }
+  }
+
   /**
    * Transitions to a new state and fires events.
    * <p>
@@ -588,9 +656,15 @@ public class FlutterApp implements Disposable {
       public void received(String streamId, Event event) {
         if (StringUtil.equals(streamId, VmService.EXTENSION_STREAM_ID)) {
           if (StringUtil.equals("Flutter.Frame", event.getExtensionKind())) {
+            myReloadTimeline.frameRendered();
             listenersDispatcher.getMulticaster().notifyFrameRendered();
           }
         }
+        else if (StringUtil.equals(streamId, VmService.ISOLATE_STREAM_ID)) {
+          if (event.getKind() == EventKind.IsolateReload) {
+            myReloadTimeline.isolateReloaded(event.getStatus());
+          }
+        }
       }
     });
 
@@ -674,6 +748,7 @@ public class FlutterApp implements Disposable {
 
   @Override
   public void dispose() {
+    myLogStore.dispose();
   }
 }
 
@@ -713,16 +788,18 @@ class FlutterAppDaemonEventListener implements DaemonEvent.Listener {
   public void processTerminated(int exitCode) {
     progress.cancel();
     app.changeState(FlutterApp.State.TERMINATED);
+    if (LOG.isDebugEnabled() && !app.getReloadTimeline().getRecords().isEmpty()) {
+      LOG.debug("Reload timeline: " + app.getReloadTimeline().toJsonString());
+    }
   }
 
   // daemon domain
 
   @Override
   public void onDaemonLog(@NotNull DaemonEvent.DaemonLog message) {
-    final ConsoleView console = app.getConsole();
-    if (console == null) return;
+    app.getReloadTimeline().log(message.log);
     if (message.log != null) {
-      console.print(message.log + "\n", message.error ? ConsoleViewContentType.ERROR_OUTPUT : ConsoleViewContentType.NORMAL_OUTPUT);
+      app.printToConsole(message.log + "\n", message.error ? ConsoleViewContentType.ERROR_OUTPUT : ConsoleViewContentType.NORMAL_OUTPUT);
     }
   }
 
@@ -744,10 +821,7 @@ class FlutterAppDaemonEventListener implements DaemonEvent.Listener {
     app.setWsUrl(debugInfo.wsUri);
 
     // Print the conneciton info to the console.
-    final ConsoleView console = app.getConsole();
-    if (console != null) {
-      console.print("Debug service listening on " + debugInfo.wsUri + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
-    }
+    app.printToConsole("Debug service listening on " + debugInfo.wsUri + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
 
     String uri = debugInfo.baseUri;
     if (uri != null) {
@@ -775,38 +849,39 @@ class FlutterAppDaemonEventListener implements DaemonEvent.Listener {
 
   @Override
   public void onAppLog(@NotNull DaemonEvent.AppLog message) {
-    final ConsoleView console = app.getConsole();
-    if (console == null) return;
-    console.print(message.log + "\n", message.error ? ConsoleViewContentType.ERROR_OUTPUT : ConsoleViewContentType.NORMAL_OUTPUT);
+    app.getReloadTimeline().log(message.log);
+    if (message.log != null) {
+      app.getLogStore().add(System.currentTimeMillis(), SessionLogStore.Source.APP_LOG,
+                            message.error ? SessionLogStore.LEVEL_SEVERE : SessionLogStore.LEVEL_INFO, null, null, message.log);
+    }
+    app.printToConsole(message.log + "\n", message.error ? ConsoleViewContentType.ERROR_OUTPUT : ConsoleViewContentType.NORMAL_OUTPUT);
   }
 
   @Override
   public void onAppProgressStarting(@NotNull DaemonEvent.AppProgress event) {
     progress.start(event.message);
+    app.getReloadTimeline().progress(event.getType(), event.message, false);
 
     if (event.getType().startsWith("hot.")) {
       // We clear the console view in order to help indicate that a reload is happening.
-      if (app.getConsole() != null) {
-        if (!FlutterSettings.getInstance().isVerboseLogging() && !FlutterSettings.getInstance().isPerserveLogsDuringHotReloadAndRestart()) {
-          app.getConsole().clear();
-        }
+      if (!FlutterSettings.getInstance().isVerboseLogging() && !FlutterSettings.getInstance().isPerserveLogsDuringHotReloadAndRestart()) {
+        app.clearConsole();
       }
     }
 
-    if (app.getConsole() != null) {
-      app.getConsole().print(event.message + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
-    }
+    app.printToConsole(event.message + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
   }
 
   @Override
   public void onAppProgressFinished(@NotNull DaemonEvent.AppProgress event) {
     progress.done();
+    app.getReloadTimeline().progress(event.getType(), event.message, true);
   }
 
   @Override
   public void onAppStopped(@NotNull DaemonEvent.AppStopped stopped) {
-    if (stopped.error != null && app.getConsole() != null) {
-      app.getConsole().print("Finished with error: " + stopped.error + "\n", ConsoleViewContentType.ERROR_OUTPUT);
+    if (stopped.error != null) {
+      app.printToConsole("Finished with error: " + stopped.error + "\n", ConsoleViewContentType.ERROR_OUTPUT);
     }
     progress.cancel();
     app.getProcessHandler().destroyProcess();
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run.daemon;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records where the time goes for each hot reload and hot restart of a running app.
+ * <p>
+ * Each {@link Record} tracks the trigger (e.g. a save), the daemon's <code>app.restart</code> round trip, the
+ * daemon's progress events, the VM's reload report and the first <code>Flutter.Frame</code> event after the reload.
+ */
+public class ReloadTimeline {
+  /**
+   * The number of records kept per app.
+   */
+  static final int MAX_RECORDS = 50;
+
+  /**
+   * The flutter tool reports the VM's reload report as e.g. "Reloaded 1 of 640 libraries in 310ms.".
+   */
+  private static final Pattern RELOADED_LIBRARIES = Pattern.compile("Reloaded (\\d+) of (\\d+) libraries");
+
+  private final @NotNull LongSupplier clock;
+  private final Deque<Record> records = new ArrayDeque<>();
+  private int nextId = 1;
+
+  /**
+   * The latest record that hasn't seen its first frame yet.
+   */
+  private @Nullable Record current;
+
+  private int pendingSyncFileCount = -1;
+  private long pendingSyncMillis = -1;
+
+  public ReloadTimeline() {
+    this(System::currentTimeMillis);
+  }
+
+  ReloadTimeline(@NotNull LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * Start a record for a reload or restart request that is about to be sent to the daemon.
+   *
+   * @param triggeredAtMillis when the user action that caused the request happened, or a negative value if unknown
+   */
+  @NotNull
+  public synchronized Record begin(@NotNull String reason, boolean fullRestart, long triggeredAtMillis) {
+    final Record record = new Record(nextId++, reason, fullRestart, triggeredAtMillis, clock.getAsLong());
+    record.syncedFileCount = pendingSyncFileCount;
+    record.syncMillis = pendingSyncMillis;
+    pendingSyncFileCount = -1;
+    pendingSyncMillis = -1;
+    if (current != null) {
+      current.frameRendered.complete(current);
+    }
+    current = record;
+    records.addLast(record);
+    while (records.size() > MAX_RECORDS) {
+      records.removeFirst();
+    }
+    return record;
+  }
+
+  /**
+   * Record a sync of modified files (for Bazel workspaces) that precedes the next reload.
+   */
+  public synchronized void syncFinished(int fileCount, long durationMillis) {
+    pendingSyncFileCount = fileCount;
+    pendingSyncMillis = durationMillis;
+  }
+
+  /**
+   * Record the daemon's response to <code>app.restart</code>.
+   */
+  public synchronized void responded(@NotNull Record record, @Nullable DaemonApi.RestartResult result, @Nullable Throwable error) {
+    record.respondedAt = clock.getAsLong();
+    record.ok = error == null && result != null && result.ok();
+    if (error != null) {
+      record.message = error.getMessage();
+      record.response.completeExceptionally(error);
+    }
+    else {
+      if (result != null) {
+        record.message = result.getMessage();
+      }
+      record.response.complete(result);
+    }
+  }
+
+  /**
+   * Record an <code>app.progress</code> event from the daemon.
+   */
+  public synchronized void progress(@NotNull String progressId, @Nullable String message, boolean finished) {
+    if (current == null) {
+      return;
+    }
+    current.progress.add(new ProgressEvent(progressId, message, finished, clock.getAsLong()));
+    log(message);
+  }
+
+  /**
+   * Record a line of app output, picking out the reload report.
+   */
+  public synchronized void log(@Nullable String line) {
+    if (current == null || line == null || current.librariesTotal >= 0) {
+      return;
+    }
+    final Matcher matcher = RELOADED_LIBRARIES.matcher(line);
+    if (matcher.find()) {
+      current.librariesReloaded = Integer.parseInt(matcher.group(1));
+      current.librariesTotal = Integer.parseInt(matcher.group(2));
+    }
+  }
+
+  /**
+   * Record an <code>IsolateReload</code> event from the VM.
+   */
+  public synchronized void isolateReloaded(@Nullable String status) {
+    if (current == null || current.isolateReloadedAt >= 0) {
+      return;
+    }
+    current.isolateReloadedAt = clock.getAsLong();
+    current.isolateReloadStatus = status;
+  }
+
+  /**
+   * Record a <code>Flutter.Frame</code> event from the VM.
+   */
+  public synchronized void frameRendered() {
+    final Record record = current;
+    // Frames rendered before the new code is in place don't count.
+    if (record == null || (record.respondedAt < 0 && record.isolateReloadedAt < 0)) {
+      return;
+    }
+    record.firstFrameAt = clock.getAsLong();
+    current = null;
+    record.frameRendered.complete(record);
+  }
+
+  @NotNull
+  public synchronized List<Record> getRecords() {
+    return new ArrayList<>(records);
+  }
+
+  @Nullable
+  public synchronized Record getLatest() {
+    return records.peekLast();
+  }
+
+  @NotNull
+  public synchronized JsonArray toJson() {
+    final JsonArray array = new JsonArray();
+    for (Record record : records) {
+      array.add(record.toJson());
+    }
+    return array;
+  }
+
+  @NotNull
+  public String toJsonString() {
+    return new GsonBuilder().setPrettyPrinting().create().toJson(toJson());
+  }
+
+  public static class ProgressEvent {
+    public final @NotNull String progressId;
+    public final @Nullable String message;
+    public final boolean finished;
+    public final long timeMillis;
+
+    ProgressEvent(@NotNull String progressId, @Nullable String message, boolean finished, long timeMillis) {
+      this.progressId = progressId;
+      this.message = message;
+      this.finished = finished;
+      this.timeMillis = timeMillis;
+    }
+  }
+
+  /**
+   * The timings of a single hot reload or hot restart; times are in epoch milliseconds, or -1 if they haven't happened.
+   */
+  public static class Record {
+    public final int id;
+    public final @NotNull String reason;
+    public final boolean fullRestart;
+    public final long triggeredAt;
+    public final long requestedAt;
+
+    private int syncedFileCount = -1;
+    private long syncMillis = -1;
+    private volatile long respondedAt = -1;
+    private volatile boolean ok;
+    private volatile @Nullable String message;
+    private volatile long isolateReloadedAt = -1;
+    private volatile @Nullable String isolateReloadStatus;
+    private volatile int librariesReloaded = -1;
+    private volatile int librariesTotal = -1;
+    private volatile long firstFrameAt = -1;
+    private final List<ProgressEvent> progress = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<DaemonApi.RestartResult> response = new CompletableFuture<>();
+    private final CompletableFuture<Record> frameRendered = new CompletableFuture<>();
+
+    Record(int id, @NotNull String reason, boolean fullRestart, long triggeredAt, long requestedAt) {
+      this.id = id;
+      this.reason = reason;
+      this.fullRestart = fullRestart;
+      this.triggeredAt = triggeredAt;
+      this.requestedAt = requestedAt;
+    }
+
+    /**
+     * Completes with the daemon's response to the request, or exceptionally if the request failed.
+     */
+    @NotNull
+    public CompletableFuture<DaemonApi.RestartResult> whenResponded() {
+      return response;
+    }
+
+    /**
+     * Completes with this record once the first frame after the reload is rendered, or a later reload starts.
+     */
+    @NotNull
+    public CompletableFuture<Record> whenFrameRendered() {
+      return frameRendered;
+    }
+
+    public boolean isOk() {
+      return ok;
+    }
+
+    @Nullable
+    public String getMessage() {
+      return message;
+    }
+
+    @Nullable
+    public String getIsolateReloadStatus() {
+      return isolateReloadStatus;
+    }
+
+    public int getLibrariesReloaded() {
+      return librariesReloaded;
+    }
+
+    public int getLibrariesTotal() {
+      return librariesTotal;
+    }
+
+    @NotNull
+    public List<ProgressEvent> getProgressEvents() {
+      return progress;
+    }
+
+    /**
+     * The time spent syncing modified files before the request was sent, or -1 if there was no sync.
+     * <p>
+     * This is included in {@link #getTriggerToRequestMillis()}.
+     */
+    public long getSyncMillis() {
+      return syncMillis;
+    }
+
+    public int getSyncedFileCount() {
+      return syncedFileCount;
+    }
+
+    /**
+     * The time from the triggering action (e.g. a save) to the request being sent.
+     */
+    public long getTriggerToRequestMillis() {
+      return triggeredAt < 0 ? -1 : requestedAt - triggeredAt;
+    }
+
+    /**
+     * The time from sending <code>app.restart</code> to the daemon's response.
+     */
+    public long getRoundTripMillis() {
+      return respondedAt < 0 ? -1 : respondedAt - requestedAt;
+    }
+
+    /**
+     * The time from sending the request to the first frame rendered after the reload.
+     */
+    public long getRequestToFrameMillis() {
+      return firstFrameAt < 0 ? -1 : firstFrameAt - requestedAt;
+    }
+
+    /**
+     * The latency the user sees: from the triggering action, or the request if unknown, to the first frame.
+     */
+    public long getTotalMillis() {
+      final long start = triggeredAt < 0 ? requestedAt : triggeredAt;
+      final long end = firstFrameAt >= 0 ? firstFrameAt : respondedAt;
+      return end < 0 ? -1 : end - start;
+    }
+
+    @NotNull
+    JsonObject toJson() {
+      final JsonObject json = new JsonObject();
+      json.addProperty("id", id);
+      json.addProperty("kind", fullRestart ? "restart" : "reload");
+      json.addProperty("reason", reason);
+      json.addProperty("ok", ok);
+      if (message != null && !message.isEmpty()) {
+        json.addProperty("message", message);
+      }
+      if (triggeredAt >= 0) {
+        json.addProperty("triggeredAt", triggeredAt);
+      }
+      json.addProperty("requestedAt", requestedAt);
+      if (syncMillis >= 0) {
+        json.addProperty("syncMs", syncMillis);
+        json.addProperty("syncedFiles", syncedFileCount);
+      }
+      if (respondedAt >= 0) {
+        json.addProperty("respondedAt", respondedAt);
+      }
+      if (isolateReloadedAt >= 0) {
+        json.addProperty("isolateReloadedAt", isolateReloadedAt);
+        json.addProperty("isolateReloadStatus", isolateReloadStatus);
+      }
+      if (librariesTotal >= 0) {
+        json.addProperty("librariesReloaded", librariesReloaded);
+        json.addProperty("librariesTotal", librariesTotal);
+      }
+      if (firstFrameAt >= 0) {
+        json.addProperty("firstFrameAt", firstFrameAt);
+      }
+      json.addProperty("triggerToRequestMs", getTriggerToRequestMillis());
+      json.addProperty("roundTripMs", getRoundTripMillis());
+      json.addProperty("requestToFrameMs", getRequestToFrameMillis());
+      json.addProperty("totalMs", getTotalMillis());
+
+      final JsonArray progressJson = new JsonArray();
+      for (ProgressEvent event : progress) {
+        final JsonObject eventJson = new JsonObject();
+        eventJson.addProperty("progressId", event.progressId);
+        if (event.message != null) {
+          eventJson.addProperty("message", event.message);
+        }
+        eventJson.addProperty("finished", event.finished);
+        eventJson.addProperty("time", event.timeMillis);
+        progressJson.add(eventJson);
+      }
+      json.add("progress", progressJson);
+      return json;
+    }
+  }
+}
@@ -6,12 +6,20 @@
 package io.flutter.run.test;
 
 import com.intellij.execution.Location;
+import com.intellij.execution.PsiLocation;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.lang.dart.psi.DartCallExpression;
+import io.flutter.run.common.TestDeclarationIndex;
+import io.flutter.run.common.TestDeclarationScanner.TestDeclaration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.List;
+
 public class FlutterTestLocationProvider extends DartTestLocationProviderZ {
   public static final FlutterTestLocationProvider INSTANCE = new FlutterTestLocationProvider();
 
@@ -32,6 +40,22 @@ public class FlutterTestLocationProvider extends DartTestLocationProviderZ {
     return null;
   }
 
+  @Override
+  @SuppressWarnings("rawtypes")
+  protected List<Location> getLocationByGroupAndTestNames(final PsiFile psiFile, final List<String> nodes) {
+    // Look the test up by name in the index, rather than walking the whole file.
+    final VirtualFile file = psiFile.getVirtualFile();
+    if (file != null && !nodes.isEmpty()) {
+      for (TestDeclaration declaration : TestDeclarationIndex.getDeclarations(psiFile.getProject(), file, nodes)) {
+        final DartCallExpression call = PsiTreeUtil.getParentOfType(psiFile.findElementAt(declaration.offset()), DartCallExpression.class);
+        if (call != null) {
+          return Collections.singletonList(new PsiLocation<PsiElement>(call));
+        }
+      }
+    }
+    return super.getLocationByGroupAndTestNames(psiFile, nodes);
+  }
+
   @Override
   protected boolean isTest(@NotNull DartCallExpression expression) {
     return super.isTest(expression) ||
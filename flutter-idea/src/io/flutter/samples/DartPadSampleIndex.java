@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.samples;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.lang.dart.DartFileType;
+import io.flutter.samples.DartPadSampleScanner.DocumentedClass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the public classes of the Flutter framework sources, and whether their dartdoc has a DartPad sample.
+ * <p>
+ * Keys are class names. Entries are kept for classes without samples too, so that a file which is indexed can be told
+ * apart from one which isn't. Since the index follows file contents, each Flutter SDK version is scanned once and the
+ * result is cached on disk until the SDK changes.
+ */
+public class DartPadSampleIndex extends FileBasedIndexExtension<String, DocumentedClass> {
+  public static final ID<String, DocumentedClass> NAME = ID.create("io.flutter.samples.DartPadSampleIndex");
+  private static final int VERSION = 1;
+
+  /**
+   * The part of the path of the Flutter framework sources, with their libraries in the directories below.
+   */
+  static final String FLUTTER_PACKAGE_SOURCES = "/packages/flutter/lib/src/";
+
+  @Override
+  public @NotNull ID<String, DocumentedClass> getName() {
+    return NAME;
+  }
+
+  @Override
+  public @NotNull DataIndexer<String, DocumentedClass, FileContent> getIndexer() {
+    return inputData -> {
+      final Map<String, DocumentedClass> result = new HashMap<>();
+      for (DocumentedClass documentedClass : DartPadSampleScanner.scan(inputData.getContentAsText())) {
+        result.putIfAbsent(documentedClass.name(), documentedClass);
+      }
+      return result;
+    };
+  }
+
+  @Override
+  public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @Override
+  public @NotNull DataExternalizer<DocumentedClass> getValueExternalizer() {
+    return new DataExternalizer<>() {
+      @Override
+      public void save(@NotNull DataOutput out, DocumentedClass value) throws IOException {
+        out.writeUTF(value.name());
+        out.writeInt(value.offset());
+        out.writeBoolean(value.hasSample());
+      }
+
+      @Override
+      public DocumentedClass read(@NotNull DataInput in) throws IOException {
+        return new DocumentedClass(in.readUTF(), in.readInt(), in.readBoolean());
+      }
+    };
+  }
+
+  @Override
+  public int getVersion() {
+    return VERSION;
+  }
+
+  @Override
+  public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(DartFileType.INSTANCE) {
+      @Override
+      public boolean acceptInput(@NotNull VirtualFile file) {
+        return file.getPath().contains(FLUTTER_PACKAGE_SOURCES);
+      }
+    };
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  /**
+   * Return the names of the classes in the given file with DartPad samples, in source order, or null if the file isn't
+   * indexed or indexing is in progress.
+   */
+  @Nullable
+  public static List<String> getClassesWithSamples(@NotNull Project project, @NotNull VirtualFile file) {
+    if (DumbService.isDumb(project)) {
+      return null;
+    }
+    final Map<String, DocumentedClass> classes = FileBasedIndex.getInstance().getFileData(NAME, file, project);
+    if (classes.isEmpty()) {
+      return null;
+    }
+    return getClassesWithSamples(new ArrayList<>(classes.values()));
+  }
+
+  @NotNull
+  static List<String> getClassesWithSamples(@NotNull List<DocumentedClass> classes) {
+    return classes.stream()
+      .filter(DocumentedClass::hasSample)
+      .sorted(Comparator.comparingInt(DocumentedClass::offset))
+      .map(DocumentedClass::name)
+      .toList();
+  }
+}
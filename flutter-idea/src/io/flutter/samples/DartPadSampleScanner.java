@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.samples;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the public top-level classes in the text of a Dart file, and whether their dartdoc has a DartPad sample, without
+ * building PSI.
+ */
+public class DartPadSampleScanner {
+  /**
+   * A class, mixin or enum declaration at the start of a line, with any modifiers.
+   */
+  private static final Pattern DECLARATION_PATTERN =
+    Pattern.compile("^(?:(?:abstract|base|final|interface|sealed|mixin)\\s+)*(?:class|mixin|enum)\\s+([A-Za-z$][\\w$]*)");
+
+  /**
+   * A public top-level class and whether its dartdoc references a DartPad sample.
+   */
+  public record DocumentedClass(@NotNull String name, int offset, boolean hasSample) {
+  }
+
+  private DartPadSampleScanner() {
+  }
+
+  /**
+   * Return the public top-level classes in the given Dart source, in source order.
+   */
+  @NotNull
+  public static List<DocumentedClass> scan(@NotNull CharSequence source) {
+    final List<DocumentedClass> classes = new ArrayList<>();
+    // The dartdoc comment before the current line, which blank lines and annotations may separate from a declaration.
+    final List<String> dartdoc = new ArrayList<>();
+    boolean dartdocEnded = false;
+
+    int start = 0;
+    while (start < source.length()) {
+      int end = start;
+      while (end < source.length() && source.charAt(end) != '\n') {
+        end++;
+      }
+      final String line = source.subSequence(start, end).toString();
+      final String text = line.stripLeading();
+
+      if (text.startsWith("///")) {
+        if (dartdocEnded) {
+          dartdoc.clear();
+          dartdocEnded = false;
+        }
+        dartdoc.add(text);
+      }
+      else if (text.isEmpty() || text.startsWith("@")) {
+        dartdocEnded = true;
+      }
+      else {
+        final Matcher matcher = DECLARATION_PATTERN.matcher(line);
+        if (matcher.find() && !matcher.group(1).startsWith("_")) {
+          classes.add(new DocumentedClass(matcher.group(1), start + matcher.start(1),
+                                          FlutterSampleNotificationProvider.containsDartdocFlutterSample(dartdoc)));
+        }
+        dartdoc.clear();
+        dartdocEnded = false;
+      }
+      start = end + 1;
+    }
+    return classes;
+  }
+}
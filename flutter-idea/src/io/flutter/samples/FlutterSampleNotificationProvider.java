@@ -9,20 +9,15 @@ import com.google.common.annotations.VisibleForTesting;
 import com.intellij.ide.BrowserUtil;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Document;
-import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.colors.EditorColors;
 import com.intellij.openapi.fileEditor.FileEditor;
 import com.intellij.openapi.fileEditor.TextEditor;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Computable;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.intellij.psi.PsiDocumentManager;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.ui.EditorNotificationPanel;
 import com.intellij.ui.EditorNotificationProvider;
 import com.intellij.ui.HyperlinkLabel;
-import com.jetbrains.lang.dart.psi.DartClass;
 import icons.FlutterIcons;
 import io.flutter.sdk.FlutterSdk;
 import org.jetbrains.annotations.NotNull;
@@ -59,86 +54,53 @@ public class FlutterSampleNotificationProvider implements EditorNotificationProv
       return null;
     }
 
-    return fileEditor -> createPanelForSamples(fileEditor, project, file, filePath, sdk, flutterPackagePath);
+    return fileEditor -> createPanelForSamples(fileEditor, file, filePath, flutterPackagePath);
   }
 
   @Nullable
   private EditorNotificationPanel createPanelForSamples(@NotNull FileEditor fileEditor,
-                                                        @NotNull Project project,
                                                         @NotNull VirtualFile file,
                                                         @NotNull String filePath,
-                                                        @NotNull FlutterSdk sdk,
                                                         @NotNull String flutterPackagePath) {
     if (!(fileEditor instanceof TextEditor textEditor)) {
       return null;
     }
 
-    final Editor editor = textEditor.getEditor();
-    final Document document = editor.getDocument();
-    final PsiDocumentManager psiDocumentManager = PsiDocumentManager.getInstance(project);
-    if (psiDocumentManager == null) {
-      return null;
-    }
-
-    final PsiFile psiFile = psiDocumentManager.getPsiFile(document);
-    if (psiFile == null || !psiFile.isValid()) {
-      return null;
-    }
+    final Document document = textEditor.getEditor().getDocument();
 
-    // Run the code to query the document in a read action.
+    // Run the code to query the index and document in a read action.
     final List<FlutterSample> samples = ApplicationManager.getApplication().
       runReadAction((Computable<List<FlutterSample>>)() -> {
-        return getSamplesFromDoc(flutterPackagePath, document, filePath);
+        return getSamples(flutterPackagePath, document, file, filePath);
       });
 
-    if (samples != null && !samples.isEmpty()) {
+    if (!samples.isEmpty()) {
       return new FlutterSampleActionsPanel(samples);
     }
     return null;
   }
 
   @NotNull
-  private List<FlutterSample> getSamplesFromDoc(@NotNull String flutterPackagePath, @NotNull Document document, @NotNull String filePath) {
-    final List<FlutterSample> samples = new ArrayList<>();
-
-    // Find all candidate class definitions.
-    final PsiFile psiFile = PsiDocumentManager.getInstance(project).getPsiFile(document);
-    assert (psiFile != null);
-
-    final DartClass[] classes = PsiTreeUtil.getChildrenOfType(psiFile, DartClass.class);
-    if (classes == null) {
+  private List<FlutterSample> getSamples(@NotNull String flutterPackagePath,
+                                         @NotNull Document document,
+                                         @NotNull VirtualFile file,
+                                         @NotNull String filePath) {
+    final String relativePath = filePath.substring(flutterPackagePath.length());
+    final int index = relativePath.indexOf('/');
+    if (index == -1) {
       return Collections.emptyList();
     }
+    final String libraryName = relativePath.substring(0, index);
 
-    // Get the dartdoc for the classes and use a regex to identify which ones have
-    // "/// {@tool dartpad ...}".
-
-    for (DartClass declaration : classes) {
-      final String name = declaration.getName();
-      if (name == null || name.startsWith("_")) {
-        continue;
-      }
-
-      List<String> dartdoc = null;
-      try {
-        // Context: https://github.com/flutter/flutter-intellij/issues/5634
-        dartdoc = DartDocumentUtils.getDartdocFor(document, declaration);
-      }
-      catch (IndexOutOfBoundsException e) {
-        // ignore
-      }
-      if (dartdoc != null && containsDartdocFlutterSample(dartdoc)) {
-        assert (declaration.getName() != null);
-
-        String libraryName = filePath.substring(flutterPackagePath.length());
-        final int index = libraryName.indexOf('/');
-        if (index != -1) {
-          libraryName = libraryName.substring(0, index);
+    List<String> classNames = DartPadSampleIndex.getClassesWithSamples(project, file);
+    if (classNames == null) {
+      // The file isn't indexed yet, or has no public classes, so scan its text.
+      classNames = DartPadSampleIndex.getClassesWithSamples(DartPadSampleScanner.scan(document.getImmutableCharSequence()));
+    }
 
-          final FlutterSample sample = new FlutterSample(libraryName, declaration.getName());
-          samples.add(sample);
-        }
-      }
+    final List<FlutterSample> samples = new ArrayList<>();
+    for (String className : classNames) {
+      samples.add(new FlutterSample(libraryName, className));
     }
     return samples;
   }
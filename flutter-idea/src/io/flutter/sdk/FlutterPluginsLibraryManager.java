@@ -5,7 +5,6 @@
  */
 package io.flutter.sdk;
 
-import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.project.DumbService;
@@ -15,8 +14,8 @@ import com.intellij.openapi.roots.ModuleRootListener;
 import com.intellij.openapi.roots.libraries.PersistentLibraryKind;
 import com.intellij.openapi.vfs.*;
 import com.intellij.util.concurrency.AppExecutorUtil;
-import com.jetbrains.lang.dart.util.DotPackagesFileUtil;
 import io.flutter.dart.FlutterDartAnalysisServer;
+import io.flutter.pub.PackageConfigService;
 import io.flutter.pub.PubRoot;
 import io.flutter.pub.PubRoots;
 import org.jetbrains.annotations.NotNull;
@@ -26,8 +25,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import static com.jetbrains.lang.dart.util.PubspecYamlUtil.PUBSPEC_YAML;
-
 /**
  * Manages the Flutter Plugins library, which hooks the packages used by plugins referenced in a project
  * into the project, so full editing support is available.
@@ -45,16 +42,9 @@ public class FlutterPluginsLibraryManager extends AbstractLibraryManager<Flutter
 
   public void startWatching() {
     var project = getProject();
-    VirtualFileManager.getInstance().addVirtualFileListener(new VirtualFileContentsChangedAdapter() {
-      @Override
-      protected void onFileChange(@NotNull VirtualFile file) {
-        fileChanged(getProject(), file);
-      }
-
-      @Override
-      protected void onBeforeFileChange(@NotNull VirtualFile file) {
-      }
-    }, FlutterDartAnalysisServer.getInstance(project));
+    // Rewrites of a package config that list the same packages, as every pub get does, aren't reported.
+    PackageConfigService.getInstance(project)
+      .addListener(packageConfigPath -> scheduleUpdate(), FlutterDartAnalysisServer.getInstance(project));
 
     project.getMessageBus().connect().subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
       @Override
@@ -78,25 +68,6 @@ public class FlutterPluginsLibraryManager extends AbstractLibraryManager<Flutter
     return FlutterPluginLibraryType.LIBRARY_KIND;
   }
 
-  private boolean isPackagesFile(@NotNull final VirtualFile file) {
-    final VirtualFile parent = file.getParent();
-    return file.getName().equals(DotPackagesFileUtil.DOT_PACKAGES) && parent != null && parent.findChild(PUBSPEC_YAML) != null;
-  }
-
-  private boolean isPackageConfigFile(@NotNull final VirtualFile file) {
-    final VirtualFile parent = file.getParent();
-    return file.getName().equals(DotPackagesFileUtil.PACKAGE_CONFIG_JSON)
-           && parent != null
-           && parent.getName().equals(DotPackagesFileUtil.DART_TOOL_DIR);
-  }
-
-  private void fileChanged(@NotNull final Project project, @NotNull final VirtualFile file) {
-    if (!isPackageConfigFile(file) && !isPackagesFile(file)) return;
-    if (LocalFileSystem.getInstance() != file.getFileSystem() && !ApplicationManager.getApplication().isUnitTestMode()) return;
-
-    scheduleUpdate();
-  }
-
   private void scheduleUpdate() {
     if (isUpdating.get()) {
       return;
@@ -122,7 +93,7 @@ public class FlutterPluginsLibraryManager extends AbstractLibraryManager<Flutter
   private void updateFlutterPluginsImpl() {
     Project project = getProject();
 
-    ReadAction.nonBlocking(() -> getFlutterPluginPaths(PubRoots.forProject(project)))
+    ReadAction.nonBlocking(() -> getFlutterPluginPaths(project, PubRoots.forProject(project)))
       .expireWith(FlutterDartAnalysisServer.getInstance(project))
       .finishOnUiThread(ModalityState.nonModal(), flutterPluginPaths -> {
         if (flutterPluginPaths == null) return;
@@ -135,11 +106,12 @@ public class FlutterPluginsLibraryManager extends AbstractLibraryManager<Flutter
       .submit(AppExecutorUtil.getAppExecutorService());
   }
 
-  private static @NotNull Set<@NotNull String> getFlutterPluginPaths(@NotNull List<@NotNull PubRoot> roots) {
+  private static @NotNull Set<@NotNull String> getFlutterPluginPaths(@NotNull Project project, @NotNull List<@NotNull PubRoot> roots) {
     final Set<String> paths = new HashSet<>();
+    final PackageConfigService packageConfigs = PackageConfigService.getInstance(project);
 
     for (PubRoot pubRoot : roots) {
-      final var packagesMap = pubRoot.getPackagesMap();
+      final var packagesMap = packageConfigs.getPackagesMap(pubRoot);
       if (packagesMap == null) {
         continue;
       }
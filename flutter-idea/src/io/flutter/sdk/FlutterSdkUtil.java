@@ -6,10 +6,6 @@
 package io.flutter.sdk;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.intellij.execution.ExecutionException;
 import com.intellij.ide.util.PropertiesComponent;
 import com.intellij.openapi.application.ApplicationManager;
@@ -27,10 +23,11 @@ import com.intellij.util.Urls;
 import com.jetbrains.lang.dart.sdk.DartSdkUpdateOption;
 import io.flutter.FlutterBundle;
 import io.flutter.dart.DartPlugin;
+import io.flutter.pub.PackageConfig;
+import io.flutter.pub.PackageConfigService;
 import io.flutter.pub.PubRoot;
 import io.flutter.pub.PubRoots;
 import io.flutter.utils.FlutterModuleUtils;
-import io.flutter.utils.JsonUtils;
 import io.flutter.utils.OpenApiUtils;
 import io.flutter.utils.SystemUtils;
 import org.jetbrains.annotations.NotNull;
@@ -39,8 +36,6 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.io.File;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.*;
 
 public class FlutterSdkUtil {
@@ -258,19 +253,13 @@ public class FlutterSdkUtil {
   @Nullable
   public static String guessFlutterSdkFromPackagesFile(@NotNull Module module) {
     // First, look for .dart_tool/package_config.json
-    final JsonArray packages = getPackagesFromPackageConfig(PubRoots.forModule(module));
-    for (int i = 0; i < packages.size(); i++) {
-      final JsonObject pack = packages.get(i).getAsJsonObject();
-      if ("flutter".equals(JsonUtils.getStringMember(pack, "name"))) {
-        final String uri = JsonUtils.getStringMember(pack, "rootUri");
-        if (uri == null) {
-          continue;
-        }
-        final String path = extractSdkPathFromUri(uri, false);
-        if (path == null) {
-          continue;
-        }
-        return path;
+    final PackageConfig.Package flutter =
+      PackageConfigService.getInstance(module.getProject()).findPackage(PubRoots.forModule(module), "flutter");
+    if (flutter != null) {
+      // The flutter package is at <sdk>/packages/flutter.
+      final File sdk = new File(flutter.rootPath()).getParentFile();
+      if (sdk != null && sdk.getParentFile() != null) {
+        return sdk.getParentFile().getPath();
       }
     }
 
@@ -299,50 +288,9 @@ public class FlutterSdkUtil {
       // TODO(messick): Configure the test framework to have proper pub data so we don't need this.
       return "testData/sdk";
     }
-    final JsonArray packages = getPackagesFromPackageConfig(PubRoots.forProject(project));
-    for (int i = 0; i < packages.size(); i++) {
-      final JsonObject pack = packages.get(i).getAsJsonObject();
-      if ("cupertino_icons".equals(JsonUtils.getStringMember(pack, "name"))) {
-        final String uri = JsonUtils.getStringMember(pack, "rootUri");
-        if (uri == null) {
-          continue;
-        }
-        try {
-          return new URI(uri).getPath();
-        }
-        catch (URISyntaxException ignored) {
-        }
-      }
-    }
-    return null;
-  }
-
-  private static JsonArray getPackagesFromPackageConfig(@NotNull List<PubRoot> pubRoots) {
-    final JsonArray entries = new JsonArray();
-    for (PubRoot pubRoot : pubRoots) {
-      final VirtualFile configFile = pubRoot.getPackageConfigFile();
-      if (configFile == null) {
-        continue;
-      }
-      // parse it
-      try {
-        final String contents = new String(configFile.contentsToByteArray(true /* cache contents */));
-        final JsonElement element = JsonParser.parseString(contents);
-        if (element == null) {
-          continue;
-        }
-        final JsonObject json = element.getAsJsonObject();
-        if (JsonUtils.getIntMember(json, "configVersion") < 2) continue;
-        final JsonArray packages = json.getAsJsonArray("packages");
-        if (packages == null || packages.isEmpty()) {
-          continue;
-        }
-        entries.addAll(packages);
-      }
-      catch (IOException ignored) {
-      }
-    }
-    return entries;
+    final PackageConfig.Package cupertinoIcons =
+      PackageConfigService.getInstance(project).findPackage(PubRoots.forProject(project), "cupertino_icons");
+    return cupertinoIcons == null ? null : cupertinoIcons.rootPath();
   }
 
   @VisibleForTesting
@@ -5,6 +5,7 @@
  */
 package io.flutter.utils;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.TripleFunction;
@@ -26,6 +27,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import javax.imageio.ImageIO;
 import javax.swing.Icon;
@@ -34,10 +38,34 @@ import javax.swing.ImageIcon;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * Renders glyphs of an icon font as icons.
+ * <p>
+ * Fonts are loaded once per file, and reloaded only when the file changes. Rendered glyphs are cached by font,
+ * codepoint, size and color, up to a memory bound, so a file that references the same icons many times only renders
+ * each once.
+ */
 @SuppressWarnings("UseJBColor")
 public class IconPreviewGenerator {
   private static final @NotNull Logger LOG = Logger.getInstance(IconPreviewGenerator.class);
 
+  private static final int MAX_CACHED_FONTS = 16;
+  private static final long MAX_CACHED_GLYPH_BYTES = 4 * 1024 * 1024;
+
+  private static final Object cacheLock = new Object();
+
+  private static final Map<String, LoadedFont> fonts = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, LoadedFont> eldest) {
+      return size() > MAX_CACHED_FONTS;
+    }
+  };
+
+  private static final LinkedHashMap<GlyphKey, Icon> glyphs = new LinkedHashMap<>(256, 0.75f, true);
+  private static long glyphBytes;
+
+  private static int fontLoadCount;
+
   @NotNull final String fontFilePath;
   int iconSize = 16;
   int fontSize = 16;
@@ -69,13 +97,34 @@ public class IconPreviewGenerator {
   }
 
   public Icon convert(int code) {
-    return runInGraphicsContext((BufferedImage image, Graphics2D graphics, FontRenderContext frc) -> {
+    LoadedFont font;
+    try {
+      font = loadFont(fontFilePath);
+    }
+    catch (IOException | FontFormatException ex) {
+      FlutterUtils.warn(LOG, ex);
+      return null;
+    }
+
+    GlyphKey key = new GlyphKey(font, code, iconSize, fontSize, fontColor.getRGB());
+    synchronized (cacheLock) {
+      Icon cached = glyphs.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    Icon icon = runInGraphicsContext(font, (BufferedImage image, Graphics2D graphics, FontRenderContext frc) -> {
       char ch = Character.toChars(code)[0];
       String codepoint = Character.toString(ch);
 
       drawGlyph(codepoint, graphics, frc);
       return new ImageIcon(image);
     });
+    if (icon != null) {
+      cacheGlyph(key, icon);
+    }
+    return icon;
   }
 
   // Given a file at path-to-font-properties in the format generated by tools_metadata (on github),
@@ -87,7 +136,16 @@ public class IconPreviewGenerator {
     //noinspection ResultOfMethodCallIgnored
     new File(outputPath).mkdirs();
 
-    runInGraphicsContext((BufferedImage image, Graphics2D graphics, FontRenderContext frc) -> {
+    LoadedFont font;
+    try {
+      font = loadFont(fontFilePath);
+    }
+    catch (IOException | FontFormatException ex) {
+      FlutterUtils.warn(LOG, ex);
+      return;
+    }
+
+    runInGraphicsContext(font, (BufferedImage image, Graphics2D graphics, FontRenderContext frc) -> {
       Properties fontMap = new Properties();
       File file = new File(path);
       try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
@@ -112,26 +170,89 @@ public class IconPreviewGenerator {
     });
   }
 
-  private Icon runInGraphicsContext(TripleFunction<BufferedImage, Graphics2D, FontRenderContext, Icon> callback) {
-    Icon result = null;
-    Graphics2D graphics = null;
+  private Icon runInGraphicsContext(@NotNull LoadedFont font,
+                                    TripleFunction<BufferedImage, Graphics2D, FontRenderContext, Icon> callback) {
     //noinspection UndesirableClassUsage
     BufferedImage image = new BufferedImage(iconSize, iconSize, BufferedImage.TYPE_4BYTE_ABGR);
-    try (InputStream inputStream = new FileInputStream(fontFilePath)) {
-      Font font = Font.createFont(Font.TRUETYPE_FONT, inputStream).deriveFont(Font.PLAIN, fontSize);
-      graphics = image.createGraphics();
-      graphics.setFont(font);
+    Graphics2D graphics = image.createGraphics();
+    try {
+      graphics.setFont(font.font.deriveFont(Font.PLAIN, fontSize));
       graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
       FontRenderContext frc = new FontRenderContext(new AffineTransform(), true, true);
-      result = callback.fun(image, graphics, frc);
-    }
-    catch (IOException | FontFormatException ex) {
-      FlutterUtils.warn(LOG, ex);
+      return callback.fun(image, graphics, frc);
     }
     finally {
-      if (graphics != null) graphics.dispose();
+      graphics.dispose();
+    }
+  }
+
+  /**
+   * Returns the font in the given file, loading it only if it hasn't been loaded since the file last changed.
+   */
+  @NotNull
+  private static LoadedFont loadFont(@NotNull String path) throws IOException, FontFormatException {
+    File file = new File(path);
+    long modified = file.lastModified();
+    long length = file.length();
+    synchronized (cacheLock) {
+      LoadedFont loaded = fonts.get(path);
+      if (loaded != null && loaded.modified == modified && loaded.length == length) {
+        return loaded;
+      }
+    }
+
+    // Load outside the lock; if two threads race, the font is just loaded twice.
+    try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+      LoadedFont loaded = new LoadedFont(Font.createFont(Font.TRUETYPE_FONT, inputStream), modified, length);
+      synchronized (cacheLock) {
+        fonts.put(path, loaded);
+        fontLoadCount++;
+      }
+      return loaded;
+    }
+  }
+
+  private void cacheGlyph(@NotNull GlyphKey key, @NotNull Icon icon) {
+    synchronized (cacheLock) {
+      if (glyphs.put(key, icon) == null) {
+        glyphBytes += key.byteSize();
+      }
+      Iterator<GlyphKey> keys = glyphs.keySet().iterator();
+      while (glyphBytes > MAX_CACHED_GLYPH_BYTES && keys.hasNext()) {
+        glyphBytes -= keys.next().byteSize();
+        keys.remove();
+      }
+    }
+  }
+
+  /**
+   * The number of times a font file has been loaded.
+   */
+  @VisibleForTesting
+  static int getFontLoadCount() {
+    synchronized (cacheLock) {
+      return fontLoadCount;
+    }
+  }
+
+  /**
+   * The approximate memory used by cached glyph images.
+   */
+  @VisibleForTesting
+  static long getCachedGlyphBytes() {
+    synchronized (cacheLock) {
+      return glyphBytes;
+    }
+  }
+
+  @VisibleForTesting
+  static void clearCaches() {
+    synchronized (cacheLock) {
+      fonts.clear();
+      glyphs.clear();
+      glyphBytes = 0;
+      fontLoadCount = 0;
     }
-    return result;
   }
 
   private void drawGlyph(String codepoint, Graphics2D graphics, FontRenderContext frc) {
@@ -174,4 +295,25 @@ public class IconPreviewGenerator {
     }
     return preview == null ? null : preview.findChild("asset_map.yaml");
   }
+
+  private static class LoadedFont {
+    final @NotNull Font font;
+    final long modified;
+    final long length;
+
+    LoadedFont(@NotNull Font font, long modified, long length) {
+      this.font = font;
+      this.modified = modified;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Identifies a rendered glyph; the font is compared by identity, so glyphs of a reloaded font aren't reused.
+   */
+  private record GlyphKey(@NotNull LoadedFont font, int codepoint, int iconSize, int fontSize, int rgb) {
+    long byteSize() {
+      return 4L * iconSize * iconSize;
+    }
+  }
 }
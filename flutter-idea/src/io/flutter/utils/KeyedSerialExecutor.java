@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+import io.flutter.FlutterUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks on a backing executor, one key at a time, keeping only the latest task submitted for each key.
+ *
+ * <p>Tasks with different keys can run concurrently. Tasks with the same key run in the order they were submitted,
+ * but a task that is still waiting when a newer one is submitted for its key is dropped, since the newer task
+ * supersedes it.
+ */
+public class KeyedSerialExecutor {
+  private static final @NotNull Logger LOG = Logger.getInstance(KeyedSerialExecutor.class);
+
+  @NotNull private final Executor executor;
+
+  /**
+   * The keys with a running or waiting task.
+   *
+   * <p>Access should be synchronized on the field.
+   */
+  @NotNull private final Map<Object, Slot> slots = new HashMap<>();
+
+  private long droppedCount;
+
+  public KeyedSerialExecutor(@NotNull Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Schedules a task to run after any running task with the same key, replacing the waiting task for that key.
+   */
+  public void execute(@NotNull Object key, @NotNull Runnable task) {
+    final boolean start;
+    synchronized (slots) {
+      Slot slot = slots.get(key);
+      start = slot == null;
+      if (start) {
+        slot = new Slot();
+        slots.put(key, slot);
+      }
+      else if (slot.waiting != null) {
+        droppedCount++;
+      }
+      slot.waiting = task;
+    }
+    if (start) {
+      executor.execute(() -> drain(key));
+    }
+  }
+
+  /**
+   * The number of tasks that were dropped because a newer task was submitted for the same key.
+   */
+  public long getDroppedCount() {
+    synchronized (slots) {
+      return droppedCount;
+    }
+  }
+
+  private void drain(@NotNull Object key) {
+    while (true) {
+      final Runnable task;
+      synchronized (slots) {
+        final Slot slot = slots.get(key);
+        task = slot.waiting;
+        if (task == null) {
+          slots.remove(key);
+          return;
+        }
+        slot.waiting = null;
+      }
+      try {
+        task.run();
+      }
+      catch (RuntimeException e) {
+        FlutterUtils.warn(LOG, e);
+      }
+    }
+  }
+
+  private static class Slot {
+    Runnable waiting;
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.bazel;
+
+import com.intellij.openapi.util.SystemInfo;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+public class IncrementalFileSyncTest {
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private File root;
+  private File log;
+
+  @Before
+  public void setUp() throws Exception {
+    assumeFalse(SystemInfo.isWindows);
+
+    root = tmp.newFolder("workspace");
+    log = new File(root, "sync.log");
+  }
+
+  /**
+   * Creates a fake sync script that appends its arguments, one invocation per line, to sync.log.
+   */
+  private String createScript(int exitCode, double sleepSeconds) throws Exception {
+    final File script = new File(root, "sync.sh");
+    Files.writeString(script.toPath(), "#!/bin/sh\n" +
+                                       "sleep " + sleepSeconds + "\n" +
+                                       "echo \"$*\" >> sync.log\n" +
+                                       "exit " + exitCode + "\n");
+    assertTrue(script.setExecutable(true));
+    return script.getPath();
+  }
+
+  private List<String> syncedLines() throws Exception {
+    return log.exists() ? Files.readAllLines(log.toPath(), StandardCharsets.UTF_8) : Collections.emptyList();
+  }
+
+  @Test
+  public void firstSyncIsFull() throws Exception {
+    final IncrementalFileSync sync = new IncrementalFileSync(root.getPath(), createScript(0, 0), List.of());
+
+    // Nothing is tracked yet, but the workspace may have changed before the project was opened.
+    final IncrementalFileSync.Result result = sync.sync().get(5, TimeUnit.SECONDS);
+    assertTrue(result.succeeded);
+    assertEquals(Collections.singletonList(""), syncedLines());
+  }
+
+  @Test
+  public void syncsOnlyModifiedFiles() throws Exception {
+    final IncrementalFileSync sync = new IncrementalFileSync(root.getPath(), createScript(0, 0), List.of());
+    sync.sync().get(5, TimeUnit.SECONDS);
+
+    sync.fileModified(root.getPath() + "/lib/a.dart");
+    sync.fileModified(root.getPath() + "/lib/b.dart");
+    sync.fileModified(root.getPath() + "/lib/a.dart");
+    sync.fileModified("/elsewhere/c.dart");
+
+    final IncrementalFileSync.Result result = sync.sync().get(5, TimeUnit.SECONDS);
+    assertTrue(result.succeeded);
+    assertEquals(2, result.fileCount);
+    assertEquals(Arrays.asList("", "lib/a.dart lib/b.dart"), syncedLines());
+
+    // Nothing modified since the last sync; the script isn't run.
+    final IncrementalFileSync.Result empty = sync.sync().get(5, TimeUnit.SECONDS);
+    assertEquals(0, empty.fileCount);
+    assertEquals(2, syncedLines().size());
+  }
+
+  @Test
+  public void ignoresFilesOutsideSourceRoots() throws Exception {
+    final IncrementalFileSync sync = new IncrementalFileSync(root.getPath(), createScript(0, 0), List.of("app", "lib"));
+    sync.sync().get(5, TimeUnit.SECONDS);
+
+    sync.fileModified(root.getPath() + "/app/lib/main.dart");
+    sync.fileModified(root.getPath() + "/lib/a.dart");
+    sync.fileModified(root.getPath() + "/application/main.dart");
+    sync.fileModified(root.getPath() + "/other/b.dart");
+    sync.fileModified(root.getPath() + "/app/lib/generated/c.dart");
+    sync.fileModified(root.getPath() + "/bazel-out/k8-fastbuild/bin/app/d.dart");
+
+    sync.sync().get(5, TimeUnit.SECONDS);
+    assertEquals(Arrays.asList("", "app/lib/main.dart lib/a.dart app/lib/generated/c.dart"), syncedLines());
+  }
+
+  @Test
+  public void syncsRequestedWhileSyncingAreCombined() throws Exception {
+    final IncrementalFileSync sync = new IncrementalFileSync(root.getPath(), createScript(0, 0.5), List.of());
+    final CompletableFuture<IncrementalFileSync.Result> first = sync.sync();
+
+    // Changes made while a sync is running are synced once it finishes, in one run of the script.
+    sync.fileModified(root.getPath() + "/lib/a.dart");
+    final CompletableFuture<IncrementalFileSync.Result> second = sync.sync();
+    sync.fileModified(root.getPath() + "/lib/b.dart");
+    final CompletableFuture<IncrementalFileSync.Result> third = sync.sync();
+
+    assertSame(second, third);
+    final IncrementalFileSync.Result result = third.get(5, TimeUnit.SECONDS);
+    assertTrue(first.isDone());
+    assertEquals(2, result.fileCount);
+    assertEquals(Arrays.asList("", "lib/a.dart lib/b.dart"), syncedLines());
+  }
+
+  @Test
+  public void failedSyncIsFollowedByFullSync() throws Exception {
+    final IncrementalFileSync sync = new IncrementalFileSync(root.getPath(), createScript(0, 0), List.of());
+    sync.sync().get(5, TimeUnit.SECONDS);
+
+    createScript(1, 0);
+    sync.fileModified(root.getPath() + "/lib/a.dart");
+    assertFalse(sync.sync().get(5, TimeUnit.SECONDS).succeeded);
+
+    createScript(0, 0);
+    sync.fileModified(root.getPath() + "/lib/b.dart");
+    assertTrue(sync.sync().get(5, TimeUnit.SECONDS).succeeded);
+    // The failed sync was retried without arguments, and failed again.
+    assertEquals(Arrays.asList("", "lib/a.dart", "", ""), syncedLines());
+  }
+
+  @Test
+  public void syncsEverythingWhenScriptRejectsFiles() throws Exception {
+    final File script = new File(root, "sync.sh");
+    Files.writeString(script.toPath(), "#!/bin/sh\n" +
+                                       "echo \"$*\" >> sync.log\n" +
+                                       "[ $# -eq 0 ]\n");
+    assertTrue(script.setExecutable(true));
+    final IncrementalFileSync sync = new IncrementalFileSync(root.getPath(), script.getPath(), List.of());
+    sync.sync().get(5, TimeUnit.SECONDS);
+
+    sync.fileModified(root.getPath() + "/lib/a.dart");
+    assertTrue(sync.sync().get(5, TimeUnit.SECONDS).succeeded);
+    assertEquals(Arrays.asList("", "lib/a.dart", ""), syncedLines());
+
+    // From then on, the files aren't passed.
+    sync.fileModified(root.getPath() + "/lib/b.dart");
+    assertTrue(sync.sync().get(5, TimeUnit.SECONDS).succeeded);
+    assertEquals(Arrays.asList("", "lib/a.dart", "", ""), syncedLines());
+  }
+
+  @Test
+  public void recognizesOutputPaths() {
+    assertTrue(IncrementalFileSync.isOutputPath("bazel-out/k8-fastbuild/bin/a.dart"));
+    assertTrue(IncrementalFileSync.isOutputPath("bazel-bin/a.dart"));
+    assertTrue(IncrementalFileSync.isOutputPath("blaze-genfiles/a.dart"));
+    // Hand-written sources may live in directories named like generated ones.
+    assertFalse(IncrementalFileSync.isOutputPath("app/lib/generated/a.dart"));
+    assertFalse(IncrementalFileSync.isOutputPath("app/bazel-out/a.dart"));
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.console;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConsoleLineTokenizerTest {
+  private static final String BUILD_LOG_PATH = "testData/console/gradle_build.log";
+
+  @NotNull
+  private static ConsoleLineTokenizer.Token only(@NotNull String line) {
+    final List<ConsoleLineTokenizer.Token> tokens = ConsoleLineTokenizer.tokenize(line);
+    assertEquals(tokens.toString(), 1, tokens.size());
+    return tokens.get(0);
+  }
+
+  private static void assertToken(@NotNull String line,
+                                  @NotNull ConsoleLineTokenizer.Kind kind,
+                                  @NotNull String path,
+                                  int lineNumber,
+                                  int column,
+                                  @NotNull String highlighted) {
+    final ConsoleLineTokenizer.Token token = only(line);
+    assertEquals(kind, token.kind);
+    assertEquals(path, token.path);
+    assertEquals(lineNumber, token.line);
+    assertEquals(column, token.column);
+    assertEquals(highlighted, line.substring(token.start, token.end));
+  }
+
+  @Test
+  public void launchingAndOpen() {
+    assertToken("Launching lib/main.dart on iPhone in debug mode...",
+                ConsoleLineTokenizer.Kind.RELATIVE, "lib/main.dart", -1, -1, "lib/main.dart");
+    assertToken("  open ios/Runner.xcworkspace",
+                ConsoleLineTokenizer.Kind.RELATIVE, "ios/Runner.xcworkspace", -1, -1, "ios/Runner.xcworkspace");
+  }
+
+  @Test
+  public void parenthesizedLocations() {
+    assertToken("  • _MyHomePageState._incrementCounter (lib/main.dart:49)",
+                ConsoleLineTokenizer.Kind.RELATIVE, "lib/main.dart", 49, -1, "lib/main.dart:49");
+    assertToken("#0      _MyHomePageState.build (package:flutter_app/main.dart:58:7)",
+                ConsoleLineTokenizer.Kind.PACKAGE, "flutter_app/main.dart", 58, 7, "package:flutter_app/main.dart:58:7");
+    assertToken("#3      _rootRun (dart:async/zone.dart:1391:47)",
+                ConsoleLineTokenizer.Kind.DART, "async/zone.dart", 1391, 47, "dart:async/zone.dart:1391:47");
+    assertToken("#1      main (file:///Users/dev/app/test/widget_test.dart:23:18)",
+                ConsoleLineTokenizer.Kind.ABSOLUTE, "/Users/dev/app/test/widget_test.dart", 23, 18,
+                "file:///Users/dev/app/test/widget_test.dart:23:18");
+    assertToken("#1      main (file:///C:/src/app/test/widget_test.dart:23:18)",
+                ConsoleLineTokenizer.Kind.ABSOLUTE, "C:/src/app/test/widget_test.dart", 23, 18,
+                "file:///C:/src/app/test/widget_test.dart:23:18");
+  }
+
+  @Test
+  public void bareUris() {
+    assertToken("package:test_api/src/backend/invoker.dart 215:19  Invoker.waitForOutstandingCallbacks.<fn>",
+                ConsoleLineTokenizer.Kind.PACKAGE, "test_api/src/backend/invoker.dart", 215, 19,
+                "package:test_api/src/backend/invoker.dart 215:19");
+    assertToken("dart:async  _CustomZone.run",
+                ConsoleLineTokenizer.Kind.DART, "async", -1, -1, "dart:async");
+  }
+
+  @Test
+  public void compilerErrors() {
+    assertToken("lib/registerC.dart:104:73: Error: Expected ';' after this.",
+                ConsoleLineTokenizer.Kind.RELATIVE, "lib/registerC.dart", 104, 73, "lib/registerC.dart");
+    assertToken("package:app/src/model.dart:7:1: Error: Type 'Foo' not found.",
+                ConsoleLineTokenizer.Kind.PACKAGE, "app/src/model.dart", 7, 1, "package:app/src/model.dart");
+  }
+
+  @Test
+  public void ignoresNonReferences() {
+    assertTrue(ConsoleLineTokenizer.tokenize("Build: Running build completed, took 191ms").isEmpty());
+    assertTrue(ConsoleLineTokenizer.tokenize("> Task :app:compileDebugKotlin UP-TO-DATE").isEmpty());
+    assertTrue(ConsoleLineTokenizer.tokenize("Observatory listening on (http://127.0.0.1:45321)").isEmpty());
+    assertTrue(ConsoleLineTokenizer.tokenize("  • MyApp.build (lib/main.dart)").isEmpty());
+    assertTrue(ConsoleLineTokenizer.tokenize("").isEmpty());
+    assertTrue(ConsoleLineTokenizer.tokenize("   ").isEmpty());
+  }
+
+  @Test
+  public void tokenizesBuildLog() throws Exception {
+    final List<String> log = Files.readAllLines(Paths.get(BUILD_LOG_PATH), StandardCharsets.UTF_8);
+
+    int references = 0;
+    for (String line : log) {
+      references += ConsoleLineTokenizer.tokenize(line).size();
+    }
+    assertEquals(12, references);
+  }
+}
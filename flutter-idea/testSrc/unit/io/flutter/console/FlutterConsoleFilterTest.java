@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.console;
+
+import io.flutter.ide.FlutterCodeInsightFixtureTestCase;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class FlutterConsoleFilterTest extends FlutterCodeInsightFixtureTestCase {
+  private static final String BUILD_LOG_PATH = "testData/console/gradle_build.log";
+
+  @Test
+  public void testResolvesRepeatedReferencesFromCache() throws Exception {
+    final List<String> log = Files.readAllLines(Paths.get(BUILD_LOG_PATH), StandardCharsets.UTF_8);
+    final FlutterConsoleFilter filter = new FlutterConsoleFilter(getModule());
+    final ConsoleFileCache cache = ConsoleFileCache.getInstance(getProject());
+    cache.clear();
+
+    int offset = 0;
+    for (String line : log) {
+      offset += line.length() + 1;
+      filter.applyFilter(line + "\n", offset);
+    }
+    final int lookups = cache.getLookupCount();
+    assertTrue(lookups > 0);
+
+    // Repeated references are resolved from the cache, whether or not the file exists.
+    for (String line : log) {
+      offset += line.length() + 1;
+      filter.applyFilter(line + "\n", offset);
+    }
+    assertEquals(lookups, cache.getLookupCount());
+  }
+}
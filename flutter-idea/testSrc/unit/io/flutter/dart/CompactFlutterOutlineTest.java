@@ -0,0 +1,267 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.dart;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.flutter.utils.JsonUtils;
+import org.dartlang.analysis.server.protocol.FlutterOutline;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CompactFlutterOutlineTest {
+  private static final String FILE = "/project/lib/home_page.dart";
+
+  @Test
+  public void matchesFlutterOutline() {
+    final String json = new OutlineBuilder(3).build();
+    final FlutterOutline expected = FlutterOutline.fromJson(JsonUtils.parseString(json).getAsJsonObject());
+    final CompactFlutterOutline outline = CompactFlutterOutline.fromJson(FILE, JsonUtils.parseString(json).getAsJsonObject());
+
+    final List<FlutterOutline> nodes = new ArrayList<>();
+    flatten(expected, nodes);
+    assertEquals(nodes.size(), outline.size());
+    for (int node = 0; node < outline.size(); node++) {
+      final FlutterOutline other = nodes.get(node);
+      assertEquals(other.getKind(), outline.getKind(node));
+      assertEquals(other.getOffset(), outline.getOffset(node));
+      assertEquals(other.getLength(), outline.getLength(node));
+      assertEquals(other.getCodeOffset(), outline.getCodeOffset(node));
+      assertEquals(other.getCodeLength(), outline.getCodeLength(node));
+      assertEquals(other.getLabel(), outline.getLabel(node));
+      assertEquals(other.getClassName(), outline.getClassName(node));
+      assertEquals(other.getVariableName(), outline.getVariableName(node));
+      assertEquals(other.getParentAssociationLabel(), outline.getParentAssociationLabel(node));
+      if (other.getDartElement() == null) {
+        assertNull(outline.getElementKind(node));
+      }
+      else {
+        assertEquals(other.getDartElement().getKind(), outline.getElementKind(node));
+        assertEquals(other.getDartElement().getName(), outline.getElementName(node));
+        assertEquals(other.getDartElement().getParameters(), outline.getElementParameters(node));
+        assertEquals(other.getDartElement().getReturnType(), outline.getElementReturnType(node));
+      }
+      // The locations of attributes get their file back.
+      assertEquals(other.getAttributes(), outline.getAttributes(node));
+
+      final List<FlutterOutline> descendants = new ArrayList<>();
+      flatten(other, descendants);
+      assertEquals(node + descendants.size(), outline.getSubtreeEnd(node));
+    }
+  }
+
+  @Test
+  public void depthsFollowChildren() {
+    final CompactFlutterOutline outline = CompactFlutterOutline.fromJson(FILE, JsonUtils.parseString(new OutlineBuilder(2).build()).getAsJsonObject());
+
+    assertEquals(0, outline.getDepth(0));
+    assertEquals(outline.size(), outline.getSubtreeEnd(0));
+    for (int node = 1; node < outline.size(); node++) {
+      int parent = node - 1;
+      while (outline.getSubtreeEnd(parent) <= node) {
+        parent--;
+      }
+      assertEquals(outline.getDepth(parent) + 1, outline.getDepth(node));
+    }
+  }
+
+  @Test
+  public void namesAreShared() {
+    final String json = new OutlineBuilder(1).build();
+    final CompactFlutterOutline a = CompactFlutterOutline.fromJson(FILE, JsonUtils.parseString(json).getAsJsonObject());
+    final CompactFlutterOutline b = CompactFlutterOutline.fromJson(FILE, JsonUtils.parseString(json).getAsJsonObject());
+
+    for (int node = 0; node < a.size(); node++) {
+      assertSame(a.getKind(node), b.getKind(node));
+      assertSame(a.getClassName(node), b.getClassName(node));
+      assertSame(a.getElementName(node), b.getElementName(node));
+      assertEquals(a.getAttributeValuesHash(node), b.getAttributeValuesHash(node));
+    }
+  }
+
+  @Test
+  public void attributeValuesHashIgnoresLocations() {
+    final OutlineBuilder builder = new OutlineBuilder(1);
+    final CompactFlutterOutline before = CompactFlutterOutline.fromJson(FILE, JsonUtils.parseString(builder.build()).getAsJsonObject());
+    builder.padding = 100;
+    final CompactFlutterOutline after = CompactFlutterOutline.fromJson(FILE, JsonUtils.parseString(builder.build()).getAsJsonObject());
+
+    for (int node = 0; node < before.size(); node++) {
+      if ("Padding".equals(before.getClassName(node))) {
+        assertNotEquals(before.getAttributeValuesHash(node), after.getAttributeValuesHash(node));
+      }
+      else if ("Container".equals(before.getClassName(node))) {
+        // The attributes moved, but kept their values.
+        assertNotEquals(before.getAttributes(node), after.getAttributes(node));
+        assertEquals(before.getAttributeValuesHash(node), after.getAttributeValuesHash(node));
+      }
+    }
+  }
+
+  @Test
+  public void namesAreSharedAcrossFiles() {
+    // Open files usually outline the same few widgets.
+    final List<CompactFlutterOutline> outlines = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      outlines.add(CompactFlutterOutline.fromJson(FILE + i, JsonUtils.parseString(new OutlineBuilder(10).build()).getAsJsonObject()));
+    }
+
+    final CompactFlutterOutline first = outlines.get(0);
+    for (CompactFlutterOutline outline : outlines) {
+      assertEquals(first.size(), outline.size());
+      for (int node = 0; node < outline.size(); node++) {
+        assertSame(first.getClassName(node), outline.getClassName(node));
+        assertSame(first.getLabel(node), outline.getLabel(node));
+      }
+    }
+  }
+
+  private static void flatten(FlutterOutline outline, List<FlutterOutline> nodes) {
+    nodes.add(outline);
+    if (outline.getChildren() != null) {
+      for (FlutterOutline child : outline.getChildren()) {
+        flatten(child, nodes);
+      }
+    }
+  }
+
+  /**
+   * Builds the JSON of the outline of a file with a stateless widget per screen, each with a build method that returns a
+   * widget tree.
+   */
+  private static class OutlineBuilder {
+    final int screens;
+    int padding = 8;
+
+    private int offset;
+
+    OutlineBuilder(int screens) {
+      this.screens = screens;
+    }
+
+    String build() {
+      offset = 0;
+      final JsonObject unit = node("COMPILATION_UNIT");
+      for (int screen = 0; screen < screens; screen++) {
+        final JsonObject widget = node("DART_ELEMENT");
+        widget.add("dartElement", element("CLASS", "Screen" + screen, null, null));
+        final JsonObject build = node("DART_ELEMENT");
+        build.add("dartElement", element("METHOD", "build", "(BuildContext context)", "Widget"));
+
+        final JsonObject scaffold = widget("Scaffold", null);
+        final JsonObject appBar = widget("AppBar", "appBar");
+        addChild(appBar, end(text("Screen " + screen, "title")));
+        addChild(scaffold, end(appBar));
+        final JsonObject body = widget("Padding", "body");
+        attribute(body, "padding", "EdgeInsets.all(" + padding + ")");
+        final JsonObject column = widget("Column", "child");
+        attribute(column, "mainAxisAlignment", "MainAxisAlignment.center");
+        for (int row = 0; row < 4; row++) {
+          final JsonObject container = widget("Container", null);
+          attribute(container, "color", "Colors.blue");
+          addChild(container, end(text("Item " + row, "child")));
+          addChild(column, end(container));
+        }
+        final JsonObject button = widget("ElevatedButton", null);
+        attribute(button, "onPressed", "() => Navigator.pop(context)");
+        addChild(button, end(text("Back", "child")));
+        addChild(column, end(button));
+        addChild(body, end(column));
+        addChild(scaffold, end(body));
+        addChild(build, end(scaffold));
+        addChild(widget, end(build));
+        addChild(unit, end(widget));
+      }
+      return end(unit).toString();
+    }
+
+    private JsonObject widget(String className, String parentAssociationLabel) {
+      final JsonObject node = node("NEW_INSTANCE");
+      node.addProperty("className", className);
+      if (parentAssociationLabel != null) {
+        node.addProperty("parentAssociationLabel", parentAssociationLabel);
+      }
+      return node;
+    }
+
+    private JsonObject text(String value, String parentAssociationLabel) {
+      final JsonObject node = widget("Text", parentAssociationLabel);
+      attribute(node, "data", "'" + value + "'");
+      node.getAsJsonArray("attributes").get(0).getAsJsonObject().addProperty("literalValueString", value);
+      return node;
+    }
+
+    private JsonObject node(String kind) {
+      final JsonObject node = new JsonObject();
+      node.addProperty("kind", kind);
+      node.addProperty("offset", offset);
+      node.addProperty("codeOffset", offset);
+      offset += 20;
+      return node;
+    }
+
+    private JsonObject end(JsonObject node) {
+      offset += 2;
+      final int length = offset - node.get("offset").getAsInt();
+      node.addProperty("length", length);
+      node.addProperty("codeLength", length);
+      return node;
+    }
+
+    private void attribute(JsonObject node, String name, String label) {
+      if (!node.has("attributes")) {
+        node.add("attributes", new JsonArray());
+      }
+      final JsonObject attribute = new JsonObject();
+      attribute.addProperty("name", name);
+      attribute.addProperty("label", label);
+      attribute.add("nameLocation", location(name.length()));
+      offset += 2;
+      attribute.add("valueLocation", location(label.length()));
+      node.getAsJsonArray("attributes").add(attribute);
+    }
+
+    private JsonObject location(int length) {
+      final JsonObject location = new JsonObject();
+      location.addProperty("file", FILE);
+      location.addProperty("offset", offset);
+      location.addProperty("length", length);
+      location.addProperty("startLine", offset / 40 + 1);
+      location.addProperty("startColumn", offset % 40 + 1);
+      location.addProperty("endLine", (offset + length) / 40 + 1);
+      location.addProperty("endColumn", (offset + length) % 40 + 1);
+      offset += length;
+      return location;
+    }
+
+    private JsonObject element(String kind, String name, String parameters, String returnType) {
+      final JsonObject element = new JsonObject();
+      element.addProperty("kind", kind);
+      element.addProperty("name", name);
+      element.addProperty("flags", 0);
+      if (parameters != null) {
+        element.addProperty("parameters", parameters);
+        element.addProperty("returnType", returnType);
+      }
+      element.add("location", location(name.length()));
+      return element;
+    }
+
+    private static void addChild(JsonObject parent, JsonObject child) {
+      if (!parent.has("children")) {
+        parent.add("children", new JsonArray());
+      }
+      parent.getAsJsonArray("children").add(child);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.dart;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MessageHeaderTest {
+  private static final Set<String> HANDLED = Set.of("flutter.outline");
+
+  @Test
+  public void readsNotifications() {
+    assertEquals(new MessageHeader("flutter.outline", "/app/lib/main.dart", null),
+                 MessageHeader.read("{\"event\":\"flutter.outline\",\"params\":{\"file\":\"/app/lib/main.dart\",\"outline\":{}}}", HANDLED));
+    // Members can come in any order.
+    assertEquals(new MessageHeader("flutter.outline", "/app/lib/main.dart", null),
+                 MessageHeader.read("{ \"params\": {\"outline\": {\"kind\": \"X\"}, \"file\": \"/app/lib/main.dart\"},\n \"event\": \"flutter.outline\" }",
+                                    HANDLED));
+    assertEquals(new MessageHeader("flutter.outline", null, null), MessageHeader.read("{\"event\":\"flutter.outline\"}", HANDLED));
+  }
+
+  @Test
+  public void skipsUnhandledNotifications() {
+    assertNull(MessageHeader.read("{\"event\":\"analysis.errors\",\"params\":{\"file\":\"/app/lib/main.dart\",\"errors\":[]}}", HANDLED));
+    assertNull(MessageHeader.read("{\"params\":{\"file\":\"/app/lib/main.dart\"},\"event\":\"analysis.highlights\"}", HANDLED));
+    // Reading stops at the event name, so the rest of the message isn't even checked.
+    assertNull(MessageHeader.read("{\"event\":\"server.status\",\"params\":{", HANDLED));
+  }
+
+  @Test
+  public void readsResponses() {
+    assertEquals(new MessageHeader(null, null, "12"), MessageHeader.read("{\"id\":\"12\",\"result\":{\"event\":[]}}", HANDLED));
+    assertEquals(new MessageHeader(null, null, "13"), MessageHeader.read("{\"id\":13,\"error\":{\"code\":\"X\"}}", HANDLED));
+  }
+
+  @Test
+  public void rejectsInvalidMessages() {
+    assertNull(MessageHeader.read("", HANDLED));
+    assertNull(MessageHeader.read("[]", HANDLED));
+    assertNull(MessageHeader.read("{\"event\":", HANDLED));
+  }
+
+  @Test
+  public void readsHeadersOfLargeNotifications() {
+    final String highlights = notification("analysis.highlights", "regions", 20000);
+    final String outline = notification("flutter.outline", "outline", 20000);
+
+    assertNull(MessageHeader.read(highlights, HANDLED));
+    assertEquals(new MessageHeader("flutter.outline", "/app/lib/main.dart", null), MessageHeader.read(outline, HANDLED));
+  }
+
+  private static String notification(String event, String member, int count) {
+    final JsonArray values = new JsonArray();
+    for (int i = 0; i < count; i++) {
+      final JsonObject value = new JsonObject();
+      value.addProperty("type", "IDENTIFIER_DEFAULT");
+      value.addProperty("offset", i * 10);
+      value.addProperty("length", 8);
+      values.add(value);
+    }
+    final JsonObject params = new JsonObject();
+    params.addProperty("file", "/app/lib/main.dart");
+    params.add(member, values);
+    final JsonObject message = new JsonObject();
+    message.addProperty("event", event);
+    message.add("params", params);
+    return message.toString();
+  }
+}
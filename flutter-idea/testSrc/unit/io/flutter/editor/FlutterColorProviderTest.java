@@ -7,6 +7,8 @@ package io.flutter.editor;
 
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.lang.dart.DartTokenTypes;
 import com.jetbrains.lang.dart.psi.DartCallExpression;
 import com.jetbrains.lang.dart.psi.DartNewExpression;
 import com.jetbrains.lang.dart.psi.DartReferenceExpression;
@@ -15,8 +17,13 @@ import io.flutter.dart.DartSyntax;
 import org.junit.Test;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class FlutterColorProviderTest extends AbstractDartElementTest {
 
@@ -185,4 +192,38 @@ public class FlutterColorProviderTest extends AbstractDartElementTest {
     });
   }
 
+  @Test
+  public void resolvesThemeFileConsistently() throws Exception {
+    final String[] colors = {
+      "Colors.blue.shade200", "Color(0xFF123456)", "const Color.fromARGB(255, 12, 34, 56)", "CupertinoColors.systemRed",
+      "Colors.red[300]", "Color.fromRGBO(10, 20, 30, 0.5)", "Colors.amber", "foo(bar)",
+    };
+    final StringBuilder source = new StringBuilder("final theme = [\n");
+    for (int i = 0; i < 300; i++) {
+      source.append("  ").append(colors[i % colors.length]).append(",\n");
+    }
+    source.append("];\n");
+
+    run(() -> {
+      final PsiElement first = setUpDartElement(source.toString(), "Colors", LeafPsiElement.class);
+      final PsiElement[] identifiers = PsiTreeUtil.collectElements(
+        first.getContainingFile(), (element) -> element.getNode() != null && element.getNode().getElementType() == DartTokenTypes.IDENTIFIER);
+      final FlutterColorProvider provider = new FlutterColorProvider();
+
+      final List<Color> cold = new ArrayList<>();
+      for (PsiElement identifier : identifiers) {
+        cold.add(provider.getColorFrom(identifier));
+      }
+
+      // The second pass is served from the cached values, and must agree with the first.
+      final List<Color> warm = new ArrayList<>();
+      for (PsiElement identifier : identifiers) {
+        warm.add(provider.getColorFrom(identifier));
+      }
+
+      assertEquals(cold, warm);
+      // Every line but the foo(bar) ones has a color.
+      assertTrue(cold.stream().filter(Objects::nonNull).count() >= 300 * 7 / 8);
+    });
+  }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FlutterColorsTest {
+  @Test
+  public void looksUpMaterialColors() {
+    final FlutterColors.FlutterColor blue = FlutterColors.getColor("blue");
+    assert blue != null;
+    assertTrue(blue.isPrimary());
+    assertEquals(new Color(0x21, 0x96, 0xf3), blue.getAWTColor());
+
+    final FlutterColors.FlutterColor shade = FlutterColors.getColor("blue.shade200");
+    assert shade != null;
+    assertFalse(shade.isPrimary());
+    assertSame(shade, FlutterColors.getColor("blue[200]"));
+
+    assertNull(FlutterColors.getColor("notAColor"));
+    assertEquals("blue", FlutterColors.getColorName(blue.getAWTColor()));
+  }
+
+  @Test
+  public void looksUpCupertinoColors() {
+    final FlutterColors.FlutterColor green = FlutterCupertinoColors.getColor("systemGreen");
+    assert green != null;
+    assertFalse(green.isPrimary());
+    assertEquals(new Color(0x34, 0xc7, 0x59), green.getAWTColor());
+    assertNull(FlutterCupertinoColors.getColor("blue"));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class FontFileIndexTest {
+  private static final String PUBSPEC = """
+    name: my_icons
+    flutter:
+      fonts:
+        - family: MyIcons
+          fonts:
+            - asset: assets/fonts/icons_v2.ttf
+        - family: Roboto
+          fonts:
+            - asset: fonts/Roboto-Regular.ttf
+            - asset: fonts/Roboto-Bold.ttf
+              weight: 700
+        - fonts:
+            - asset: fonts/no_family.ttf
+    """;
+
+  @Test
+  public void readsFontDeclarations() {
+    final Map<String, List<String>> fonts = FontFileIndex.getFontDeclarations(new Yaml().load(PUBSPEC));
+
+    assertEquals(Map.of("MyIcons", List.of("assets/fonts/icons_v2.ttf"),
+                        "Roboto", List.of("fonts/Roboto-Regular.ttf", "fonts/Roboto-Bold.ttf")), fonts);
+    assertEquals(Map.of(), FontFileIndex.getFontDeclarations(new Yaml().load("name: no_fonts\nflutter:\n  uses-material-design: true\n")));
+    assertEquals(Map.of(), FontFileIndex.getFontDeclarations(null));
+  }
+
+  @Test
+  public void ranksDeclaredFontsFirst() {
+    final List<String> files = List.of("/pkg/fonts/Roboto-Regular.ttf", "/pkg/assets/fonts/icons_v2.ttf", "/pkg/fonts/MyIcon.ttf");
+    final Map<String, List<String>> declared = FontFileIndex.getFontDeclarations(new Yaml().load(PUBSPEC));
+
+    // The declared font wins over a closer name match.
+    assertEquals(List.of("/pkg/assets/fonts/icons_v2.ttf", "/pkg/fonts/MyIcon.ttf", "/pkg/fonts/Roboto-Regular.ttf"),
+                 FontFileIndex.rankFontFiles(files, declared, "/pkg", "MyIcons"));
+
+    // Without a declaration, the closest name comes first.
+    assertEquals(List.of("/pkg/fonts/MyIcon.ttf", "/pkg/fonts/Roboto-Regular.ttf", "/pkg/assets/fonts/icons_v2.ttf"),
+                 FontFileIndex.rankFontFiles(files, Map.of(), "/pkg", "MyIcons"));
+
+    // Without a family, all fonts are candidates in the order they were found.
+    assertEquals(files, FontFileIndex.rankFontFiles(files, declared, "/pkg", null));
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import io.flutter.editor.IconDataScanner.IconDefinition;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class IconDataScannerTest {
+  @Test
+  public void findsSdkStyleIcons() {
+    final String source = """
+      class CupertinoIcons {
+        CupertinoIcons._();
+
+        static const String iconFont = 'CupertinoIcons';
+        static const String iconFontPackage = 'cupertino_icons';
+
+        /// <i class='cupertino-icons md-36'>chevron_left</i> &#x2014; Cupertino icon for `static const IconData fake = IconData(0x1)`.
+        static const IconData left_chevron = IconData(0xf3d2, fontFamily: iconFont, fontPackage: iconFontPackage, matchTextDirection: true);
+        static const IconData book = IconData(
+          0xf3e7,
+          fontFamily: CupertinoIcons.iconFont,
+          fontPackage: iconFontPackage,
+        );
+      }
+
+      abstract final class Icons {
+        static const IconData ten_k = IconData(0xe000, fontFamily: 'MaterialIcons');
+        // static const IconData removed = IconData(0xe001, fontFamily: 'MaterialIcons');
+        static const IconData no_family = IconData(59000);
+      }
+      """;
+
+    final Map<String, IconDefinition> icons = IconDataScanner.scan(source);
+
+    assertEquals(List.of("CupertinoIcons.left_chevron", "CupertinoIcons.book", "Icons.ten_k", "Icons.no_family"),
+                 List.copyOf(icons.keySet()));
+    assertEquals(new IconDefinition(0xf3d2, "CupertinoIcons", "cupertino_icons"), icons.get("CupertinoIcons.left_chevron"));
+    assertEquals(new IconDefinition(0xf3e7, "CupertinoIcons", "cupertino_icons"), icons.get("CupertinoIcons.book"));
+    assertEquals(new IconDefinition(0xe000, "MaterialIcons", null), icons.get("Icons.ten_k"));
+    assertEquals(new IconDefinition(59000, null, null), icons.get("Icons.no_family"));
+  }
+
+  @Test
+  public void findsGeneratedIconClasses() {
+    final String source = """
+      import 'package:flutter/widgets.dart';
+
+      class MyFlutterApp {
+        MyFlutterApp._();
+
+        static const _kFontFam = 'MyFlutterApp';
+        static const String? _kFontPkg = null;
+
+        static const IconData heart = IconData(0xe800, fontFamily: _kFontFam, fontPackage: _kFontPkg);
+        static const star = const IconData(0xe801, fontFamily: "MyFlutterApp");
+        static const IconData custom = _CustomIconData(0xe802);
+        static const Color notAnIcon = Color(0xff000000);
+      }
+      """;
+
+    final Map<String, IconDefinition> icons = IconDataScanner.scan(source);
+
+    assertEquals(3, icons.size());
+    assertEquals(new IconDefinition(0xe800, "MyFlutterApp", null), icons.get("MyFlutterApp.heart"));
+    assertEquals(new IconDefinition(0xe801, "MyFlutterApp", null), icons.get("MyFlutterApp.star"));
+    assertEquals(new IconDefinition(0xe802, null, null), icons.get("MyFlutterApp.custom"));
+    assertNull(icons.get("MyFlutterApp.notAnIcon"));
+  }
+
+  @Test
+  public void attributesIconsToTheEnclosingClass() {
+    final String source = """
+      class AppIcons {
+        static const String usage = 'Use like class Other { } in ${'{'}your code}';
+        static const IconData first = IconData(0xe800, fontFamily: 'AppIcons');
+      }
+
+      class Alias = Object with Mixin;
+
+      extension MoreIcons on AppIcons {
+        static const IconData second = IconData(0xe801, fontFamily: 'AppIcons');
+      }
+
+      class OtherIcons {
+        static const IconData third = IconData(0xe802, fontFamily: 'OtherIcons');
+      }
+      """;
+
+    final Map<String, IconDefinition> icons = IconDataScanner.scan(source);
+
+    assertEquals(List.of("AppIcons.first", ".second", "OtherIcons.third"), List.copyOf(icons.keySet()));
+  }
+
+  @Test
+  public void skipsFilesWithoutIcons() {
+    assertTrue(IconDataScanner.scan("class Foo {\n  static const int bar = Baz(0x1);\n}\n").isEmpty());
+  }
+
+  @Test
+  public void indexesMaterialIcons() throws Exception {
+    String sdk = System.getenv("FLUTTER_SDK");
+    if (sdk == null) sdk = System.getProperty("flutter.sdk");
+    assumeTrue("Set FLUTTER_SDK or -Dflutter.sdk to run this test", sdk != null);
+    final File file = new File(sdk, "packages/flutter/lib/src/material/icons.dart");
+    assumeTrue(file.isFile());
+    final String source = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+
+    final Map<String, IconDefinition> icons = IconDataScanner.scan(source);
+
+    assertTrue(icons.size() > 1000);
+    assertEquals(new IconDefinition(0xe000, "MaterialIcons", null), icons.get("Icons.ten_k"));
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.intellij.openapi.util.TextRange;
+import io.flutter.dart.CompactFlutterOutline;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OutlineDiffTest {
+  private static final int LINE_LENGTH = 40;
+
+  @Test
+  public void sameOutlineIsUnchanged() {
+    final CompactFlutterOutline previous = new OutlineBuilder(10, 5).build();
+    final OutlineDiff diff = OutlineDiff.compute(previous, new OutlineBuilder(10, 5).build());
+
+    assertTrue(diff.isStructurallyUnchanged());
+    assertEquals(0, diff.getOffsetDelta());
+    assertEquals(diff.getAddedStart(), diff.getAddedEnd());
+    assertEquals(diff.getRemovedStart(), diff.getRemovedEnd());
+    assertNull(diff.getChangedRange());
+    assertEquals(0, diff.getCurrentNode(0));
+  }
+
+  @Test
+  public void typingShiftsFollowingNodes() {
+    final OutlineBuilder builder = new OutlineBuilder(10, 5);
+    final CompactFlutterOutline previous = builder.build();
+    builder.type(123);
+    final OutlineDiff diff = OutlineDiff.compute(previous, builder.build());
+
+    assertTrue(diff.isStructurallyUnchanged());
+    assertEquals(1, diff.getOffsetDelta());
+    assertNull(diff.getChangedRange());
+
+    final CompactFlutterOutline current = diff.getCurrent();
+    for (int node = 0; node < previous.size(); node++) {
+      assertEquals(node, diff.getCurrentNode(node));
+      final int offset = previous.getOffset(node);
+      final int expectedOffset = offset > 123 * LINE_LENGTH ? offset + 1 : offset;
+      assertEquals(expectedOffset, current.getOffset(node));
+    }
+  }
+
+  @Test
+  public void renamingReplacesOneNode() {
+    final OutlineBuilder builder = new OutlineBuilder(10, 5);
+    final CompactFlutterOutline previous = builder.build();
+    builder.type(204);
+    builder.renamedLine = 204;
+    final OutlineDiff diff = OutlineDiff.compute(previous, builder.build());
+
+    assertFalse(diff.isStructurallyUnchanged());
+    assertEquals(1, diff.getAddedEnd() - diff.getAddedStart());
+    assertEquals(1, diff.getRemovedEnd() - diff.getRemovedStart());
+    final CompactFlutterOutline current = diff.getCurrent();
+    final int added = diff.getAddedStart();
+    assertEquals("Texts", current.getClassName(added));
+    assertEquals(new TextRange(current.getOffset(added), current.getOffset(added) + current.getLength(added)), diff.getChangedRange());
+
+    // Everything around the node is kept.
+    for (int node = 0; node < previous.size(); node++) {
+      assertEquals(node != diff.getRemovedStart(), diff.getCurrentNode(node) != -1);
+    }
+  }
+
+  @Test
+  public void addingTestAddsItsSubtree() {
+    final OutlineBuilder builder = new OutlineBuilder(10, 5);
+    final CompactFlutterOutline previous = builder.build();
+    builder.testsInLastGroup = 6;
+    final OutlineDiff diff = OutlineDiff.compute(previous, builder.build());
+
+    assertEquals(diff.getRemovedStart(), diff.getRemovedEnd());
+    final CompactFlutterOutline current = diff.getCurrent();
+    assertEquals("UNIT_TEST_TEST", current.getElementKind(diff.getAddedStart()));
+    assertEquals(current.getSubtreeEnd(diff.getAddedStart()), diff.getAddedEnd());
+    assertEquals(OutlineBuilder.LINES_PER_TEST * LINE_LENGTH, diff.getOffsetDelta());
+  }
+
+  @Test
+  public void typingInLargeFileChangesNoNodes() {
+    // About 2k lines: 20 groups of 10 tests, each with a widget tree.
+    final OutlineBuilder builder = new OutlineBuilder(20, 10);
+    CompactFlutterOutline previous = builder.build();
+    final int lines = builder.lines;
+    assertTrue(lines > 1000);
+
+    final Random random = new Random(42);
+    final int edits = 50;
+    final List<CompactFlutterOutline> outlines = new ArrayList<>();
+    for (int i = 0; i < edits; i++) {
+      builder.type(random.nextInt(lines));
+      outlines.add(builder.build());
+    }
+
+    int changedNodes = 0;
+    for (CompactFlutterOutline outline : outlines) {
+      final OutlineDiff diff = OutlineDiff.compute(previous, outline);
+      changedNodes += diff.getAddedEnd() - diff.getAddedStart() + diff.getRemovedEnd() - diff.getRemovedStart();
+      previous = outline;
+    }
+    assertEquals(0, changedNodes);
+  }
+
+  /**
+   * Builds the outline of a test file with one node per line, where every line is {@link #LINE_LENGTH} characters long
+   * plus the characters typed into it.
+   */
+  private static class OutlineBuilder {
+    static final int LINES_PER_TEST = 9;
+
+    final int groups;
+    final int testsPerGroup;
+    int testsInLastGroup;
+    final Map<Integer, Integer> typedChars = new HashMap<>();
+    int renamedLine = -1;
+
+    int lines;
+    private int offset;
+
+    OutlineBuilder(int groups, int testsPerGroup) {
+      this.groups = groups;
+      this.testsPerGroup = testsPerGroup;
+      this.testsInLastGroup = testsPerGroup;
+    }
+
+    void type(int line) {
+      typedChars.merge(line, 1, Integer::sum);
+    }
+
+    CompactFlutterOutline build() {
+      lines = 0;
+      offset = 0;
+      final JsonObject unit = startNode("COMPILATION_UNIT");
+      final JsonObject main = startNode("DART_ELEMENT");
+      main.add("dartElement", element("FUNCTION", "main"));
+      for (int group = 0; group < groups; group++) {
+        final JsonObject groupNode = startNode("DART_ELEMENT");
+        groupNode.add("dartElement", element("UNIT_TEST_GROUP", "group " + group));
+        final int tests = group == groups - 1 ? testsInLastGroup : testsPerGroup;
+        for (int test = 0; test < tests; test++) {
+          final JsonObject testNode = startNode("DART_ELEMENT");
+          testNode.add("dartElement", element("UNIT_TEST_TEST", "test " + test));
+          // A widget tree of LINES_PER_TEST - 2 lines.
+          final JsonObject app = startNode("NEW_INSTANCE", "MaterialApp");
+          final JsonObject scaffold = startNode("NEW_INSTANCE", "Scaffold");
+          final JsonObject column = startNode("NEW_INSTANCE", "Column");
+          for (int i = 0; i < 4; i++) {
+            addChild(column, endNode(startNode("NEW_INSTANCE", "Text")));
+          }
+          addChild(scaffold, endNode(column));
+          addChild(app, endNode(scaffold));
+          addChild(testNode, endNode(app));
+          nextLine();
+          addChild(groupNode, endNode(testNode));
+        }
+        nextLine();
+        addChild(main, endNode(groupNode));
+      }
+      nextLine();
+      addChild(unit, endNode(main));
+      return CompactFlutterOutline.fromJson("/project/test/widget_test.dart", endNode(unit));
+    }
+
+    private JsonObject startNode(String kind) {
+      return startNode(kind, null);
+    }
+
+    private JsonObject startNode(String kind, String className) {
+      final JsonObject node = new JsonObject();
+      node.addProperty("kind", kind);
+      node.addProperty("offset", offset);
+      node.addProperty("codeOffset", offset);
+      if (className != null) {
+        node.addProperty("className", lines == renamedLine ? className + "s" : className);
+      }
+      nextLine();
+      return node;
+    }
+
+    private JsonObject endNode(JsonObject node) {
+      final int length = offset - node.get("offset").getAsInt();
+      node.addProperty("length", length);
+      node.addProperty("codeLength", length);
+      return node;
+    }
+
+    private void nextLine() {
+      offset += LINE_LENGTH + typedChars.getOrDefault(lines, 0);
+      lines++;
+    }
+
+    private static void addChild(JsonObject parent, JsonObject child) {
+      if (!parent.has("children")) {
+        parent.add("children", new JsonArray());
+      }
+      parent.getAsJsonArray("children").add(child);
+    }
+
+    private static JsonObject element(String kind, String name) {
+      final JsonObject element = new JsonObject();
+      element.addProperty("kind", kind);
+      element.addProperty("name", name);
+      element.addProperty("flags", 0);
+      return element;
+    }
+  }
+}
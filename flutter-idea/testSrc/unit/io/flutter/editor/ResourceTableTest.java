@@ -0,0 +1,148 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import org.junit.Test;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the tables generated at build time match the properties files they were generated from.
+ */
+public class ResourceTableTest {
+  @Test
+  public void generatedTablesMatchParsedProperties() throws IOException {
+    assertEquals(ResourceTable.fromProperties(loadProperties("/flutter/colors/material.properties"), false),
+                 readTable("/flutter/colors/material.table"));
+    assertEquals(ResourceTable.fromProperties(loadProperties("/flutter/colors/cupertino.properties"), false),
+                 readTable("/flutter/colors/cupertino.table"));
+    assertEquals(ResourceTable.fromProperties(loadProperties("/flutter/icons/material.properties"), true),
+                 readTable("/flutter/icons/material.table"));
+  }
+
+  @Test
+  public void parsesPropertiesWithoutTable() {
+    final String path = "/io/flutter/editor/colors_without_table";
+    assertNull(ResourceTable.class.getResource(path + ".table"));
+
+    final ResourceTable table = ResourceTable.load(path, false);
+    assertEquals(4, table.size());
+    assertEquals("ff90caf9", toHex(table.getValue(table.indexOf("blue[200]"))));
+    assertTrue(table.indexOf("notAColor") < 0);
+    assertEquals("black", table.getPreferredName(0xff000000));
+  }
+  @Test
+  public void materialColorsMatchProperties() throws IOException {
+    checkColors("/flutter/colors/material");
+  }
+
+  @Test
+  public void cupertinoColorsMatchProperties() throws IOException {
+    checkColors("/flutter/colors/cupertino");
+  }
+
+  @Test
+  public void materialIconsMatchProperties() throws IOException {
+    final Properties properties = loadProperties("/flutter/icons/material.properties");
+    final ResourceTable table = readTable("/flutter/icons/material.table");
+    checkSorted(table);
+
+    int images = 0;
+    for (String key : properties.stringPropertyNames()) {
+      final String value = properties.getProperty(key);
+      if (key.endsWith(".codepoint")) {
+        final int codepoint = Integer.parseInt(key.substring(0, key.length() - ".codepoint".length()), 16);
+        assertEquals(key, value, table.getPreferredName(codepoint));
+        assertEquals(key, codepoint, table.getValue(table.indexOf(value)));
+      }
+      else {
+        assertTrue(key, table.indexOf(key) >= 0);
+        assertEquals(key, "material/" + key + ".png", value);
+        images++;
+      }
+    }
+    assertEquals(images, table.size());
+  }
+
+  @Test
+  public void colorLookupsMatchProperties() throws IOException {
+    final Properties properties = loadProperties("/flutter/colors/material.properties");
+    for (String key : properties.stringPropertyNames()) {
+      final FlutterColors.FlutterColor color = FlutterColors.getColor(key);
+      assertNotNull(key, color);
+      assertEquals(key, parseColor(properties.getProperty(key)), color.getAWTColor());
+    }
+    assertEquals(properties.getProperty("red.primary"), toHex(FlutterColors.getColor("red").getAWTColor()));
+    assertEquals("red", FlutterColors.getColorName(FlutterColors.getColor("red[500]").getAWTColor()));
+  }
+
+  private static void checkColors(String path) throws IOException {
+    final Properties properties = loadProperties(path + ".properties");
+    final ResourceTable table = readTable(path + ".table");
+    checkSorted(table);
+    assertEquals(properties.size(), table.size());
+
+    // Colors have always been named by the last name with their value in the properties' iteration order.
+    final Map<Integer, String> preferredNames = new HashMap<>();
+    for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+      final String key = (String)entry.getKey();
+      final int index = table.indexOf(key);
+      assertTrue(key, index >= 0);
+      assertEquals(key, entry.getValue(), toHex(table.getValue(index)));
+      preferredNames.put(table.getValue(index), key);
+    }
+    for (Map.Entry<Integer, String> entry : preferredNames.entrySet()) {
+      assertEquals(entry.getValue(), table.getPreferredName(entry.getKey()));
+    }
+  }
+
+  /**
+   * Reads a generated table, failing if the generateResourceTables Gradle task hasn't run.
+   */
+  private static ResourceTable readTable(String path) throws IOException {
+    final ResourceTable table = ResourceTable.readTable(path);
+    assertNotNull("Missing " + path + "; run the generateResourceTables Gradle task", table);
+    return table;
+  }
+
+  private static void checkSorted(ResourceTable table) {
+    assertTrue(table.size() > 0);
+    for (int i = 1; i < table.size(); i++) {
+      assertTrue(table.getName(i), table.getName(i - 1).compareTo(table.getName(i)) < 0);
+    }
+  }
+
+  private static Properties loadProperties(String path) throws IOException {
+    final Properties properties = new Properties();
+    try (InputStream stream = ResourceTableTest.class.getResourceAsStream(path)) {
+      assertNotNull(path, stream);
+      properties.load(stream);
+    }
+    return properties;
+  }
+
+  private static Color parseColor(String argb) {
+    return new Color((int)Long.parseLong(argb, 16), true);
+  }
+
+  private static String toHex(Color color) {
+    return toHex(color.getRGB());
+  }
+
+  private static String toHex(int argb) {
+    return String.format("%08x", argb);
+  }
+}
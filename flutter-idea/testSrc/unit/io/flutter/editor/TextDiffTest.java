@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.editor;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TextDiffTest {
+  @Test
+  public void sameTextHasNoEdits() {
+    assertTrue(TextDiff.compute("void main() {}\n", "void main() {}\n").isEmpty());
+    assertTrue(TextDiff.compute("", "").isEmpty());
+  }
+
+  @Test
+  public void editsOnlyChangedCharacters() {
+    final String before = """
+      import 'a.dart';
+      void main() {
+      print( 'hello' );
+        runApp(const MyApp());
+      }
+      """;
+    final String after = """
+      import 'a.dart';
+      void main() {
+        print('hello');
+        runApp(const MyApp());
+      }
+      """;
+
+    final List<TextDiff.Edit> edits = TextDiff.compute(before, after);
+
+    // The line is narrowed to the text between its common prefix and its common suffix.
+    assertEquals(List.of(new TextDiff.Edit(before.indexOf("print"), "print( 'hello' ".length(), "  print('hello'")), edits);
+    assertEquals(after, apply(before, edits));
+  }
+
+  @Test
+  public void handlesJoinedAndSplitLines() {
+    final String before = "final list = [\n  1,\n  2,\n];\nfinal map = {'a': 1, 'b': 2};";
+    final String after = "final list = [1, 2];\nfinal map = {\n  'a': 1,\n  'b': 2,\n};\n";
+
+    assertEquals(after, apply(before, TextDiff.compute(before, after)));
+    assertEquals(before, apply(after, TextDiff.compute(after, before)));
+    assertEquals("x", apply("", TextDiff.compute("", "x")));
+    assertEquals("", apply("x\n", TextDiff.compute("x\n", "")));
+  }
+
+  @Test
+  public void randomEditsRoundTrip() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      final String before = randomText(random);
+      final String after = randomText(random);
+      final List<TextDiff.Edit> edits = TextDiff.compute(before, after);
+
+      assertEquals(after, apply(before, edits));
+      for (int j = 1; j < edits.size(); j++) {
+        final TextDiff.Edit previous = edits.get(j - 1);
+        assertTrue(previous.offset() + previous.length() <= edits.get(j).offset());
+      }
+    }
+  }
+
+  @Test
+  public void diffsFormattingOfLargeFile() {
+    // A file of 1,000 lines where the formatter re-indents one line in ten.
+    final StringBuilder before = new StringBuilder();
+    final StringBuilder after = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      final String line = "final value" + i + " = compute(" + i + ", label: 'item " + i + "');\n";
+      before.append(i % 10 == 0 ? "      " : "    ").append(line);
+      after.append("    ").append(line);
+    }
+
+    final List<TextDiff.Edit> edits = TextDiff.compute(before, after);
+
+    assertEquals(100, edits.size());
+    assertEquals(after.toString(), apply(before.toString(), edits));
+  }
+
+  private static String apply(String text, List<TextDiff.Edit> edits) {
+    final StringBuilder builder = new StringBuilder(text);
+    for (int i = edits.size() - 1; i >= 0; i--) {
+      final TextDiff.Edit edit = edits.get(i);
+      builder.replace(edit.offset(), edit.offset() + edit.length(), edit.replacement());
+    }
+    return builder.toString();
+  }
+
+  private static String randomText(Random random) {
+    final String[] lines = {"a", "b", "  a", "c()", ""};
+    final StringBuilder builder = new StringBuilder();
+    final int count = random.nextInt(8);
+    for (int i = 0; i < count; i++) {
+      builder.append(lines[random.nextInt(lines.length)]);
+      if (i < count - 1 || random.nextBoolean()) {
+        builder.append('\n');
+      }
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.font;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IconAnalysisPipelineTest {
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void analyzesPackagesConcurrently() throws Exception {
+    // 6 packages of 20 files, each declaring an icon class.
+    final FakeProject project = new FakeProject(2);
+    for (int i = 0; i < 6; i++) {
+      project.addPackage("icons_" + i, 20);
+    }
+    final IconAnalysisPipeline pipeline = new IconAnalysisPipeline(project, executor, 4);
+
+    assertTrue(pipeline.start(project.packages.keySet()).get(10, TimeUnit.SECONDS));
+
+    assertEquals(project.expectedClasses(), project.foundClasses);
+    assertEquals(6, project.fontPackages.size());
+    assertTrue(project.maxRunning.get() <= 4);
+    assertTrue("Expected steps to overlap, but at most " + project.maxRunning.get() + " ran at once", project.maxRunning.get() > 1);
+    // Each package is listed, its fonts found, and its files analyzed.
+    assertEquals(6 * 22, pipeline.getCompletedCount());
+    assertEquals(1.0, pipeline.getFraction(), 0.0);
+    assertTrue(pipeline.getDurationMillis() >= 0);
+  }
+
+  @Test
+  public void analyzesEachFileOnce() throws Exception {
+    final FakeProject project = new FakeProject(0);
+    project.addPackage("icons", 5);
+    // An aggregator package that exports the icons, twice over and in a cycle.
+    project.files.put("/pub/all_icons/lib/all_icons.dart", List.of());
+    project.files.put("/pub/all_icons/lib/src/more.dart", List.of());
+    project.files.put("/pub/all_icons/lib/src/brands.dart", List.of("BrandIcons"));
+    project.exports.put("/pub/all_icons/lib/all_icons.dart",
+                        List.of("/pub/all_icons/lib/src/more.dart", "/pub/all_icons/lib/src/brands.dart"));
+    project.exports.put("/pub/all_icons/lib/src/more.dart",
+                        List.of("/pub/all_icons/lib/all_icons.dart", "/pub/all_icons/lib/src/brands.dart"));
+    project.packages.put("all_icons", List.of("/pub/all_icons/lib/all_icons.dart"));
+    final IconAnalysisPipeline pipeline = new IconAnalysisPipeline(project, executor, 3);
+
+    assertTrue(pipeline.start(List.of("icons", "all_icons", "icons")).get(10, TimeUnit.SECONDS));
+
+    assertEquals(Set.of("BrandIcons"), project.foundClasses.get("/pub/all_icons/lib/src/brands.dart"));
+    for (Map.Entry<String, AtomicInteger> entry : project.analyzeCounts.entrySet()) {
+      assertEquals(entry.getKey(), 1, entry.getValue().get());
+    }
+    assertEquals(8, project.analyzeCounts.size());
+  }
+
+  @Test
+  public void cancelDropsWaitingSteps() throws Exception {
+    final FakeProject project = new FakeProject(0);
+    for (int i = 0; i < 4; i++) {
+      project.addPackage("icons_" + i, 50);
+    }
+    final CountDownLatch firstClass = new CountDownLatch(1);
+    final CountDownLatch proceed = new CountDownLatch(1);
+    project.onClassFound = () -> {
+      firstClass.countDown();
+      await(proceed);
+    };
+    final IconAnalysisPipeline pipeline = new IconAnalysisPipeline(project, executor, 2);
+
+    pipeline.start(project.packages.keySet());
+    assertTrue(firstClass.await(10, TimeUnit.SECONDS));
+    pipeline.cancel();
+    proceed.countDown();
+
+    assertFalse(pipeline.getResult().get(10, TimeUnit.SECONDS));
+    assertTrue(pipeline.isCancelled());
+    final int analyzed = project.analyzeCounts.size();
+    assertTrue(analyzed < 200);
+    // Nothing runs once the result is in.
+    Thread.sleep(50);
+    assertEquals(analyzed, project.analyzeCounts.size());
+  }
+
+  @Test
+  public void failingStepDoesNotStopOthers() throws Exception {
+    final FakeProject project = new FakeProject(0);
+    project.addPackage("icons", 3);
+    project.files.put("/pub/icons/lib/src/broken.dart", null);
+    project.packages.get("icons").add("/pub/icons/lib/src/broken.dart");
+    final IconAnalysisPipeline pipeline = new IconAnalysisPipeline(project, executor, 2);
+
+    assertTrue(pipeline.start(List.of("icons")).get(10, TimeUnit.SECONDS));
+
+    assertEquals(project.expectedClasses(), project.foundClasses);
+  }
+
+  @Test
+  public void finishesRightAwayWithoutPackages() throws Exception {
+    final IconAnalysisPipeline pipeline = new IconAnalysisPipeline(new FakeProject(0), executor, 2);
+
+    assertTrue(pipeline.start(List.of()).get(0, TimeUnit.SECONDS));
+    assertEquals(0, pipeline.getScheduledCount());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * A project with pub packages in memory, whose steps take a little time like read actions do.
+   */
+  private static class FakeProject implements IconAnalysisPipeline.Analyzer {
+    final Map<String, List<String>> packages = new HashMap<>();
+    /**
+     * The classes in each file; null makes analyzing the file fail.
+     */
+    final Map<String, List<String>> files = new HashMap<>();
+    final Map<String, List<String>> exports = new HashMap<>();
+    final long stepMillis;
+
+    final Map<String, Set<String>> foundClasses = new ConcurrentHashMap<>();
+    final Set<String> fontPackages = ConcurrentHashMap.newKeySet();
+    final Map<String, AtomicInteger> analyzeCounts = new ConcurrentHashMap<>();
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    Runnable onClassFound = () -> {
+    };
+
+    FakeProject(long stepMillis) {
+      this.stepMillis = stepMillis;
+    }
+
+    void addPackage(String name, int fileCount) {
+      final List<String> paths = new ArrayList<>();
+      for (int i = 0; i < fileCount; i++) {
+        final String path = "/pub/" + name + "/lib/src/icons_" + i + ".dart";
+        paths.add(path);
+        files.put(path, List.of("Icons" + i));
+      }
+      packages.put(name, paths);
+    }
+
+    Map<String, Set<String>> expectedClasses() {
+      final Map<String, Set<String>> result = new HashMap<>();
+      for (Map.Entry<String, List<String>> entry : files.entrySet()) {
+        if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+          result.put(entry.getKey(), Set.copyOf(entry.getValue()));
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public @NotNull Collection<String> findFiles(@NotNull String packageName) {
+      step();
+      return packages.getOrDefault(packageName, List.of());
+    }
+
+    @Override
+    public void findFonts(@NotNull String packageName, @NotNull Collection<String> files) {
+      step();
+      fontPackages.add(packageName);
+    }
+
+    @Override
+    public @NotNull Collection<String> findClasses(@NotNull String path) {
+      analyzeCounts.computeIfAbsent(path, (key) -> new AtomicInteger()).incrementAndGet();
+      step();
+      final List<String> classes = files.get(path);
+      if (classes == null) {
+        throw new IllegalStateException("Cannot analyze " + path);
+      }
+      return classes;
+    }
+
+    @Override
+    public @NotNull Collection<String> findExports(@NotNull String path) {
+      return exports.getOrDefault(path, List.of());
+    }
+
+    @Override
+    public void classFound(@NotNull String className, @NotNull String path) {
+      foundClasses.computeIfAbsent(path, (key) -> ConcurrentHashMap.newKeySet()).add(className);
+      onClassFound.run();
+    }
+
+    private void step() {
+      final int now = running.incrementAndGet();
+      maxRunning.accumulateAndGet(now, Math::max);
+      try {
+        if (stepMillis > 0) {
+          Thread.sleep(stepMillis);
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      finally {
+        running.decrementAndGet();
+      }
+    }
+  }
+}
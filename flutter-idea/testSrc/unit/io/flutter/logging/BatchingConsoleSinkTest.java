@@ -0,0 +1,221 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.intellij.execution.ui.ConsoleViewContentType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchingConsoleSinkTest {
+  /**
+   * Long enough that output is only printed by explicit flushes.
+   */
+  private static final long MANUAL_FLUSH = TimeUnit.HOURS.toMillis(1);
+
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private final ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+  private final AtomicLong now = new AtomicLong(10_000);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Counts print calls and the lines printed; each call costs a real console an update of its document.
+   */
+  private static class CountingConsole extends ConsoleViewMock {
+    final AtomicLong printCalls = new AtomicLong();
+    final AtomicLong lines = new AtomicLong();
+
+    @Override
+    public synchronized void print(@NotNull String string, @NotNull ConsoleViewContentType type) {
+      super.print(string, type);
+      for (int i = 0; i < string.length(); i++) {
+        if (string.charAt(i) == '\n') {
+          lines.incrementAndGet();
+        }
+      }
+      printCalls.incrementAndGet();
+    }
+  }
+
+  @NotNull
+  private BatchingConsoleSink createSink(@NotNull CountingConsole console, int maxLinesPerSecond, File spillFile) {
+    return new BatchingConsoleSink(console, executor, () -> maxLinesPerSecond, () -> spillFile, now::get, MANUAL_FLUSH);
+  }
+
+  @Test
+  public void batchesOutput() {
+    final CountingConsole console = new CountingConsole();
+    final BatchingConsoleSink sink = createSink(console, 0, null);
+
+    final StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      sink.print("[log] ", ConsoleViewContentType.NORMAL_OUTPUT);
+      sink.print("line " + i + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
+      expected.append("[log] line ").append(i).append("\n");
+    }
+    assertEquals("", console.getText());
+
+    sink.flush();
+    assertEquals(expected.toString(), console.getText());
+    assertEquals(1, console.printCalls.get());
+
+    // Runs of different content types are printed separately, in order.
+    sink.print("[log] ", ConsoleViewContentType.SYSTEM_OUTPUT);
+    sink.print("error\n", ConsoleViewContentType.ERROR_OUTPUT);
+    sink.print("more\n", ConsoleViewContentType.ERROR_OUTPUT);
+    sink.flush();
+    assertEquals(3, console.printCalls.get());
+    assertThat(console.getText(), containsString("[log] error\nmore\n"));
+  }
+
+  @Test
+  public void suppressesLinesOverTheCap() {
+    final CountingConsole console = new CountingConsole();
+    final BatchingConsoleSink sink = createSink(console, 10, null);
+
+    for (int i = 0; i < 25; i++) {
+      // A line printed in parts counts once.
+      sink.print("[log] ", ConsoleViewContentType.NORMAL_OUTPUT);
+      sink.print("line " + i + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    }
+    sink.flush();
+    assertEquals(10, console.lines.get());
+    assertEquals(15, sink.getSuppressedLineCount());
+
+    now.addAndGet(1000);
+    sink.print("after\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    sink.flush();
+    assertThat(console.getText(), containsString("[log] line 9\n... 15 lines suppressed\nafter\n"));
+  }
+
+  @Test
+  public void reportsSuppressedLinesWhenOutputStopsMidWindow() throws Exception {
+    final CountingConsole console = new CountingConsole();
+    final BatchingConsoleSink sink = new BatchingConsoleSink(console, executor, () -> 2, () -> null, now::get, 10);
+
+    // Late in the window, a burst is cut short by the cap while a regular flush is already scheduled.
+    now.addAndGet(990);
+    for (int i = 0; i < 5; i++) {
+      sink.print("line " + i + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    }
+    waitFor(() -> console.lines.get() >= 2);
+
+    // No more output; the window ends and the marker is printed without another print or flush call.
+    now.addAndGet(10);
+    waitFor(() -> console.getText().contains("... 3 lines suppressed\n"));
+    assertEquals("line 0\nline 1\n... 3 lines suppressed\n", console.getText());
+  }
+
+  private static void waitFor(@NotNull BooleanSupplier condition) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      assertTrue("timed out", System.currentTimeMillis() < deadline);
+      Thread.sleep(5);
+    }
+  }
+
+  @Test
+  public void spillsSuppressedLines() throws Exception {
+    final File spillFile = tmp.newFile("spill.log");
+    final CountingConsole console = new CountingConsole();
+    final BatchingConsoleSink sink = createSink(console, 2, spillFile);
+
+    for (int i = 0; i < 5; i++) {
+      sink.print("line " + i + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    }
+    now.addAndGet(1000);
+    sink.flush();
+    sink.dispose();
+
+    assertEquals(spillFile, sink.getSpillFile());
+    assertEquals("line 2\nline 3\nline 4\n", Files.readString(spillFile.toPath(), StandardCharsets.UTF_8));
+    assertThat(console.getText(), containsString("... 3 lines suppressed (written to " + spillFile.getPath() + ")\n"));
+  }
+
+  @Test
+  public void printsDirectlyAfterDispose() {
+    final CountingConsole console = new CountingConsole();
+    final BatchingConsoleSink sink = createSink(console, 0, null);
+
+    sink.print("pending\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    sink.dispose();
+    sink.print("late\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    assertEquals("pending\nlate\n", console.getText());
+  }
+
+  @Test
+  public void floodBoundsConsoleWork() throws Exception {
+    final int maxLinesPerSecond = 2000;
+    final CountingConsole console = new CountingConsole();
+    final BatchingConsoleSink sink =
+      new BatchingConsoleSink(console, executor, () -> maxLinesPerSecond, () -> null);
+
+    // Flood the sink from several threads for a while.
+    final long floodMillis = 300;
+    final AtomicLong produced = new AtomicLong();
+    final long start = System.currentTimeMillis();
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final int thread = t;
+      threads.add(new Thread(() -> {
+        int i = 0;
+        while (System.currentTimeMillis() - start < floodMillis) {
+          sink.print("[app " + thread + "] message " + i++ + "\n", ConsoleViewContentType.NORMAL_OUTPUT);
+          produced.incrementAndGet();
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    final long elapsedMillis = System.currentTimeMillis() - start;
+    sink.dispose();
+
+    final long seconds = elapsedMillis / 1000 + 1;
+    final long flushes = elapsedMillis / BatchingConsoleSink.FLUSH_INTERVAL_MILLIS + 2;
+    assertTrue(produced.get() > maxLinesPerSecond * seconds);
+    // Each window prints at most the cap plus a suppression marker.
+    assertTrue(console.lines.get() <= (maxLinesPerSecond + 1) * seconds);
+    // Each flush prints the batched lines, possibly split by a suppression marker.
+    assertTrue(console.printCalls.get() <= 3 * flushes);
+    assertEquals(produced.get(), console.lines.get() - markerCount(console.getText()) + sink.getSuppressedLineCount());
+  }
+
+  private static int markerCount(@NotNull String text) {
+    int count = 0;
+    int index = text.indexOf(" suppressed\n");
+    while (index >= 0) {
+      count++;
+      index = text.indexOf(" suppressed\n", index + 1);
+    }
+    return count;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.flutter.utils.JsonUtils;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class DiagnosticsNodeTest {
+  /**
+   * Loads a Flutter.Error event for a RenderFlex that overflows inside a list, which includes the render tree of the
+   * flex and a long stack trace.
+   */
+  @NotNull
+  private static JsonObject loadOverflowError() {
+    final JsonObject event = JsonUtils.parseReader(
+      new InputStreamReader(DiagnosticsNodeTest.class.getResourceAsStream("/logging/overflow_error.json"))).getAsJsonObject();
+    return event.getAsJsonObject("extensionData");
+  }
+
+  @NotNull
+  private static DiagnosticsNode findProperty(@NotNull DiagnosticsNode node, @NotNull String name) {
+    for (DiagnosticsNode property : node.getInlineProperties()) {
+      if (name.equals(property.getName())) {
+        return property;
+      }
+    }
+    throw new AssertionError("no property " + name);
+  }
+
+  private static void visitAll(@NotNull DiagnosticsNode node, @NotNull List<String> strings) {
+    strings.add(node.getName());
+    strings.add(node.getDescription());
+    strings.add(node.getType());
+    for (DiagnosticsNode property : node.getInlineProperties()) {
+      visitAll(property, strings);
+    }
+    for (DiagnosticsNode child : node.getChildren().getNow(new ArrayList<>())) {
+      visitAll(child, strings);
+    }
+  }
+
+  @Test
+  public void decodesChildrenLazily() {
+    final JsonObject json = loadOverflowError();
+    final DiagnosticsNode root = new DiagnosticsNode(json, false, null);
+    final DiagnosticsNode flex = findProperty(root, "The specific RenderFlex in question is");
+    final JsonArray children = flex.getJson().getAsJsonArray("children");
+    assertSame(json.getAsJsonArray("properties").get(9), flex.getJson());
+
+    final List<DiagnosticsNode> nodes = flex.getChildren().getNow(null);
+    assertEquals(30, nodes.size());
+    assertSame(children.get(0), nodes.get(0).getJson());
+    assertSame(flex, nodes.get(0).getParent());
+    assertEquals("child 1", nodes.get(0).getName());
+    assertSame(nodes, flex.getChildren().getNow(null));
+  }
+
+  @Test
+  public void internsRepeatedStrings() {
+    final DiagnosticsNode root = new DiagnosticsNode(loadOverflowError(), false, null);
+    final List<DiagnosticsNode> children = findProperty(root, "The specific RenderFlex in question is").getChildren().getNow(null);
+    final DiagnosticsNode first = findProperty(children.get(0), "constraints");
+    final DiagnosticsNode second = findProperty(children.get(1), "constraints");
+
+    // Each value is a separate string in the parsed event.
+    assertNotSame(first.getJson().get("type").getAsString(), second.getJson().get("type").getAsString());
+    assertSame(first.getType(), second.getType());
+    assertSame(first.getName(), second.getName());
+    assertSame(first.getDescription(), second.getDescription());
+  }
+
+  @Test
+  public void readsLargeErrorWithoutChangingIt() {
+    final JsonObject json = loadOverflowError();
+    final JsonObject copy = json.deepCopy();
+    final List<String> strings = new ArrayList<>();
+    visitAll(new DiagnosticsNode(json, false, null), strings);
+
+    assertEquals(825 * 3, strings.size());
+    assertEquals(copy, json);
+  }
+
+  @Test
+  public void sharesStringsAcrossLargeError() {
+    final List<String> strings = new ArrayList<>();
+    visitAll(new DiagnosticsNode(loadOverflowError(), false, null), strings);
+    strings.removeIf(s -> s == null || s.length() > 256);
+
+    final Set<String> distinct = new HashSet<>(strings);
+    final Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+    instances.addAll(strings);
+    // Every repeated name, description and type is handed out as a single instance.
+    assertEquals(distinct.size(), instances.size());
+  }
+}
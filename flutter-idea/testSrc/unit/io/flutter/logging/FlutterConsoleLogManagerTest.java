@@ -5,6 +5,7 @@
  */
 package io.flutter.logging;
 
+import com.google.gson.JsonObject;
 import com.intellij.execution.filters.Filter;
 import com.intellij.execution.filters.HyperlinkInfo;
 import com.intellij.execution.process.ProcessHandler;
@@ -25,10 +26,14 @@ import org.junit.Test;
 
 import javax.swing.*;
 import java.io.InputStreamReader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -42,13 +47,20 @@ public class FlutterConsoleLogManagerTest {
   @Test
   public void testBasicLogging() {
     final ConsoleViewMock console = new ConsoleViewMock();
-    final FlutterConsoleLogManager logManager = new FlutterConsoleLogManager(console, createFlutterApp());
+    final FlutterApp app = createFlutterApp();
+    final FlutterConsoleLogManager logManager = new FlutterConsoleLogManager(console, app);
     final Event event = new Event(JsonUtils.parseReader(
       new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("console_log_1.json"))).getAsJsonObject());
 
     logManager.processLoggingEvent(event);
+    logManager.flushFlutterErrorQueue();
 
     assertEquals("[my.log] hello world\n", console.getText());
+
+    final SessionLogStore.Entry entry = app.getLogStore().get(0);
+    assertEquals(SessionLogStore.Source.LOGGING, entry.source());
+    assertEquals("my.log", entry.loggerName());
+    assertEquals("hello world", entry.message());
   }
 
   @Test
@@ -59,6 +71,7 @@ public class FlutterConsoleLogManagerTest {
       new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("console_log_2.json"))).getAsJsonObject());
 
     logManager.processLoggingEvent(event);
+    logManager.flushFlutterErrorQueue();
 
     assertEquals("[log] hello world\n", console.getText());
   }
@@ -71,14 +84,44 @@ public class FlutterConsoleLogManagerTest {
       new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("console_log_3.json"))).getAsJsonObject());
 
     logManager.processLoggingEvent(event);
+    logManager.flushFlutterErrorQueue();
 
     assertEquals("[log] hello world\n      my sample error\n", console.getText());
   }
 
   @Test
-  public void testFlutterError() {
+  public void testDaemonOutputStaysInOrder() {
     final ConsoleViewMock console = new ConsoleViewMock();
     final FlutterConsoleLogManager logManager = new FlutterConsoleLogManager(console, createFlutterApp());
+    final Event first = new Event(JsonUtils.parseReader(
+      new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("console_log_1.json"))).getAsJsonObject());
+    final Event second = new Event(JsonUtils.parseReader(
+      new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("console_log_2.json"))).getAsJsonObject());
+
+    // Log events are batched; daemon output is printed right away.
+    logManager.processLoggingEvent(first);
+    logManager.print("daemon log\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    logManager.processLoggingEvent(second);
+    logManager.print("daemon error\n", ConsoleViewContentType.ERROR_OUTPUT);
+    logManager.processLoggingEvent(first);
+    logManager.flushFlutterErrorQueue();
+
+    assertEquals("[my.log] hello world\ndaemon log\n[log] hello world\ndaemon error\n[my.log] hello world\n", console.getText());
+
+    // Log output from before a hot reload is cleared with the rest of the console.
+    logManager.processLoggingEvent(second);
+    logManager.clearConsole();
+    logManager.print("Performing hot reload...\n", ConsoleViewContentType.NORMAL_OUTPUT);
+    logManager.flushFlutterErrorQueue();
+
+    assertEquals("Performing hot reload...\n", console.getText());
+  }
+
+  @Test
+  public void testFlutterError() {
+    final ConsoleViewMock console = new ConsoleViewMock();
+    final FlutterApp app = createFlutterApp();
+    final FlutterConsoleLogManager logManager = new FlutterConsoleLogManager(console, app);
     final Event event = new Event(JsonUtils.parseReader(
       new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("flutter_error.json"))).getAsJsonObject());
 
@@ -90,6 +133,10 @@ public class FlutterConsoleLogManagerTest {
     logManager.flushFlutterErrorQueue();
 
     assertThat(console.getText(), containsString("== Exception caught by widgets library =="));
+
+    final SessionLogStore.Entry entry = app.getLogStore().get(0);
+    assertEquals(SessionLogStore.Source.FLUTTER_ERROR, entry.source());
+    assertThat(entry.message(), containsString("Exception caught by widgets library"));
   }
 
   @Test
@@ -112,7 +159,11 @@ public class FlutterConsoleLogManagerTest {
 
     console.clear();
 
-    logManager.handleFlutterErrorEvent(event);
+    // A different error in the same frame.
+    final JsonObject json = event.getJson().deepCopy();
+    json.getAsJsonObject("extensionData").getAsJsonArray("properties").get(1).getAsJsonObject()
+      .addProperty("description", "Another assertion failed");
+    logManager.handleFlutterErrorEvent(new Event(json));
     logManager.flushFlutterErrorQueue();
 
     // Assert that the second error has abridged text.
@@ -121,6 +172,30 @@ public class FlutterConsoleLogManagerTest {
                not(containsString("PlanetWidget.build (package:planets/main.dart:229:5)")));
   }
 
+  @Test
+  public void testRepeatedFlutterErrors() {
+    final ConsoleViewMock console = new ConsoleViewMock();
+    final FlutterConsoleLogManager logManager = new FlutterConsoleLogManager(console, createFlutterApp());
+    final Event event = new Event(JsonUtils.parseReader(
+      new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("flutter_error.json"))).getAsJsonObject());
+
+    final FlutterSettings settings = mock(FlutterSettings.class);
+    when(settings.isShowStructuredErrors()).thenReturn(true);
+    FlutterSettings.setInstance(settings);
+
+    for (int i = 0; i < 50; i++) {
+      logManager.handleFlutterErrorEvent(event);
+    }
+    logManager.getErrorAggregator().reset();
+    logManager.flushFlutterErrorQueue();
+
+    // The error is printed once, followed by a count of its repeats.
+    final String text = console.getText();
+    assertEquals(text.indexOf("== Exception caught by widgets library =="),
+                 text.lastIndexOf("== Exception caught by widgets library =="));
+    assertThat(text, containsString("... Assertion failed (repeated 49 more times)\n"));
+  }
+
   @Test
   public void testWithStacktrace() {
     final ConsoleViewMock console = new ConsoleViewMock();
@@ -129,6 +204,7 @@ public class FlutterConsoleLogManagerTest {
       new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("console_log_4.json"))).getAsJsonObject());
 
     logManager.processLoggingEvent(event);
+    logManager.flushFlutterErrorQueue();
 
     assertEquals("""
                    [log] hello world
@@ -154,12 +230,66 @@ public class FlutterConsoleLogManagerTest {
                    """, console.getText());
   }
 
+  @Test
+  public void testAppsHaveIsolatedQueues() throws Exception {
+    final FlutterSettings settings = mock(FlutterSettings.class);
+    when(settings.isShowStructuredErrors()).thenReturn(true);
+    FlutterSettings.setInstance(settings);
+
+    final Event logEvent = new Event(JsonUtils.parseReader(
+      new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("console_log_1.json"))).getAsJsonObject());
+    final Event errorEvent = new Event(JsonUtils.parseReader(
+      new InputStreamReader(FlutterConsoleLogManagerTest.class.getResourceAsStream("flutter_error.json"))).getAsJsonObject());
+
+    // An app whose log processing is stuck until released.
+    final CountDownLatch release = new CountDownLatch(1);
+    final FlutterApp chattyApp = mock(FlutterApp.class);
+    when(chattyApp.getVmService()).thenAnswer(mock -> {
+      release.await();
+      return mock(VmService.class);
+    });
+    when(chattyApp.getLogStore()).thenReturn(new SessionLogStore());
+    final ConsoleViewMock chattyConsole = new ConsoleViewMock();
+    final FlutterConsoleLogManager chattyManager = new FlutterConsoleLogManager(chattyConsole, chattyApp);
+
+    final ConsoleViewMock quietConsole = new ConsoleViewMock();
+    final FlutterConsoleLogManager quietManager = new FlutterConsoleLogManager(quietConsole, createFlutterApp());
+
+    final int flood = FlutterConsoleLogManager.MAX_QUEUED_EVENTS + 500;
+    final Thread chattyThread = new Thread(() -> {
+      for (int i = 0; i < flood; i++) {
+        chattyManager.handleLoggingEvent(logEvent);
+      }
+    });
+    chattyThread.start();
+
+    // The other app's output isn't held up by the stuck app.
+    quietManager.handleFlutterErrorEvent(errorEvent);
+    quietManager.handleLoggingEvent(logEvent);
+    CompletableFuture.runAsync(quietManager::flushFlutterErrorQueue).get(10, TimeUnit.SECONDS);
+    assertThat(quietConsole.getText(), containsString("== Exception caught by widgets library =="));
+    assertThat(quietConsole.getText(), containsString("[my.log] hello world\n"));
+    assertEquals(0, quietManager.getDroppedEventCount());
+
+    // The stuck app's queue is bounded; the overflow is dropped and summarized.
+    chattyThread.join();
+    assertEquals(FlutterConsoleLogManager.MAX_QUEUED_EVENTS, chattyManager.getMaxQueueDepth());
+    assertTrue(chattyManager.getDroppedEventCount() >= flood - FlutterConsoleLogManager.MAX_QUEUED_EVENTS - 1);
+
+    release.countDown();
+    CompletableFuture.runAsync(chattyManager::flushFlutterErrorQueue).get(10, TimeUnit.SECONDS);
+    assertEquals(0, chattyManager.getQueueDepth());
+    assertThat(chattyConsole.getText(), containsString(
+      "... " + chattyManager.getDroppedEventCount() + " log events dropped; the app is logging faster than they can be shown\n"));
+  }
+
   private FlutterApp createFlutterApp() {
     final FlutterApp app = mock(FlutterApp.class);
 
     when(app.getVmService()).thenAnswer(mock -> mock(VmService.class));
     when(app.getFlutterDebugProcess()).thenAnswer(mock -> mock(FlutterDebugProcess.class));
     when(app.getVMServiceManager()).thenAnswer(mock -> mock(VMServiceManager.class));
+    when(app.getLogStore()).thenReturn(new SessionLogStore());
 
     return app;
   }
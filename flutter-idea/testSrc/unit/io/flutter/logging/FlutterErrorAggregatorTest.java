@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlutterErrorAggregatorTest {
+  /**
+   * Long enough that repeats are only reported by explicit calls.
+   */
+  private static final long INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+  private final ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+  private final AtomicLong now = new AtomicLong(10_000);
+  private final List<String> reports = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @NotNull
+  private FlutterErrorAggregator createAggregator() {
+    return new FlutterErrorAggregator(executor, (description, count) -> reports.add(description + " x" + count), now::get, INTERVAL);
+  }
+
+  @Test
+  public void countsRepeats() {
+    final FlutterErrorAggregator aggregator = createAggregator();
+
+    assertTrue(aggregator.add("overflow", "A RenderFlex overflowed"));
+    assertFalse(aggregator.add("overflow", "A RenderFlex overflowed"));
+    assertFalse(aggregator.add("overflow", "A RenderFlex overflowed"));
+    assertTrue(aggregator.add("assertion", "Assertion failed"));
+    assertFalse(aggregator.add("overflow", "A RenderFlex overflowed"));
+    assertEquals(3, aggregator.getSuppressedCount());
+
+    // Nothing is reported until the interval has passed.
+    aggregator.reportRepeats();
+    assertEquals(List.of(), reports);
+
+    now.addAndGet(INTERVAL / 2);
+    assertFalse(aggregator.add("overflow", "A RenderFlex overflowed"));
+    now.addAndGet(INTERVAL / 2);
+    aggregator.reportRepeats();
+    assertEquals(List.of("A RenderFlex overflowed x4"), reports);
+
+    // Repeats after a report are counted from zero.
+    assertFalse(aggregator.add("overflow", "A RenderFlex overflowed"));
+    now.addAndGet(INTERVAL);
+    aggregator.reportRepeats();
+    assertEquals(List.of("A RenderFlex overflowed x4", "A RenderFlex overflowed x1"), reports);
+  }
+
+  @Test
+  public void reportsAtMostOncePerInterval() {
+    final FlutterErrorAggregator aggregator = createAggregator();
+
+    // An error on every frame for ten intervals, with reports checked on every frame.
+    final int frames = 1000;
+    int shown = 0;
+    for (int i = 0; i < frames; i++) {
+      if (aggregator.add("overflow", "A RenderFlex overflowed")) {
+        shown++;
+      }
+      aggregator.reportRepeats();
+      now.addAndGet(INTERVAL / 100);
+    }
+    aggregator.reset();
+
+    assertEquals(1, shown);
+    assertTrue(reports.size() <= 11);
+    int reported = 0;
+    for (String report : reports) {
+      reported += Integer.parseInt(report.substring(report.lastIndexOf('x') + 1));
+    }
+    assertEquals(frames - 1, reported);
+  }
+
+  @Test
+  public void showsErrorAgainAfterResetOrQuietPeriod() {
+    final FlutterErrorAggregator aggregator = createAggregator();
+
+    assertTrue(aggregator.add("overflow", "A RenderFlex overflowed"));
+    assertFalse(aggregator.add("overflow", "A RenderFlex overflowed"));
+
+    // A reload reports outstanding repeats, and the error is shown in full again.
+    aggregator.reset();
+    assertEquals(List.of("A RenderFlex overflowed x1"), reports);
+    assertTrue(aggregator.add("overflow", "A RenderFlex overflowed"));
+
+    // As it is once it has gone quiet for an interval.
+    now.addAndGet(INTERVAL);
+    assertTrue(aggregator.add("overflow", "A RenderFlex overflowed"));
+  }
+
+  @Test
+  public void reportsRepeatsOnSchedule() throws Exception {
+    final CountDownLatch reported = new CountDownLatch(1);
+    final List<Integer> counts = new ArrayList<>();
+    final FlutterErrorAggregator aggregator = new FlutterErrorAggregator(executor, (description, count) -> {
+      counts.add(count);
+      reported.countDown();
+    }, System::currentTimeMillis, 50);
+
+    assertTrue(aggregator.add("overflow", "A RenderFlex overflowed"));
+    for (int i = 0; i < 5; i++) {
+      assertFalse(aggregator.add("overflow", "A RenderFlex overflowed"));
+    }
+
+    assertTrue(reported.await(10, TimeUnit.SECONDS));
+    assertEquals(List.of(5), counts);
+  }
+}
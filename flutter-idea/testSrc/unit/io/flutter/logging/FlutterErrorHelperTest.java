@@ -5,9 +5,19 @@
  */
 package io.flutter.logging;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.flutter.utils.JsonUtils;
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
+import java.io.InputStreamReader;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 public class FlutterErrorHelperTest {
   @Test
@@ -118,4 +128,61 @@ public class FlutterErrorHelperTest {
                                                 return 1 == 2;
                                               }()': is not true."""));
   }
+
+  @Test
+  public void testGetFingerprint() {
+    final JsonObject error = loadFlutterError();
+    final String fingerprint = FlutterErrorHelper.getFingerprint(new DiagnosticsNode(error.deepCopy(), false, null));
+    assertEquals("Exception caught by widgets library\n" +
+                 "Assertion failed\n" +
+                 "file:///Users/devoncarew/projects/devoncarew/planets/lib/main.dart:116:22", fingerprint);
+
+    // Numbers in the summary don't matter.
+    setSummary(error, "A RenderFlex overflowed by 1183 pixels on the right.");
+    final String overflow = FlutterErrorHelper.getFingerprint(new DiagnosticsNode(error.deepCopy(), false, null));
+    setSummary(error, "A RenderFlex overflowed by 22.3 pixels on the right.");
+    assertEquals(overflow, FlutterErrorHelper.getFingerprint(new DiagnosticsNode(error.deepCopy(), false, null)));
+
+    // The error-causing widget's location does.
+    setWidgetLocation(error, "PlanetWidget file:///Users/devoncarew/projects/devoncarew/planets/lib/main.dart:120:10");
+    assertNotEquals(overflow, FlutterErrorHelper.getFingerprint(new DiagnosticsNode(error.deepCopy(), false, null)));
+  }
+
+  @Test
+  public void testGetFingerprint_stackFrameLocation() {
+    final JsonObject error = loadFlutterError();
+    final JsonArray properties = error.getAsJsonArray("properties");
+    for (int i = properties.size() - 1; i >= 0; i--) {
+      if ("DiagnosticsBlock".equals(properties.get(i).getAsJsonObject().get("type").getAsString())) {
+        properties.remove(i);
+      }
+    }
+
+    // Without an error-causing widget, the top stack frame is used.
+    assertThat(FlutterErrorHelper.getFingerprint(new DiagnosticsNode(error, false, null)),
+               endsWith("\npackage:planets/main.dart:229:5"));
+  }
+
+  @NotNull
+  private static JsonObject loadFlutterError() {
+    final JsonObject event = JsonUtils.parseReader(
+      new InputStreamReader(FlutterErrorHelperTest.class.getResourceAsStream("flutter_error.json"))).getAsJsonObject();
+    return event.getAsJsonObject("extensionData");
+  }
+
+  private static void setSummary(@NotNull JsonObject error, @NotNull String summary) {
+    for (JsonElement property : error.getAsJsonArray("properties")) {
+      if ("ErrorSummary".equals(property.getAsJsonObject().get("type").getAsString())) {
+        property.getAsJsonObject().addProperty("description", summary);
+      }
+    }
+  }
+
+  private static void setWidgetLocation(@NotNull JsonObject error, @NotNull String description) {
+    for (JsonElement property : error.getAsJsonArray("properties")) {
+      if ("DiagnosticsBlock".equals(property.getAsJsonObject().get("type").getAsString())) {
+        property.getAsJsonObject().getAsJsonArray("children").get(0).getAsJsonObject().addProperty("description", description);
+      }
+    }
+  }
 }
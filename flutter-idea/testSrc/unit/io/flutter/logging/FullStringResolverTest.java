@@ -0,0 +1,192 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import com.google.gson.JsonObject;
+import org.dartlang.vm.service.VmService;
+import org.dartlang.vm.service.consumer.GetObjectConsumer;
+import org.dartlang.vm.service.element.Instance;
+import org.dartlang.vm.service.element.InstanceRef;
+import org.dartlang.vm.service.element.RPCError;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FullStringResolverTest {
+  private static final String ISOLATE_ID = "isolates/1";
+
+  /**
+   * A VM service whose getObject requests are answered by the test.
+   */
+  private static class PendingRequests {
+    final VmService service = mock(VmService.class);
+    final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+
+    PendingRequests() {
+      doAnswer(invocation -> {
+        requests.add(new Request(invocation.getArgument(1), invocation.getArgument(4)));
+        return null;
+      }).when(service).getObject(anyString(), anyString(), anyInt(), anyInt(), any(GetObjectConsumer.class));
+    }
+
+    @NotNull
+    Request next() throws InterruptedException {
+      final Request request = requests.poll(10, TimeUnit.SECONDS);
+      assertNotNull("expected a getObject request", request);
+      return request;
+    }
+  }
+
+  private record Request(@NotNull String objectId, @NotNull GetObjectConsumer consumer) {
+    void reply(@NotNull String value) {
+      final JsonObject json = new JsonObject();
+      json.addProperty("type", "Instance");
+      json.addProperty("kind", "String");
+      json.addProperty("id", objectId);
+      json.addProperty("valueAsString", value);
+      consumer.received(new Instance(json));
+    }
+  }
+
+  @NotNull
+  private static InstanceRef stringRef(@NotNull String id, @NotNull String value, boolean truncated) {
+    return stringRef(id, value, truncated, 10_000);
+  }
+
+  @NotNull
+  private static InstanceRef stringRef(@NotNull String id, @NotNull String value, boolean truncated, int length) {
+    final JsonObject json = new JsonObject();
+    json.addProperty("type", "@Instance");
+    json.addProperty("kind", "String");
+    json.addProperty("id", id);
+    json.addProperty("length", length);
+    json.addProperty("valueAsString", value);
+    json.addProperty("valueAsStringIsTruncated", truncated);
+    return new InstanceRef(json);
+  }
+
+  @Test
+  public void fetchesTruncatedStringsConcurrently() throws Exception {
+    final PendingRequests vm = new PendingRequests();
+    final FullStringResolver resolver = new FullStringResolver();
+    final List<InstanceRef> refs = Arrays.asList(
+      stringRef("objects/1", "first...", true),
+      stringRef("objects/2", "complete", false),
+      stringRef("objects/3", "second...", true),
+      null);
+
+    final CompletableFuture<List<String>> result =
+      CompletableFuture.supplyAsync(() -> resolver.resolve(vm.service, ISOLATE_ID, refs));
+
+    // Both requests are made before either is answered.
+    final Request first = vm.next();
+    final Request second = vm.next();
+    second.reply("second in full");
+    first.reply("first in full");
+
+    assertEquals(Arrays.asList("first in full", "complete", "second in full", null), result.get(10, TimeUnit.SECONDS));
+    assertEquals(2, resolver.getRpcCount());
+  }
+
+  @Test
+  public void deduplicatesAndCachesByObjectId() throws Exception {
+    final PendingRequests vm = new PendingRequests();
+    final FullStringResolver resolver = new FullStringResolver();
+    final InstanceRef ref = stringRef("objects/1", "message...", true);
+
+    final CompletableFuture<List<String>> result =
+      CompletableFuture.supplyAsync(() -> resolver.resolve(vm.service, ISOLATE_ID, Arrays.asList(ref, ref)));
+    vm.next().reply("message in full");
+    assertEquals(Arrays.asList("message in full", "message in full"), result.get(10, TimeUnit.SECONDS));
+
+    // Later events reuse the value without another call.
+    assertEquals(Collections.singletonList("message in full"),
+                 resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(ref)));
+    assertEquals(1, resolver.getRpcCount());
+    assertEquals(1, resolver.getCacheHitCount());
+    verify(vm.service, times(1)).getObject(eq(ISOLATE_ID), eq("objects/1"), anyInt(), anyInt(), any(GetObjectConsumer.class));
+
+    // Once the app is reloaded or restarted, the id could mean something else.
+    resolver.clear();
+    final CompletableFuture<List<String>> afterRestart =
+      CompletableFuture.supplyAsync(() -> resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(ref)));
+    vm.next().reply("another message");
+    assertEquals(Collections.singletonList("another message"), afterRestart.get(10, TimeUnit.SECONDS));
+    assertEquals(2, resolver.getRpcCount());
+  }
+
+  @Test
+  public void reusedIdsOfOtherStringsAreFetchedAgain() throws Exception {
+    final PendingRequests vm = new PendingRequests();
+    final FullStringResolver resolver = new FullStringResolver();
+
+    final CompletableFuture<List<String>> result = CompletableFuture.supplyAsync(
+      () -> resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(stringRef("objects/1", "first", true))));
+    vm.next().reply("first in full");
+    assertEquals(Collections.singletonList("first in full"), result.get(10, TimeUnit.SECONDS));
+
+    // The same id, now for a different string.
+    final CompletableFuture<List<String>> reused = CompletableFuture.supplyAsync(
+      () -> resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(stringRef("objects/1", "second", true))));
+    vm.next().reply("second in full");
+    assertEquals(Collections.singletonList("second in full"), reused.get(10, TimeUnit.SECONDS));
+
+    final CompletableFuture<List<String>> otherLength = CompletableFuture.supplyAsync(
+      () -> resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(stringRef("objects/1", "second", true, 20_000))));
+    vm.next().reply("second, and longer");
+    assertEquals(Collections.singletonList("second, and longer"), otherLength.get(10, TimeUnit.SECONDS));
+    assertEquals(3, resolver.getRpcCount());
+    assertEquals(0, resolver.getCacheHitCount());
+  }
+
+  @Test
+  public void fallsBackToTruncatedValue() throws Exception {
+    final PendingRequests vm = new PendingRequests();
+    final FullStringResolver resolver = new FullStringResolver();
+    final InstanceRef ref = stringRef("objects/1", "message", true);
+
+    final CompletableFuture<List<String>> result =
+      CompletableFuture.supplyAsync(() -> resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(ref)));
+    vm.next().consumer().onError(new RPCError(new JsonObject()));
+    assertEquals(Collections.singletonList("message..."), result.get(10, TimeUnit.SECONDS));
+
+    // Failures aren't cached.
+    final CompletableFuture<List<String>> retry =
+      CompletableFuture.supplyAsync(() -> resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(ref)));
+    vm.next().reply("message in full");
+    assertEquals(Collections.singletonList("message in full"), retry.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void untruncatedStringsNeedNoCalls() {
+    final PendingRequests vm = new PendingRequests();
+    final FullStringResolver resolver = new FullStringResolver();
+
+    assertEquals(Collections.singletonList("hello world"),
+                 resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(stringRef("objects/1", "hello world", false))));
+    assertNull(resolver.resolve(vm.service, ISOLATE_ID, Collections.singletonList(null)).get(0));
+    assertEquals(0, resolver.getRpcCount());
+  }
+}
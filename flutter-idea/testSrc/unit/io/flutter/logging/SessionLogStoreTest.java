@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.logging;
+
+import io.flutter.logging.SessionLogStore.Entry;
+import io.flutter.logging.SessionLogStore.Source;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.List;
+
+import static io.flutter.logging.SessionLogStore.LEVEL_INFO;
+import static io.flutter.logging.SessionLogStore.LEVEL_SEVERE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SessionLogStoreTest {
+  private static final int LEVEL_FINE = 500;
+  private static final int LEVEL_WARNING = 900;
+
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void storesEntries() {
+    final SessionLogStore store = new SessionLogStore(SessionLogStore.DEFAULT_MEMORY_THRESHOLD, () -> null);
+    store.add(1000, Source.APP_LOG, LEVEL_INFO, null, null, "flutter: hello");
+    store.add(2000, Source.LOGGING, LEVEL_WARNING, "my.log", "isolates/1", "low on ünicode");
+    store.add(3000, Source.FLUTTER_ERROR, LEVEL_SEVERE, null, "isolates/1", "Exception caught by widgets library");
+
+    assertEquals(3, store.size());
+    assertEquals(new Entry(1000, Source.APP_LOG, LEVEL_INFO, null, null, "flutter: hello"), store.get(0));
+    assertEquals(new Entry(2000, Source.LOGGING, LEVEL_WARNING, "my.log", "isolates/1", "low on ünicode"), store.get(1));
+    assertEquals(Source.FLUTTER_ERROR, store.get(2).source());
+  }
+
+  @Test
+  public void filtersByLevelAndLogger() {
+    final SessionLogStore store = new SessionLogStore(SessionLogStore.DEFAULT_MEMORY_THRESHOLD, () -> null);
+    store.add(0, Source.LOGGING, LEVEL_FINE, "net", null, "request");
+    store.add(1, Source.LOGGING, LEVEL_SEVERE, "net", null, "timeout");
+    store.add(2, Source.APP_LOG, LEVEL_INFO, null, null, "flutter: tick");
+    store.add(3, Source.LOGGING, LEVEL_WARNING, "db", null, "slow query");
+    store.add(4, Source.LOGGING, LEVEL_SEVERE, "net", null, "refused");
+
+    assertEquals(IntArrayList.of(1, 2, 3, 4), store.find(LEVEL_INFO, null));
+    assertEquals(IntArrayList.of(1, 4), store.find(LEVEL_WARNING, "net"));
+    assertEquals(IntArrayList.of(0, 1, 4), store.find(0, "net"));
+    assertEquals(new IntArrayList(), store.find(0, "unknown"));
+
+    final List<Entry> latest = store.query(LEVEL_INFO, null, null, 2);
+    assertEquals("slow query", latest.get(0).message());
+    assertEquals("refused", latest.get(1).message());
+
+    final List<Entry> matching = store.query(0, "net", "re", 10);
+    assertEquals(2, matching.size());
+    assertEquals("request", matching.get(0).message());
+    assertEquals("refused", matching.get(1).message());
+  }
+
+  @Test
+  public void spillsToDisk() throws Exception {
+    final File spillFile = tmp.newFile("session.log");
+    final SessionLogStore store = new SessionLogStore(1024, () -> spillFile);
+    for (int i = 0; i < 1000; i++) {
+      store.add(i, Source.APP_LOG, i % 10 == 0 ? LEVEL_SEVERE : LEVEL_INFO, null, null, "line " + i);
+    }
+
+    assertTrue(store.getSpilledBytes() > 0);
+    assertEquals(store.getSpilledBytes(), spillFile.length());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("line " + i, store.get(i).message());
+    }
+    assertEquals(100, store.query(LEVEL_SEVERE, null, null, 1000).size());
+    assertEquals("line 990", store.query(LEVEL_SEVERE, null, "line 9", 1).get(0).message());
+
+    store.dispose();
+    assertFalse(spillFile.exists());
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void ignoresEntriesAfterDispose() throws Exception {
+    final File spillFile = tmp.newFile("session.log");
+    final SessionLogStore store = new SessionLogStore(16, () -> spillFile);
+    store.add(0, Source.LOGGING, LEVEL_INFO, "net", null, "request");
+    store.add(1, Source.LOGGING, LEVEL_INFO, "db", null, "query");
+    assertEquals(List.of("db", "net"), store.getLoggerNames());
+
+    store.dispose();
+    assertFalse(spillFile.exists());
+
+    // A log event that arrives after the app is disposed doesn't write the file again.
+    assertEquals(-1, store.add(2, Source.LOGGING, LEVEL_INFO, "net", null, "late"));
+    assertEquals(0, store.size());
+    assertEquals(List.of(), store.getLoggerNames());
+    assertFalse(spillFile.exists());
+  }
+
+  @Test
+  public void queriesSpilledEntries() throws Exception {
+    final File spillFile = tmp.newFile("session.log");
+    final SessionLogStore store = new SessionLogStore(64 * 1024, () -> spillFile);
+    final String[] loggers = {"app", "net", "db", "ui", null};
+    final int[] levels = {LEVEL_FINE, LEVEL_INFO, LEVEL_INFO, LEVEL_INFO, LEVEL_WARNING};
+    final int count = 20_000;
+
+    for (int i = 0; i < count; i++) {
+      final int level = i % 997 == 0 ? LEVEL_SEVERE : levels[i % levels.length];
+      store.add(i, Source.LOGGING, level, loggers[i % 7 % loggers.length], "isolates/1", "message number " + i);
+    }
+    assertTrue(store.getSpilledBytes() > 0);
+
+    final IntArrayList severe = store.find(LEVEL_SEVERE, null);
+    assertEquals(count / 997 + 1, severe.size());
+
+    final List<Entry> latestNet = store.query(LEVEL_WARNING, "net", null, 100);
+    assertEquals(100, latestNet.size());
+    assertEquals("net", latestNet.get(99).loggerName());
+
+    final List<Entry> oldestSevere = store.query(LEVEL_SEVERE, null, "message number 0", 1);
+    assertEquals("message number 0", oldestSevere.get(0).message());
+
+    final List<Entry> scan = store.query(0, null, "message number 1234", 1000);
+    assertEquals(11, scan.size());
+  }
+}
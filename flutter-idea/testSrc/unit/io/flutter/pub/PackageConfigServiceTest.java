@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.pub;
+
+import com.intellij.openapi.util.Disposer;
+import io.flutter.testing.ProjectFixture;
+import io.flutter.testing.TestDir;
+import io.flutter.testing.Testing;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PackageConfigServiceTest {
+  @Rule
+  public final ProjectFixture fixture = Testing.makeEmptyModule();
+
+  @Rule
+  public final TestDir tmp = new TestDir();
+
+  private PackageConfigService service;
+  private final BlockingQueue<String> changes = new LinkedBlockingQueue<>();
+
+  @Before
+  public void setUp() {
+    service = new PackageConfigService();
+    service.addListener(changes::add, service);
+  }
+
+  @After
+  public void tearDown() {
+    Disposer.dispose(service);
+  }
+
+  private static String config(String packageName) {
+    return "{\"configVersion\": 2, \"packages\": [{\"name\": \"" + packageName + "\", \"rootUri\": \"../\", \"packageUri\": \"lib/\"}]}";
+  }
+
+  private PubRoot createPubRoot() throws Exception {
+    tmp.writeFile("app/pubspec.yaml", "name: app\n");
+    tmp.writeFile("app/.dart_tool/package_config.json", config("first"));
+    final PubRoot root = PubRoot.forDirectory(tmp.ensureDir("app"));
+    assertNotNull(root);
+    return root;
+  }
+
+  @Test
+  public void parsesEachConfigOnce() throws Exception {
+    final PubRoot root = createPubRoot();
+
+    final PackageConfig config = service.getPackageConfig(root);
+    assertNotNull(config);
+    assertEquals(root.getRoot().getPath(), config.getPackage("first").rootPath());
+
+    // Later lookups return the parsed config while the file is unchanged.
+    assertSame(config, service.getPackageConfig(root));
+    assertSame(config.getPackage("first"), service.findPackage(List.of(root), "first"));
+    assertEquals(1, service.getParseCount());
+  }
+
+  @Test
+  public void rereadsChangedConfig() throws Exception {
+    final PubRoot root = createPubRoot();
+    final PackageConfig before = service.getPackageConfig(root);
+    assertNotNull(before);
+
+    tmp.writeFile("app/.dart_tool/package_config.json", config("second"));
+
+    final PackageConfig after = service.getPackageConfig(root);
+    assertNotNull(after);
+    assertNotSame(before, after);
+    assertNull(after.getPackage("first"));
+    assertNotNull(after.getPackage("second"));
+    assertSame(after, service.getPackageConfig(root));
+    assertEquals(root.getPackageConfigFile().getPath(), changes.poll(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void reportsOnlyChangedContent() throws Exception {
+    final PubRoot root = createPubRoot();
+    assertNotNull(service.getPackageConfig(root));
+
+    // pub get rewrites the file with the same packages.
+    tmp.writeFile("app/.dart_tool/package_config.json", config("first"));
+    assertNotNull(service.getPackageConfig(root));
+    tmp.writeFile("app/.dart_tool/package_config.json", config("second"));
+
+    assertEquals(root.getPackageConfigFile().getPath(), changes.poll(10, TimeUnit.SECONDS));
+    assertNull(changes.poll(200, TimeUnit.MILLISECONDS));
+    assertNotNull(service.getPackageConfig(root).getPackage("second"));
+  }
+
+  @Test
+  public void forgetsDeletedConfig() throws Exception {
+    final PubRoot root = createPubRoot();
+    assertNotNull(service.getPackageConfig(root));
+
+    tmp.deleteFile("app/.dart_tool/package_config.json");
+
+    assertNull(service.getPackageConfig(root));
+    assertNull(service.findPackage(List.of(root), "first"));
+    assertNotNull(changes.poll(10, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.pub;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+public class PackageConfigTest {
+  private static final String CONFIG = """
+    {
+      "configVersion": 2,
+      "packages": [
+        {
+          "name": "cupertino_icons",
+          "rootUri": "file:///home/me/.pub-cache/hosted/pub.dev/cupertino_icons-1.0.8",
+          "packageUri": "lib/",
+          "languageVersion": "3.1"
+        },
+        {
+          "name": "flutter",
+          "rootUri": "file:///home/me/flutter/packages/flutter/",
+          "packageUri": "lib/"
+        },
+        {
+          "name": "sky_engine",
+          "rootUri": "file:///home/me/flutter/bin/cache/pkg/sky_engine",
+          "packageUri": "lib/"
+        },
+        {
+          "name": "my_app",
+          "rootUri": "../",
+          "packageUri": "lib/"
+        },
+        {
+          "name": "no_lib",
+          "rootUri": "../tools/no%20lib"
+        },
+        {
+          "name": "remote",
+          "rootUri": "https://example.com/remote/"
+        }
+      ],
+      "generator": "pub"
+    }
+    """;
+
+  @Test
+  public void resolvesPackagePaths() {
+    final PackageConfig config = PackageConfig.parse(CONFIG, "/home/me/my_app/.dart_tool");
+    assert config != null;
+
+    assertEquals(new PackageConfig.Package("flutter", "/home/me/flutter/packages/flutter", "/home/me/flutter/packages/flutter/lib"),
+                 config.getPackage("flutter"));
+    assertEquals("/home/me/.pub-cache/hosted/pub.dev/cupertino_icons-1.0.8", config.getPackage("cupertino_icons").rootPath());
+    assertEquals(new PackageConfig.Package("my_app", "/home/me/my_app", "/home/me/my_app/lib"), config.getPackage("my_app"));
+    assertEquals(new PackageConfig.Package("no_lib", "/home/me/my_app/tools/no lib", null), config.getPackage("no_lib"));
+    assertNull(config.getPackage("remote"));
+    assertEquals(5, config.getPackages().size());
+
+    assertEquals(List.of("cupertino_icons", "flutter", "sky_engine", "my_app"), List.copyOf(config.getLibPaths().keySet()));
+    assertEquals("/home/me/flutter/bin/cache/pkg/sky_engine/lib", config.getLibPaths().get("sky_engine"));
+  }
+
+  @Test
+  public void resolvesWindowsPaths() {
+    final PackageConfig config = PackageConfig.parse(CONFIG.replace("file:///home/me/flutter/", "file:///C:/flutter/"),
+                                                     "C:\\src\\my_app\\.dart_tool");
+    assert config != null;
+
+    assertEquals("C:/flutter/packages/flutter", config.getPackage("flutter").rootPath());
+    assertEquals("C:/src/my_app/lib", config.getLibPaths().get("my_app"));
+  }
+
+  @Test
+  public void comparesByContent() {
+    final PackageConfig config = PackageConfig.parse(CONFIG, "/home/me/my_app/.dart_tool");
+
+    // A rewrite that only changes formatting and generator metadata is the same config.
+    assertEquals(config, PackageConfig.parse(CONFIG.replace("\"pub\"", "\"pub 3.8\"").replace("\n", "\n  "),
+                                             "/home/me/my_app/.dart_tool"));
+    assertNotEquals(config, PackageConfig.parse(CONFIG.replace("cupertino_icons-1.0.8", "cupertino_icons-1.0.9"),
+                                                "/home/me/my_app/.dart_tool"));
+  }
+
+  @Test
+  public void rejectsInvalidConfigs() {
+    assertNull(PackageConfig.parse("", "/app/.dart_tool"));
+    assertNull(PackageConfig.parse("{ not json", "/app/.dart_tool"));
+    assertNull(PackageConfig.parse("[]", "/app/.dart_tool"));
+    assertNull(PackageConfig.parse("{\"configVersion\": 1, \"packages\": []}", "/app/.dart_tool"));
+    assertNull(PackageConfig.parse("{\"configVersion\": 2}", "/app/.dart_tool"));
+  }
+}
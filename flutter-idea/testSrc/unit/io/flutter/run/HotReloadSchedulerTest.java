@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HotReloadSchedulerTest {
+  private ScheduledExecutorService executor;
+  private final List<String> reloads = new CopyOnWriteArrayList<>();
+  private final List<CompletableFuture<Void>> inFlight = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private HotReloadScheduler<String> createScheduler(long debounceMillis) {
+    return new HotReloadScheduler<>(executor, (context, requestedAt) -> {
+      reloads.add(context);
+      final CompletableFuture<Void> future = new CompletableFuture<>();
+      inFlight.add(future);
+      return future;
+    }, () -> debounceMillis);
+  }
+
+  private void drain() throws Exception {
+    // Flush anything already queued on the (single threaded) executor.
+    executor.submit(() -> null).get(1, TimeUnit.SECONDS);
+  }
+
+  private void awaitReloads(int count) throws Exception {
+    final long deadline = System.currentTimeMillis() + 2000;
+    while (reloads.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    drain();
+    assertEquals(count, reloads.size());
+  }
+
+  @Test
+  public void savesDuringReloadAreMergedIntoOneFollowUp() throws Exception {
+    final HotReloadScheduler<String> scheduler = createScheduler(0);
+
+    scheduler.requestReload("a");
+    awaitReloads(1);
+
+    scheduler.requestReload("b");
+    scheduler.requestReload("c");
+    scheduler.requestReload("d");
+    drain();
+    assertEquals(1, reloads.size());
+
+    inFlight.get(0).complete(null);
+    awaitReloads(2);
+    assertEquals("d", reloads.get(1));
+
+    inFlight.get(1).complete(null);
+    drain();
+    assertEquals(2, reloads.size());
+    assertFalse(scheduler.isBusy());
+
+    final HotReloadScheduler.Stats stats = scheduler.getStats();
+    assertEquals(4, stats.requestCount);
+    assertEquals(2, stats.reloadCount);
+  }
+
+  @Test
+  public void rapidSavesAreDebounced() throws Exception {
+    final HotReloadScheduler<String> scheduler = createScheduler(200);
+
+    scheduler.requestReload("a");
+    scheduler.requestReload("b");
+    scheduler.requestReload("c");
+    assertTrue(scheduler.isBusy());
+
+    awaitReloads(1);
+    assertEquals("c", reloads.get(0));
+    assertTrue(scheduler.getStats().lastQueueWaitMillis >= 200);
+  }
+
+  @Test
+  public void failedReloadStillRunsFollowUp() throws Exception {
+    final HotReloadScheduler<String> scheduler = createScheduler(0);
+
+    scheduler.requestReload("a");
+    awaitReloads(1);
+    scheduler.requestReload("b");
+
+    inFlight.get(0).completeExceptionally(new IllegalStateException("reload failed"));
+    awaitReloads(2);
+    assertEquals("b", reloads.get(1));
+  }
+
+  @Test
+  public void disposeDropsPendingRequests() throws Exception {
+    final HotReloadScheduler<String> scheduler = createScheduler(100);
+
+    scheduler.requestReload("a");
+    scheduler.dispose();
+    Thread.sleep(200);
+    drain();
+
+    assertEquals(0, reloads.size());
+    assertFalse(scheduler.isBusy());
+  }
+}
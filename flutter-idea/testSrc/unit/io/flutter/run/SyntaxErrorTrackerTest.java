@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import io.flutter.ide.FlutterCodeInsightFixtureTestCase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SyntaxErrorTrackerTest extends FlutterCodeInsightFixtureTestCase {
+  private static final int FILE_COUNT = 10;
+  private static final int LINES_PER_FILE = 500;
+
+  private static String createSource(int lines) {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("class Sample {\n");
+    for (int i = 0; i < lines - 2; i++) {
+      builder.append("  int field").append(i).append(" = ").append(i).append(";\n");
+    }
+    builder.append("}\n");
+    return builder.toString();
+  }
+
+  private void insert(@NotNull PsiFile file, int offset, String text) {
+    final PsiDocumentManager documentManager = PsiDocumentManager.getInstance(getProject());
+    final Document document = documentManager.getDocument(file);
+    assertNotNull(document);
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+      document.insertString(offset, text);
+      documentManager.commitDocument(document);
+    });
+  }
+
+  @Test
+  public void testTracksErrorsIncrementally() {
+    final PsiFile file = myFixture.addFileToProject("lib/main.dart", createSource(100));
+    final SyntaxErrorTracker tracker = SyntaxErrorTracker.getInstance(getProject());
+
+    assertFalse(ReadAction.compute(() -> tracker.hasSyntaxErrors(file)));
+
+    // Break a field declaration in the middle of the class.
+    final int offset = file.getText().indexOf("int field50");
+    insert(file, offset, "int int ");
+    assertTrue(ReadAction.compute(() -> tracker.hasSyntaxErrors(file)));
+
+    final String text = file.getText();
+    final int errorOffset = text.indexOf("int int ");
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+      final Document document = PsiDocumentManager.getInstance(getProject()).getDocument(file);
+      assertNotNull(document);
+      document.deleteString(errorOffset, errorOffset + "int ".length());
+      PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+    });
+    assertFalse(ReadAction.compute(() -> tracker.hasSyntaxErrors(file)));
+  }
+
+  @Test
+  public void testRescansOnlyChangedSubtree() {
+    final String source = createSource(LINES_PER_FILE);
+    final List<PsiFile> files = new ArrayList<>();
+    for (int i = 0; i < FILE_COUNT; i++) {
+      files.add(myFixture.addFileToProject("lib/file" + i + ".dart", source));
+    }
+    final SyntaxErrorTracker tracker = SyntaxErrorTracker.getInstance(getProject());
+
+    // The first query builds the per-file state.
+    ReadAction.run(() -> {
+      for (PsiFile file : files) {
+        assertFalse(tracker.hasSyntaxErrors(file));
+      }
+    });
+
+    // An edit to one file only rescans the changed subtree of that file.
+    final PsiFile edited = files.get(FILE_COUNT / 2);
+    insert(edited, edited.getText().indexOf("int field250"), "int int ");
+    final int[] before = tracker.getScanCounts();
+
+    final int[] errorCount = new int[1];
+    ReadAction.run(() -> {
+      for (PsiFile file : files) {
+        if (tracker.hasSyntaxErrors(file)) {
+          errorCount[0]++;
+        }
+      }
+    });
+    final int[] after = tracker.getScanCounts();
+
+    assertEquals(1, errorCount[0]);
+    assertEquals(0, after[0] - before[0]);
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run.common;
+
+import io.flutter.run.common.TestDeclarationScanner.TestDeclaration;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestDeclarationScannerTest {
+  @Test
+  public void findsTestsInSampleFile() throws IOException {
+    final String source = Files.readString(Paths.get("testData/sample_tests/test/custom_test.dart"), StandardCharsets.UTF_8);
+
+    final List<TestDeclaration> declarations = TestDeclarationScanner.scan(source);
+
+    // The custom test functions need the outline, and the testWidgets declaration and its call of test aren't tests.
+    assertEquals(List.of(List.of("group 0"),
+                         List.of("group 0", "test 0"),
+                         List.of("group 0", "test widgets 0"),
+                         List.of("test 1")),
+                 declarations.stream().map(TestDeclaration::names).toList());
+    assertEquals(List.of(TestType.GROUP, TestType.SINGLE, TestType.SINGLE, TestType.SINGLE),
+                 declarations.stream().map(TestDeclaration::type).toList());
+    assertEquals(source.indexOf("group('group 0'"), declarations.get(0).offset());
+    assertEquals(source.indexOf("testWidgets('test widgets 0'"), declarations.get(2).offset());
+    assertEquals("group 0 test widgets 0", declarations.get(2).getFullName());
+    assertFalse(declarations.get(3).parameterized());
+  }
+
+  @Test
+  public void findsParameterizedNames() {
+    final String source = """
+      void main() {
+        for (final value in [1, 2]) {
+          group('with $value', () {
+            test('adds ${value + 1}', () {});
+            test(describe(value, ')'), () {});
+          });
+        }
+        test('plain' ' concatenated', () {});
+        test('''multiline''', () {});
+        test(r'raw $value', () {});
+      }
+      """;
+
+    final List<TestDeclaration> declarations = TestDeclarationScanner.scan(source);
+
+    assertEquals(List.of(List.of("with $value"),
+                         List.of("with $value", "adds ${value + 1}"),
+                         List.of("with $value", "describe(value, ')')"),
+                         List.of("plain concatenated"),
+                         List.of("multiline"),
+                         List.of("raw $value")),
+                 declarations.stream().map(TestDeclaration::names).toList());
+    assertEquals(List.of(true, true, true, false, false, false),
+                 declarations.stream().map(TestDeclaration::parameterized).toList());
+  }
+
+  @Test
+  public void skipsCommentsStringsAndOtherFunctions() {
+    final String source = """
+      // test('line comment', () {});
+      /* group('block', () { /* nested */ test('in block', () {}); }); */
+      const description = "test('in string', () {})";
+
+      void test(String name, Function body) {}
+      Future<void> group(String name, Function body) async {}
+
+      void main() {
+        tester.test('member', () {});
+        testing('other function', () {});
+        group('real', () => test('arrow', () {}));
+        test('after group', () {});
+      }
+      """;
+
+    final List<TestDeclaration> declarations = TestDeclarationScanner.scan(source);
+
+    assertEquals(List.of(List.of("real"), List.of("real", "arrow"), List.of("after group")),
+                 declarations.stream().map(TestDeclaration::names).toList());
+  }
+
+  @Test
+  public void skipsFilesWithoutTests() {
+    assertTrue(TestDeclarationScanner.scan("class Widget {}\n").isEmpty());
+  }
+
+  @Test
+  public void scansRealisticTestFiles() {
+    // Test files of 5 groups with 8 widget tests each, whose bodies contain strings, comments and nested calls.
+    int declarations = 0;
+    for (int i = 0; i < 20; i++) {
+      declarations += TestDeclarationScanner.scan(testFile(i, 5, 8)).size();
+    }
+    assertEquals(20 * 5 * 9, declarations);
+  }
+
+  private static String testFile(int index, int groups, int testsPerGroup) {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("import 'package:flutter/material.dart';\n");
+    builder.append("import 'package:flutter_test/flutter_test.dart';\n\n");
+    builder.append("void main() {\n");
+    for (int group = 0; group < groups; group++) {
+      builder.append("  group('screen ").append(index).append(" part ").append(group).append("', () {\n");
+      for (int test = 0; test < testsPerGroup; test++) {
+        builder.append("    testWidgets('shows item ").append(test).append("', (WidgetTester tester) async {\n");
+        builder.append("      // Builds the screen with a list of items.\n");
+        builder.append("      await tester.pumpWidget(MaterialApp(home: Scaffold(body: Column(children: [\n");
+        builder.append("        Text('Item $test', style: const TextStyle(fontSize: 14)),\n");
+        builder.append("        ElevatedButton(onPressed: () {}, child: const Text(\"Add\")),\n");
+        builder.append("      ]))));\n");
+        builder.append("      expect(find.text('Item ").append(test).append("'), findsOneWidget);\n");
+        builder.append("    });\n\n");
+      }
+      builder.append("  });\n\n");
+    }
+    builder.append("}\n");
+    return builder.toString();
+  }
+}
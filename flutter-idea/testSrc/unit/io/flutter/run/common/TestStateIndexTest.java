@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run.common;
+
+import com.intellij.execution.TestStateStorage;
+import com.intellij.execution.testframework.sm.runner.states.TestStateInfo;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestStateIndexTest {
+  private static final String FILE = "/project/test/widget_test.dart";
+
+  @Test
+  public void parsesLocationOfUrl() {
+    assertEquals(FILE + ",3", TestStateIndex.locationKeyOfUrl(url(FILE, 3, "my first unit test")));
+    assertEquals("C:/project/test/widget_test.dart,12",
+                 TestStateIndex.locationKeyOfUrl("dart_location://C:/project/test/widget_test.dart,12,2,[\"a, b\"]"));
+    assertNull(TestStateIndex.locationKeyOfUrl("java:test://io.flutter.SomeTest/test"));
+    assertNull(TestStateIndex.locationKeyOfUrl("dart_location://" + FILE));
+  }
+
+  @Test
+  public void distinguishesLinesWithTheSamePrefix() {
+    final Map<String, TestStateStorage.Record> tests = new HashMap<>();
+    final TestStateStorage.Record failed = record(TestStateInfo.Magnitude.FAILED_INDEX, 1000);
+    final TestStateStorage.Record passed = record(TestStateInfo.Magnitude.PASSED_INDEX, 1000);
+    tests.put(url(FILE, 3, "line 3"), passed);
+    tests.put(url(FILE, 30, "line 30"), failed);
+
+    final Map<String, TestStateStorage.Record> index = TestStateIndex.indexByLocation(tests);
+
+    assertSame(passed, index.get(TestStateIndex.locationKey(FILE, 3)));
+    assertSame(failed, index.get(TestStateIndex.locationKey(FILE, 30)));
+    assertNull(index.get(TestStateIndex.locationKey(FILE, 4)));
+  }
+
+  @Test
+  public void prefersLatestThenMostSevereResult() {
+    final Map<String, TestStateStorage.Record> tests = new HashMap<>();
+    final TestStateStorage.Record oldFailure = record(TestStateInfo.Magnitude.FAILED_INDEX, 1000);
+    final TestStateStorage.Record pass = record(TestStateInfo.Magnitude.PASSED_INDEX, 2000);
+    final TestStateStorage.Record error = record(TestStateInfo.Magnitude.ERROR_INDEX, 2000);
+    // Parameterized tests on the same line report a result for each of their names.
+    tests.put(url(FILE, 5, "adds 1"), oldFailure);
+    tests.put(url(FILE, 5, "adds 2"), pass);
+    tests.put(url(FILE, 5, "adds 3"), error);
+
+    assertSame(error, TestStateIndex.indexByLocation(tests).get(TestStateIndex.locationKey(FILE, 5)));
+
+    tests.remove(url(FILE, 5, "adds 3"));
+    assertSame(pass, TestStateIndex.indexByLocation(tests).get(TestStateIndex.locationKey(FILE, 5)));
+  }
+
+  @Test
+  public void indexMatchesScanOfLargeTestFile() {
+    // A file with 300 tests, with the most recent results of 1,024 tests in the project.
+    final int markers = 300;
+    final Map<String, TestStateStorage.Record> tests = new HashMap<>();
+    for (int i = 0; i < 1024; i++) {
+      final String file = i < markers ? FILE : "/project/test/other_" + i % 20 + "_test.dart";
+      tests.put(url(file, i, "test " + i), record(TestStateInfo.Magnitude.PASSED_INDEX, 1000));
+    }
+
+    final Map<String, TestStateStorage.Record> index = TestStateIndex.indexByLocation(tests);
+    for (int line = 0; line < markers; line++) {
+      final TestStateStorage.Record expected = scan(tests, line);
+      assertNotNull(expected);
+      assertSame(expected, index.get(TestStateIndex.locationKey(FILE, line)));
+    }
+  }
+
+  /**
+   * Finds the state of a marker the way the markers used to, by scanning all of the recent results for its prefix.
+   */
+  private static TestStateStorage.Record scan(Map<String, TestStateStorage.Record> tests, int line) {
+    final String prefix = TestStateIndex.PROTOCOL + FILE + "," + line + ",";
+    for (Map.Entry<String, TestStateStorage.Record> entry : tests.entrySet()) {
+      if (entry.getKey().startsWith(prefix)) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  private static String url(String file, int line, String name) {
+    return TestStateIndex.PROTOCOL + file + "," + line + ",2,[\"" + name + "\"]";
+  }
+
+  private static TestStateStorage.Record record(TestStateInfo.Magnitude magnitude, long time) {
+    return new TestStateStorage.Record(magnitude.getValue(), new Date(time), 0, 0, null, null, null);
+  }
+}
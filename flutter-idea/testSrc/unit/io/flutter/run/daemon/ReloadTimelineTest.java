@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.run.daemon;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReloadTimelineTest {
+  private final AtomicLong now = new AtomicLong(1000);
+  private final ReloadTimeline timeline = new ReloadTimeline(now::get);
+
+  private static DaemonApi.RestartResult result(int code) {
+    return new Gson().fromJson("{\"code\":" + code + ",\"message\":\"\"}", DaemonApi.RestartResult.class);
+  }
+
+  @Test
+  public void recordsReloadBreakdown() {
+    final ReloadTimeline.Record record = timeline.begin("save", false, 900);
+
+    now.set(1010);
+    timeline.progress("hot.reload", "Performing hot reload...", false);
+    now.set(1200);
+    timeline.isolateReloaded("success");
+    now.set(1250);
+    timeline.progress("hot.reload", "Reloaded 2 of 640 libraries in 240ms.", true);
+    now.set(1300);
+    timeline.responded(record, result(0), null);
+    now.set(1340);
+    timeline.frameRendered();
+
+    assertTrue(record.isOk());
+    assertTrue(record.whenFrameRendered().isDone());
+    assertEquals(100, record.getTriggerToRequestMillis());
+    assertEquals(300, record.getRoundTripMillis());
+    assertEquals(340, record.getRequestToFrameMillis());
+    assertEquals(440, record.getTotalMillis());
+    assertEquals(2, record.getLibrariesReloaded());
+    assertEquals(640, record.getLibrariesTotal());
+    assertEquals("success", record.getIsolateReloadStatus());
+    assertEquals(2, record.getProgressEvents().size());
+  }
+
+  @Test
+  public void ignoresFramesBeforeReloadLands() {
+    final ReloadTimeline.Record record = timeline.begin("manual", false, -1);
+
+    now.set(1100);
+    timeline.frameRendered();
+    assertFalse(record.whenFrameRendered().isDone());
+
+    now.set(1200);
+    timeline.responded(record, result(0), null);
+    now.set(1230);
+    timeline.frameRendered();
+    now.set(1260);
+    timeline.frameRendered();
+
+    assertEquals(230, record.getRequestToFrameMillis());
+    assertEquals(-1, record.getTriggerToRequestMillis());
+  }
+
+  @Test
+  public void failedReloadIsRecorded() {
+    final ReloadTimeline.Record record = timeline.begin("save", false, -1);
+    final DaemonApi.RestartResult result = result(1);
+    timeline.responded(record, result, null);
+
+    assertFalse(record.isOk());
+    assertSame(result, record.whenResponded().getNow(null));
+    assertEquals(record, timeline.getLatest());
+  }
+
+  @Test
+  public void requestErrorIsRecorded() {
+    final ReloadTimeline.Record record = timeline.begin("save", false, -1);
+    timeline.responded(record, null, new IllegalStateException("app is gone"));
+
+    assertFalse(record.isOk());
+    assertEquals("app is gone", record.getMessage());
+    assertTrue(record.whenResponded().isCompletedExceptionally());
+  }
+
+  @Test
+  public void keepsBoundedHistory() {
+    for (int i = 0; i < ReloadTimeline.MAX_RECORDS + 10; i++) {
+      timeline.begin("save", i % 2 == 0, -1);
+    }
+    assertEquals(ReloadTimeline.MAX_RECORDS, timeline.getRecords().size());
+    assertEquals(ReloadTimeline.MAX_RECORDS + 10, timeline.getLatest().id);
+  }
+
+  @Test
+  public void exportsJson() {
+    final ReloadTimeline.Record record = timeline.begin("save", true, 990);
+    now.set(1500);
+    timeline.responded(record, result(0), null);
+
+    final JsonArray json = timeline.toJson();
+    assertEquals(1, json.size());
+    final JsonObject recordJson = json.get(0).getAsJsonObject();
+    assertEquals("restart", recordJson.get("kind").getAsString());
+    assertEquals("save", recordJson.get("reason").getAsString());
+    assertEquals(500, recordJson.get("roundTripMs").getAsLong());
+    assertEquals(10, recordJson.get("triggerToRequestMs").getAsLong());
+    assertFalse(recordJson.has("firstFrameAt"));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.samples;
+
+import io.flutter.samples.DartPadSampleScanner.DocumentedClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class DartPadSampleScannerTest {
+  private static final String SOURCE = """
+    /// A widget with a sample.
+    ///
+    /// {@tool dartpad}
+    /// This example shows a [Container].
+    ///
+    /// ** See code in examples/api/lib/widgets/container/container.0.dart **
+    /// {@end-tool}
+    @immutable
+    class Container extends StatelessWidget {
+      /// {@tool dartpad}
+      /// A sample for a member, not the next class.
+      /// {@end-tool}
+      const Container({super.key});
+    }
+
+    class Plain {}
+
+    /// {@tool snippet}
+    /// Not a DartPad sample.
+    /// {@end-tool}
+    abstract base class Snippet {}
+
+    /// {@tool dartpad}
+    /// A sample for a private class.
+    /// {@end-tool}
+    class _Private {}
+
+    /// {@tool --template=stateless_widget_material dartpad}
+    /// {@end-tool}
+
+    @Deprecated('Use Other')
+    mixin Mixed on Plain {}
+
+    /// {@tool dartpad}
+    /// {@end-tool}
+    enum Direction { up, down }
+    """;
+
+  @Test
+  public void findsPublicClassesAndSamples() {
+    final List<DocumentedClass> classes = DartPadSampleScanner.scan(SOURCE);
+
+    assertEquals(List.of("Container", "Plain", "Snippet", "Mixed", "Direction"), classes.stream().map(DocumentedClass::name).toList());
+    assertEquals(List.of("Container", "Mixed", "Direction"), DartPadSampleIndex.getClassesWithSamples(classes));
+    assertEquals(SOURCE.indexOf("Container extends"), classes.get(0).offset());
+  }
+
+  @Test
+  public void matchesRegexScan() {
+    assertEquals(regexScan(SOURCE), DartPadSampleIndex.getClassesWithSamples(DartPadSampleScanner.scan(SOURCE)));
+  }
+
+  @Test
+  public void matchesRegexScanOfSdkSources() throws IOException {
+    String sdk = System.getenv("FLUTTER_SDK");
+    if (sdk == null) sdk = System.getProperty("flutter.sdk");
+    assumeTrue("Set FLUTTER_SDK or -Dflutter.sdk to run this test", sdk != null);
+    final Path sources = Paths.get(sdk, "packages/flutter/lib/src");
+    assumeTrue(Files.isDirectory(sources));
+
+    final List<Path> files;
+    try (Stream<Path> paths = Files.walk(sources)) {
+      files = paths.filter(path -> path.toString().endsWith(".dart")).sorted().toList();
+    }
+    int samples = 0;
+    for (Path file : files) {
+      final String source = Files.readString(file, StandardCharsets.UTF_8);
+      final List<String> classes = DartPadSampleIndex.getClassesWithSamples(DartPadSampleScanner.scan(source));
+
+      assertEquals(file.toString(), regexScan(source), classes);
+      samples += classes.size();
+    }
+    assertTrue(samples > 0);
+  }
+
+  /**
+   * Finds the classes with samples by matching each declaration and its preceding comment lines with one regex, then
+   * checking the last dartdoc comment as the notification used to.
+   */
+  private static List<String> regexScan(String source) {
+    final Pattern declaration = Pattern.compile(
+      "((?:^[ \\t]*(?:///.*|@.*|)\\n)*)^(?:(?:abstract|base|final|interface|sealed|mixin)\\s+)*(?:class|mixin|enum)\\s+([A-Za-z$][\\w$]*)",
+      Pattern.MULTILINE);
+    final List<String> result = new ArrayList<>();
+    final Matcher matcher = declaration.matcher(source);
+    while (matcher.find()) {
+      if (matcher.group(2).startsWith("_")) {
+        continue;
+      }
+      final List<String> lines = Arrays.stream(matcher.group(1).split("\n")).map(String::strip).toList();
+      // The dartdoc is the last run of /// lines; blank lines and annotations may follow it.
+      int end = lines.size();
+      while (end > 0 && !lines.get(end - 1).startsWith("///")) {
+        end--;
+      }
+      int start = end;
+      while (start > 0 && lines.get(start - 1).startsWith("///")) {
+        start--;
+      }
+      if (FlutterSampleNotificationProvider.containsDartdocFlutterSample(lines.subList(start, end))) {
+        result.add(matcher.group(2));
+      }
+    }
+    return result;
+  }
+}
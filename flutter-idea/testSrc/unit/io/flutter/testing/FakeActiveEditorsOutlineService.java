@@ -6,9 +6,9 @@
 package io.flutter.testing;
 
 import com.intellij.openapi.project.Project;
+import io.flutter.dart.CompactFlutterOutline;
 import io.flutter.editor.ActiveEditorsOutlineService;
 import io.flutter.utils.JsonUtils;
-import org.dartlang.analysis.server.protocol.FlutterOutline;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.Assert;
@@ -20,10 +20,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * A fake implementation of the {@link ActiveEditorsOutlineService} that always returns a golden {@link FlutterOutline} from a file.
+ * A fake implementation of the {@link ActiveEditorsOutlineService} that always returns a golden {@link CompactFlutterOutline} from a file.
  */
 public class FakeActiveEditorsOutlineService extends ActiveEditorsOutlineService {
-  private Map<String, FlutterOutline> pathToFlutterOutline = new HashMap<>();
+  private Map<String, CompactFlutterOutline> pathToFlutterOutline = new HashMap<>();
 
   public FakeActiveEditorsOutlineService(Project project, @NotNull String filePath, @NotNull String flutterOutlinePath) {
     super(project);
@@ -40,16 +40,16 @@ public class FakeActiveEditorsOutlineService extends ActiveEditorsOutlineService
       e.printStackTrace();
       outlineContents = null;
     }
-    FlutterOutline flutterOutline = null;
+    CompactFlutterOutline flutterOutline = null;
     if (outlineContents != null) {
-      flutterOutline = FlutterOutline.fromJson(JsonUtils.parseString(outlineContents).getAsJsonObject());
+      flutterOutline = CompactFlutterOutline.fromJson(filePath, JsonUtils.parseString(outlineContents).getAsJsonObject());
     }
     pathToFlutterOutline.put(filePath, flutterOutline);
   }
 
   @Nullable
   @Override
-  public FlutterOutline getOutline(String path) {
+  public CompactFlutterOutline getOutline(String path) {
     // The path string that we get will be prepended with a '/' character, compared to how the cache was initialized.
     return pathToFlutterOutline.get(path);
   }
@@ -7,14 +7,23 @@ package io.flutter.utils;
 
 import org.junit.Test;
 
+import javax.swing.*;
 import java.awt.*;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class IconPreviewGeneratorTest {
@@ -49,4 +58,66 @@ public class IconPreviewGeneratorTest {
     }
     preview.delete();
   }
+
+  @Test
+  public void cachesFontsAndGlyphs() throws IOException {
+    IconPreviewGenerator.clearCaches();
+    final Path tempDir = Files.createTempDirectory("font");
+    final Path fontPath = tempDir.resolve("CupertinoIcons.ttf");
+    Files.copy(Path.of("testData/utils/CupertinoIcons.ttf"), fontPath);
+
+    final Icon first = new IconPreviewGenerator(fontPath.toString()).convert("0xf4d2");
+    final Icon second = new IconPreviewGenerator(fontPath.toString()).convert(0xf4d2);
+    assertNotNull(first);
+    assertSame(first, second);
+    assertEquals(1, IconPreviewGenerator.getFontLoadCount());
+
+    // Other sizes and colors are rendered separately, from the same font.
+    final Icon large = new IconPreviewGenerator(fontPath.toString(), 32, 32, Color.black).convert(0xf4d2);
+    assertNotSame(first, large);
+    assertEquals(32, large.getIconWidth());
+    assertEquals(1, IconPreviewGenerator.getFontLoadCount());
+
+    // The font is reloaded once the file changes.
+    assertTrue(fontPath.toFile().setLastModified(fontPath.toFile().lastModified() - 10_000));
+    final Icon reloaded = new IconPreviewGenerator(fontPath.toString()).convert(0xf4d2);
+    assertNotSame(first, reloaded);
+    assertEquals(2, IconPreviewGenerator.getFontLoadCount());
+
+    Files.delete(fontPath);
+    Files.delete(tempDir);
+  }
+
+  @Test
+  public void rendersEachGlyphOfFileOnce() throws IOException {
+    IconPreviewGenerator.clearCaches();
+    final String fontPath = "testData/utils/CupertinoIcons.ttf";
+    final Properties fontMap = new Properties();
+    try (InputStream stream = new FileInputStream("testData/utils/cupertino.properties")) {
+      fontMap.load(stream);
+    }
+    final List<Integer> codepoints = new ArrayList<>();
+    for (String key : fontMap.stringPropertyNames()) {
+      if (key.endsWith(".codepoint")) {
+        codepoints.add(Integer.parseInt(key.substring(0, key.indexOf(".codepoint")), 16));
+      }
+    }
+
+    // A file with 300 icon references, many of them repeated, as the gutter renders it each time it's opened.
+    final int references = 300;
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = 0; i < references; i++) {
+        assertNotNull(new IconPreviewGenerator(fontPath).convert(codepoints.get(i % 100)));
+      }
+    }
+
+    assertEquals(1, IconPreviewGenerator.getFontLoadCount());
+    assertEquals(100 * 16 * 16 * 4, IconPreviewGenerator.getCachedGlyphBytes());
+
+    // The glyph cache stays within its bound however many glyphs are rendered.
+    for (int code : codepoints) {
+      new IconPreviewGenerator(fontPath, 64, 64, Color.black).convert(code);
+    }
+    assertTrue(IconPreviewGenerator.getCachedGlyphBytes() <= 4 * 1024 * 1024);
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 The Chromium Authors. All rights reserved.
+ * Use of this source code is governed by a BSD-style license that can be
+ * found in the LICENSE file.
+ */
+package io.flutter.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyedSerialExecutorTest {
+  @Test
+  public void dropsSupersededTasks() {
+    final Queue<Runnable> pool = new ArrayDeque<>();
+    final KeyedSerialExecutor executor = new KeyedSerialExecutor(pool::add);
+    final List<String> log = new ArrayList<>();
+
+    executor.execute("a.dart", () -> log.add("a1"));
+    executor.execute("a.dart", () -> log.add("a2"));
+    executor.execute("b.dart", () -> log.add("b1"));
+    executor.execute("a.dart", () -> {
+      log.add("a3");
+      // Submitted while a task for the key is running, so it runs next.
+      executor.execute("a.dart", () -> log.add("a4"));
+    });
+
+    assertEquals(2, pool.size());
+    while (!pool.isEmpty()) {
+      pool.remove().run();
+    }
+
+    assertEquals(List.of("a3", "a4", "b1"), log);
+    assertEquals(2, executor.getDroppedCount());
+  }
+
+  @Test
+  public void runsTasksForEachKeyInOrder() throws InterruptedException {
+    final ExecutorService pool = Executors.newFixedThreadPool(4);
+    final KeyedSerialExecutor executor = new KeyedSerialExecutor(pool);
+
+    final int keys = 8;
+    final int tasksPerKey = 5000;
+    final List<List<Integer>> runs = new ArrayList<>();
+    final List<AtomicInteger> running = new ArrayList<>();
+    for (int key = 0; key < keys; key++) {
+      runs.add(Collections.synchronizedList(new ArrayList<>()));
+      running.add(new AtomicInteger());
+    }
+    final AtomicInteger overlaps = new AtomicInteger();
+
+    // One submitting thread per key, like the analysis server's single reader thread.
+    final List<Thread> submitters = new ArrayList<>();
+    for (int key = 0; key < keys; key++) {
+      final int k = key;
+      final Thread submitter = new Thread(() -> {
+        for (int i = 0; i < tasksPerKey; i++) {
+          final int value = i;
+          executor.execute("file" + k, () -> {
+            if (running.get(k).incrementAndGet() > 1) {
+              overlaps.incrementAndGet();
+            }
+            runs.get(k).add(value);
+            running.get(k).decrementAndGet();
+          });
+        }
+      });
+      submitters.add(submitter);
+      submitter.start();
+    }
+    for (Thread submitter : submitters) {
+      submitter.join();
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+    assertEquals(0, overlaps.get());
+    long ran = 0;
+    for (List<Integer> values : runs) {
+      for (int i = 1; i < values.size(); i++) {
+        assertTrue("Task " + values.get(i) + " ran after " + values.get(i - 1), values.get(i) > values.get(i - 1));
+      }
+      // The newest task always runs.
+      assertEquals(tasksPerKey - 1, (int)values.get(values.size() - 1));
+      ran += values.size();
+    }
+    assertEquals((long)keys * tasksPerKey, ran + executor.getDroppedCount());
+  }
+}